@@ -0,0 +1,346 @@
+-- hadoop 网盘的增量升级脚本，在 mdjrtt.sql 初始化后按顺序执行
+
+-- ----------------------------
+-- 分片上传：上传任务、分片
+-- ----------------------------
+CREATE TABLE `system_hadoop_upload_session`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '上传任务编号',
+  `name` varchar(500) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '文件名',
+  `catalogue` varchar(2000) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '父级目录',
+  `type` tinyint(1) NULL DEFAULT NULL COMMENT '文件类型',
+  `file_size` bigint(20) NOT NULL COMMENT '文件大小（字节）',
+  `chunk_size` bigint(20) NOT NULL COMMENT '分片大小（字节）',
+  `chunk_count` int(11) NOT NULL COMMENT '分片数量',
+  `status` tinyint(4) NOT NULL DEFAULT 0 COMMENT '上传状态',
+  `file_id` bigint(20) NULL DEFAULT NULL COMMENT '上传完成后生成的文件编号',
+  `creator` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '创建者',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updater` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '更新者',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
+  `tenant_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '租户编号',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_creator_status`(`creator`, `status`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'hadoop 分片上传任务表' ROW_FORMAT = Dynamic;
+
+CREATE TABLE `system_hadoop_upload_chunk`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '编号',
+  `session_id` bigint(20) NOT NULL COMMENT '上传任务编号',
+  `chunk_index` int(11) NOT NULL COMMENT '分片序号',
+  `size` bigint(20) NOT NULL COMMENT '分片大小（字节）',
+  `creator` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '创建者',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updater` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '更新者',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
+  `tenant_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '租户编号',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_session_chunk`(`session_id`, `chunk_index`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'hadoop 分片上传分片表' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- 内容去重：文件内容表（全局去重，不区分租户），文件关联的内容
+-- ----------------------------
+CREATE TABLE `system_hadoop_file_blob`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '编号',
+  `sha256` char(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '内容的 SHA-256',
+  `size` bigint(20) NOT NULL COMMENT '内容大小（字节）',
+  `path` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT 'HDFS 上的存储路径',
+  `ref_count` int(11) NOT NULL DEFAULT 0 COMMENT '引用计数',
+  `creator` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '创建者',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updater` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '更新者',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_sha256_size`(`sha256`, `size`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'hadoop 文件内容表' ROW_FORMAT = Dynamic;
+
+ALTER TABLE `system_hadoop_file`
+  ADD COLUMN `sha256` char(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL DEFAULT NULL COMMENT '文件内容的 SHA-256' AFTER `size`,
+  ADD COLUMN `blob_id` bigint(20) NULL DEFAULT NULL COMMENT '文件内容编号' AFTER `sha256`;
+
+-- ----------------------------
+-- 分享清单：分享只记录引用的文件，不再复制文件内容
+-- ----------------------------
+CREATE TABLE `system_hadoop_share`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '编号',
+  `share_key` varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '分享密钥',
+  `password` varchar(16) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL DEFAULT NULL COMMENT '提取码',
+  `expire_time` datetime NULL DEFAULT NULL COMMENT '过期时间',
+  `view_count` int(11) NOT NULL DEFAULT 0 COMMENT '查看次数',
+  `download_count` int(11) NOT NULL DEFAULT 0 COMMENT '下载次数',
+  `save_count` int(11) NOT NULL DEFAULT 0 COMMENT '保存次数',
+  `creator` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '创建者',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updater` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '更新者',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
+  `tenant_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '租户编号',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_share_key`(`share_key`) USING BTREE,
+  INDEX `idx_creator`(`creator`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'hadoop 文件分享表' ROW_FORMAT = Dynamic;
+
+CREATE TABLE `system_hadoop_share_item`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '编号',
+  `share_id` bigint(20) NOT NULL COMMENT '分享编号',
+  `file_id` bigint(20) NOT NULL COMMENT '分享的文件编号',
+  `creator` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '创建者',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updater` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '更新者',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
+  `tenant_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '租户编号',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_share_id`(`share_id`) USING BTREE,
+  INDEX `idx_file_id`(`file_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'hadoop 文件分享项表' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- 目录重命名、移动时，按 (creator, catalogue) 前缀批量更新整棵子树
+-- catalogue 最长 2000 个字符，超出索引长度限制，使用前缀索引
+-- ----------------------------
+ALTER TABLE `system_hadoop_file` ADD INDEX `idx_creator_catalogue`(`creator`, `catalogue`(255)) USING BTREE;
+
+-- ----------------------------
+-- 文件的树形结构：父目录编号、层级深度、物化路径、状态
+-- 目录浏览按 (creator, parent_id, status) 查询，回收站等分类按 (creator, status, type) 查询，均为索引范围扫描
+-- ----------------------------
+ALTER TABLE `system_hadoop_file`
+  ADD COLUMN `parent_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '父目录编号，根目录下为 0' AFTER `catalogue`,
+  ADD COLUMN `depth` int(11) NOT NULL DEFAULT 0 COMMENT '层级深度，根目录下为 0' AFTER `parent_id`,
+  ADD COLUMN `tree_path` varchar(1024) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL DEFAULT '/' COMMENT '物化路径，由各级祖先目录的编号组成' AFTER `depth`,
+  ADD COLUMN `status` tinyint(4) NOT NULL DEFAULT 0 COMMENT '状态（0 正常 1 回收站 2 分享副本 3 随文件夹放入回收站）' AFTER `tree_path`,
+  ADD INDEX `idx_creator_parent_status_type`(`creator`, `parent_id`, `status`, `type`, `create_time`) USING BTREE,
+  ADD INDEX `idx_creator_status_type`(`creator`, `status`, `type`, `create_time`) USING BTREE;
+
+-- 回填状态：原先通过文件名前缀区分回收站、分享
+UPDATE `system_hadoop_file`
+SET `status` = CASE
+    WHEN `name` LIKE '回收站（hadoop）/%' THEN 1
+    WHEN `name` LIKE '分享（hadoop）/%' THEN 2
+    ELSE 0 END;
+
+-- 回填父目录编号：目录 d 下的文件，catalogue 为 d.catalogue + '/' + d.name。回收站中的目录需去掉名称前缀
+-- 旧版本放入回收站的目录，子孙的 catalogue 不变，可能与之后新建的同名目录相同，每个路径只关联一个目录：
+-- 优先正常状态的目录（多个时取编号最小的，与下文去重保留的一致），没有时才关联回收站中的目录
+UPDATE `system_hadoop_file` f
+  INNER JOIN (
+    SELECT `creator`, `path`, COALESCE(MIN(IF(`status` = 0, `id`, NULL)), MIN(`id`)) AS `parent_id`
+    FROM (
+      SELECT `id`, `creator`, `status`,
+             CONCAT(IF(`catalogue` = '/', '', `catalogue`), '/',
+                 IF(`status` = 1, SUBSTRING(`name`, CHAR_LENGTH('回收站（hadoop）/') + 1), `name`)) AS `path`
+      FROM `system_hadoop_file`
+      WHERE `type` = 6 AND `deleted` = 0
+    ) d
+    GROUP BY `creator`, `path`
+  ) p ON p.`creator` = f.`creator` AND p.`path` = f.`catalogue`
+SET f.`parent_id` = p.`parent_id`
+WHERE f.`deleted` = 0;
+
+-- 回填层级深度、物化路径：从根目录开始递归（需要 MySQL 8.0+）
+UPDATE `system_hadoop_file` f
+  INNER JOIN (
+    WITH RECURSIVE t (`id`, `depth`, `tree_path`) AS (
+      SELECT `id`, 0, CAST('/' AS CHAR(1024)) FROM `system_hadoop_file` WHERE `parent_id` = 0 AND `deleted` = 0
+      UNION ALL
+      SELECT c.`id`, t.`depth` + 1, CONCAT(t.`tree_path`, t.`id`, '/')
+      FROM `system_hadoop_file` c INNER JOIN t ON c.`parent_id` = t.`id`
+      WHERE c.`deleted` = 0
+    )
+    SELECT `id`, `depth`, `tree_path` FROM t
+  ) p ON p.`id` = f.`id`
+SET f.`depth` = p.`depth`, f.`tree_path` = p.`tree_path`;
+
+-- 回填：旧版本放入回收站的文件夹，子孙仍是正常状态，在 HDFS 上位于回收站目录下。标记为随文件夹放入回收站，恢复文件夹时一并恢复
+-- 需在去重之前标记，避免与同名目录下的正常文件一起去重
+UPDATE `system_hadoop_file` f
+  INNER JOIN `system_hadoop_file` d ON d.`creator` = f.`creator` AND d.`type` = 6 AND d.`status` = 1 AND d.`deleted` = 0
+    AND f.`tree_path` LIKE CONCAT(d.`tree_path`, d.`id`, '/%')
+SET f.`status` = 3
+WHERE f.`status` = 0 AND f.`deleted` = 0;
+
+-- 处理历史上已重名的正常文件，之后同一目录下的正常文件由唯一索引保证不重名（见下文）
+-- 按 (creator, parent_id, name) 分组，每组保留一条：优先保留未去重存储的记录，其余记录按是否去重存储分别处理：
+-- 1. 未去重存储的记录，与保留的记录指向 HDFS 上的同一路径，并没有独立的内容，逻辑删除即可
+-- 2. 去重存储的记录，内容不在用户目录下，只需改名：在扩展名之前追加 (编号)，例如说 a(123).txt，HDFS 无需操作
+-- 重名的文件夹保留编号最小的，与回填父目录编号时关联的一致，逻辑删除的文件夹下没有子文件；用量、统计值在后续回填，不包括逻辑删除的记录
+UPDATE `system_hadoop_file` f
+  INNER JOIN (
+    SELECT `creator`, `parent_id`, `name`,
+           COALESCE(MIN(IF(`blob_id` IS NULL, `id`, NULL)), MIN(`id`)) AS `keep_id`
+    FROM `system_hadoop_file`
+    WHERE `deleted` = 0 AND `status` = 0
+    GROUP BY `creator`, `parent_id`, `name`
+    HAVING COUNT(*) > 1
+  ) d ON d.`creator` = f.`creator` AND d.`parent_id` = f.`parent_id` AND d.`name` = f.`name`
+SET f.`deleted` = IF(f.`blob_id` IS NULL, b'1', f.`deleted`),
+    f.`name` = IF(f.`blob_id` IS NULL, f.`name`,
+        IF(LOCATE('.', f.`name`) > 1,
+           CONCAT(LEFT(f.`name`, CHAR_LENGTH(f.`name`) - CHAR_LENGTH(SUBSTRING_INDEX(f.`name`, '.', -1)) - 1),
+                  '(', f.`id`, ').', SUBSTRING_INDEX(f.`name`, '.', -1)),
+           CONCAT(f.`name`, '(', f.`id`, ')')))
+WHERE f.`deleted` = 0 AND f.`status` = 0 AND f.`id` <> d.`keep_id`;
+
+-- ----------------------------
+-- 同一目录下的正常文件不允许重名，由唯一索引兜底并发创建、恢复的冲突
+-- 逻辑删除、回收站、分享副本的记录不参与唯一约束，unique_name 为 NULL
+-- ----------------------------
+-- 历史上已重名的记录，在回填父目录编号之后处理，见上文
+ALTER TABLE `system_hadoop_file`
+  ADD COLUMN `unique_name` varchar(500) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci
+    AS (IF(`deleted` = b'0' AND `status` = 0, `name`, NULL)) VIRTUAL COMMENT '参与唯一约束的文件名' AFTER `status`,
+  ADD UNIQUE INDEX `uk_creator_parent_name`(`creator`, `parent_id`, `unique_name`) USING BTREE;
+
+-- ----------------------------
+-- 游标分页：按 (type DESC, 排序字段, id) 定位上一页末尾，翻页耗时与页码无关
+-- 默认的 type DESC, create_time DESC 排序反向扫描 idx_creator_parent_status_type 即可
+-- 文件名、大小排序是目录优先、再按字段升序，降序时 MySQL 在单个目录内做 filesort
+-- ----------------------------
+ALTER TABLE `system_hadoop_file`
+  ADD INDEX `idx_creator_parent_status_type_name`(`creator`, `parent_id`, `status`, `type` DESC, `name`, `id`) USING BTREE,
+  ADD INDEX `idx_creator_parent_status_type_size`(`creator`, `parent_id`, `status`, `type` DESC, `size`, `id`) USING BTREE;
+
+-- ----------------------------
+-- 全盘搜索文件名
+-- 子串：ngram 全文索引（分词长度为 MySQL 的 ngram_token_size，默认 2）；前缀：(creator, status, name) 索引
+-- 扩展名：虚拟列 extension，不带点、小写，没有扩展名时为空字符串
+-- ----------------------------
+ALTER TABLE `system_hadoop_file`
+  ADD COLUMN `extension` varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci
+    AS (LOWER(IF(LOCATE('.', `name`) > 0, LEFT(SUBSTRING_INDEX(`name`, '.', -1), 32), ''))) VIRTUAL COMMENT '扩展名' AFTER `unique_name`,
+  ADD INDEX `idx_creator_status_name`(`creator`, `status`, `name`) USING BTREE,
+  ADD INDEX `idx_creator_status_extension`(`creator`, `status`, `extension`) USING BTREE;
+
+ALTER TABLE `system_hadoop_file` ADD FULLTEXT INDEX `ft_name`(`name`) WITH PARSER ngram;
+
+-- ----------------------------
+-- 文件大小由 MB 字符串改为字节数，由服务端按实际内容长度记录
+-- 去重存储的文件取内容的实际大小；其余按原来的 MB 数换算，精度为 0.01 MB；目录为 0
+-- ----------------------------
+UPDATE `system_hadoop_file` f
+  LEFT JOIN `system_hadoop_file_blob` b ON b.`id` = f.`blob_id`
+SET f.`size` = CASE
+    WHEN f.`type` = 6 THEN '0'
+    WHEN b.`id` IS NOT NULL THEN CAST(b.`size` AS CHAR)
+    WHEN f.`size` REGEXP '^[0-9]+(\\.[0-9]+)?$' THEN CAST(ROUND(CAST(f.`size` AS DECIMAL(20, 2)) * 1048576) AS CHAR)
+    ELSE '0'
+  END;
+
+ALTER TABLE `system_hadoop_file`
+  MODIFY COLUMN `size` bigint(20) NOT NULL DEFAULT 0 COMMENT '大小（字节）';
+
+-- ----------------------------
+-- 用户空间用量：文件创建、彻底删除时增量维护，包括回收站中的文件
+-- 用户编号全局唯一，不区分租户
+-- ----------------------------
+CREATE TABLE `system_hadoop_user_usage`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '编号',
+  `user_id` bigint(20) NOT NULL COMMENT '用户编号',
+  `used_bytes` bigint(20) NOT NULL DEFAULT 0 COMMENT '已用空间（字节）',
+  `file_count` bigint(20) NOT NULL DEFAULT 0 COMMENT '文件数量，不包括目录',
+  `quota_bytes` bigint(20) NULL DEFAULT NULL COMMENT '空间配额（字节），为空时使用默认配额',
+  `creator` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '创建者',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updater` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '更新者',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_user_id`(`user_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'hadoop 用户空间用量表' ROW_FORMAT = Dynamic;
+
+-- 按现有文件回填用量
+INSERT INTO `system_hadoop_user_usage` (`user_id`, `used_bytes`, `file_count`)
+SELECT CAST(`creator` AS UNSIGNED), SUM(`size`), COUNT(*)
+FROM `system_hadoop_file`
+WHERE `deleted` = 0 AND `type` <> 6 AND `creator` REGEXP '^[0-9]+$'
+GROUP BY `creator`;
+
+-- 转存分享的文件夹时，按物化路径前缀统计整棵子树的大小
+ALTER TABLE `system_hadoop_file`
+  ADD INDEX `idx_creator_tree_path`(`creator`, `tree_path`(255)) USING BTREE;
+
+-- ----------------------------
+-- 文件夹子树统计：总大小、文件数量、文件夹数量，文件变更时按物化路径增量更新全部祖先目录
+-- 统计范围是沿父目录链全部为正常状态的子孙文件；回收站中的文件夹保留自身的统计值
+-- ----------------------------
+ALTER TABLE `system_hadoop_file`
+  ADD COLUMN `total_size` bigint(20) NOT NULL DEFAULT 0 COMMENT '文件夹下整棵子树的总大小（字节）' AFTER `size`,
+  ADD COLUMN `file_count` bigint(20) NOT NULL DEFAULT 0 COMMENT '文件夹下整棵子树的文件数量' AFTER `total_size`,
+  ADD COLUMN `dir_count` bigint(20) NOT NULL DEFAULT 0 COMMENT '文件夹下整棵子树的文件夹数量' AFTER `file_count`;
+
+-- 回填：从每个文件夹的正常子文件出发，沿正常状态向下递归，得到 (祖先目录, 子孙文件) 对后汇总
+UPDATE `system_hadoop_file` d
+  INNER JOIN (
+    WITH RECURSIVE t (`ancestor_id`, `id`, `type`, `size`) AS (
+      SELECT c.`parent_id`, c.`id`, c.`type`, c.`size` FROM `system_hadoop_file` c
+      WHERE c.`parent_id` <> 0 AND c.`status` = 0 AND c.`deleted` = 0
+      UNION ALL
+      SELECT t.`ancestor_id`, c.`id`, c.`type`, c.`size`
+      FROM `system_hadoop_file` c INNER JOIN t ON c.`parent_id` = t.`id`
+      WHERE t.`type` = 6 AND c.`status` = 0 AND c.`deleted` = 0
+    )
+    SELECT `ancestor_id`, SUM(IF(`type` = 6, 0, `size`)) AS `total_size`,
+           SUM(`type` <> 6) AS `file_count`, SUM(`type` = 6) AS `dir_count`
+    FROM t GROUP BY `ancestor_id`
+  ) a ON a.`ancestor_id` = d.`id`
+SET d.`total_size` = a.`total_size`, d.`file_count` = a.`file_count`, d.`dir_count` = a.`dir_count`;
+
+-- 定时修复统计值：在【基础设施 -> 定时任务】中新建任务，处理器名称为 hadoopFileAggregateRepairJob，
+-- 建议 CRON 表达式为 0 0 3 * * ?，即每天凌晨 3 点执行
+
+-- ----------------------------
+-- hadoop 文件任务表：转存分享、批量移动、批量删除在后台线程池执行，进度写入该表并通过 WebSocket 推送
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `system_hadoop_file_task`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '任务编号',
+  `type` tinyint(4) NOT NULL COMMENT '任务类型',
+  `param` text CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '任务参数，JSON 格式',
+  `status` tinyint(4) NOT NULL DEFAULT 0 COMMENT '任务状态',
+  `total_items` bigint(20) NOT NULL DEFAULT 0 COMMENT '总文件数',
+  `processed_items` bigint(20) NOT NULL DEFAULT 0 COMMENT '已处理的文件数',
+  `total_bytes` bigint(20) NOT NULL DEFAULT 0 COMMENT '总字节数',
+  `processed_bytes` bigint(20) NOT NULL DEFAULT 0 COMMENT '已处理的字节数',
+  `error_msg` varchar(512) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT NULL COMMENT '失败原因',
+  `start_time` datetime NULL DEFAULT NULL COMMENT '开始执行时间',
+  `finish_time` datetime NULL DEFAULT NULL COMMENT '结束时间',
+  `creator` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '创建者',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updater` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT '' COMMENT '更新者',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
+  `tenant_id` bigint(20) NOT NULL DEFAULT 0 COMMENT '租户编号',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_creator_status`(`creator`, `status`) USING BTREE,
+  INDEX `idx_status_update_time`(`status`, `update_time`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = 'hadoop 文件任务表' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- 下载的条件请求：未去重的文件保存 HDFS 上的修改时间，用于生成 ETag、Last-Modified，第一次下载时填充
+-- ----------------------------
+ALTER TABLE `system_hadoop_file`
+  ADD COLUMN `content_modified_time` bigint(20) NULL DEFAULT NULL COMMENT '文件内容在 HDFS 上的修改时间（毫秒）' AFTER `blob_id`;
+
+-- ----------------------------
+-- 回收站：每个用户一个回收站目录，文件名不再带有前缀；记录放入时间，超过保留天数后自动彻底删除
+-- 列表走 (creator, status, type, create_time) 索引；过期清理按 (status, trash_time) 分批扫描
+-- ----------------------------
+ALTER TABLE `system_hadoop_file`
+  ADD COLUMN `trash_time` datetime NULL DEFAULT NULL COMMENT '放入回收站的时间' AFTER `status`,
+  ADD INDEX `idx_status_trash_time`(`status`, `trash_time`) USING BTREE;
+
+-- 回填：旧版本放入回收站的文件，以更新时间作为放入时间。其名称仍带有前缀，HDFS 上的位置不变
+UPDATE `system_hadoop_file` SET `trash_time` = `update_time` WHERE `status` = 1 AND `deleted` = 0;
+
+-- 回收站中文件夹的子孙，在回填物化路径之后已标记为随文件夹放入回收站，见上文
+
+-- 定时清理回收站：在【基础设施 -> 定时任务】中新建任务，处理器名称为 hadoopFileTrashExpireJob，
+-- 建议 CRON 表达式为 0 30 3 * * ?，参数为保留天数，为空时使用 yudao.hadoop.trash.retention-days
+
+-- 定时清理上传任务：在【基础设施 -> 定时任务】中新建任务，处理器名称为 hadoopFileUploadExpireJob，
+-- 建议 CRON 表达式为 0 0 4 * * ?，参数为过期小时数，为空时使用 yudao.hadoop.upload.session-expire
+
+-- 定时巡检文件任务：在【基础设施 -> 定时任务】中新建任务，处理器名称为 hadoopFileTaskSweepJob，
+-- 建议 CRON 表达式为 0 * * * * ?，即每分钟执行；参数为超时分钟数，为空时使用 yudao.hadoop.task.stale-timeout
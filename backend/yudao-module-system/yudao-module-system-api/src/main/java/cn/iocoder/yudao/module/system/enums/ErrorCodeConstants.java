@@ -185,4 +185,26 @@ public interface ErrorCodeConstants {
     ErrorCode NOTIFY_SEND_TEMPLATE_PARAM_MISS = new ErrorCode(1_002_028_000, "模板参数({})缺失");
 
     ErrorCode FILE_NAME_EXISTS = new ErrorCode(1_002_029_000, "文件名已存在");
+
+    // ========== hadoop 网盘 1-002-030-000 ==========
+    ErrorCode HADOOP_UPLOAD_NOT_EXISTS = new ErrorCode(1_002_030_000, "上传任务不存在");
+    ErrorCode HADOOP_UPLOAD_STATUS_INVALID = new ErrorCode(1_002_030_001, "上传任务已完成或正在合并");
+    ErrorCode HADOOP_UPLOAD_CHUNK_INVALID = new ErrorCode(1_002_030_002, "分片({})不合法，原因：{}");
+    ErrorCode HADOOP_UPLOAD_CHUNK_MISSING = new ErrorCode(1_002_030_003, "还有 {} 个分片未上传");
+    ErrorCode HADOOP_UPLOAD_FAIL = new ErrorCode(1_002_030_004, "文件上传失败");
+    ErrorCode HADOOP_UPLOAD_CHUNK_SIZE_INVALID = new ErrorCode(1_002_030_005, "分片大小({} 字节)不合法，原因：{}");
+    ErrorCode HADOOP_SHARE_NOT_EXISTS = new ErrorCode(1_002_030_100, "分享不存在或已取消");
+    ErrorCode HADOOP_SHARE_EXPIRED = new ErrorCode(1_002_030_101, "分享已过期");
+    ErrorCode HADOOP_SHARE_PASSWORD_ERROR = new ErrorCode(1_002_030_102, "提取码错误");
+    ErrorCode HADOOP_SHARE_FILE_NOT_EXISTS = new ErrorCode(1_002_030_103, "分享中不存在该文件");
+    ErrorCode HADOOP_FILE_MOVE_INTO_ITSELF = new ErrorCode(1_002_030_200, "不能将目录移动到自身或其子目录下");
+    ErrorCode HADOOP_FILE_PARENT_NOT_EXISTS = new ErrorCode(1_002_030_201, "父目录不存在");
+    ErrorCode HADOOP_FILE_CURSOR_INVALID = new ErrorCode(1_002_030_202, "分页游标不合法，请从第一页重新加载");
+    ErrorCode HADOOP_QUOTA_EXCEEDED = new ErrorCode(1_002_030_203, "网盘空间不足，剩余 {}，需要 {}");
+    ErrorCode HADOOP_FILE_TASK_NOT_EXISTS = new ErrorCode(1_002_030_204, "文件任务不存在");
+    ErrorCode HADOOP_FILE_TASK_STATUS_INVALID = new ErrorCode(1_002_030_205, "文件任务已结束，无法取消");
+    ErrorCode HADOOP_FILE_TASK_TOO_MANY = new ErrorCode(1_002_030_206, "等待中的文件任务超过 {} 个，请稍后再试");
+    ErrorCode HADOOP_FILE_TASK_CANCELED = new ErrorCode(1_002_030_207, "文件任务已取消");
+    ErrorCode HADOOP_FILE_ZIP_TOO_MANY = new ErrorCode(1_002_030_208, "打包下载的文件数超过 {} 个，请分批下载");
+    ErrorCode HADOOP_TRANSFER_TOO_MANY = new ErrorCode(1_002_030_209, "同时进行的上传、下载过多，请 {} 秒后再试");
 }
@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * hadoop 文件的状态枚举
+ */
+@Getter
+@AllArgsConstructor
+public enum HadoopFileStatusEnum {
+
+    NORMAL(0, "正常"),
+    TRASHED(1, "回收站"),
+    SHARED(2, "分享副本"), // 旧的分享方式，会将文件复制到分享目录下
+    TRASHED_WITH_FOLDER(3, "随文件夹放入回收站"); // 回收站中文件夹的子孙，不单独出现在回收站中，随文件夹恢复、彻底删除
+
+    /**
+     * 状态
+     */
+    private final Integer status;
+    /**
+     * 描述
+     */
+    private final String description;
+
+}
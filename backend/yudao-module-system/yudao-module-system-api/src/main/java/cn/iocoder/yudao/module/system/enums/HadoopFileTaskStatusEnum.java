@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.system.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * hadoop 文件任务的状态枚举
+ */
+@Getter
+@AllArgsConstructor
+public enum HadoopFileTaskStatusEnum {
+
+    WAITING(0, "等待中"),
+    RUNNING(1, "执行中"),
+    SUCCESS(2, "成功"),
+    FAILURE(3, "失败"),
+    CANCELED(4, "已取消");
+
+    /**
+     * 状态
+     */
+    private final Integer status;
+    /**
+     * 描述
+     */
+    private final String description;
+
+}
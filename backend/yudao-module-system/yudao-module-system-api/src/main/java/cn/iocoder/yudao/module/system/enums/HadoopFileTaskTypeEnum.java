@@ -0,0 +1,31 @@
+package cn.iocoder.yudao.module.system.enums;
+
+import cn.hutool.core.util.ArrayUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * hadoop 文件任务的类型枚举
+ */
+@Getter
+@AllArgsConstructor
+public enum HadoopFileTaskTypeEnum {
+
+    SAVE_SHARED(1, "转存分享"),
+    MOVE(2, "移动"),
+    DELETE(3, "删除");
+
+    /**
+     * 类型
+     */
+    private final Integer type;
+    /**
+     * 描述
+     */
+    private final String description;
+
+    public static HadoopFileTaskTypeEnum valueOf(Integer type) {
+        return ArrayUtil.firstMatch(o -> o.getType().equals(type), values());
+    }
+
+}
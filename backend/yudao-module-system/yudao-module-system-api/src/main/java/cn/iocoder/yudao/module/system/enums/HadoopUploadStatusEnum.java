@@ -0,0 +1,26 @@
+package cn.iocoder.yudao.module.system.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * hadoop 分片上传会话的状态枚举
+ */
+@Getter
+@AllArgsConstructor
+public enum HadoopUploadStatusEnum {
+
+    UPLOADING(0, "上传中"),
+    COMPLETING(1, "合并中"),
+    COMPLETED(2, "已完成");
+
+    /**
+     * 状态
+     */
+    private final Integer status;
+    /**
+     * 描述
+     */
+    private final String description;
+
+}
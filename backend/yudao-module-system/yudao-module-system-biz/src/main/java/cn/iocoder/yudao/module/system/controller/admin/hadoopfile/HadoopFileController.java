@@ -2,48 +2,53 @@ package cn.iocoder.yudao.module.system.controller.admin.hadoopfile;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
-import org.springframework.security.access.prepost.PreAuthorize;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Operation;
-import org.springframework.http.ResponseEntity;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpRange;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.*;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 
-import cn.iocoder.yudao.framework.common.pojo.PageParam;
+import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 
-import cn.iocoder.yudao.framework.excel.core.util.ExcelUtils;
-
 import cn.iocoder.yudao.framework.apilog.core.annotation.ApiAccessLog;
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.*;
 
 import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.*;
 import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopShareDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUserUsageDO;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.AsyncDownloadWriter;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferPermit;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileContentInfo;
 import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileService;
-import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileTransferService;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileZipEntry;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileZipService;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopUserUsageService;
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
-import java.io.File;
-import java.io.FileOutputStream;
-import java.util.Base64;
-import javax.servlet.AsyncContext;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.io.IOUtils;
-import java.util.stream.Collectors;
 
 @Tag(name = "管理后台 - hadoop文件")
 @RestController
@@ -51,10 +56,21 @@ import java.util.stream.Collectors;
 @Validated
 public class HadoopFileController {
 
-    private static final String RECYCLE_BIN_PREFIX = "回收站（hadoop）/";
+    /**
+     * 下载时的缓冲区大小，每个下载请求只占用这么多内存
+     */
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
 
     @Resource
     private HadoopFileService hadoopFileService;
+    @Resource
+    private HadoopUserUsageService hadoopUserUsageService;
+    @Resource
+    private HadoopFileZipService hadoopFileZipService;
+    @Resource
+    private AsyncDownloadWriter asyncDownloadWriter;
+    @Resource
+    private HadoopFileTransferService hadoopFileTransferService;
 
     @PostMapping("/create")
     @Operation(summary = "创建hadoop文件")
@@ -71,6 +87,12 @@ public class HadoopFileController {
         return success(hadoopFileService.createHadoopFile(createReqVO));
     }
 
+    @PostMapping("/instant-upload")
+    @Operation(summary = "秒传hadoop文件", description = "上传前先用 SHA-256 检查，已存在相同内容时直接创建文件，返回空时需要正常上传")
+    public CommonResult<Long> instantUploadHadoopFile(@Valid @RequestBody HadoopFileInstantUploadReqVO reqVO) {
+        return success(hadoopFileService.instantUploadHadoopFile(reqVO));
+    }
+
 
     @DeleteMapping("/delete")
     @Operation(summary = "删除hadoop文件")
@@ -99,44 +121,212 @@ public class HadoopFileController {
         return success(BeanUtils.toBean(pageResult, HadoopFileRespVO.class));
     }
 
+    @GetMapping("/cursor-list")
+    @Operation(summary = "获得hadoop文件游标分页", description = "适用于文件较多的目录滚动加载，使用上一页返回的 nextCursor 获取下一页")
+    public CommonResult<HadoopFileCursorPageRespVO> getHadoopFileCursorPage(@Valid HadoopFileCursorPageReqVO pageReqVO) {
+        return success(hadoopFileService.getHadoopFileCursorPage(pageReqVO));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "全盘搜索文件", description = "按文件名子串或前缀、扩展名搜索所有目录下的文件，按匹配程度排序")
+    public CommonResult<List<HadoopFileRespVO>> searchHadoopFile(@Valid HadoopFileSearchReqVO searchReqVO) {
+        List<HadoopFileDO> list = hadoopFileService.searchHadoopFile(searchReqVO);
+        return success(BeanUtils.toBean(list, HadoopFileRespVO.class));
+    }
+
+    @GetMapping("/usage")
+    @Operation(summary = "获得当前用户的网盘空间用量")
+    public CommonResult<HadoopFileUsageRespVO> getUsage() {
+        HadoopUserUsageDO usage = hadoopUserUsageService.getUsage(SecurityFrameworkUtils.getLoginUserId());
+        return success(BeanUtils.toBean(usage, HadoopFileUsageRespVO.class)
+                .setQuotaBytes(hadoopUserUsageService.getQuotaBytes(usage)));
+    }
+
     @GetMapping("/download/{id}")
     @Operation(summary = "下载文件")
     @Parameter(name = "id", description = "文件编号", required = true)
-    public ResponseEntity<byte[]> downloadFile(
-            @PathVariable("id") Long id,
-            @RequestHeader(value = "Range", required = false) String rangeHeader) throws IOException {
-        // 1. 获取文件信息
-        final HadoopFileDO file = hadoopFileService.getHadoopFile(id);
-        if (file == null) {
-            throw new IllegalArgumentException("文件不存在");
+    public void downloadFile(@PathVariable("id") Long id,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 1. 校验文件可读
+        HadoopFileDO file = hadoopFileService.validateFileReadable(id);
+
+        // 2. 流式输出文件内容，支持 Range 请求
+        writeFileContent(file, file.getName(), request, response);
+    }
+
+    @GetMapping("/download-zip")
+    @Operation(summary = "打包下载文件和文件夹", description = "边读取边压缩，直接写入响应；文件夹包含其下全部正常文件")
+    @Parameter(name = "ids", description = "文件编号列表", required = true, example = "1024,2048")
+    @Parameter(name = "name", description = "压缩包的文件名，不含扩展名", example = "我的文件")
+    public void downloadZip(@RequestParam("ids") List<Long> ids,
+                            @RequestParam(value = "name", required = false) String name,
+                            HttpServletResponse response) throws IOException {
+        // 1. 展开文件夹、校验权限。在写入响应前完成，失败时仍可以返回错误信息
+        List<HadoopFileZipEntry> entries = hadoopFileZipService.getZipEntries(ids);
+
+        // 2. 申请传输名额，超出并发限制时返回 429
+        HadoopTransferPermit permit = hadoopFileTransferService.acquire(SecurityFrameworkUtils.getLoginUserId());
+
+        // 3. 边读取边压缩，直接写入响应，按带宽限速
+        if (StrUtil.isBlank(name)) {
+            name = ids.size() == 1 ? StrUtil.removeSuffix(entries.get(0).getPath(), "/") : "打包下载";
+        }
+        String encodedFileName = URLEncoder.encode(name + ".zip", StandardCharsets.UTF_8.toString())
+                .replaceAll("\\+", "%20"); // 替换空格
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFileName);
+        response.setContentType("application/zip");
+        try {
+            hadoopFileZipService.writeZip(entries, permit.throttle(response.getOutputStream()));
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * 流式输出文件内容
+     *
+     * 响应带有 ETag、Last-Modified，If-None-Match、If-Modified-Since 命中时返回 304，不读取文件内容。
+     * 按照 Range 请求头，只读取 HDFS 上的对应区间，并使用固定大小的缓冲区写入响应，不在内存中缓存整个文件：
+     * 1. 无 Range，或者 If-Range 与当前版本不一致：返回 200 和完整文件
+     * 2. 单个区间：返回 206 和 Content-Range
+     * 3. 多个区间：返回 206 和 multipart/byteranges
+     *
+     * 开启异步下载时，设置好响应头后由 {@link AsyncDownloadWriter} 非阻塞写出，立即释放容器线程。
+     * 写出前需要申请传输名额，超出并发限制时返回 429；写出时按用户、租户的带宽限速
+     *
+     * @param file 文件，调用方需要先校验读取权限
+     * @param fileName 下载的文件名
+     */
+    private void writeFileContent(HadoopFileDO file, String fileName,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 1. 条件请求：校验信息保存在数据库中，无需请求 NameNode
+        HadoopFileContentInfo contentInfo = hadoopFileService.getFileContentInfo(file);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(contentInfo.getEtag(), contentInfo.getLastModified())) {
+            return;
         }
 
-        // 2. 读取文件内容
-        byte[] fileContent;
-        try (InputStream inputStream = hadoopFileService.getFileContent(id)) {
-            fileContent = IOUtils.toByteArray(inputStream);
+        // 2. 解析 Range 请求头。If-Range 与当前版本不一致时，说明客户端已有的部分已过期，忽略 Range 返回完整文件
+        long fileLength = contentInfo.getLength();
+        List<HttpRange> ranges;
+        try {
+            String range = request.getHeader(HttpHeaders.RANGE);
+            ranges = HttpRange.parseRanges(isIfRangeMatched(request, contentInfo) ? range : null);
+        } catch (IllegalArgumentException ex) {
+            writeRangeNotSatisfiable(response, fileLength);
+            return;
+        }
+        for (HttpRange range : ranges) {
+            if (fileLength == 0 || range.getRangeStart(fileLength) >= fileLength) {
+                writeRangeNotSatisfiable(response, fileLength);
+                return;
+            }
         }
 
-        // 3. 设置响应头
-        HttpHeaders headers = new HttpHeaders();
+        // 3. 申请传输名额，在设置响应头之前，被拒绝时返回的错误信息不会带上下载的响应头
+        HadoopTransferPermit permit = hadoopFileTransferService.acquire(SecurityFrameworkUtils.getLoginUserId());
 
-        // 设置文件名，使用 UTF-8 编码
-        String encodedFileName = URLEncoder.encode(file.getName(), StandardCharsets.UTF_8.toString())
+        // 4. 设置公共响应头
+        String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
                 .replaceAll("\\+", "%20"); // 替换空格
-        headers.add(HttpHeaders.CONTENT_DISPOSITION,
-                "attachment; filename*=UTF-8''" + encodedFileName);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFileName);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        String contentType = determineContentType(fileName);
+
+        // 5.1 完整文件
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType);
+            response.setContentLengthLong(fileLength);
+            writeBody(request, response, Collections.singletonList(rangeSource(file, 0, fileLength)), permit);
+            return;
+        }
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        // 5.2 单个区间
+        if (ranges.size() == 1) {
+            long start = ranges.get(0).getRangeStart(fileLength);
+            long end = ranges.get(0).getRangeEnd(fileLength);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileLength);
+            response.setContentLengthLong(end - start + 1);
+            writeBody(request, response, Collections.singletonList(rangeSource(file, start, end - start + 1)), permit);
+            return;
+        }
+        // 5.3 多个区间
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        List<InputStreamSource> parts = new ArrayList<>();
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(fileLength);
+            long end = range.getRangeEnd(fileLength);
+            String partHeader = "\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + fileLength + "\r\n\r\n";
+            parts.add(bytesSource(partHeader));
+            parts.add(rangeSource(file, start, end - start + 1));
+        }
+        parts.add(bytesSource("\r\n--" + boundary + "--\r\n"));
+        writeBody(request, response, parts, permit);
+    }
+
+    /**
+     * 判断 If-Range 是否与文件的当前版本一致。按照 RFC 7233，ETag 使用强比较，日期必须与 Last-Modified 完全相同
+     */
+    private static boolean isIfRangeMatched(HttpServletRequest request, HadoopFileContentInfo contentInfo) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (StrUtil.isEmpty(ifRange)) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(contentInfo.getEtag());
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == contentInfo.getLastModified() / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
 
-        // 设置文件类型
-        String contentType = determineContentType(file.getName());
-        headers.add(HttpHeaders.CONTENT_TYPE, contentType);
+    /**
+     * 写出响应体：开启异步下载时非阻塞写出，否则在当前线程中同步写出
+     *
+     * @param parts 响应体的各个部分，按顺序写出
+     * @param permit 传输许可，写出结束时关闭
+     */
+    private void writeBody(HttpServletRequest request, HttpServletResponse response,
+                           List<InputStreamSource> parts, HadoopTransferPermit permit) throws IOException {
+        if (asyncDownloadWriter.isEnabled() && request.isAsyncSupported()) {
+            asyncDownloadWriter.write(request, response, parts, permit);
+            return;
+        }
+        try {
+            OutputStream outputStream = response.getOutputStream();
+            for (InputStreamSource part : parts) {
+                try (InputStream inputStream = permit.throttle(part.getInputStream())) {
+                    IOUtils.copyLarge(inputStream, outputStream, new byte[DOWNLOAD_BUFFER_SIZE]);
+                }
+            }
+            outputStream.flush();
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * 从 HDFS 读取指定区间，在写出时才打开
+     */
+    private InputStreamSource rangeSource(HadoopFileDO file, long offset, long length) {
+        return () -> hadoopFileService.getFileContent(file, offset, length);
+    }
 
-        // 设置文件大小
-        headers.setContentLength(fileContent.length);
+    private static InputStreamSource bytesSource(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.US_ASCII);
+        return () -> new ByteArrayInputStream(bytes);
+    }
 
-        // 4. 返回响应
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(fileContent);
+    private void writeRangeNotSatisfiable(HttpServletResponse response, long fileLength) {
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileLength);
     }
 
     /**
@@ -162,6 +352,10 @@ public class HadoopFileController {
                 return MediaType.APPLICATION_JSON_VALUE;
             case "xml":
                 return MediaType.APPLICATION_XML_VALUE;
+            case "mp4":
+                return "video/mp4";
+            case "mp3":
+                return "audio/mpeg";
             default:
                 return MediaType.APPLICATION_OCTET_STREAM_VALUE;
         }
@@ -198,108 +392,48 @@ public class HadoopFileController {
         return success(true);
     }
 
+    @PostMapping("/share/create")
+    @Operation(summary = "创建分享", description = "只记录分享的文件，不复制文件内容；可设置提取码和有效天数")
+    public CommonResult<HadoopShareRespVO> createShare(@Valid @RequestBody HadoopShareCreateReqVO reqVO) {
+        HadoopShareDO share = hadoopFileService.createShare(reqVO);
+        return success(BeanUtils.toBean(share, HadoopShareRespVO.class));
+    }
+
+    @DeleteMapping("/share/delete")
+    @Operation(summary = "删除分享")
+    @Parameter(name = "shareKey", description = "分享密钥", required = true)
+    public CommonResult<Boolean> deleteShare(@RequestParam("shareKey") String shareKey) {
+        hadoopFileService.deleteShare(shareKey);
+        return success(true);
+    }
+
     @GetMapping("/share-link/{shareKey}")
     @Operation(summary = "获取分享链接")
     @Parameter(name = "shareKey", description = "分享密钥", required = true)
-    public CommonResult<List<HadoopFileRespVO>> getShareLink(@PathVariable("shareKey") String shareKey) {
-        List<HadoopFileDO> files = hadoopFileService.getShareFiles(shareKey);
+    @Parameter(name = "password", description = "提取码")
+    @Parameter(name = "parentId", description = "分享中的文件夹编号，为空时返回分享的顶层文件")
+    public CommonResult<List<HadoopFileRespVO>> getShareLink(@PathVariable("shareKey") String shareKey,
+                                                             @RequestParam(value = "password", required = false) String password,
+                                                             @RequestParam(value = "parentId", required = false) Long parentId) {
+        List<HadoopFileDO> files = hadoopFileService.getShareFiles(shareKey, password, parentId);
         return success(BeanUtils.toBean(files, HadoopFileRespVO.class));
     }
 
-    @GetMapping("/download-shared/{shareKey}/{fileName}")
-    @Operation(summary = "下载分享文件")
+    @GetMapping("/download-shared/{shareKey}/{id}")
+    @Operation(summary = "下载分享文件", description = "可以下载分享的文件夹下的文件")
     @Parameter(name = "shareKey", description = "分享密钥", required = true)
-    @Parameter(name = "fileName", description = "文件名", required = true)
+    @Parameter(name = "id", description = "文件编号", required = true)
+    @Parameter(name = "password", description = "提取码")
     @ApiAccessLog(operateType = EXPORT)
-    public ResponseEntity<byte[]> downloadSharedFile(
-            @PathVariable("shareKey") String shareKey,
-            @PathVariable("fileName") String fileName,
-            @RequestHeader(value = "Range", required = false) String rangeHeader) throws IOException {
-        // 1. 获取文件信息
-        final HadoopFileDO file = hadoopFileService.getShareFile(shareKey, fileName);
-        if (file == null) {
-            throw new IllegalArgumentException("文件不存在");
-        }
-
-        // 2. 读取文件内容
-        byte[] fileContent;
-        try (InputStream inputStream = hadoopFileService.getFileContent(file.getId())) {
-            fileContent = IOUtils.toByteArray(inputStream);
-        }
-
-        // 3. 设置响应头
-        HttpHeaders headers = new HttpHeaders();
-
-        // 设置文件名，使用 UTF-8 编码
-        String encodedFileName = URLEncoder.encode(file.getName().substring(file.getName().lastIndexOf("/") + 1), StandardCharsets.UTF_8.toString())
-                .replaceAll("\\+", "%20"); // 替换空格
-        headers.add(HttpHeaders.CONTENT_DISPOSITION,
-                "attachment; filename*=UTF-8''" + encodedFileName);
-
-        // 设置文件类型
-        String contentType = determineContentType(file.getName());
-        headers.add(HttpHeaders.CONTENT_TYPE, contentType);
-
-        // 设置文件大小
-        headers.setContentLength(fileContent.length);
-
-        // 4. 返回响应
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(fileContent);
-    }
-
-    /**
-     * 计算文件大小
-     *
-     * @param sizeStr 文件大小字符串（MB）
-     * @return 文件大小（字节）
-     */
-    private long calculateFileSize(String sizeStr) {
-        if (sizeStr != null) {
-            try {
-                return (long) (Double.parseDouble(sizeStr) * 1024 * 1024); // 转换为字节
-            } catch (NumberFormatException ignored) {
-                // 如果解析失败，返回0
-            }
-        }
-        return 0;
-    }
-
-    private static class RangeInfo {
-        final long startByte;
-        final long endByte;
-
-        RangeInfo(long startByte, long endByte) {
-            this.startByte = startByte;
-            this.endByte = endByte;
-        }
-    }
-
-    /**
-     * 解析 Range 请求头
-     *
-     * @param rangeHeader Range 请求头
-     * @param fileSize 文件大小
-     * @return Range 信息
-     */
-    private RangeInfo parseRange(String rangeHeader, long fileSize) {
-        if (rangeHeader != null && rangeHeader.startsWith("bytes=")) {
-            String[] ranges = rangeHeader.substring(6).split("-");
-            try {
-                long startByte = Long.parseLong(ranges[0]);
-                long endByte;
-                if (ranges.length > 1 && !ranges[1].isEmpty()) {
-                    endByte = Long.parseLong(ranges[1]);
-                } else {
-                    endByte = fileSize - 1;
-                }
-                return new RangeInfo(startByte, endByte);
-            } catch (NumberFormatException ignored) {
-                // 如果解析失败，返回完整文件范围
-            }
-        }
-        return new RangeInfo(0, fileSize - 1);
+    public void downloadSharedFile(@PathVariable("shareKey") String shareKey,
+                                   @PathVariable("id") Long id,
+                                   @RequestParam(value = "password", required = false) String password,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 1. 获取文件信息，直接读取被分享的原文件
+        HadoopFileDO file = hadoopFileService.getShareFile(shareKey, id, password);
+
+        // 2. 流式输出文件内容，支持 Range 请求
+        writeFileContent(file, file.getName().substring(file.getName().lastIndexOf("/") + 1), request, response);
     }
 
     @PostMapping("/rename")
@@ -314,27 +448,7 @@ public class HadoopFileController {
                 newName = "分享(hadoop)" + newName.substring("分享（hadoop）".length());
             }
         }
-        // 1. 获取文件信息
-        HadoopFileDO file = hadoopFileService.getHadoopFile(id);
-        if (file == null) {
-            return success(false);
-        }
-
-        // 2. 如果是文件夹，需要更新所有子文件的路径
-        if (file.getType() == 6) { // 6 表示文件夹
-            // 获取当前目录的完整路径
-            String catalogue = file.getCatalogue();
-            if (catalogue == null || catalogue.equals("/")) {
-                catalogue = "";
-            }
-            String oldPath = catalogue + "/" + file.getName();
-            String newPath = catalogue + "/" + newName;
-
-            // 更新文件夹下所有文件的路径
-            hadoopFileService.updateSubFilePaths(oldPath, newPath);
-        }
-
-        // 3. 重命名文件或文件夹
+        // 重命名文件或文件夹，文件夹下所有文件的路径会一并更新
         hadoopFileService.renameHadoopFile(id, newName);
         return success(true);
     }
@@ -344,47 +458,15 @@ public class HadoopFileController {
     @Parameter(name = "id", description = "编号", required = true)
     @Parameter(name = "targetPath", description = "目标路径", required = true)
     public CommonResult<Boolean> moveHadoopFile(@RequestParam("id") Long id, @RequestParam("targetPath") String targetPath) {
-        // 1. 获取文件信息
-        HadoopFileDO file = hadoopFileService.getHadoopFile(id);
-        if (file == null) {
-            return success(false);
-        }
-
-        // 2. 如果是文件夹，需要更新所有子文件的路径
-        if (file.getType() == 6) { // 6 表示文件夹
-            // 获取当前目录的完整路径
-            String catalogue = file.getCatalogue();
-            if (catalogue == null || catalogue.equals("/")) {
-                catalogue = "";
-            }
-            String oldPath = catalogue + "/" + file.getName();
-            String newPath = targetPath + "/" + file.getName();
-
-            // 更新文件夹下所有文件的路径
-            hadoopFileService.updateSubFilePaths(oldPath, newPath);
-        }
-
-        // 3. 移动文件或文件夹
+        // 移动文件或文件夹，文件夹下所有文件的路径会一并更新
         hadoopFileService.moveHadoopFile(id, targetPath);
         return success(true);
     }
 
     @PostMapping("/save-shared")
     @Operation(summary = "保存分享文件到个人文件夹")
-    public CommonResult<Boolean> saveSharedFiles(@RequestBody SaveSharedFilesReqVO reqVO) {
-        // 1. 获取分享文件列表
-        List<HadoopFileDO> sharedFiles = hadoopFileService.getShareFiles(reqVO.getShareKey());
-        if (sharedFiles.isEmpty()) {
-            return success(false);
-        }
-
-        // 2. 过滤出选中的文件
-        List<HadoopFileDO> selectedFiles = sharedFiles.stream()
-                .filter(file -> reqVO.getFileIds().contains(file.getId().toString()))
-                .collect(Collectors.toList());
-
-        // 3. 复制文件到目标路径
-        hadoopFileService.saveSharedFiles(selectedFiles, reqVO.getTargetPath());
+    public CommonResult<Boolean> saveSharedFiles(@Valid @RequestBody SaveSharedFilesReqVO reqVO) {
+        hadoopFileService.saveSharedFiles(reqVO);
         return success(true);
     }
 
@@ -0,0 +1,70 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile;
+
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.*;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileTaskDO;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileTaskService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.Resource;
+import javax.validation.Valid;
+
+import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+
+@Tag(name = "管理后台 - hadoop文件任务")
+@RestController
+@RequestMapping("/system/hadoop-file/task")
+@Validated
+public class HadoopFileTaskController {
+
+    @Resource
+    private HadoopFileTaskService hadoopFileTaskService;
+
+    @PostMapping("/save-shared")
+    @Operation(summary = "提交转存分享文件的任务", description = "立即返回任务编号，进度通过 WebSocket 推送")
+    public CommonResult<Long> createSaveSharedTask(@Valid @RequestBody SaveSharedFilesReqVO reqVO) {
+        return success(hadoopFileTaskService.createSaveSharedTask(reqVO));
+    }
+
+    @PostMapping("/move")
+    @Operation(summary = "提交批量移动文件的任务", description = "立即返回任务编号，进度通过 WebSocket 推送")
+    public CommonResult<Long> createMoveTask(@Valid @RequestBody HadoopFileTaskMoveReqVO reqVO) {
+        return success(hadoopFileTaskService.createMoveTask(reqVO));
+    }
+
+    @PostMapping("/delete")
+    @Operation(summary = "提交批量删除文件的任务", description = "立即返回任务编号，进度通过 WebSocket 推送")
+    public CommonResult<Long> createDeleteTask(@Valid @RequestBody HadoopFileTaskDeleteReqVO reqVO) {
+        return success(hadoopFileTaskService.createDeleteTask(reqVO));
+    }
+
+    @PostMapping("/cancel")
+    @Operation(summary = "取消任务", description = "执行中的任务会在处理完当前文件后中断。批量移动、删除已处理的文件不会恢复，转存分享整体回滚")
+    @Parameter(name = "id", description = "任务编号", required = true)
+    public CommonResult<Boolean> cancelTask(@RequestParam("id") Long id) {
+        hadoopFileTaskService.cancelTask(id);
+        return success(true);
+    }
+
+    @GetMapping("/get")
+    @Operation(summary = "获得任务")
+    @Parameter(name = "id", description = "任务编号", required = true)
+    public CommonResult<HadoopFileTaskRespVO> getTask(@RequestParam("id") Long id) {
+        HadoopFileTaskDO task = hadoopFileTaskService.getTask(id);
+        return success(BeanUtils.toBean(task, HadoopFileTaskRespVO.class));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "获得任务分页")
+    public CommonResult<PageResult<HadoopFileTaskRespVO>> getTaskPage(@Valid HadoopFileTaskPageReqVO pageReqVO) {
+        PageResult<HadoopFileTaskDO> pageResult = hadoopFileTaskService.getTaskPage(pageReqVO);
+        return success(BeanUtils.toBean(pageResult, HadoopFileTaskRespVO.class));
+    }
+
+}
@@ -0,0 +1,52 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile;
+
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileTrashReqVO;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileTrashService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.Resource;
+import javax.validation.Valid;
+
+import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+
+@Tag(name = "管理后台 - hadoop文件回收站")
+@RestController
+@RequestMapping("/system/hadoop-file/trash")
+@Validated
+public class HadoopFileTrashController {
+
+    @Resource
+    private HadoopFileTrashService hadoopFileTrashService;
+
+    @PostMapping("/add")
+    @Operation(summary = "批量放入回收站")
+    public CommonResult<Boolean> trashHadoopFiles(@Valid @RequestBody HadoopFileTrashReqVO reqVO) {
+        hadoopFileTrashService.trashHadoopFiles(reqVO.getIds());
+        return success(true);
+    }
+
+    @PostMapping("/restore")
+    @Operation(summary = "批量从回收站恢复", description = "原目录下存在同名文件时，自动重命名")
+    public CommonResult<Boolean> restoreHadoopFiles(@Valid @RequestBody HadoopFileTrashReqVO reqVO) {
+        hadoopFileTrashService.restoreHadoopFiles(reqVO.getIds());
+        return success(true);
+    }
+
+    @PostMapping("/purge")
+    @Operation(summary = "批量彻底删除回收站中的文件")
+    public CommonResult<Boolean> purgeHadoopFiles(@Valid @RequestBody HadoopFileTrashReqVO reqVO) {
+        hadoopFileTrashService.purgeHadoopFiles(reqVO.getIds());
+        return success(true);
+    }
+
+    @DeleteMapping("/clear")
+    @Operation(summary = "清空回收站", description = "返回彻底删除的文件数")
+    public CommonResult<Integer> clearTrash() {
+        return success(hadoopFileTrashService.clearTrash());
+    }
+
+}
@@ -0,0 +1,86 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile;
+
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopUploadInitReqVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopUploadSessionRespVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUploadSessionDO;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.Resource;
+import javax.validation.Valid;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+
+@Tag(name = "管理后台 - hadoop文件分片上传")
+@RestController
+@RequestMapping("/system/hadoop-file/upload")
+@Validated
+public class HadoopFileUploadController {
+
+    @Resource
+    private HadoopFileUploadService hadoopFileUploadService;
+
+    @PostMapping("/init")
+    @Operation(summary = "初始化分片上传")
+    public CommonResult<HadoopUploadSessionRespVO> initUpload(@Valid @RequestBody HadoopUploadInitReqVO reqVO) {
+        HadoopUploadSessionDO session = hadoopFileUploadService.initUpload(reqVO);
+        return success(buildSessionResp(session, Collections.emptyList()));
+    }
+
+    @PostMapping("/chunk")
+    @Operation(summary = "上传分片", description = "分片之间互不依赖，可以并行上传；同一分片重复上传会覆盖")
+    @Parameter(name = "uploadId", description = "上传任务编号", required = true)
+    @Parameter(name = "chunkIndex", description = "分片序号，从 0 开始", required = true)
+    public CommonResult<Boolean> uploadChunk(@RequestParam("uploadId") Long uploadId,
+                                             @RequestParam("chunkIndex") Integer chunkIndex,
+                                             @RequestParam("file") MultipartFile file) {
+        hadoopFileUploadService.uploadChunk(uploadId, chunkIndex, file);
+        return success(true);
+    }
+
+    @GetMapping("/get")
+    @Operation(summary = "获得分片上传任务", description = "返回已上传和未上传的分片，用于断点续传")
+    @Parameter(name = "uploadId", description = "上传任务编号", required = true)
+    public CommonResult<HadoopUploadSessionRespVO> getUploadSession(@RequestParam("uploadId") Long uploadId) {
+        HadoopUploadSessionDO session = hadoopFileUploadService.getUploadSession(uploadId);
+        return success(buildSessionResp(session, hadoopFileUploadService.getUploadedChunkIndexes(uploadId)));
+    }
+
+    @PostMapping("/complete")
+    @Operation(summary = "完成分片上传", description = "合并分片，返回生成的文件编号")
+    @Parameter(name = "uploadId", description = "上传任务编号", required = true)
+    public CommonResult<Long> completeUpload(@RequestParam("uploadId") Long uploadId) {
+        return success(hadoopFileUploadService.completeUpload(uploadId));
+    }
+
+    @DeleteMapping("/abort")
+    @Operation(summary = "取消分片上传")
+    @Parameter(name = "uploadId", description = "上传任务编号", required = true)
+    public CommonResult<Boolean> abortUpload(@RequestParam("uploadId") Long uploadId) {
+        hadoopFileUploadService.abortUpload(uploadId);
+        return success(true);
+    }
+
+    private static HadoopUploadSessionRespVO buildSessionResp(HadoopUploadSessionDO session, List<Integer> uploadedChunks) {
+        HadoopUploadSessionRespVO respVO = BeanUtils.toBean(session, HadoopUploadSessionRespVO.class);
+        respVO.setUploadedChunks(uploadedChunks);
+        Set<Integer> uploaded = new HashSet<>(uploadedChunks);
+        respVO.setMissingChunks(IntStream.range(0, session.getChunkCount()).boxed()
+                .filter(index -> !uploaded.contains(index)).collect(Collectors.toList()));
+        return respVO;
+    }
+
+}
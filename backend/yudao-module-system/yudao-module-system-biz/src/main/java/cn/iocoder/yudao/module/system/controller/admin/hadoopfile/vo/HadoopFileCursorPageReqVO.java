@@ -0,0 +1,44 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+@Schema(description = "管理后台 - hadoop文件游标分页 Request VO")
+@Data
+public class HadoopFileCursorPageReqVO {
+
+    @Schema(description = "文件类型", example = "2")
+    private Integer type;
+
+    @Schema(description = "文件名", example = "赵六")
+    private String name;
+
+    @Schema(description = "父级目录", example = "/a/b")
+    private String catalogue;
+
+    @Schema(description = "排序字段：name、size、createTime，默认 createTime", example = "createTime")
+    @Pattern(regexp = "^(name|size|createTime)$", message = "排序字段只能是 name、size、createTime")
+    private String sortField;
+
+    @Schema(description = "排序顺序：ascend - 升序，descend - 降序，默认降序", example = "descend")
+    @Pattern(regexp = "^(ascend|descend)$", message = "排序顺序只能是 ascend、descend")
+    private String sortOrder;
+
+    @Schema(description = "游标，即上一页返回的 nextCursor，首页不传", example = "eyJ0Ijo2LCJrIjoiYSIsImkiOjEwMjR9")
+    private String cursor;
+
+    @Schema(description = "每页条数，最大值为 200", requiredMode = Schema.RequiredMode.REQUIRED, example = "50")
+    @NotNull(message = "每页条数不能为空")
+    @Min(value = 1, message = "每页条数最小值为 1")
+    @Max(value = 200, message = "每页条数最大值为 200")
+    private Integer pageSize = 50;
+
+    @Schema(description = "是否返回总数。总数需要 COUNT 整个目录，默认不返回", example = "false")
+    private Boolean withTotal;
+
+}
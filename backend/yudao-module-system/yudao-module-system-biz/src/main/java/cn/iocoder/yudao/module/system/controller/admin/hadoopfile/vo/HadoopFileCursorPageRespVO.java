@@ -0,0 +1,25 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "管理后台 - hadoop文件游标分页 Response VO")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HadoopFileCursorPageRespVO {
+
+    @Schema(description = "数据", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<HadoopFileRespVO> list;
+
+    @Schema(description = "下一页的游标，为空时表示没有更多数据", example = "eyJ0Ijo2LCJrIjoiYSIsImkiOjEwMjR9")
+    private String nextCursor;
+
+    @Schema(description = "总数，只在 withTotal 为 true 时返回", example = "1024")
+    private Long total;
+
+}
@@ -0,0 +1,37 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+@Schema(description = "管理后台 - hadoop文件秒传 Request VO")
+@Data
+public class HadoopFileInstantUploadReqVO {
+
+    @Schema(description = "文件名", requiredMode = Schema.RequiredMode.REQUIRED, example = "test.mp4")
+    @NotEmpty(message = "文件名不能为空")
+    private String name;
+
+    @Schema(description = "父级目录", requiredMode = Schema.RequiredMode.REQUIRED, example = "/test")
+    @NotEmpty(message = "父级目录不能为空")
+    private String catalogue;
+
+    @Schema(description = "文件类型", example = "2")
+    private Integer type;
+
+    @Schema(description = "文件内容的 SHA-256", requiredMode = Schema.RequiredMode.REQUIRED,
+            example = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")
+    @NotEmpty(message = "SHA-256 不能为空")
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "SHA-256 格式不正确")
+    private String sha256;
+
+    @Schema(description = "文件大小（字节）", requiredMode = Schema.RequiredMode.REQUIRED, example = "1024")
+    @NotNull(message = "文件大小不能为空")
+    @Min(value = 0, message = "文件大小不能小于 0")
+    private Long size;
+
+}
@@ -34,8 +34,8 @@ public class HadoopFilePageReqVO extends PageParam {
     @Schema(description = "父级目录")
     private String catalogue;
 
-    @Schema(description = "大小(MB)")
-    private String size;
+    @Schema(description = "大小（字节）", example = "1024")
+    private Long size;
 
     @Schema(description = "排序字段")
     private String sortField;
@@ -36,8 +36,17 @@ public class HadoopFileRespVO {
     @ExcelProperty("父级目录")
     private String catalogue;
 
-    @Schema(description = "大小(MB)")
-    @ExcelProperty("大小(MB)")
-    private String size;
+    @Schema(description = "大小（字节）", example = "1024")
+    @ExcelProperty("大小（字节）")
+    private Long size;
+
+    @Schema(description = "文件夹下整棵子树的总大小（字节），只对文件夹有效", example = "1048576")
+    private Long totalSize;
+
+    @Schema(description = "文件夹下整棵子树的文件数量，只对文件夹有效", example = "12")
+    private Long fileCount;
+
+    @Schema(description = "文件夹下整棵子树的文件夹数量，只对文件夹有效", example = "3")
+    private Long dirCount;
 
 }
\ No newline at end of file
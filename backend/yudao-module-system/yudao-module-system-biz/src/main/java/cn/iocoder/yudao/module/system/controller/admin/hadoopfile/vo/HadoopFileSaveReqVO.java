@@ -17,9 +17,6 @@ public class HadoopFileSaveReqVO {
     @Schema(description = "父级目录", example = "/test")
     private String catalogue;
 
-    @Schema(description = "大小(MB)")
-    private String size;
-
     @Schema(description = "上传的文件")
     private MultipartFile file;
 
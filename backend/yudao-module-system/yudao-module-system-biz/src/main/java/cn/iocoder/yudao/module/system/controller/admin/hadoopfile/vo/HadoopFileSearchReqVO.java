@@ -0,0 +1,37 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+@Schema(description = "管理后台 - hadoop文件全盘搜索 Request VO")
+@Data
+public class HadoopFileSearchReqVO {
+
+    @Schema(description = "关键字，与扩展名至少传一个", example = "报告")
+    @Size(max = 100, message = "关键字长度不能超过 100 个字符")
+    private String keyword;
+
+    @Schema(description = "匹配方式：substring - 包含关键字，prefix - 以关键字开头，默认 substring", example = "substring")
+    @Pattern(regexp = "^(substring|prefix)$", message = "匹配方式只能是 substring、prefix")
+    private String mode;
+
+    @Schema(description = "扩展名，不区分大小写", example = "pdf")
+    @Size(max = 32, message = "扩展名长度不能超过 32 个字符")
+    private String extension;
+
+    @Schema(description = "文件类型", example = "2")
+    private Integer type;
+
+    @Schema(description = "最大条数，最大值为 200", requiredMode = Schema.RequiredMode.REQUIRED, example = "50")
+    @NotNull(message = "最大条数不能为空")
+    @Min(value = 1, message = "最大条数最小值为 1")
+    @Max(value = 200, message = "最大条数最大值为 200")
+    private Integer limit = 50;
+
+}
@@ -0,0 +1,21 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import cn.iocoder.yudao.framework.common.pojo.PageParam;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@Schema(description = "管理后台 - hadoop文件任务分页 Request VO")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class HadoopFileTaskPageReqVO extends PageParam {
+
+    @Schema(description = "任务类型，参见 HadoopFileTaskTypeEnum 枚举", example = "1")
+    private Integer type;
+
+    @Schema(description = "任务状态，参见 HadoopFileTaskStatusEnum 枚举", example = "1")
+    private Integer status;
+
+}
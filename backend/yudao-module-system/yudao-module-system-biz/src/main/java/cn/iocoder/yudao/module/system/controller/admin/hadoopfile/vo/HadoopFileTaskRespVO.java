@@ -0,0 +1,45 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "管理后台 - hadoop文件任务 Response VO")
+@Data
+public class HadoopFileTaskRespVO {
+
+    @Schema(description = "任务编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "1024")
+    private Long id;
+
+    @Schema(description = "任务类型，参见 HadoopFileTaskTypeEnum 枚举", requiredMode = Schema.RequiredMode.REQUIRED, example = "1")
+    private Integer type;
+
+    @Schema(description = "任务状态，参见 HadoopFileTaskStatusEnum 枚举", requiredMode = Schema.RequiredMode.REQUIRED, example = "1")
+    private Integer status;
+
+    @Schema(description = "总文件数，开始执行后才能确定", example = "100")
+    private Long totalItems;
+
+    @Schema(description = "已处理的文件数", example = "50")
+    private Long processedItems;
+
+    @Schema(description = "总字节数，开始执行后才能确定", example = "1048576")
+    private Long totalBytes;
+
+    @Schema(description = "已处理的字节数", example = "524288")
+    private Long processedBytes;
+
+    @Schema(description = "失败原因", example = "网盘空间不足")
+    private String errorMsg;
+
+    @Schema(description = "开始执行时间")
+    private LocalDateTime startTime;
+
+    @Schema(description = "结束时间")
+    private LocalDateTime finishTime;
+
+    @Schema(description = "创建时间", requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDateTime createTime;
+
+}
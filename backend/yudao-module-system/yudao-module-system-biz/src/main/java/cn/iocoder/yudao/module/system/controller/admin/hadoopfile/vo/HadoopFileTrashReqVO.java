@@ -0,0 +1,19 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Schema(description = "管理后台 - hadoop文件回收站批量操作 Request VO")
+@Data
+public class HadoopFileTrashReqVO {
+
+    @Schema(description = "文件编号列表", requiredMode = Schema.RequiredMode.REQUIRED, example = "[1, 2]")
+    @NotEmpty(message = "文件编号列表不能为空")
+    @Size(max = 1000, message = "一次最多处理 1000 个文件")
+    private List<Long> ids;
+
+}
@@ -0,0 +1,19 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Schema(description = "管理后台 - hadoop网盘空间用量 Response VO")
+@Data
+public class HadoopFileUsageRespVO {
+
+    @Schema(description = "已用空间（字节），包括回收站中的文件", requiredMode = Schema.RequiredMode.REQUIRED, example = "1048576")
+    private Long usedBytes;
+
+    @Schema(description = "文件数量，不包括目录", requiredMode = Schema.RequiredMode.REQUIRED, example = "10")
+    private Long fileCount;
+
+    @Schema(description = "空间配额（字节）", requiredMode = Schema.RequiredMode.REQUIRED, example = "10737418240")
+    private Long quotaBytes;
+
+}
@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import java.util.List;
+
+@Schema(description = "管理后台 - hadoop文件分享创建 Request VO")
+@Data
+public class HadoopShareCreateReqVO {
+
+    @Schema(description = "分享的文件编号列表", requiredMode = Schema.RequiredMode.REQUIRED, example = "[1024, 2048]")
+    @NotEmpty(message = "分享的文件不能为空")
+    private List<Long> fileIds;
+
+    @Schema(description = "提取码，不传时不需要提取码", example = "a1b2")
+    @Pattern(regexp = "^[0-9a-zA-Z]{4}$", message = "提取码必须是 4 位字母或数字")
+    private String password;
+
+    @Schema(description = "有效天数，不传时永久有效", example = "7")
+    @Min(value = 1, message = "有效天数必须大于 0")
+    private Integer expireDays;
+
+}
@@ -0,0 +1,36 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "管理后台 - hadoop文件分享 Response VO")
+@Data
+public class HadoopShareRespVO {
+
+    @Schema(description = "编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "1024")
+    private Long id;
+
+    @Schema(description = "分享密钥", requiredMode = Schema.RequiredMode.REQUIRED, example = "1a2b3c4d")
+    private String shareKey;
+
+    @Schema(description = "提取码", example = "a1b2")
+    private String password;
+
+    @Schema(description = "过期时间，为空时永久有效")
+    private LocalDateTime expireTime;
+
+    @Schema(description = "查看次数", requiredMode = Schema.RequiredMode.REQUIRED, example = "10")
+    private Integer viewCount;
+
+    @Schema(description = "下载次数", requiredMode = Schema.RequiredMode.REQUIRED, example = "5")
+    private Integer downloadCount;
+
+    @Schema(description = "保存次数", requiredMode = Schema.RequiredMode.REQUIRED, example = "2")
+    private Integer saveCount;
+
+    @Schema(description = "创建时间", requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDateTime createTime;
+
+}
@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+@Schema(description = "管理后台 - hadoop 分片上传初始化 Request VO")
+@Data
+public class HadoopUploadInitReqVO {
+
+    @Schema(description = "文件名", requiredMode = Schema.RequiredMode.REQUIRED, example = "test.mp4")
+    @NotEmpty(message = "文件名不能为空")
+    private String name;
+
+    @Schema(description = "父级目录", requiredMode = Schema.RequiredMode.REQUIRED, example = "/test")
+    @NotEmpty(message = "父级目录不能为空")
+    private String catalogue;
+
+    @Schema(description = "文件类型", example = "2")
+    private Integer type;
+
+    @Schema(description = "文件大小（字节）", requiredMode = Schema.RequiredMode.REQUIRED, example = "104857600")
+    @NotNull(message = "文件大小不能为空")
+    @Min(value = 0, message = "文件大小不能小于 0")
+    private Long fileSize;
+
+    @Schema(description = "分片大小（字节），不传时使用默认分片大小", example = "8388608")
+    @Min(value = 1, message = "分片大小必须大于 0")
+    private Long chunkSize;
+
+}
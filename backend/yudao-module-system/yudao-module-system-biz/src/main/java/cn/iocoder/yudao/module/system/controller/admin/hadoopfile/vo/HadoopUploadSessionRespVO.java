@@ -0,0 +1,42 @@
+package cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(description = "管理后台 - hadoop 分片上传任务 Response VO")
+@Data
+public class HadoopUploadSessionRespVO {
+
+    @Schema(description = "上传任务编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "1024")
+    private Long id;
+
+    @Schema(description = "文件名", requiredMode = Schema.RequiredMode.REQUIRED, example = "test.mp4")
+    private String name;
+
+    @Schema(description = "父级目录", requiredMode = Schema.RequiredMode.REQUIRED, example = "/test")
+    private String catalogue;
+
+    @Schema(description = "文件大小（字节）", requiredMode = Schema.RequiredMode.REQUIRED, example = "104857600")
+    private Long fileSize;
+
+    @Schema(description = "分片大小（字节）", requiredMode = Schema.RequiredMode.REQUIRED, example = "8388608")
+    private Long chunkSize;
+
+    @Schema(description = "分片数量", requiredMode = Schema.RequiredMode.REQUIRED, example = "13")
+    private Integer chunkCount;
+
+    @Schema(description = "上传状态", requiredMode = Schema.RequiredMode.REQUIRED, example = "0")
+    private Integer status;
+
+    @Schema(description = "上传完成后生成的文件编号", example = "2048")
+    private Long fileId;
+
+    @Schema(description = "已上传的分片序号", requiredMode = Schema.RequiredMode.REQUIRED, example = "[0, 1, 2]")
+    private List<Integer> uploadedChunks;
+
+    @Schema(description = "未上传的分片序号", requiredMode = Schema.RequiredMode.REQUIRED, example = "[3, 4]")
+    private List<Integer> missingChunks;
+
+}
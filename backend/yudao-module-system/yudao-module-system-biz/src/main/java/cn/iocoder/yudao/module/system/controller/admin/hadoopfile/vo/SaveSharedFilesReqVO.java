@@ -4,7 +4,6 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
 import javax.validation.constraints.NotEmpty;
-import javax.validation.constraints.NotNull;
 import java.util.List;
 
 @Schema(description = "管理后台 - 保存分享文件请求 VO")
@@ -23,4 +22,7 @@ public class SaveSharedFilesReqVO {
     @NotEmpty(message = "目标路径不能为空")
     private String targetPath;
 
+    @Schema(description = "提取码", example = "a1b2")
+    private String password;
+
 } 
\ No newline at end of file
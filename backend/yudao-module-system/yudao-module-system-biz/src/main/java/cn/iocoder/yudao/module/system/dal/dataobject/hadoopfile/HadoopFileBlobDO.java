@@ -0,0 +1,49 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+/**
+ * hadoop 文件内容 DO
+ *
+ * 按内容的 SHA-256 去重，内容相同的文件共享同一个 HDFS 对象，通过引用计数管理生命周期。
+ * 去重范围是全局的，所以该表不区分租户
+ *
+ * @author 管理员1
+ */
+@TableName("system_hadoop_file_blob")
+@KeySequence("system_hadoop_file_blob_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HadoopFileBlobDO extends BaseDO {
+
+    /**
+     * 编号
+     */
+    @TableId
+    private Long id;
+    /**
+     * 内容的 SHA-256，十六进制小写
+     */
+    private String sha256;
+    /**
+     * 内容大小（字节）
+     */
+    private Long size;
+    /**
+     * HDFS 上的存储路径
+     */
+    private String path;
+    /**
+     * 引用计数，即引用该内容的 {@link HadoopFileDO} 数量
+     */
+    private Integer refCount;
+
+}
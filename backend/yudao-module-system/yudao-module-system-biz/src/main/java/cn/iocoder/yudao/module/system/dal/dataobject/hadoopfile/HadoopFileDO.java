@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 import java.time.LocalDateTime;
 import com.baomidou.mybatisplus.annotation.*;
 import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
 
 /**
  * hadoop文件 DO
@@ -23,6 +24,8 @@ import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
 @AllArgsConstructor
 public class HadoopFileDO extends BaseDO {
 
+    public static final Long PARENT_ID_ROOT = 0L;
+
     /**
      * 用户ID
      */
@@ -43,7 +46,69 @@ public class HadoopFileDO extends BaseDO {
      */
     private String catalogue;
     /**
-     * 大小(MB)
+     * 父目录编号
+     *
+     * 关联 {@link HadoopFileDO#getId()}，根目录下的文件为 {@link #PARENT_ID_ROOT}
+     */
+    private Long parentId;
+    /**
+     * 层级深度，根目录下的文件为 0
+     */
+    private Integer depth;
+    /**
+     * 物化路径，由各级祖先目录的编号组成，例如说 /1/5/，根目录下的文件为 /
+     *
+     * 只记录编号，重命名目录时无需更新；按前缀匹配即可查询整棵子树
+     */
+    private String treePath;
+    /**
+     * 状态
+     *
+     * 枚举 {@link HadoopFileStatusEnum}
+     */
+    private Integer status;
+    /**
+     * 大小（字节）
+     *
+     * 由服务端按实际写入的内容长度记录，目录为 0
+     */
+    private Long size;
+    /**
+     * 文件夹下整棵子树的总大小（字节），只对文件夹有效
+     *
+     * 统计范围是沿父目录链全部为正常状态的子孙文件，回收站中的文件夹保留自身的统计值，恢复时加回上级目录。
+     * 只通过增量 SQL 维护，{@link com.baomidou.mybatisplus.core.mapper.BaseMapper#updateById} 不会覆盖
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Long totalSize;
+    /**
+     * 文件夹下整棵子树的文件数量，只对文件夹有效
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Long fileCount;
+    /**
+     * 文件夹下整棵子树的文件夹数量，只对文件夹有效
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Long dirCount;
+    /**
+     * 文件内容的 SHA-256
+     */
+    private String sha256;
+    /**
+     * 文件内容编号
+     *
+     * 关联 {@link HadoopFileBlobDO#getId()}。为空时，文件内容存放在用户目录下的对应路径
+     */
+    private Long blobId;
+    /**
+     * 文件内容在 HDFS 上的修改时间，单位：毫秒
+     *
+     * 只用于未去重的文件，生成下载时的 ETag、Last-Modified。第一次下载时从 HDFS 读取并保存，之后不再请求 NameNode
+     */
+    private Long contentModifiedTime;
+    /**
+     * 放入回收站的时间，只对回收站中的文件有效，超过保留天数后自动彻底删除
      */
-    private String size;
+    private LocalDateTime trashTime;
 }
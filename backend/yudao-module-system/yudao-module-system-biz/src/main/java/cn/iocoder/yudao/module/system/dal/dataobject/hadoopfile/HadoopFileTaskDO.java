@@ -0,0 +1,80 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import cn.iocoder.yudao.module.system.enums.HadoopFileTaskStatusEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileTaskTypeEnum;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * hadoop 文件任务 DO
+ *
+ * 耗时的文件操作（转存分享、批量移动、批量删除）提交为任务，由后台线程池执行，执行进度通过 WebSocket 推送
+ *
+ * @author 管理员1
+ */
+@TableName("system_hadoop_file_task")
+@KeySequence("system_hadoop_file_task_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HadoopFileTaskDO extends BaseDO {
+
+    /**
+     * 任务编号
+     */
+    @TableId
+    private Long id;
+    /**
+     * 任务类型
+     *
+     * 枚举 {@link HadoopFileTaskTypeEnum}
+     */
+    private Integer type;
+    /**
+     * 任务参数，JSON 格式
+     */
+    private String param;
+    /**
+     * 任务状态
+     *
+     * 枚举 {@link HadoopFileTaskStatusEnum}
+     */
+    private Integer status;
+    /**
+     * 总文件数
+     */
+    private Long totalItems;
+    /**
+     * 已处理的文件数
+     */
+    private Long processedItems;
+    /**
+     * 总字节数
+     */
+    private Long totalBytes;
+    /**
+     * 已处理的字节数
+     */
+    private Long processedBytes;
+    /**
+     * 失败原因
+     */
+    private String errorMsg;
+    /**
+     * 开始执行时间
+     */
+    private LocalDateTime startTime;
+    /**
+     * 结束时间
+     */
+    private LocalDateTime finishTime;
+
+}
@@ -0,0 +1,58 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * hadoop 文件分享 DO
+ *
+ * 分享只记录引用的文件，见 {@link HadoopShareItemDO}，不复制文件内容
+ *
+ * @author 管理员1
+ */
+@TableName("system_hadoop_share")
+@KeySequence("system_hadoop_share_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HadoopShareDO extends BaseDO {
+
+    /**
+     * 编号
+     */
+    @TableId
+    private Long id;
+    /**
+     * 分享密钥，即分享链接中的标识
+     */
+    private String shareKey;
+    /**
+     * 提取码，为空时不需要提取码
+     */
+    private String password;
+    /**
+     * 过期时间，为空时永久有效
+     */
+    private LocalDateTime expireTime;
+    /**
+     * 查看次数
+     */
+    private Integer viewCount;
+    /**
+     * 下载次数
+     */
+    private Integer downloadCount;
+    /**
+     * 保存次数
+     */
+    private Integer saveCount;
+
+}
@@ -0,0 +1,42 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+/**
+ * hadoop 文件分享项 DO
+ *
+ * @author 管理员1
+ */
+@TableName("system_hadoop_share_item")
+@KeySequence("system_hadoop_share_item_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HadoopShareItemDO extends BaseDO {
+
+    /**
+     * 编号
+     */
+    @TableId
+    private Long id;
+    /**
+     * 分享编号
+     *
+     * 关联 {@link HadoopShareDO#getId()}
+     */
+    private Long shareId;
+    /**
+     * 分享的文件编号
+     *
+     * 关联 {@link HadoopFileDO#getId()}
+     */
+    private Long fileId;
+
+}
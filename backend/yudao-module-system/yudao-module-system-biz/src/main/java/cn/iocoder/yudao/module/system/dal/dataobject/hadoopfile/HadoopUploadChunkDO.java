@@ -0,0 +1,46 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+/**
+ * hadoop 分片上传的分片 DO
+ *
+ * 记录已写入 HDFS 临时目录的分片，用于断点续传
+ *
+ * @author 管理员1
+ */
+@TableName("system_hadoop_upload_chunk")
+@KeySequence("system_hadoop_upload_chunk_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HadoopUploadChunkDO extends BaseDO {
+
+    /**
+     * 编号
+     */
+    @TableId
+    private Long id;
+    /**
+     * 上传任务编号
+     *
+     * 关联 {@link HadoopUploadSessionDO#getId()}
+     */
+    private Long sessionId;
+    /**
+     * 分片序号，从 0 开始
+     */
+    private Integer chunkIndex;
+    /**
+     * 分片大小（字节）
+     */
+    private Long size;
+
+}
@@ -0,0 +1,69 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import cn.iocoder.yudao.module.system.enums.HadoopUploadStatusEnum;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+/**
+ * hadoop 分片上传任务 DO
+ *
+ * 每个任务的分片先写入 HDFS 临时目录，全部上传完成后合并成最终文件
+ *
+ * @author 管理员1
+ */
+@TableName("system_hadoop_upload_session")
+@KeySequence("system_hadoop_upload_session_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HadoopUploadSessionDO extends BaseDO {
+
+    /**
+     * 上传任务编号
+     */
+    @TableId
+    private Long id;
+    /**
+     * 文件名
+     */
+    private String name;
+    /**
+     * 父级目录
+     */
+    private String catalogue;
+    /**
+     * 文件类型
+     */
+    private Integer type;
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+    /**
+     * 分片大小（字节），最后一个分片为剩余的大小
+     */
+    private Long chunkSize;
+    /**
+     * 分片数量
+     */
+    private Integer chunkCount;
+    /**
+     * 上传状态
+     *
+     * 枚举 {@link HadoopUploadStatusEnum}
+     */
+    private Integer status;
+    /**
+     * 上传完成后生成的文件编号
+     *
+     * 关联 {@link HadoopFileDO#getId()}
+     */
+    private Long fileId;
+
+}
@@ -0,0 +1,51 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+/**
+ * hadoop 用户空间用量 DO
+ *
+ * 在文件创建、彻底删除时增量维护，展示用量和校验配额时直接读取，无需汇总文件表。
+ * 统计范围是用户所有未删除的文件记录，包括回收站中的文件；用户编号全局唯一，所以该表不区分租户
+ *
+ * @author 管理员1
+ */
+@TableName("system_hadoop_user_usage")
+@KeySequence("system_hadoop_user_usage_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HadoopUserUsageDO extends BaseDO {
+
+    /**
+     * 编号
+     */
+    @TableId
+    private Long id;
+    /**
+     * 用户编号
+     */
+    private Long userId;
+    /**
+     * 已用空间（字节）
+     */
+    private Long usedBytes;
+    /**
+     * 文件数量，不包括目录
+     */
+    private Long fileCount;
+    /**
+     * 空间配额（字节）
+     *
+     * 为空时，使用 yudao.hadoop.quota.default-quota 配置项
+     */
+    private Long quotaBytes;
+
+}
@@ -0,0 +1,46 @@
+package cn.iocoder.yudao.module.system.dal.mysql.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileBlobDO;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * hadoop 文件内容 Mapper
+ *
+ * @author 管理员1
+ */
+@Mapper
+public interface HadoopFileBlobMapper extends BaseMapperX<HadoopFileBlobDO> {
+
+    default HadoopFileBlobDO selectBySha256AndSize(String sha256, Long size) {
+        return selectOne(HadoopFileBlobDO::getSha256, sha256, HadoopFileBlobDO::getSize, size);
+    }
+
+    /**
+     * 增加引用计数。引用计数已归零的内容正在被删除，不允许再引用
+     *
+     * @return 更新的行数，为 0 说明内容不存在或已被删除
+     */
+    @Update("UPDATE system_hadoop_file_blob SET ref_count = ref_count + #{count} WHERE id = #{id} AND ref_count > 0 AND deleted = 0")
+    int updateRefCountIncr(@Param("id") Long id, @Param("count") int count);
+
+    /**
+     * 减少引用计数
+     *
+     * @return 更新的行数，为 0 说明内容不存在或引用计数不足
+     */
+    @Update("UPDATE system_hadoop_file_blob SET ref_count = ref_count - #{count} WHERE id = #{id} AND ref_count >= #{count} AND deleted = 0")
+    int updateRefCountDecr(@Param("id") Long id, @Param("count") int count);
+
+    /**
+     * 删除引用计数已归零的内容。使用物理删除，保证同样的内容之后可以重新写入
+     *
+     * @return 删除的行数，为 0 说明期间又被引用了
+     */
+    @Delete("DELETE FROM system_hadoop_file_blob WHERE id = #{id} AND ref_count = 0")
+    int deleteByIdAndRefCountZero(@Param("id") Long id);
+
+}
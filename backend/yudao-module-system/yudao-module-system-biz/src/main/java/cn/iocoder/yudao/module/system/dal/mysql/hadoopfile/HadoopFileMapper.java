@@ -1,12 +1,18 @@
 package cn.iocoder.yudao.module.system.dal.mysql.hadoopfile;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.*;
 import org.springframework.util.StringUtils;
 
@@ -44,4 +50,271 @@ public interface HadoopFileMapper extends BaseMapperX<HadoopFileDO> {
         return selectPage(reqVO, queryWrapper);
     }
 
+    /**
+     * 获得 catalogue 目录下名为 name 的文件夹，即目录 catalogue + "/" + name 对应的记录
+     */
+    default HadoopFileDO selectDirectory(String creator, String catalogue, String name) {
+        return selectOne(new LambdaQueryWrapperX<HadoopFileDO>()
+                .eq(HadoopFileDO::getCreator, creator)
+                .eq(HadoopFileDO::getCatalogue, catalogue)
+                .eq(HadoopFileDO::getName, name)
+                .eq(HadoopFileDO::getType, FileTypeEnum.DIRECTORY.getType())
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus())
+                .last("LIMIT 1"));
+    }
+
+    /**
+     * 获得目录下名为 name，或以 namePrefix 开头的正常文件，只查询文件名
+     */
+    default List<HadoopFileDO> selectListByNameOrNamePrefix(String creator, String catalogue,
+                                                            String name, String namePrefix) {
+        return selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .select(HadoopFileDO::getName)
+                .eq(HadoopFileDO::getCreator, creator)
+                .eq(HadoopFileDO::getCatalogue, catalogue)
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus())
+                .and(w -> w.eq(HadoopFileDO::getName, name).or().likeRight(HadoopFileDO::getName, namePrefix)));
+    }
+
+    /**
+     * 更新整棵子树的目录路径，即目录的直接子文件，以及更深层的所有文件
+     *
+     * 回收站中可能有同名的文件夹，其子文件的目录路径相同，所以按物化路径限定在该文件夹的子树内
+     *
+     * @param creator 创建者
+     * @param treePath 子文件物化路径的前缀，即文件夹自身的物化路径再追加文件夹编号，例如说 /1/2/
+     * @param oldCatalogue 原目录路径，例如说 /a/b
+     * @param newCatalogue 新目录路径，例如说 /a/c
+     * @return 更新的行数
+     */
+    default int updateSubtreeCatalogue(String creator, String treePath, String oldCatalogue, String newCatalogue) {
+        return updateSubtree(creator, oldCatalogue, newCatalogue, treePath, treePath, 0);
+    }
+
+    /**
+     * 更新整棵子树的目录路径、物化路径和层级深度，用于目录移动到其他目录下
+     *
+     * @param creator 创建者
+     * @param oldCatalogue 原目录路径，例如说 /a/b
+     * @param newCatalogue 新目录路径，例如说 /c/b
+     * @param oldTreePath 子文件原物化路径的前缀，例如说 /1/2/
+     * @param newTreePath 子文件新物化路径的前缀，例如说 /3/2/
+     * @param depthDelta 层级深度的变化量
+     * @return 更新的行数
+     */
+    default int updateSubtree(String creator, String oldCatalogue, String newCatalogue,
+                              String oldTreePath, String newTreePath, int depthDelta) {
+        // 转义 LIKE 的通配符，避免目录名中的 % 和 _ 匹配到其他目录
+        String pattern = escapeLike(oldCatalogue) + "/%";
+        return updateCataloguePrefix(creator, oldCatalogue, newCatalogue, pattern, oldTreePath, newTreePath, depthDelta);
+    }
+
+    /**
+     * 将 oldCatalogue 开头的目录路径替换为 newCatalogue，SQL 见 HadoopFileMapper.xml
+     *
+     * oldTreePath 不为空时，只更新物化路径以 oldTreePath 开头的文件，同时替换为 newTreePath，并调整层级深度
+     *
+     * @param creator 创建者
+     * @param oldCatalogue 原目录路径
+     * @param newCatalogue 新目录路径
+     * @param oldCataloguePattern 匹配 oldCatalogue 下级目录的 LIKE 表达式
+     * @param oldTreePath 原物化路径前缀
+     * @param newTreePath 新物化路径前缀
+     * @param depthDelta 层级深度的变化量
+     * @return 更新的行数
+     */
+    int updateCataloguePrefix(@Param("creator") String creator,
+                              @Param("oldCatalogue") String oldCatalogue,
+                              @Param("newCatalogue") String newCatalogue,
+                              @Param("oldCataloguePattern") String oldCataloguePattern,
+                              @Param("oldTreePath") String oldTreePath,
+                              @Param("newTreePath") String newTreePath,
+                              @Param("depthDelta") int depthDelta);
+
+    /**
+     * 搜索用户全盘的正常文件，SQL 见 HadoopFileMapper.xml
+     *
+     * 子串搜索走 name 列的 ngram 全文索引，前缀搜索走 (creator, status, name) 索引，
+     * 扩展名过滤走 (creator, status, extension) 索引。结果按完全匹配、前缀匹配、全文相关度、文件名长度排序
+     *
+     * @param creator 创建者
+     * @param keyword 关键字，为空时不按文件名过滤
+     * @param prefix 是否只匹配文件名前缀
+     * @param fullText 是否使用全文索引。关键字短于 ngram 分词长度时无法使用，退化为 LIKE
+     * @param extension 扩展名，小写，不带点
+     * @param type 文件类型
+     * @param limit 最大条数
+     * @return 文件列表
+     */
+    default List<HadoopFileDO> selectListBySearch(String creator, String keyword, boolean prefix, boolean fullText,
+                                                  String extension, Integer type, int limit) {
+        String escaped = keyword != null ? escapeLike(keyword) : null;
+        return selectListBySearch0(creator, keyword,
+                // 布尔模式下，ngram 会将双引号包裹的关键字切分为连续的分词，即子串匹配
+                fullText && !prefix ? "\"" + keyword.replace("\"", "") + "\"" : null,
+                escaped != null ? escaped + "%" : null,
+                escaped != null && !prefix ? "%" + escaped + "%" : null,
+                extension, type, limit);
+    }
+
+    List<HadoopFileDO> selectListBySearch0(@Param("creator") String creator,
+                                           @Param("keyword") String keyword,
+                                           @Param("fullTextKeyword") String fullTextKeyword,
+                                           @Param("prefixPattern") String prefixPattern,
+                                           @Param("substringPattern") String substringPattern,
+                                           @Param("extension") String extension,
+                                           @Param("type") Integer type,
+                                           @Param("limit") int limit);
+
+    /**
+     * 增加多个文件夹的子树统计值，增量可以为负数，SQL 见 HadoopFileMapper.xml
+     *
+     * @param ids 文件夹编号
+     * @param totalSize 总大小的增量
+     * @param fileCount 文件数量的增量
+     * @param dirCount 文件夹数量的增量
+     * @return 更新的行数
+     */
+    int updateAggregateIncr(@Param("ids") Collection<Long> ids, @Param("totalSize") long totalSize,
+                            @Param("fileCount") long fileCount, @Param("dirCount") long dirCount);
+
+    /**
+     * 覆盖文件夹的子树统计值，用于修复
+     */
+    default int updateAggregate(Long id, long totalSize, long fileCount, long dirCount) {
+        return update(null, new LambdaUpdateWrapper<HadoopFileDO>()
+                .set(HadoopFileDO::getTotalSize, totalSize)
+                .set(HadoopFileDO::getFileCount, fileCount)
+                .set(HadoopFileDO::getDirCount, dirCount)
+                .eq(HadoopFileDO::getId, id));
+    }
+
+    /**
+     * 保存文件内容的修改时间，不更新 update_time
+     */
+    default int updateContentModifiedTime(Long id, Long contentModifiedTime) {
+        return update(null, new LambdaUpdateWrapper<HadoopFileDO>()
+                .set(HadoopFileDO::getContentModifiedTime, contentModifiedTime)
+                .eq(HadoopFileDO::getId, id));
+    }
+
+    /**
+     * 获得拥有文件夹的用户列表
+     */
+    @Select("SELECT DISTINCT creator FROM system_hadoop_file WHERE type = 6 AND deleted = 0")
+    List<String> selectCreatorListWithDirectory();
+
+    /**
+     * 获得用户的全部文件，只查询计算子树统计值需要的字段
+     */
+    default List<HadoopFileDO> selectListForAggregate(String creator) {
+        return selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .select(HadoopFileDO::getId, HadoopFileDO::getParentId, HadoopFileDO::getDepth, HadoopFileDO::getType,
+                        HadoopFileDO::getStatus, HadoopFileDO::getSize, HadoopFileDO::getTotalSize,
+                        HadoopFileDO::getFileCount, HadoopFileDO::getDirCount)
+                .eq(HadoopFileDO::getCreator, creator));
+    }
+
+    /**
+     * 统计物化路径以 treePath 开头的正常文件的总大小，即目录下整棵子树的大小
+     *
+     * @param creator 创建者
+     * @param treePath 目录下文件的物化路径，例如说 /1/2/
+     * @return 总大小（字节）
+     */
+    @Select("SELECT COALESCE(SUM(size), 0) FROM system_hadoop_file WHERE creator = #{creator}"
+            + " AND tree_path LIKE CONCAT(#{treePath}, '%') AND status = 0 AND deleted = 0")
+    long selectSumSizeByTreePath(@Param("creator") String creator, @Param("treePath") String treePath);
+
+    default List<HadoopFileDO> selectListByParentId(String creator, Long parentId) {
+        return selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .eq(HadoopFileDO::getCreator, creator)
+                .eq(HadoopFileDO::getParentId, parentId)
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus())
+                .orderByAsc(HadoopFileDO::getType)
+                .orderByAsc(HadoopFileDO::getName));
+    }
+
+    /**
+     * 获得物化路径以 treePath 开头的正常文件，即文件夹的整棵子树，按层级深度从浅到深排序
+     *
+     * 回收站中的文件夹及其子孙都不是正常状态，不在结果中
+     */
+    default List<HadoopFileDO> selectListByTreePath(String creator, String treePath) {
+        return selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .eq(HadoopFileDO::getCreator, creator)
+                .likeRight(HadoopFileDO::getTreePath, treePath)
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus())
+                .orderByAsc(HadoopFileDO::getDepth));
+    }
+
+    /**
+     * 获得物化路径以 treePath 开头的全部文件，包括回收站中的文件，按层级深度从浅到深排序
+     */
+    default List<HadoopFileDO> selectSubtreeList(String creator, String treePath) {
+        return selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .eq(HadoopFileDO::getCreator, creator)
+                .likeRight(HadoopFileDO::getTreePath, treePath)
+                .orderByAsc(HadoopFileDO::getDepth));
+    }
+
+    /**
+     * 批量放入回收站
+     */
+    default int updateTrashed(Collection<Long> ids, LocalDateTime trashTime) {
+        return update(null, new LambdaUpdateWrapper<HadoopFileDO>()
+                .set(HadoopFileDO::getStatus, HadoopFileStatusEnum.TRASHED.getStatus())
+                .set(HadoopFileDO::getTrashTime, trashTime)
+                .in(HadoopFileDO::getId, ids)
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus()));
+    }
+
+    /**
+     * 将物化路径以 treePath 开头、状态为 whereStatus 的文件，即文件夹子树中的文件，批量修改为 status
+     */
+    default int updateSubtreeStatus(String creator, String treePath, Integer whereStatus, Integer status) {
+        return update(null, new LambdaUpdateWrapper<HadoopFileDO>()
+                .set(HadoopFileDO::getStatus, status)
+                .eq(HadoopFileDO::getCreator, creator)
+                .likeRight(HadoopFileDO::getTreePath, treePath)
+                .eq(HadoopFileDO::getStatus, whereStatus));
+    }
+
+    default int updateStatusByIds(Collection<Long> ids, Integer whereStatus, Integer status) {
+        return update(null, new LambdaUpdateWrapper<HadoopFileDO>()
+                .set(HadoopFileDO::getStatus, status)
+                .in(HadoopFileDO::getId, ids)
+                .eq(HadoopFileDO::getStatus, whereStatus));
+    }
+
+    /**
+     * 获得用户回收站中的一批文件，按编号分批遍历，走 (creator, status, trash_time) 索引
+     */
+    default List<HadoopFileDO> selectTrashedList(String creator, Long minId, int limit) {
+        return selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .eq(HadoopFileDO::getCreator, creator)
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.TRASHED.getStatus())
+                .gt(HadoopFileDO::getId, minId)
+                .orderByAsc(HadoopFileDO::getId)
+                .last("LIMIT " + limit));
+    }
+
+    /**
+     * 获得放入回收站早于 trashTime 的一批文件，走 (status, trash_time) 索引
+     */
+    default List<HadoopFileDO> selectTrashedListByTrashTimeBefore(LocalDateTime trashTime, int limit) {
+        return selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.TRASHED.getStatus())
+                .lt(HadoopFileDO::getTrashTime, trashTime)
+                .orderByAsc(HadoopFileDO::getTrashTime)
+                .last("LIMIT " + limit));
+    }
+
+    /**
+     * 转义 LIKE 的通配符 \、%、_
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
 }
\ No newline at end of file
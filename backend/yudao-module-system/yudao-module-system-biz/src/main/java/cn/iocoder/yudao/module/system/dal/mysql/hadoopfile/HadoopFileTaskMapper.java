@@ -0,0 +1,72 @@
+package cn.iocoder.yudao.module.system.dal.mysql.hadoopfile;
+
+import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileTaskPageReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileTaskDO;
+import cn.iocoder.yudao.module.system.enums.HadoopFileTaskStatusEnum;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
+/**
+ * hadoop 文件任务 Mapper
+ *
+ * @author 管理员1
+ */
+@Mapper
+public interface HadoopFileTaskMapper extends BaseMapperX<HadoopFileTaskDO> {
+
+    default PageResult<HadoopFileTaskDO> selectPage(String creator, HadoopFileTaskPageReqVO reqVO) {
+        return selectPage(reqVO, new LambdaQueryWrapperX<HadoopFileTaskDO>()
+                .eq(HadoopFileTaskDO::getCreator, creator)
+                .eqIfPresent(HadoopFileTaskDO::getType, reqVO.getType())
+                .eqIfPresent(HadoopFileTaskDO::getStatus, reqVO.getStatus())
+                .orderByDesc(HadoopFileTaskDO::getId));
+    }
+
+    /**
+     * 获得用户最早提交的等待中任务
+     */
+    default HadoopFileTaskDO selectFirstWaiting(String creator) {
+        return selectOne(new LambdaQueryWrapperX<HadoopFileTaskDO>()
+                .eq(HadoopFileTaskDO::getCreator, creator)
+                .eq(HadoopFileTaskDO::getStatus, HadoopFileTaskStatusEnum.WAITING.getStatus())
+                .orderByAsc(HadoopFileTaskDO::getId)
+                .last("LIMIT 1"));
+    }
+
+    default Long selectCountByCreatorAndStatus(String creator, Integer status) {
+        return selectCount(new LambdaQueryWrapperX<HadoopFileTaskDO>()
+                .eq(HadoopFileTaskDO::getCreator, creator)
+                .eq(HadoopFileTaskDO::getStatus, status));
+    }
+
+    default List<HadoopFileTaskDO> selectListByStatusAndUpdateTimeBefore(Integer status, LocalDateTime updateTime) {
+        return selectList(new LambdaQueryWrapperX<HadoopFileTaskDO>()
+                .eq(HadoopFileTaskDO::getStatus, status)
+                .lt(HadoopFileTaskDO::getUpdateTime, updateTime));
+    }
+
+    /**
+     * 获得存在指定状态任务的用户
+     */
+    default List<String> selectCreatorListByStatus(Integer status) {
+        return convertList(selectList(new LambdaQueryWrapperX<HadoopFileTaskDO>()
+                .eq(HadoopFileTaskDO::getStatus, status)
+                .select(HadoopFileTaskDO::getCreator)
+                .groupBy(HadoopFileTaskDO::getCreator)), HadoopFileTaskDO::getCreator);
+    }
+
+    default int updateByIdAndStatus(Long id, Integer whereStatus, HadoopFileTaskDO updateObj) {
+        return update(updateObj, new LambdaUpdateWrapper<HadoopFileTaskDO>()
+                .eq(HadoopFileTaskDO::getId, id)
+                .eq(HadoopFileTaskDO::getStatus, whereStatus));
+    }
+
+}
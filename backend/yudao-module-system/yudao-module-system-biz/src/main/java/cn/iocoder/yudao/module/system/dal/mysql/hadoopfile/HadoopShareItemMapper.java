@@ -0,0 +1,45 @@
+package cn.iocoder.yudao.module.system.dal.mysql.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopShareItemDO;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * hadoop 文件分享项 Mapper
+ *
+ * @author 管理员1
+ */
+@Mapper
+public interface HadoopShareItemMapper extends BaseMapperX<HadoopShareItemDO> {
+
+    default List<HadoopShareItemDO> selectListByShareId(Long shareId) {
+        return selectList(HadoopShareItemDO::getShareId, shareId);
+    }
+
+    default List<HadoopShareItemDO> selectListByShareIds(Collection<Long> shareIds) {
+        return selectList(HadoopShareItemDO::getShareId, shareIds);
+    }
+
+    default List<HadoopShareItemDO> selectListByShareIdsAndFileId(Collection<Long> shareIds, Long fileId) {
+        return selectList(new LambdaQueryWrapperX<HadoopShareItemDO>()
+                .in(HadoopShareItemDO::getShareId, shareIds)
+                .eq(HadoopShareItemDO::getFileId, fileId));
+    }
+
+    default int deleteByShareId(Long shareId) {
+        return delete(HadoopShareItemDO::getShareId, shareId);
+    }
+
+    default int deleteByFileId(Long fileId) {
+        return delete(HadoopShareItemDO::getFileId, fileId);
+    }
+
+    default int deleteByFileIds(Collection<Long> fileIds) {
+        return delete(new LambdaQueryWrapperX<HadoopShareItemDO>().in(HadoopShareItemDO::getFileId, fileIds));
+    }
+
+}
@@ -0,0 +1,36 @@
+package cn.iocoder.yudao.module.system.dal.mysql.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopShareDO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * hadoop 文件分享 Mapper
+ *
+ * @author 管理员1
+ */
+@Mapper
+public interface HadoopShareMapper extends BaseMapperX<HadoopShareDO> {
+
+    default HadoopShareDO selectByShareKey(String shareKey) {
+        return selectOne(HadoopShareDO::getShareKey, shareKey);
+    }
+
+    default List<HadoopShareDO> selectListByCreator(String creator) {
+        return selectList(HadoopShareDO::getCreator, creator);
+    }
+
+    @Update("UPDATE system_hadoop_share SET view_count = view_count + 1 WHERE id = #{id}")
+    int updateViewCountIncr(@Param("id") Long id);
+
+    @Update("UPDATE system_hadoop_share SET download_count = download_count + 1 WHERE id = #{id}")
+    int updateDownloadCountIncr(@Param("id") Long id);
+
+    @Update("UPDATE system_hadoop_share SET save_count = save_count + 1 WHERE id = #{id}")
+    int updateSaveCountIncr(@Param("id") Long id);
+
+}
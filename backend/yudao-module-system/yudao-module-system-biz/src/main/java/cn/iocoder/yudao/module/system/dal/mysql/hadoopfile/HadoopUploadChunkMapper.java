@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.system.dal.mysql.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUploadChunkDO;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.List;
+
+/**
+ * hadoop 分片上传的分片 Mapper
+ *
+ * @author 管理员1
+ */
+@Mapper
+public interface HadoopUploadChunkMapper extends BaseMapperX<HadoopUploadChunkDO> {
+
+    default List<HadoopUploadChunkDO> selectListBySessionId(Long sessionId) {
+        return selectList(HadoopUploadChunkDO::getSessionId, sessionId);
+    }
+
+    default HadoopUploadChunkDO selectBySessionIdAndChunkIndex(Long sessionId, Integer chunkIndex) {
+        return selectOne(HadoopUploadChunkDO::getSessionId, sessionId,
+                HadoopUploadChunkDO::getChunkIndex, chunkIndex);
+    }
+
+    default int deleteBySessionId(Long sessionId) {
+        return delete(HadoopUploadChunkDO::getSessionId, sessionId);
+    }
+
+}
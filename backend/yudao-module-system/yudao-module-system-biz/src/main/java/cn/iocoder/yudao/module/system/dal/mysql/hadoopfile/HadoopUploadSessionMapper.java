@@ -0,0 +1,36 @@
+package cn.iocoder.yudao.module.system.dal.mysql.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUploadSessionDO;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * hadoop 分片上传任务 Mapper
+ *
+ * @author 管理员1
+ */
+@Mapper
+public interface HadoopUploadSessionMapper extends BaseMapperX<HadoopUploadSessionDO> {
+
+    default int updateByIdAndStatus(Long id, Integer whereStatus, HadoopUploadSessionDO updateObj) {
+        return update(updateObj, new LambdaUpdateWrapper<HadoopUploadSessionDO>()
+                .eq(HadoopUploadSessionDO::getId, id)
+                .eq(HadoopUploadSessionDO::getStatus, whereStatus));
+    }
+
+    default List<HadoopUploadSessionDO> selectListByStatusAndUpdateTimeBefore(Collection<Integer> statuses,
+                                                                             LocalDateTime updateTime, int limit) {
+        return selectList(new LambdaQueryWrapperX<HadoopUploadSessionDO>()
+                .in(HadoopUploadSessionDO::getStatus, statuses)
+                .lt(HadoopUploadSessionDO::getUpdateTime, updateTime)
+                .orderByAsc(HadoopUploadSessionDO::getId)
+                .last("LIMIT " + limit));
+    }
+
+}
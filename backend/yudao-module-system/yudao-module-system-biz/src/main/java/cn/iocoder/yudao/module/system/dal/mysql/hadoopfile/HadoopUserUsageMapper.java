@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.system.dal.mysql.hadoopfile;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUserUsageDO;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * hadoop 用户空间用量 Mapper
+ *
+ * @author 管理员1
+ */
+@Mapper
+public interface HadoopUserUsageMapper extends BaseMapperX<HadoopUserUsageDO> {
+
+    default HadoopUserUsageDO selectByUserId(Long userId) {
+        return selectOne(HadoopUserUsageDO::getUserId, userId);
+    }
+
+    /**
+     * 增加用户的已用空间和文件数量，记录不存在时插入。增量可以为负数
+     *
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO system_hadoop_user_usage (user_id, used_bytes, file_count) VALUES (#{userId}, #{bytes}, #{count})"
+            + " ON DUPLICATE KEY UPDATE used_bytes = used_bytes + VALUES(used_bytes), file_count = file_count + VALUES(file_count)")
+    int upsertUsageIncr(@Param("userId") Long userId, @Param("bytes") long bytes, @Param("count") long count);
+
+}
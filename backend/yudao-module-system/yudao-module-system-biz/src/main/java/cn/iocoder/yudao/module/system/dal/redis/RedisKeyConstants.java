@@ -107,4 +107,20 @@ public interface RedisKeyConstants {
      */
     String WXA_SUBSCRIBE_TEMPLATE = "wxa_subscribe_template";
 
+    /**
+     * hadoop 文件列表的缓存，一个目录（或回收站、分享等分类）对应一个 Hash
+     *
+     * KEY 格式：hadoop_file_list:{userId}:{scope}
+     * HASH 字段：查询条件的摘要，值为 String 分页结果
+     */
+    String HADOOP_FILE_LIST = "hadoop_file_list:%d:%s";
+
+    /**
+     * 用户已缓存的 hadoop 文件列表范围，用于失效用户的全部缓存
+     *
+     * KEY 格式：hadoop_file_list_scopes:{userId}
+     * VALUE 数据格式：Set 范围
+     */
+    String HADOOP_FILE_LIST_SCOPES = "hadoop_file_list_scopes:%d";
+
 }
@@ -0,0 +1,71 @@
+package cn.iocoder.yudao.module.system.dal.redis.hadoopfile;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.HADOOP_FILE_LIST;
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.HADOOP_FILE_LIST_SCOPES;
+
+/**
+ * hadoop 文件列表的 RedisDAO
+ *
+ * @author 管理员1
+ */
+@Repository
+public class HadoopFileListRedisDAO {
+
+    private static final TypeReference<PageResult<HadoopFileDO>> PAGE_TYPE = new TypeReference<PageResult<HadoopFileDO>>() {};
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    public PageResult<HadoopFileDO> get(Long userId, String scope, String signature) {
+        Object value = stringRedisTemplate.opsForHash().get(formatKey(userId, scope), signature);
+        return value != null ? JsonUtils.parseObject((String) value, PAGE_TYPE) : null;
+    }
+
+    public void set(Long userId, String scope, String signature, PageResult<HadoopFileDO> pageResult, Duration timeout) {
+        String redisKey = formatKey(userId, scope);
+        stringRedisTemplate.opsForHash().put(redisKey, signature, JsonUtils.toJsonString(pageResult));
+        stringRedisTemplate.expire(redisKey, timeout);
+        // 记录用户缓存过的范围，用于失效用户的全部缓存
+        String scopesKey = formatScopesKey(userId);
+        stringRedisTemplate.opsForSet().add(scopesKey, scope);
+        stringRedisTemplate.expire(scopesKey, timeout);
+    }
+
+    public void delete(Long userId, Collection<String> scopes) {
+        List<String> redisKeys = CollectionUtils.convertList(scopes, scope -> formatKey(userId, scope));
+        stringRedisTemplate.delete(redisKeys);
+    }
+
+    public void deleteByUserId(Long userId) {
+        String scopesKey = formatScopesKey(userId);
+        Set<String> scopes = stringRedisTemplate.opsForSet().members(scopesKey);
+        if (CollUtil.isNotEmpty(scopes)) {
+            delete(userId, scopes);
+        }
+        stringRedisTemplate.delete(scopesKey);
+    }
+
+    private static String formatKey(Long userId, String scope) {
+        return String.format(HADOOP_FILE_LIST, userId, scope);
+    }
+
+    private static String formatScopesKey(Long userId) {
+        return String.format(HADOOP_FILE_LIST_SCOPES, userId);
+    }
+
+}
@@ -0,0 +1,47 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.config;
+
+import cn.iocoder.yudao.module.system.framework.hadoop.core.AsyncDownloadWriter;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopAsyncStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HdfsBlockCache;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.NativeHadoopStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.WebHdfsClient;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Hadoop 网盘配置类
+ *
+ * @author 管理员1
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(HadoopProperties.class)
+public class HadoopConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public HadoopStorage hadoopStorage(HadoopProperties hadoopProperties) throws IOException {
+        if (hadoopProperties.getStorage().getType() == HadoopProperties.StorageType.WEBHDFS) {
+            return new WebHdfsClient(hadoopProperties);
+        }
+        return new NativeHadoopStorage(hadoopProperties);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HadoopAsyncStorage hadoopAsyncStorage(HadoopStorage hadoopStorage, HadoopProperties hadoopProperties) {
+        return new HadoopAsyncStorage(hadoopStorage, hadoopProperties);
+    }
+
+    @Bean(destroyMethod = "close")
+    public AsyncDownloadWriter asyncDownloadWriter(HadoopProperties hadoopProperties) {
+        return new AsyncDownloadWriter(hadoopProperties.getDownload());
+    }
+
+    @Bean(destroyMethod = "close")
+    public HdfsBlockCache hdfsBlockCache(HadoopStorage hadoopStorage, HadoopProperties hadoopProperties) throws IOException {
+        return new HdfsBlockCache(hadoopStorage, hadoopProperties.getBlockCache());
+    }
+
+}
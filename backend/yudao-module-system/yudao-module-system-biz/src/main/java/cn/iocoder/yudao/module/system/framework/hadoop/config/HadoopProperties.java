@@ -0,0 +1,567 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hadoop（HDFS）网盘相关的配置项
+ *
+ * @author 管理员1
+ */
+@ConfigurationProperties(prefix = "yudao.hadoop")
+@Validated
+@Data
+public class HadoopProperties {
+
+    /**
+     * NameNode 主机地址
+     */
+    @NotEmpty(message = "NameNode 主机地址不能为空")
+    private String nameNodeHost = "localhost";
+    /**
+     * NameNode WebHDFS 端口
+     */
+    @NotNull(message = "NameNode WebHDFS 端口不能为空")
+    private Integer nameNodePort = 9870;
+    /**
+     * DataNode 默认主机地址
+     *
+     * WebHDFS 重定向返回的是集群内部主机名，未在 {@link DataNode#mappings} 中配置的 DataNode 替换成该地址；
+     * 为空时直接使用 NameNode 返回的地址
+     */
+    private String dataNodeHost;
+    /**
+     * DataNode WebHDFS 端口，{@link DataNode#mappings} 中未指定端口时使用
+     */
+    @NotNull(message = "DataNode WebHDFS 端口不能为空")
+    private Integer dataNodePort = 9864;
+    /**
+     * HDFS 用户名
+     */
+    @NotEmpty(message = "HDFS 用户名不能为空")
+    private String user = "hadoop-namenode";
+    /**
+     * 最大重试次数，幂等的操作失败时由 {@link Async} 定时重试
+     */
+    @NotNull(message = "最大重试次数不能为空")
+    private Integer maxRetries = 3;
+
+    /**
+     * 异步操作配置
+     */
+    @Valid
+    private Async async = new Async();
+
+    @Data
+    public static class Async {
+
+        /**
+         * 同时进行的最大操作数
+         */
+        @NotNull(message = "异步操作最大并发数不能为空")
+        private Integer maxInFlight = 64;
+        /**
+         * 排队等待的最大操作数，超出时操作直接失败
+         */
+        @NotNull(message = "异步操作队列容量不能为空")
+        private Integer queueCapacity = 10000;
+        /**
+         * 重试间隔，第 N 次重试前等待 N 倍的间隔
+         */
+        @NotNull(message = "重试间隔不能为空")
+        private Duration retryInterval = Duration.ofSeconds(2);
+
+    }
+
+    /**
+     * DataNode 路由配置
+     */
+    @Valid
+    private DataNode dataNode = new DataNode();
+
+    @Data
+    public static class DataNode {
+
+        /**
+         * DataNode 地址映射，key 为集群内部主机名（或 主机名:端口），value 为应用可访问的 主机:端口
+         */
+        private Map<String, String> mappings = new LinkedHashMap<>();
+        /**
+         * 健康检查间隔
+         */
+        @NotNull(message = "DataNode 健康检查间隔不能为空")
+        private Duration healthCheckInterval = Duration.ofSeconds(10);
+        /**
+         * 健康检查的连接超时时间
+         */
+        @NotNull(message = "DataNode 健康检查超时时间不能为空")
+        private Duration healthCheckTimeout = Duration.ofSeconds(2);
+        /**
+         * 连续失败多少次后，标记为不可用
+         */
+        @NotNull(message = "DataNode 失败阈值不能为空")
+        private Integer failureThreshold = 2;
+
+    }
+
+    /**
+     * HTTP 连接池配置
+     */
+    @Valid
+    private Pool pool = new Pool();
+
+    @Data
+    public static class Pool {
+
+        /**
+         * 建立连接的超时时间
+         */
+        @NotNull(message = "连接超时时间不能为空")
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        /**
+         * 读取数据的超时时间
+         */
+        @NotNull(message = "读取超时时间不能为空")
+        private Duration socketTimeout = Duration.ofSeconds(60);
+        /**
+         * 从连接池获取连接的超时时间
+         */
+        @NotNull(message = "获取连接超时时间不能为空")
+        private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+        /**
+         * 连接池的最大连接数
+         */
+        @NotNull(message = "最大连接数不能为空")
+        private Integer maxTotal = 400;
+        /**
+         * 到 NameNode 的最大连接数。NameNode 只处理元数据请求，请求短小且频繁
+         */
+        @NotNull(message = "NameNode 最大连接数不能为空")
+        private Integer maxPerRouteNameNode = 100;
+        /**
+         * 到单个 DataNode 的最大连接数。DataNode 承载文件读写，连接持有时间长
+         */
+        @NotNull(message = "DataNode 最大连接数不能为空")
+        private Integer maxPerRouteDataNode = 200;
+        /**
+         * 服务端未返回 Keep-Alive 时，连接默认保持的时间
+         */
+        @NotNull(message = "连接保持时间不能为空")
+        private Duration keepAlive = Duration.ofSeconds(30);
+        /**
+         * 空闲连接的回收时间
+         */
+        @NotNull(message = "空闲连接回收时间不能为空")
+        private Duration idleEvict = Duration.ofSeconds(60);
+        /**
+         * 连接复用前的校验间隔，超过该时间未使用的连接会先校验再使用
+         */
+        @NotNull(message = "连接校验间隔不能为空")
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    }
+
+    /**
+     * 上传配置，包括分片上传和内容去重
+     */
+    @Valid
+    private Upload upload = new Upload();
+
+    @Data
+    public static class Upload {
+
+        /**
+         * 分片的临时存放目录，每个上传任务对应其下的一个子目录
+         */
+        @NotEmpty(message = "分片临时目录不能为空")
+        private String tempDir = "/.upload";
+        /**
+         * 默认分片大小
+         */
+        @NotNull(message = "默认分片大小不能为空")
+        private DataSize chunkSize = DataSize.ofMegabytes(8);
+        /**
+         * 允许的最大分片大小
+         */
+        @NotNull(message = "最大分片大小不能为空")
+        private DataSize maxChunkSize = DataSize.ofMegabytes(64);
+        /**
+         * 允许的最小分片大小。只有一个分片时不限制
+         */
+        @NotNull(message = "最小分片大小不能为空")
+        private DataSize minChunkSize = DataSize.ofMegabytes(1);
+        /**
+         * 每个上传任务允许的最大分片数，每个分片对应一条分片记录
+         */
+        @NotNull(message = "最大分片数不能为空")
+        private Integer maxChunkCount = 10000;
+        /**
+         * 上传任务的过期时间，超过该时间没有上传分片的未完成任务，由定时任务清理
+         */
+        @NotNull(message = "上传任务过期时间不能为空")
+        private Duration sessionExpire = Duration.ofDays(1);
+        /**
+         * 去重后文件内容的存放目录，内容按 SHA-256 存放在其下的 {前两位}/{SHA-256}
+         */
+        @NotEmpty(message = "文件内容目录不能为空")
+        private String blobDir = "/.blob";
+
+    }
+
+    /**
+     * 文件列表缓存配置，包括本地缓存和 Redis 缓存两级
+     */
+    @Valid
+    private ListCache listCache = new ListCache();
+
+    @Data
+    public static class ListCache {
+
+        /**
+         * 是否开启
+         */
+        @NotNull(message = "是否开启文件列表缓存不能为空")
+        private Boolean enable = true;
+        /**
+         * 本地缓存的过期时间。其他节点的修改通过 Redis 广播失效，过期时间只用于兜底
+         */
+        @NotNull(message = "本地缓存过期时间不能为空")
+        private Duration localExpireTime = Duration.ofSeconds(30);
+        /**
+         * 本地缓存的最大目录数
+         */
+        @NotNull(message = "本地缓存最大目录数不能为空")
+        private Integer localMaximumSize = 10000;
+        /**
+         * Redis 缓存的过期时间
+         */
+        @NotNull(message = "Redis 缓存过期时间不能为空")
+        private Duration redisExpireTime = Duration.ofMinutes(10);
+
+    }
+
+    /**
+     * 用户空间配额配置
+     */
+    @Valid
+    private Quota quota = new Quota();
+
+    @Data
+    public static class Quota {
+
+        /**
+         * 是否开启配额校验。关闭时仍会统计用户的已用空间
+         */
+        @NotNull(message = "是否开启配额校验不能为空")
+        private Boolean enable = true;
+        /**
+         * 默认的用户空间配额，用户未单独设置时使用
+         */
+        @NotNull(message = "默认空间配额不能为空")
+        private DataSize defaultQuota = DataSize.ofGigabytes(10);
+
+    }
+
+    /**
+     * 文件任务配置，转存分享、批量移动、批量删除等耗时操作在后台线程池执行
+     */
+    @Valid
+    private Task task = new Task();
+
+    @Data
+    public static class Task {
+
+        /**
+         * 执行任务的线程数
+         */
+        @NotNull(message = "文件任务线程数不能为空")
+        private Integer poolSize = 8;
+        /**
+         * 线程池的队列容量，队列满时任务保持等待中，由该用户的其他任务结束或定时巡检时再调度
+         */
+        @NotNull(message = "文件任务队列容量不能为空")
+        private Integer queueCapacity = 1000;
+        /**
+         * 单个用户同时执行的任务数，避免单个用户占满线程池
+         */
+        @NotNull(message = "单个用户并发任务数不能为空")
+        private Integer perUserConcurrency = 2;
+        /**
+         * 单个用户最多等待中的任务数
+         */
+        @NotNull(message = "单个用户最多等待任务数不能为空")
+        private Integer maxWaitingPerUser = 100;
+        /**
+         * 进度上报的最小间隔，进度会写入数据库并通过 WebSocket 推送
+         */
+        @NotNull(message = "进度上报间隔不能为空")
+        private Duration progressInterval = Duration.ofSeconds(1);
+        /**
+         * 执行中的任务超过该时间没有上报进度，视为执行节点已经宕机，由定时巡检标记为失败。
+         * 需要大于单个文件处理的最长耗时
+         */
+        @NotNull(message = "任务超时时间不能为空")
+        private Duration staleTimeout = Duration.ofMinutes(10);
+
+    }
+
+    /**
+     * 复制配置，用于转存分享的文件和文件夹
+     */
+    @Valid
+    private Copy copy = new Copy();
+
+    @Data
+    public static class Copy {
+
+        /**
+         * 并行复制的文件数，所有复制操作共用
+         */
+        @NotNull(message = "并行复制文件数不能为空")
+        private Integer concurrency = 16;
+        /**
+         * 等待复制的文件数上限，超过时由遍历目录的线程自己复制，避免堆积
+         */
+        @NotNull(message = "等待复制文件数不能为空")
+        private Integer queueCapacity = 1000;
+        /**
+         * 每个文件的读取缓冲区大小
+         */
+        @NotNull(message = "复制缓冲区大小不能为空")
+        private DataSize bufferSize = DataSize.ofKilobytes(64);
+        /**
+         * 批量插入文件记录时，每批的条数
+         */
+        @NotNull(message = "批量插入条数不能为空")
+        private Integer insertBatchSize = 500;
+
+    }
+
+    /**
+     * 打包下载配置
+     */
+    @Valid
+    private Zip zip = new Zip();
+
+    @Data
+    public static class Zip {
+
+        /**
+         * 单次打包的最大文件数，包括文件夹
+         */
+        @NotNull(message = "打包最大文件数不能为空")
+        private Integer maxEntries = 10000;
+        /**
+         * 预读下一个文件的线程数，所有打包下载共用
+         */
+        @NotNull(message = "预读线程数不能为空")
+        private Integer prefetchThreads = 16;
+        /**
+         * 压缩当前文件时，预读下一个文件的字节数。小于该大小的文件会整个读入，每个下载最多占用约两倍该大小的内存
+         */
+        @NotNull(message = "预读大小不能为空")
+        private DataSize readAheadSize = DataSize.ofMegabytes(1);
+
+    }
+
+    /**
+     * 回收站配置
+     */
+    @Valid
+    private Trash trash = new Trash();
+
+    @Data
+    public static class Trash {
+
+        /**
+         * 回收站目录，每个用户的文件放在其下的 {用户编号}/{文件编号}
+         */
+        @NotEmpty(message = "回收站目录不能为空")
+        private String dir = "/.trash";
+        /**
+         * 回收站中文件的保留天数，超过后由定时任务彻底删除
+         */
+        @NotNull(message = "回收站保留天数不能为空")
+        private Integer retentionDays = 30;
+        /**
+         * 批量彻底删除时，每批的文件数，每批一个事务
+         */
+        @NotNull(message = "回收站每批删除文件数不能为空")
+        private Integer batchSize = 1000;
+    }
+
+    /**
+     * 下载配置
+     */
+    @Valid
+    private Download download = new Download();
+
+    @Data
+    public static class Download {
+
+        /**
+         * 是否开启异步下载，开启后下载不占用容器线程
+         */
+        @NotNull(message = "是否开启异步下载不能为空")
+        private Boolean asyncEnable = true;
+        /**
+         * 读取 HDFS 的线程数，只在读取时占用，与同时下载的连接数无关
+         */
+        @NotNull(message = "下载读取线程数不能为空")
+        private Integer ioThreads = 32;
+        /**
+         * 每次读取的大小
+         */
+        @NotNull(message = "下载读取块大小不能为空")
+        private DataSize chunkSize = DataSize.ofKilobytes(64);
+        /**
+         * 每个连接最多缓冲的数据量，客户端写出较慢时暂停读取
+         */
+        @NotNull(message = "下载缓冲区大小不能为空")
+        private DataSize bufferSize = DataSize.ofKilobytes(256);
+        /**
+         * 停滞超时时间，超过该时间没有写出任何数据时断开连接
+         */
+        @NotNull(message = "下载停滞超时时间不能为空")
+        private Duration stallTimeout = Duration.ofSeconds(60);
+
+    }
+
+    /**
+     * 传输限制配置，限制上传、下载的并发数和带宽
+     *
+     * 这里是默认值，运行时可以在【参数配置】中按 hadoop.transfer.* 修改，无需重启
+     */
+    @Valid
+    private Transfer transfer = new Transfer();
+
+    @Data
+    public static class Transfer {
+
+        /**
+         * 全局同时进行的最大传输数
+         */
+        @NotNull(message = "最大传输数不能为空")
+        private Integer maxInFlight = 1000;
+        /**
+         * 单个用户同时进行的最大传输数
+         */
+        @NotNull(message = "单个用户最大传输数不能为空")
+        private Integer perUserMaxInFlight = 4;
+        /**
+         * 单个用户每秒的最大传输量，上传与下载合计；为 0 时不限制
+         */
+        @NotNull(message = "单个用户带宽不能为空")
+        private DataSize userBandwidth = DataSize.ofMegabytes(20);
+        /**
+         * 单个租户每秒的最大传输量，上传与下载合计；为 0 时不限制
+         */
+        @NotNull(message = "单个租户带宽不能为空")
+        private DataSize tenantBandwidth = DataSize.ofMegabytes(200);
+        /**
+         * 超出并发限制时，建议客户端重试的间隔，通过 Retry-After 响应头返回
+         */
+        @NotNull(message = "重试间隔不能为空")
+        private Duration retryAfter = Duration.ofSeconds(5);
+        /**
+         * 运行时配置的刷新间隔
+         */
+        @NotNull(message = "传输配置刷新间隔不能为空")
+        private Duration refreshInterval = Duration.ofSeconds(10);
+
+    }
+
+    /**
+     * 存储配置，选择访问 HDFS 的方式
+     */
+    @Valid
+    private Storage storage = new Storage();
+
+    @Data
+    public static class Storage {
+
+        /**
+         * 存储类型
+         */
+        @NotNull(message = "存储类型不能为空")
+        private StorageType type = StorageType.WEBHDFS;
+        /**
+         * 原生客户端连接的文件系统地址，即 fs.defaultFS
+         */
+        @NotEmpty(message = "文件系统地址不能为空")
+        private String defaultFs = "hdfs://localhost:9000";
+        /**
+         * 本地存储的根目录，HDFS 路径映射到该目录下
+         */
+        @NotEmpty(message = "本地存储根目录不能为空")
+        private String localDir = System.getProperty("java.io.tmpdir") + "/hadoop-storage";
+        /**
+         * 原生客户端的其它 Hadoop 配置，例如说 dfs.client.read.shortcircuit、dfs.domain.socket.path
+         */
+        private Map<String, String> config = new HashMap<>();
+
+    }
+
+    /**
+     * 存储类型
+     */
+    public enum StorageType {
+
+        /**
+         * WebHDFS REST API
+         */
+        WEBHDFS,
+        /**
+         * Hadoop 原生客户端，元数据走 NameNode RPC，数据直连 DataNode，支持短路读
+         */
+        NATIVE,
+        /**
+         * 本地文件系统，用于开发、测试
+         */
+        LOCAL
+
+    }
+
+    /**
+     * 文件块缓存配置，下载时将热点文件的块缓存在本地磁盘，减少对 DataNode 的读取
+     */
+    @Valid
+    private BlockCache blockCache = new BlockCache();
+
+    @Data
+    public static class BlockCache {
+
+        /**
+         * 是否开启
+         */
+        @NotNull(message = "是否开启文件块缓存不能为空")
+        private Boolean enable = true;
+        /**
+         * 缓存文件的存放目录，启动时创建、关闭时删除
+         */
+        @NotEmpty(message = "文件块缓存目录不能为空")
+        private String dir = System.getProperty("java.io.tmpdir") + "/hadoop-block-cache";
+        /**
+         * 缓存的总大小
+         */
+        @NotNull(message = "文件块缓存大小不能为空")
+        private DataSize size = DataSize.ofGigabytes(1);
+        /**
+         * 块大小，文件按块缓存和淘汰
+         */
+        @NotNull(message = "文件块大小不能为空")
+        private DataSize blockSize = DataSize.ofMegabytes(4);
+
+    }
+
+}
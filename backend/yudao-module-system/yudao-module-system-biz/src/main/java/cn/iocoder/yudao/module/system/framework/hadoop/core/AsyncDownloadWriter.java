@@ -0,0 +1,365 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamSource;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步下载输出，基于 Servlet 3.1 的非阻塞写入
+ *
+ * 同步下载时，每个下载在整个传输期间占用一个容器线程，慢速客户端很快就会耗尽线程池。这里改为：
+ * 1. 设置好响应头后开启异步，立即释放容器线程
+ * 2. 在 I/O 线程池中读取 HDFS，放入每个连接独立的有界缓冲区；缓冲区满时停止读取，不占用线程等待
+ * 3. 通过 {@link WriteListener} 在客户端可写时写出缓冲区，写出后继续读取
+ * 4. 长时间没有写出任何数据的连接视为停滞，直接断开
+ * 5. 超出 {@link HadoopTransferPermit} 的带宽时，由定时器延迟后再继续读取，等待期间同样不占用线程
+ *
+ * 线程只在读取 HDFS 时占用，每个连接的内存不超过 {@link HadoopProperties.Download#getBufferSize()}，
+ * 所以单个节点可以同时服务数千个下载
+ *
+ * @author 管理员1
+ */
+@Slf4j
+public class AsyncDownloadWriter implements Closeable {
+
+    private final HadoopProperties.Download config;
+    private final int chunkSize;
+    private final int bufferChunks;
+
+    private final ThreadPoolExecutor ioExecutor;
+    /**
+     * 停滞检测、限速后延迟读取
+     */
+    private final ScheduledExecutorService scheduler;
+    /**
+     * 进行中的下载
+     */
+    private final Set<Transfer> transfers = ConcurrentHashMap.newKeySet();
+
+    private final Counter stalledCounter;
+
+    public AsyncDownloadWriter(HadoopProperties.Download config) {
+        this.config = config;
+        this.chunkSize = (int) config.getChunkSize().toBytes();
+        this.bufferChunks = (int) Math.max(1, config.getBufferSize().toBytes() / chunkSize);
+        this.ioExecutor = new ThreadPoolExecutor(config.getIoThreads(), config.getIoThreads(), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("hadoop-download-io-", true));
+        ioExecutor.allowCoreThreadTimeOut(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("hadoop-download-scheduler-", true));
+        long interval = Math.max(1000L, config.getStallTimeout().toMillis() / 4);
+        scheduler.scheduleWithFixedDelay(this::checkStalled, interval, interval, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("hadoop.file.download.active", transfers, Set::size).register(Metrics.globalRegistry);
+        this.stalledCounter = Counter.builder("hadoop.file.download.stalled").register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        ioExecutor.shutdownNow();
+    }
+
+    /**
+     * 是否开启异步下载
+     */
+    public boolean isEnabled() {
+        return config.getAsyncEnable();
+    }
+
+    /**
+     * 异步写出响应体，调用前需要设置好状态码和响应头。方法立即返回，由 I/O 线程池和容器回调完成传输
+     *
+     * @param parts 响应体的各个部分，按顺序写出，例如说 multipart/byteranges 的分隔符和各个区间
+     * @param permit 传输许可，按其带宽限速，传输结束时关闭
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response,
+                      List<InputStreamSource> parts, HadoopTransferPermit permit) throws IOException {
+        Transfer transfer;
+        try {
+            AsyncContext asyncContext = request.startAsync(request, response);
+            asyncContext.setTimeout(0); // 大文件的下载时间不设上限，由停滞检测断开慢速连接
+            transfer = new Transfer(asyncContext, response, parts, permit);
+            asyncContext.addListener(transfer);
+        } catch (IOException | RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+        transfers.add(transfer);
+        // 设置后容器立即回调 onWritePossible，开始读取
+        transfer.out.setWriteListener(transfer);
+    }
+
+    private void checkStalled() {
+        long deadline = System.currentTimeMillis() - config.getStallTimeout().toMillis();
+        for (Transfer transfer : transfers) {
+            if (transfer.lastActiveTime < deadline) {
+                stalledCounter.increment();
+                transfer.finish(new TimeoutException("下载停滞超过 " + config.getStallTimeout()));
+            }
+        }
+    }
+
+    /**
+     * 单个下载的传输
+     *
+     * 读取由 reading 保证同一时刻只有一个 I/O 线程执行；写出由 pumpRequests 保证同一时刻只有一个线程执行，
+     * 容器回调和 I/O 线程读取到数据后都会请求写出。不使用锁，避免与容器内部的锁互相等待
+     */
+    private class Transfer implements WriteListener, AsyncListener {
+
+        private final AsyncContext asyncContext;
+        private final HttpServletResponse response;
+        private final ServletOutputStream out;
+        private final Iterator<InputStreamSource> parts;
+        private final HadoopTransferPermit permit;
+        /**
+         * 已读取、待写出的数据
+         */
+        private final BlockingQueue<byte[]> chunks;
+
+        /**
+         * 正在读取的部分，只由读取线程访问
+         */
+        private InputStream current;
+        private volatile boolean eof;
+        private final AtomicBoolean reading = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        /**
+         * 写出请求数，不为 0 时已有线程在写出，由它在结束前再检查一次
+         */
+        private final AtomicInteger pumpRequests = new AtomicInteger();
+        private volatile long lastActiveTime = System.currentTimeMillis();
+
+        Transfer(AsyncContext asyncContext, HttpServletResponse response, List<InputStreamSource> parts,
+                 HadoopTransferPermit permit) throws IOException {
+            this.asyncContext = asyncContext;
+            this.response = response;
+            this.out = response.getOutputStream();
+            this.parts = parts.iterator();
+            this.permit = permit;
+            this.chunks = new ArrayBlockingQueue<>(bufferChunks);
+        }
+
+        @Override
+        public void onWritePossible() {
+            pump();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            finish(t);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish(null);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            finish(new TimeoutException("下载超时"));
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            finish(event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void pump() {
+            if (pumpRequests.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                doPump();
+                missed = pumpRequests.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * 在客户端可写时，写出缓冲区中的数据。不可写时返回，由容器在可写时回调 {@link #onWritePossible()}
+         */
+        private void doPump() {
+            if (finished.get()) {
+                return;
+            }
+            try {
+                while (out.isReady()) {
+                    byte[] chunk = chunks.poll();
+                    if (chunk == null) {
+                        if (eof) {
+                            finish(null);
+                        } else {
+                            scheduleRead();
+                        }
+                        return;
+                    }
+                    out.write(chunk);
+                    lastActiveTime = System.currentTimeMillis();
+                    scheduleRead(); // 腾出了缓冲区，继续读取
+                }
+            } catch (IOException e) {
+                finish(e);
+            }
+        }
+
+        private void scheduleRead() {
+            if (eof || finished.get() || chunks.remainingCapacity() == 0 || !reading.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                ioExecutor.execute(this::read);
+            } catch (RejectedExecutionException e) {
+                reading.set(false);
+                finish(e);
+            }
+        }
+
+        /**
+         * 在 I/O 线程中读取，直到缓冲区满、读取完毕或超出带宽
+         */
+        private void read() {
+            long delay = 0;
+            try {
+                while (!finished.get() && chunks.remainingCapacity() > 0) {
+                    byte[] chunk = readChunk();
+                    if (chunk == null) {
+                        eof = true;
+                        break;
+                    }
+                    chunks.offer(chunk);
+                    pump();
+                    delay = permit.reserve(chunk.length);
+                    if (delay > 0) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                finish(e);
+            }
+            // 超出带宽时，保持读取状态，延迟后继续读取
+            if (delay > 0 && !eof && !finished.get() && scheduleResume(delay)) {
+                return;
+            }
+            reading.set(false);
+            if (finished.get()) {
+                closeCurrent();
+            }
+            pump();
+            // 读取期间缓冲区被写空时，pump 中的 scheduleRead 因为正在读取而跳过，这里补上
+            scheduleRead();
+        }
+
+        private boolean scheduleResume(long delay) {
+            try {
+                scheduler.schedule(() -> {
+                    try {
+                        ioExecutor.execute(this::read);
+                    } catch (RejectedExecutionException e) {
+                        reading.set(false);
+                        finish(e);
+                        closeCurrent();
+                    }
+                }, delay, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (RejectedExecutionException e) {
+                finish(e);
+                return false;
+            }
+        }
+
+        /**
+         * 读取一块数据，当前部分读完时接着读取下一部分
+         *
+         * @return 数据；全部读取完毕时返回 null
+         */
+        private byte[] readChunk() throws IOException {
+            byte[] buffer = new byte[chunkSize];
+            int length = 0;
+            while (length < buffer.length) {
+                if (current == null) {
+                    if (!parts.hasNext()) {
+                        break;
+                    }
+                    current = parts.next().getInputStream();
+                }
+                int n = current.read(buffer, length, buffer.length - length);
+                if (n < 0) {
+                    closeCurrent();
+                    continue;
+                }
+                length += n;
+            }
+            if (length == 0) {
+                return null;
+            }
+            return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+        }
+
+        private synchronized void closeCurrent() {
+            if (current == null) {
+                return;
+            }
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.debug("[closeCurrent][关闭输入流失败]", e);
+            }
+            current = null;
+        }
+
+        /**
+         * 结束传输，释放资源。只执行一次
+         *
+         * @param cause 失败原因，正常结束时为 null
+         */
+        private void finish(Throwable cause) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            transfers.remove(this);
+            permit.close();
+            chunks.clear();
+            if (!reading.get()) { // 正在读取时，由读取线程关闭
+                closeCurrent();
+            }
+            if (cause != null) {
+                log.warn("[finish][下载中断：{}]", cause.toString());
+                // 还未写出任何数据时，返回错误状态码，避免客户端误以为文件内容为空
+                if (!response.isCommitted()) {
+                    response.reset();
+                    response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+            }
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException ignored) {
+                // 已经结束
+            }
+        }
+
+    }
+
+}
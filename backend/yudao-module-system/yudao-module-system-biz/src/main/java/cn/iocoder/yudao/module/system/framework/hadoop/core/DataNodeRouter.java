@@ -0,0 +1,253 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebHDFS 的 DataNode 路由
+ *
+ * 1. 地址映射：NameNode 307 重定向返回的是集群内部主机名，按 {@link HadoopProperties.DataNode#getMappings()} 转换为应用可访问的地址，
+ *    保留 NameNode 选择的 DataNode，从而保留数据本地性，并将读写分散到各个 DataNode
+ * 2. 健康检查：请求连续失败、或定时探测连接失败时，标记为不可用；探测成功后恢复
+ * 3. 故障切换：WebHDFS 的 DataNode 内部通过 DFSClient 读写，任意 DataNode 都能处理重定向地址，
+ *    所以首选 DataNode 不可用时，切换到其它可用的 DataNode
+ * 4. 监控：按 DataNode 统计请求耗时与传输字节数
+ *
+ * @author 管理员1
+ */
+@Slf4j
+public class DataNodeRouter implements Closeable {
+
+    private final HadoopProperties properties;
+    private final HadoopProperties.DataNode config;
+
+    /**
+     * DataNode 节点，key 为可访问地址 主机:端口
+     */
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    /**
+     * 故障切换时轮询的起始位置，避免所有请求都切换到同一个 DataNode
+     */
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    private final ScheduledExecutorService healthChecker;
+
+    public DataNodeRouter(HadoopProperties properties) {
+        this.properties = properties;
+        this.config = properties.getDataNode();
+        config.getMappings().values().forEach(address -> getEndpoint(normalizeAddress(address)));
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(
+                new NamedThreadFactory("hadoop-datanode-health-", true));
+        long interval = config.getHealthCheckInterval().toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+    }
+
+    /**
+     * 获得重定向地址对应的候选地址，按优先级排序
+     *
+     * 首选 NameNode 选择的 DataNode；其次是其它可用的 DataNode；全部不可用时，仍然尝试首选 DataNode
+     *
+     * @param location NameNode 返回的重定向地址
+     * @return 候选地址，至少一个
+     */
+    public List<URI> route(URI location) {
+        Endpoint preferred = getEndpoint(resolveAddress(location));
+        List<URI> candidates = new ArrayList<>();
+        if (preferred.healthy) {
+            candidates.add(rewrite(location, preferred));
+        }
+        List<Endpoint> others = new ArrayList<>();
+        for (Endpoint endpoint : endpoints.values()) {
+            if (endpoint != preferred && endpoint.healthy) {
+                others.add(endpoint);
+            }
+        }
+        int start = others.isEmpty() ? 0 : Math.floorMod(nextIndex.getAndIncrement(), others.size());
+        for (int i = 0; i < others.size(); i++) {
+            candidates.add(rewrite(location, others.get((start + i) % others.size())));
+        }
+        if (!preferred.healthy) {
+            candidates.add(rewrite(location, preferred));
+        }
+        return candidates;
+    }
+
+    /**
+     * 请求成功，重置失败次数
+     */
+    public void markSuccess(URI uri) {
+        markSuccess(getEndpoint(uri));
+    }
+
+    /**
+     * 请求失败，连续失败达到阈值时标记为不可用
+     */
+    public void markFailure(URI uri, Exception e) {
+        markFailure(getEndpoint(uri), e.getMessage());
+    }
+
+    /**
+     * 记录请求耗时
+     *
+     * @param uri 请求地址
+     * @param op 操作，例如说 OPEN、CREATE
+     * @param nanos 耗时；读取时为收到响应头的耗时，写入时包含上传数据的耗时
+     * @param success 是否成功
+     */
+    public void recordRequest(URI uri, String op, long nanos, boolean success) {
+        Timer.builder("hadoop.webhdfs.datanode.requests")
+                .tag("datanode", getEndpoint(uri).address).tag("op", op)
+                .tag("result", success ? "success" : "failure")
+                .register(Metrics.globalRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录传输字节数，用于计算各 DataNode 的吞吐量
+     */
+    public void recordBytes(URI uri, String op, long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        Counter.builder("hadoop.webhdfs.datanode.bytes")
+                .tag("datanode", getEndpoint(uri).address).tag("op", op)
+                .register(Metrics.globalRegistry)
+                .increment(bytes);
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 解析 NameNode 返回的 DataNode 对应的可访问地址
+     *
+     * 优先匹配 主机名:端口，其次匹配主机名；都没有配置时，使用默认主机地址替换主机名
+     */
+    private String resolveAddress(URI location) {
+        String host = location.getHost();
+        int port = getPort(location);
+        String address = config.getMappings().get(host + ":" + port);
+        if (address == null) {
+            address = config.getMappings().get(host);
+        }
+        if (address != null) {
+            return normalizeAddress(address);
+        }
+        if (StrUtil.isNotEmpty(properties.getDataNodeHost())) {
+            return properties.getDataNodeHost() + ":" + port;
+        }
+        return host + ":" + port;
+    }
+
+    /**
+     * 补全端口，未指定时使用 DataNode WebHDFS 端口
+     */
+    private String normalizeAddress(String address) {
+        return address.contains(":") ? address : address + ":" + properties.getDataNodePort();
+    }
+
+    private static URI rewrite(URI location, Endpoint endpoint) {
+        StringBuilder uri = new StringBuilder(location.getScheme()).append("://").append(endpoint.address)
+                .append(location.getRawPath());
+        if (location.getRawQuery() != null) {
+            uri.append('?').append(location.getRawQuery());
+        }
+        return URI.create(uri.toString());
+    }
+
+    private Endpoint getEndpoint(URI uri) {
+        return getEndpoint(uri.getHost() + ":" + getPort(uri));
+    }
+
+    private int getPort(URI uri) {
+        return uri.getPort() > 0 ? uri.getPort() : properties.getDataNodePort();
+    }
+
+    private Endpoint getEndpoint(String address) {
+        return endpoints.computeIfAbsent(address, Endpoint::new);
+    }
+
+    private void markSuccess(Endpoint endpoint) {
+        endpoint.failures.set(0);
+        if (!endpoint.healthy) {
+            endpoint.healthy = true;
+            log.info("[markSuccess][DataNode({}) 恢复可用]", endpoint.address);
+        }
+    }
+
+    private void markFailure(Endpoint endpoint, String reason) {
+        if (endpoint.failures.incrementAndGet() >= config.getFailureThreshold() && endpoint.healthy) {
+            endpoint.healthy = false;
+            log.warn("[markFailure][DataNode({}) 标记为不可用，原因：{}]", endpoint.address, reason);
+        }
+    }
+
+    /**
+     * 探测所有 DataNode 的 WebHDFS 端口是否可以连接
+     */
+    private void checkHealth() {
+        int timeout = (int) config.getHealthCheckTimeout().toMillis();
+        for (Endpoint endpoint : endpoints.values()) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(endpoint.host, endpoint.port), timeout);
+                markSuccess(endpoint);
+            } catch (Exception e) {
+                markFailure(endpoint, "健康检查失败：" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * DataNode 节点
+     */
+    private static class Endpoint {
+
+        /**
+         * 可访问地址 主机:端口
+         */
+        private final String address;
+        private final String host;
+        private final int port;
+
+        private volatile boolean healthy = true;
+        /**
+         * 连续失败次数
+         */
+        private final AtomicInteger failures = new AtomicInteger();
+
+        Endpoint(String address) {
+            int index = address.lastIndexOf(':');
+            this.address = address;
+            this.host = address.substring(0, index);
+            this.port = Integer.parseInt(address.substring(index + 1));
+            Gauge.builder("hadoop.webhdfs.datanode.healthy", this, endpoint -> endpoint.healthy ? 1 : 0)
+                    .tag("datanode", address)
+                    .register(Metrics.globalRegistry);
+        }
+
+    }
+
+}
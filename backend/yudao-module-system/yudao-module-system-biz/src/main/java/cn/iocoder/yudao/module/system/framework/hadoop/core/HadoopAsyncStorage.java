@@ -0,0 +1,138 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.*;
+
+/**
+ * 异步的 Hadoop 文件存储，所有操作返回 {@link CompletableFuture}
+ *
+ * 1. 并发上限：操作在固定大小的线程池中执行，同时进行的操作数不超过 {@link HadoopProperties.Async#getMaxInFlight()}，
+ *    排队的操作数不超过 {@link HadoopProperties.Async#getQueueCapacity()}，超出时直接失败，不阻塞调用线程
+ * 2. 重试：幂等的操作失败时，由定时器按递增间隔重新提交，等待期间不占用任何线程
+ * 3. 组合：互不依赖的元数据操作可以同时发起，再通过 {@link CompletableFuture#allOf(CompletableFuture[])} 等待全部完成
+ *
+ * 上传的数据来自请求体，写入耗时取决于客户端的上传速度，放到线程池中会长时间占满线程，调用线程仍需阻塞等待。
+ * 所以数据写入见 {@link #createFileInCallerThread(String, InputStreamSource, long)}，在调用线程中执行，失败时不重试
+ *
+ * @author 管理员1
+ */
+@Slf4j
+public class HadoopAsyncStorage implements Closeable {
+
+    private final HadoopStorage storage;
+    private final int maxRetries;
+    private final long retryInterval;
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService retryTimer;
+
+    public HadoopAsyncStorage(HadoopStorage storage, HadoopProperties properties) {
+        HadoopProperties.Async config = properties.getAsync();
+        this.storage = storage;
+        this.maxRetries = properties.getMaxRetries();
+        this.retryInterval = config.getRetryInterval().toMillis();
+        this.executor = new ThreadPoolExecutor(config.getMaxInFlight(), config.getMaxInFlight(), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(config.getQueueCapacity()), new NamedThreadFactory("hadoop-storage-async-", false));
+        executor.allowCoreThreadTimeOut(true);
+        this.retryTimer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("hadoop-storage-retry-", true));
+    }
+
+    @Override
+    public void close() {
+        retryTimer.shutdownNow();
+        executor.shutdown();
+    }
+
+    // ========== 元数据操作 ==========
+
+    public CompletableFuture<HdfsFileInfo> getFileInfo(String hdfsPath) {
+        return execute(() -> storage.getFileInfo(hdfsPath), true);
+    }
+
+    public CompletableFuture<Boolean> exists(String hdfsPath) {
+        return execute(() -> storage.exists(hdfsPath), true);
+    }
+
+    public CompletableFuture<Boolean> mkdir(String hdfsPath, String permission) {
+        return execute(() -> storage.mkdir(hdfsPath, permission), true);
+    }
+
+    public CompletableFuture<Boolean> delete(String hdfsPath, boolean recursive) {
+        return execute(() -> storage.delete(hdfsPath, recursive), true);
+    }
+
+    /**
+     * 移动/重命名文件或目录
+     *
+     * 不做重试：请求可能已经执行成功、只是响应丢失，此时重试会因为源文件不存在而返回失败
+     */
+    public CompletableFuture<Boolean> mv(String sourcePath, String destinationPath) {
+        return execute(() -> storage.mv(sourcePath, destinationPath), false);
+    }
+
+    // ========== 数据读写 ==========
+
+    /**
+     * 在调用线程中创建文件，已存在时覆盖
+     *
+     * 调用线程是 Servlet 请求线程，失败时直接抛出，不在服务端等待重试，避免长时间占用请求线程；
+     * 由客户端重新上传，例如说分片上传时只需重传失败的分片
+     *
+     * @param hdfsPath 目标路径
+     * @param source 文件来源
+     * @param length 文件长度
+     * @throws Exception 创建失败
+     */
+    public void createFileInCallerThread(String hdfsPath, InputStreamSource source, long length) throws Exception {
+        if (!storage.createFile(hdfsPath, source, length)) {
+            throw new IOException("创建文件失败: " + hdfsPath);
+        }
+    }
+
+    /**
+     * 异步执行操作
+     *
+     * @param action 操作，在线程池中执行
+     * @param retryable 是否幂等，幂等的操作在发生 IO 异常时重试
+     * @return 操作结果
+     */
+    public <T> CompletableFuture<T> execute(Callable<T> action, boolean retryable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        submit(action, 1, retryable ? maxRetries + 1 : 1, future);
+        return future;
+    }
+
+    private <T> void submit(Callable<T> action, int attempt, int maxAttempts, CompletableFuture<T> future) {
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) { // 已被取消
+                    return;
+                }
+                try {
+                    future.complete(action.call());
+                } catch (Exception e) {
+                    if (attempt >= maxAttempts || !(e instanceof IOException)) {
+                        future.completeExceptionally(e);
+                        return;
+                    }
+                    log.warn("[submit][第 {} 次执行失败，{} 毫秒后重试]", attempt, retryInterval * attempt, e);
+                    try {
+                        retryTimer.schedule(() -> submit(action, attempt + 1, maxAttempts, future),
+                                retryInterval * attempt, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException ex) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+}
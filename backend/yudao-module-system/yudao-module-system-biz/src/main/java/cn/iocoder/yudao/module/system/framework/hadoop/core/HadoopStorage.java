@@ -0,0 +1,184 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hadoop 文件存储，提供上传、下载、目录操作等功能
+ *
+ * 通过 yudao.hadoop.storage.type 选择实现：
+ * 1. {@link WebHdfsClient}：WebHDFS REST API，只需要访问 NameNode、DataNode 的 HTTP 端口
+ * 2. {@link NativeHadoopStorage}：Hadoop 原生客户端，元数据操作走 NameNode RPC，数据直接与 DataNode 传输；
+ *    也可以使用本地文件系统，便于离线开发和测试
+ *
+ * @author 管理员1
+ */
+public interface HadoopStorage extends Closeable {
+
+    // ========== 元数据操作 ==========
+
+    /**
+     * 获取文件或目录信息
+     *
+     * @param hdfsPath 文件或目录路径
+     * @return 文件信息对象，不存在则返回 null
+     */
+    HdfsFileInfo getFileInfo(String hdfsPath) throws IOException;
+
+    /**
+     * 检查文件或目录是否存在
+     *
+     * @param hdfsPath 要检查的路径
+     * @return 是否存在
+     */
+    boolean exists(String hdfsPath) throws IOException;
+
+    /**
+     * 列出目录内容
+     *
+     * @param hdfsPath 目录路径
+     * @return 目录内容列表
+     */
+    List<Map<String, Object>> listDirectory(String hdfsPath) throws IOException;
+
+    /**
+     * 创建目录，父目录不存在时一并创建
+     *
+     * @param hdfsPath 要创建的目录路径
+     * @param permission 目录权限（如"755"）
+     * @return 创建是否成功
+     */
+    boolean mkdir(String hdfsPath, String permission) throws IOException;
+
+    /**
+     * 删除文件或目录
+     *
+     * @param hdfsPath 要删除的路径
+     * @param recursive 是否递归删除子目录和文件
+     * @return 删除是否成功
+     */
+    boolean delete(String hdfsPath, boolean recursive) throws IOException;
+
+    /**
+     * 移动/重命名文件或目录
+     *
+     * @param sourcePath 源文件路径
+     * @param destinationPath 目标文件路径
+     * @return 操作是否成功
+     */
+    boolean mv(String sourcePath, String destinationPath) throws IOException;
+
+    // ========== 数据读写 ==========
+
+    /**
+     * 创建文件，已存在时覆盖
+     *
+     * 输入流只能消费一次；需要重复打开的场景，使用 {@link #createFile(String, InputStreamSource, long)}
+     *
+     * @param hdfsPath 目标路径
+     * @param inputStream 文件输入流
+     * @return 创建是否成功
+     */
+    boolean createFile(String hdfsPath, InputStream inputStream) throws IOException;
+
+    /**
+     * 创建已知长度的文件，已存在时覆盖。输入流边读边写，不在内存中缓存整个文件
+     *
+     * @param hdfsPath 目标路径
+     * @param inputStream 文件输入流
+     * @param length 文件长度
+     * @return 创建是否成功
+     */
+    boolean createFile(String hdfsPath, InputStream inputStream, long length) throws IOException;
+
+    /**
+     * 创建文件，已存在时覆盖
+     *
+     * 通常由 {@link HadoopAsyncStorage#createFileInCallerThread(String, InputStreamSource, long)} 在请求线程中调用，失败时不重试
+     *
+     * @param hdfsPath 目标路径
+     * @param source 可重复打开的文件来源，例如说 MultipartFile
+     * @param length 文件长度
+     * @return 创建是否成功
+     */
+    boolean createFile(String hdfsPath, InputStreamSource source, long length) throws Exception;
+
+    /**
+     * 将多个源文件按顺序拼接到目标文件末尾，拼接完成后源文件会被删除
+     *
+     * @param hdfsPath 目标文件路径，必须已经存在
+     * @param sources 源文件路径列表
+     */
+    void concat(String hdfsPath, List<String> sources) throws IOException;
+
+    /**
+     * 读取文件内容
+     *
+     * 返回的输入流由调用者负责关闭
+     *
+     * @param hdfsPath 文件路径
+     * @return 文件输入流
+     */
+    InputStream readFile(String hdfsPath) throws IOException;
+
+    /**
+     * 读取文件指定范围的内容
+     *
+     * @param hdfsPath 文件路径
+     * @param offset 起始位置
+     * @param length 读取长度，小于 0 时读取到文件末尾
+     * @return 文件输入流
+     */
+    InputStream readFile(String hdfsPath, long offset, long length) throws IOException;
+
+    /**
+     * 上传本地文件
+     *
+     * @param localFilePath 本地文件路径
+     * @param hdfsPath 目标路径
+     * @param overwrite 是否覆盖已存在文件
+     * @param progressCallback 进度回调接口
+     * @return 上传是否成功
+     */
+    boolean uploadFile(String localFilePath, String hdfsPath, boolean overwrite,
+                       ProgressCallback progressCallback) throws Exception;
+
+    /**
+     * 下载文件到本地
+     *
+     * @param hdfsPath 文件路径
+     * @param localFilePath 本地保存路径
+     * @param progressCallback 进度回调接口
+     * @return 下载是否成功
+     */
+    boolean downloadFile(String hdfsPath, String localFilePath,
+                         ProgressCallback progressCallback) throws Exception;
+
+    /**
+     * 进度回调接口
+     */
+    interface ProgressCallback {
+
+        /**
+         * 当传输进度更新时调用
+         *
+         * @param bytesTransferred 已传输字节数
+         * @param totalBytes 总字节数
+         */
+        void onProgress(long bytesTransferred, long totalBytes);
+
+        /**
+         * 当状态更新时调用
+         *
+         * @param status 状态信息
+         */
+        void onStatusUpdate(String status);
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * 传输被拒绝的异常处理器
+ *
+ * 全局异常处理器统一返回 200 + 错误码，下载工具、浏览器无法据此退避。这里改为返回 429 和 Retry-After，
+ * 响应体仍然是 {@link CommonResult}，前端可以照常展示错误提示
+ *
+ * @author 管理员1
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class HadoopTransferExceptionHandler {
+
+    @ExceptionHandler(HadoopTransferRejectedException.class)
+    public ResponseEntity<CommonResult<?>> transferRejectedExceptionHandler(HadoopTransferRejectedException ex) {
+        log.info("[transferRejectedExceptionHandler][{}]", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(CommonResult.error(ex.getCode(), ex.getMessage()));
+    }
+
+}
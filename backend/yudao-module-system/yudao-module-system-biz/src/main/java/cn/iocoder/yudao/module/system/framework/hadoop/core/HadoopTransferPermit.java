@@ -0,0 +1,76 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 传输许可，代表一次已获准的上传或下载
+ *
+ * 1. 并发：持有期间占用全局和用户的传输名额，传输结束后必须 {@link #close()} 释放
+ * 2. 带宽：每传输一段数据前通过 {@link #reserve(long)} 申请，超出用户、租户的带宽时需要等待
+ *
+ * @author 管理员1
+ */
+public interface HadoopTransferPermit extends Closeable {
+
+    /**
+     * 申请传输指定字节数的带宽，不阻塞
+     *
+     * 允许透支：数据可以立即传输，透支的部分由返回的等待时间偿还，调用方等待后再传输下一段
+     *
+     * @param bytes 字节数
+     * @return 传输下一段数据前需要等待的纳秒数，0 表示不需要等待
+     */
+    long reserve(long bytes);
+
+    /**
+     * 申请传输指定字节数的带宽，超出限制时在当前线程中等待。用于同步的读写循环
+     *
+     * @param bytes 字节数
+     */
+    default void acquire(long bytes) throws InterruptedIOException {
+        long delay = reserve(bytes);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待传输带宽时被中断");
+        }
+    }
+
+    /**
+     * 包装输入流，读取时按带宽限速
+     */
+    default InputStream throttle(InputStream in) {
+        return new ThrottledInputStream(in, this);
+    }
+
+    /**
+     * 包装文件来源，每次打开的输入流都按带宽限速
+     */
+    default InputStreamSource throttle(InputStreamSource source) {
+        return () -> throttle(source.getInputStream());
+    }
+
+    /**
+     * 包装输出流，写出时按带宽限速
+     */
+    default OutputStream throttle(OutputStream out) {
+        return new ThrottledOutputStream(out, this);
+    }
+
+    /**
+     * 释放传输名额，重复调用时只释放一次
+     */
+    @Override
+    void close();
+
+}
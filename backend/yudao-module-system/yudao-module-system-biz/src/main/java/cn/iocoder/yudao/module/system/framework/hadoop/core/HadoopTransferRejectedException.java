@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import lombok.Getter;
+
+/**
+ * 传输被拒绝的异常，超出全局或用户的并发上限时抛出
+ *
+ * 由 {@link HadoopTransferExceptionHandler} 转换为 429 响应，并通过 Retry-After 告知客户端重试间隔
+ *
+ * @author 管理员1
+ */
+@Getter
+public class HadoopTransferRejectedException extends RuntimeException {
+
+    /**
+     * 错误码
+     */
+    private final Integer code;
+    /**
+     * 建议的重试间隔，单位：秒
+     */
+    private final long retryAfterSeconds;
+
+    public HadoopTransferRejectedException(Integer code, String message, long retryAfterSeconds) {
+        super(message);
+        this.code = code;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+}
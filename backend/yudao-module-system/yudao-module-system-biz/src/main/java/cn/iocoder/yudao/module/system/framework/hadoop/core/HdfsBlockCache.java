@@ -0,0 +1,467 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * HDFS 文件块的本地缓存，读取时先查缓存，未命中再从 DataNode 读取
+ *
+ * 1. 文件按 blockSize 切分为块，以 (路径, 版本, 块序号) 为 KEY。版本在文件内容变化时改变，例如说内容的 SHA-256、更新时间，旧版本的块自然被淘汰
+ * 2. 块数据保存在本地磁盘的内存映射文件中，不占用 JVM 堆内存，热点块由操作系统的 Page Cache 加速。
+ *    缓存文件预先划分为固定大小的槽位，每个块占用一个槽位，按 LRU 淘汰；正在被读取的槽位不会被复用，等读取结束才回收
+ * 3. 块第二次未命中时才写入缓存，只下载一次的大文件不会冲掉热点文件
+ * 4. Range 请求按块读取：命中的块直接从缓存返回，未命中的连续块共用一个 HDFS 读取流
+ *
+ * @author 管理员1
+ */
+@Slf4j
+public class HdfsBlockCache implements Closeable {
+
+    /**
+     * 从 HDFS 读取块数据时的缓冲区大小
+     */
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    private final HadoopStorage hdfsClient;
+    private final int blockSize;
+    private final int slotCount;
+    private final int slotsPerSegment;
+
+    private Path cacheFile;
+    private FileChannel channel;
+    /**
+     * 内存映射的缓存文件。单个映射不能超过 2GB，因此按 slotsPerSegment 分段映射
+     */
+    private MappedByteBuffer[] segments;
+    /**
+     * 已缓存的块。最大数量小于槽位数，保证淘汰后的槽位回收前，仍有空闲槽位可用
+     */
+    private Cache<BlockKey, CachedBlock> cache;
+    /**
+     * 未命中过一次的块，再次未命中时才写入缓存
+     */
+    private Cache<BlockKey, Boolean> admissionFilter;
+    private final Queue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+
+    private final Counter hitCounter = buildCounter("hadoop.file.block.cache.requests", "result", "hit");
+    private final Counter missCounter = buildCounter("hadoop.file.block.cache.requests", "result", "miss");
+    private final Counter evictionCounter = buildCounter("hadoop.file.block.cache.evictions", null, null);
+    private final Counter cacheBytesCounter = buildCounter("hadoop.file.block.cache.bytes", "source", "cache");
+    private final Counter hdfsBytesCounter = buildCounter("hadoop.file.block.cache.bytes", "source", "hdfs");
+    private final Counter loadBytesCounter = buildCounter("hadoop.file.block.cache.bytes", "source", "load");
+
+    public HdfsBlockCache(HadoopStorage hdfsClient, HadoopProperties.BlockCache config) throws IOException {
+        this.hdfsClient = hdfsClient;
+        this.blockSize = (int) config.getBlockSize().toBytes();
+        this.slotCount = (int) Math.min(Integer.MAX_VALUE, config.getSize().toBytes() / blockSize);
+        this.slotsPerSegment = Integer.MAX_VALUE / blockSize;
+        if (!config.getEnable() || slotCount < 2) {
+            return;
+        }
+
+        // 1. 创建缓存文件，并分段映射到内存。文件是稀疏的，不会立即占用磁盘空间
+        Path dir = Paths.get(config.getDir());
+        Files.createDirectories(dir);
+        cacheFile = Files.createTempFile(dir, "blocks-", ".cache");
+        cacheFile.toFile().deleteOnExit();
+        channel = FileChannel.open(cacheFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int segmentCount = (slotCount + slotsPerSegment - 1) / slotsPerSegment;
+        segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long slots = Math.min(slotsPerSegment, slotCount - (long) i * slotsPerSegment);
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * slotsPerSegment * blockSize,
+                    slots * blockSize);
+        }
+        for (int i = 0; i < slotCount; i++) {
+            freeSlots.add(i);
+        }
+
+        // 2. 创建索引
+        int maxBlocks = slotCount - Math.max(1, slotCount / 16);
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maxBlocks)
+                .removalListener(this::onRemoval)
+                .build();
+        admissionFilter = CacheBuilder.newBuilder()
+                .maximumSize(slotCount * 4L)
+                .build();
+        Gauge.builder("hadoop.file.block.cache.blocks", cache, Cache::size)
+                .description("hadoop 文件块缓存的已缓存块数").register(Metrics.globalRegistry);
+        Gauge.builder("hadoop.file.block.cache.hit.ratio", this, HdfsBlockCache::getHitRatio)
+                .description("hadoop 文件块缓存的命中率").register(Metrics.globalRegistry);
+        log.info("[HdfsBlockCache][缓存文件({}) 块大小({}) 槽位数({})]", cacheFile, blockSize, slotCount);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        cache.invalidateAll();
+        channel.close();
+        Files.deleteIfExists(cacheFile);
+    }
+
+    /**
+     * 读取文件指定范围的内容，优先从缓存读取
+     *
+     * @param hdfsPath HDFS 文件路径
+     * @param version 文件内容的版本，内容变化时必须改变
+     * @param offset 起始位置
+     * @param length 读取长度。小于 0 时读取到文件末尾，此时不经过缓存
+     * @return 文件输入流，由调用者负责关闭
+     */
+    public InputStream readFile(String hdfsPath, String version, long offset, long length) throws IOException {
+        if (channel == null || length < 0) {
+            return hdfsClient.readFile(hdfsPath, offset, length);
+        }
+        return new BlockInputStream(hdfsPath, version, offset, offset + length);
+    }
+
+    private double getHitRatio() {
+        double hits = hitCounter.count();
+        double total = hits + missCounter.count();
+        return total > 0 ? hits / total : 0;
+    }
+
+    // ========== 槽位管理 ==========
+
+    private void onRemoval(RemovalNotification<BlockKey, CachedBlock> notification) {
+        if (notification.wasEvicted()) {
+            evictionCounter.increment();
+        }
+        notification.getValue().evict();
+    }
+
+    private Integer allocateSlot() {
+        Integer slot = freeSlots.poll();
+        if (slot == null) {
+            cache.cleanUp();
+            slot = freeSlots.poll();
+        }
+        return slot;
+    }
+
+    /**
+     * 获得槽位的读写视图，各线程独立的 position、limit
+     */
+    private ByteBuffer slotBuffer(int slot, int length) {
+        ByteBuffer buffer = segments[slot / slotsPerSegment].duplicate();
+        int start = (slot % slotsPerSegment) * blockSize;
+        buffer.limit(start + length).position(start);
+        return buffer.slice();
+    }
+
+    private CachedBlock retain(BlockKey key) {
+        CachedBlock block = cache.getIfPresent(key);
+        return block != null && block.retain() ? block : null;
+    }
+
+    /**
+     * 判断未命中的块是否写入缓存：第一次未命中只做记录，第二次才写入
+     */
+    private boolean admit(BlockKey key) {
+        if (admissionFilter.getIfPresent(key) != null) {
+            admissionFilter.invalidate(key);
+            return true;
+        }
+        admissionFilter.put(key, Boolean.TRUE);
+        return false;
+    }
+
+    /**
+     * 从输入流读取一个块写入空闲槽位，并加入缓存
+     *
+     * @return 已计入一次引用的块；没有空闲槽位时返回 null，输入流不会被读取
+     */
+    private CachedBlock load(BlockKey key, InputStream inputStream) throws IOException {
+        Integer slot = allocateSlot();
+        if (slot == null) {
+            return null;
+        }
+        int length = 0;
+        try {
+            ByteBuffer target = slotBuffer(slot, blockSize);
+            byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+            while (target.hasRemaining()) {
+                int n = inputStream.read(buffer, 0, Math.min(buffer.length, target.remaining()));
+                if (n < 0) {
+                    break;
+                }
+                target.put(buffer, 0, n);
+                length += n;
+            }
+        } catch (IOException | RuntimeException e) {
+            freeSlots.add(slot);
+            throw e;
+        }
+        loadBytesCounter.increment(length);
+
+        CachedBlock block = new CachedBlock(slot, length);
+        block.retain();
+        CachedBlock existing = cache.asMap().putIfAbsent(key, block);
+        if (existing == null) {
+            return block;
+        }
+        // 其他请求已经缓存了该块：优先使用已有的块，本次读取的槽位在读取结束后回收
+        block.evict();
+        if (existing.retain()) {
+            block.release();
+            return existing;
+        }
+        return block;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class BlockKey {
+
+        private String path;
+        private String version;
+        private long index;
+
+    }
+
+    /**
+     * 已缓存的块。引用计数归零且已被淘汰时，槽位才会回收
+     */
+    private class CachedBlock {
+
+        private final int slot;
+        private final int length;
+        private int refCount;
+        private boolean evicted;
+
+        private CachedBlock(int slot, int length) {
+            this.slot = slot;
+            this.length = length;
+        }
+
+        private synchronized boolean retain() {
+            if (evicted) {
+                return false;
+            }
+            refCount++;
+            return true;
+        }
+
+        private void release() {
+            boolean free;
+            synchronized (this) {
+                refCount--;
+                free = evicted && refCount == 0;
+            }
+            if (free) {
+                freeSlots.add(slot);
+            }
+        }
+
+        private void evict() {
+            boolean free;
+            synchronized (this) {
+                if (evicted) {
+                    return;
+                }
+                evicted = true;
+                free = refCount == 0;
+            }
+            if (free) {
+                freeSlots.add(slot);
+            }
+        }
+
+    }
+
+    // ========== 读取 ==========
+
+    /**
+     * 按块读取的输入流
+     *
+     * 每个块有两种读取方式：从缓存的槽位读取；或者直接从 HDFS 读取流读取，用于未写入缓存的块。
+     * HDFS 读取流从第一个未命中的块开始打开，后续的块连续未命中时继续使用，遇到命中的块后才关闭
+     */
+    private class BlockInputStream extends InputStream {
+
+        private final String path;
+        private final String version;
+        private final long end;
+        private long position;
+
+        /**
+         * 当前读取的缓存块，及其剩余可读的视图
+         */
+        private CachedBlock block;
+        private ByteBuffer blockBuffer;
+
+        /**
+         * HDFS 读取流，及其当前的读取位置
+         */
+        private InputStream hdfsStream;
+        private long hdfsPosition;
+        /**
+         * 当前块中，直接从 HDFS 读取流读取的剩余字节数
+         */
+        private long directRemaining;
+
+        private BlockInputStream(String path, String version, long offset, long end) {
+            this.path = path;
+            this.version = version;
+            this.position = offset;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end || !prepare()) {
+                return -1;
+            }
+            int n;
+            if (blockBuffer != null) {
+                n = Math.min(len, blockBuffer.remaining());
+                blockBuffer.get(b, off, n);
+                cacheBytesCounter.increment(n);
+            } else {
+                n = hdfsStream.read(b, off, (int) Math.min(len, directRemaining));
+                if (n < 0) {
+                    // 文件比请求的范围短
+                    position = end;
+                    return -1;
+                }
+                hdfsPosition += n;
+                directRemaining -= n;
+                hdfsBytesCounter.increment(n);
+            }
+            position += n;
+            return n;
+        }
+
+        /**
+         * 准备 position 所在块的读取方式
+         *
+         * @return 是否还有可读的数据
+         */
+        private boolean prepare() throws IOException {
+            if ((blockBuffer != null && blockBuffer.hasRemaining()) || directRemaining > 0) {
+                return true;
+            }
+            releaseBlock();
+            long index = position / blockSize;
+            long blockStart = index * blockSize;
+            int offsetInBlock = (int) (position - blockStart);
+            BlockKey key = new BlockKey(path, version, index);
+
+            // 1. 命中缓存
+            CachedBlock cached = retain(key);
+            if (cached != null) {
+                hitCounter.increment();
+                closeHdfsStream();
+                return useBlock(cached, offsetInBlock);
+            }
+            missCounter.increment();
+
+            // 2. 未命中：从块的开头读取，第二次未命中时写入缓存
+            openHdfsStream(blockStart);
+            if (admit(key)) {
+                CachedBlock loaded = load(key, hdfsStream);
+                if (loaded != null) {
+                    hdfsPosition += loaded.length;
+                    return useBlock(loaded, offsetInBlock);
+                }
+            }
+
+            // 3. 不写入缓存，或者没有空闲槽位：直接从 HDFS 读取流读取该块
+            long skipped = IOUtils.skip(hdfsStream, offsetInBlock);
+            hdfsPosition += skipped;
+            if (skipped < offsetInBlock) {
+                return false;
+            }
+            directRemaining = Math.min(blockStart + blockSize, end) - position;
+            return true;
+        }
+
+        private boolean useBlock(CachedBlock cached, int offsetInBlock) {
+            block = cached;
+            if (offsetInBlock >= cached.length) {
+                return false;
+            }
+            int length = (int) Math.min(cached.length, offsetInBlock + (end - position));
+            blockBuffer = slotBuffer(cached.slot, length);
+            blockBuffer.position(offsetInBlock);
+            return true;
+        }
+
+        /**
+         * 确保 HDFS 读取流位于 blockStart，读取范围对齐到块的末尾，便于写入缓存
+         */
+        private void openHdfsStream(long blockStart) throws IOException {
+            if (hdfsStream != null && hdfsPosition == blockStart) {
+                return;
+            }
+            closeHdfsStream();
+            long alignedEnd = (end + blockSize - 1) / blockSize * blockSize;
+            hdfsStream = hdfsClient.readFile(path, blockStart, alignedEnd - blockStart);
+            hdfsPosition = blockStart;
+        }
+
+        private void closeHdfsStream() throws IOException {
+            if (hdfsStream != null) {
+                hdfsStream.close();
+                hdfsStream = null;
+            }
+        }
+
+        private void releaseBlock() {
+            if (block != null) {
+                block.release();
+                block = null;
+                blockBuffer = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            releaseBlock();
+            closeHdfsStream();
+        }
+
+    }
+
+    private static Counter buildCounter(String name, String tagKey, String tagValue) {
+        Counter.Builder builder = Counter.builder(name).description("hadoop 文件块缓存");
+        if (tagKey != null) {
+            builder.tag(tagKey, tagValue);
+        }
+        return builder.register(Metrics.globalRegistry);
+    }
+
+}
@@ -0,0 +1,61 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HDFS 文件信息
+ */
+public class HdfsFileInfo {
+
+    private final String path;                 // 文件路径
+    private final long length;                 // 文件大小
+    private final boolean isDirectory;         // 是否是目录
+    private final long modificationTime;       // 修改时间
+    private final String owner;                // 所有者
+    private final String group;                // 组
+    private final String permission;           // 权限
+    private final Map<String, String> attributes;  // 其他属性
+
+    public HdfsFileInfo(String path, long length, boolean isDirectory, long modificationTime,
+                        String owner, String group, String permission) {
+        this.path = path;
+        this.length = length;
+        this.isDirectory = isDirectory;
+        this.modificationTime = modificationTime;
+        this.owner = owner;
+        this.group = group;
+        this.permission = permission;
+        this.attributes = new HashMap<>();
+    }
+
+    // Getters
+    public String getPath() { return path; }
+    public long getLength() { return length; }
+    public boolean isDirectory() { return isDirectory; }
+    public long getModificationTime() { return modificationTime; }
+    public String getOwner() { return owner; }
+    public String getGroup() { return group; }
+    public String getPermission() { return permission; }
+    public Map<String, String> getAttributes() { return attributes; }
+
+    // 添加其他属性
+    public void addAttribute(String key, String value) {
+        attributes.put(key, value);
+    }
+
+    @Override
+    public String toString() {
+        return "HdfsFileInfo{" +
+                "path='" + path + '\'' +
+                ", length=" + length +
+                ", isDirectory=" + isDirectory +
+                ", modificationTime=" + modificationTime +
+                ", owner='" + owner + '\'' +
+                ", group='" + group + '\'' +
+                ", permission='" + permission + '\'' +
+                ", attributes=" + attributes +
+                '}';
+    }
+
+}
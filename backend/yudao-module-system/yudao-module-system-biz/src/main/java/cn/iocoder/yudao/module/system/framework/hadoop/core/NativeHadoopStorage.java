@@ -0,0 +1,327 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.io.IOUtils;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.*;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 Hadoop 原生客户端（{@link FileSystem}）的 {@link HadoopStorage} 实现
+ *
+ * 相比 WebHDFS：
+ * 1. 元数据操作走 NameNode RPC，不需要每次建立 HTTP 请求、解析 JSON
+ * 2. 数据直接与 DataNode 传输，不经过 307 重定向；与 DataNode 同机部署时，可通过 dfs.client.read.shortcircuit 开启短路读
+ * 3. 小范围读取使用 pread（定位读），不移动流的位置，也不会为了后续顺序读而预读整个块
+ * 4. 写入过程中 DataNode 故障时，由 DFS 客户端自行恢复 pipeline、切换 DataNode
+ *
+ * 存储类型为 LOCAL 时，使用本地文件系统，HDFS 路径映射到 localDir 目录下，便于没有 Hadoop 集群时开发、测试
+ *
+ * @author 管理员1
+ */
+@Slf4j
+public class NativeHadoopStorage implements HadoopStorage {
+
+    /**
+     * 使用 pread 的最大读取长度，超过时改为 seek 后顺序读
+     */
+    private static final long PREAD_MAX_LENGTH = 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileSystem fileSystem;
+    /**
+     * 根目录，为空时直接使用 HDFS 路径
+     */
+    private final Path rootDir;
+
+    public NativeHadoopStorage(HadoopProperties properties) throws IOException {
+        HadoopProperties.Storage storage = properties.getStorage();
+        Configuration conf = new Configuration();
+        storage.getConfig().forEach(conf::set);
+        if (storage.getType() == HadoopProperties.StorageType.LOCAL) {
+            // 使用不带校验和的本地文件系统，避免生成 .crc 文件，且支持 append
+            RawLocalFileSystem localFileSystem = new RawLocalFileSystem();
+            localFileSystem.initialize(URI.create("file:///"), conf);
+            this.fileSystem = localFileSystem;
+            this.rootDir = new Path(new File(storage.getLocalDir()).getAbsoluteFile().toURI());
+            fileSystem.mkdirs(rootDir);
+        } else {
+            conf.set(FileSystem.FS_DEFAULT_NAME_KEY, storage.getDefaultFs());
+            try {
+                // 使用独立实例，避免与其它组件共用 FileSystem 缓存，关闭时互相影响
+                this.fileSystem = FileSystem.newInstance(URI.create(storage.getDefaultFs()), conf, properties.getUser());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("连接文件系统被中断: " + storage.getDefaultFs());
+            }
+            this.rootDir = null;
+        }
+        log.info("[NativeHadoopStorage][使用文件系统({}) 根目录({})]", fileSystem.getUri(), rootDir);
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileSystem.close();
+    }
+
+    // ========== 元数据操作 ==========
+
+    @Override
+    public HdfsFileInfo getFileInfo(String hdfsPath) throws IOException {
+        FileStatus status;
+        try {
+            status = fileSystem.getFileStatus(toPath(hdfsPath));
+        } catch (FileNotFoundException e) {
+            return null;  // 文件不存在
+        }
+        HdfsFileInfo fileInfo = new HdfsFileInfo(hdfsPath, status.getLen(), status.isDirectory(),
+                status.getModificationTime(), status.getOwner(), status.getGroup(), toPermission(status));
+        fileInfo.addAttribute("accessTime", String.valueOf(status.getAccessTime()));
+        fileInfo.addAttribute("blockSize", String.valueOf(status.getBlockSize()));
+        fileInfo.addAttribute("replication", String.valueOf(status.getReplication()));
+        return fileInfo;
+    }
+
+    @Override
+    public boolean exists(String hdfsPath) throws IOException {
+        return fileSystem.exists(toPath(hdfsPath));
+    }
+
+    @Override
+    public List<Map<String, Object>> listDirectory(String hdfsPath) throws IOException {
+        FileStatus[] statuses = fileSystem.listStatus(toPath(hdfsPath));
+        List<Map<String, Object>> fileList = new ArrayList<>(statuses.length);
+        for (FileStatus status : statuses) {
+            Map<String, Object> fileInfo = new HashMap<>();
+            fileInfo.put("name", status.getPath().getName());
+            fileInfo.put("type", status.isDirectory() ? "目录" : "文件");
+            fileInfo.put("size", status.getLen());
+            fileInfo.put("modificationTime", status.getModificationTime());
+            fileInfo.put("owner", status.getOwner());
+            fileInfo.put("group", status.getGroup());
+            fileInfo.put("permission", toPermission(status));
+            fileList.add(fileInfo);
+        }
+        return fileList;
+    }
+
+    @Override
+    public boolean mkdir(String hdfsPath, String permission) throws IOException {
+        if (permission == null || permission.isEmpty()) {
+            return fileSystem.mkdirs(toPath(hdfsPath));
+        }
+        return fileSystem.mkdirs(toPath(hdfsPath), new FsPermission(permission));
+    }
+
+    @Override
+    public boolean delete(String hdfsPath, boolean recursive) throws IOException {
+        return fileSystem.delete(toPath(hdfsPath), recursive);
+    }
+
+    @Override
+    public boolean mv(String sourcePath, String destinationPath) throws IOException {
+        return fileSystem.rename(toPath(sourcePath), toPath(destinationPath));
+    }
+
+    // ========== 数据读写 ==========
+
+    @Override
+    public boolean createFile(String hdfsPath, InputStream inputStream) throws IOException {
+        try (InputStream in = inputStream;
+             FSDataOutputStream out = fileSystem.create(toPath(hdfsPath), true)) {
+            IOUtils.copyBytes(in, out, BUFFER_SIZE, false);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean createFile(String hdfsPath, InputStream inputStream, long length) throws IOException {
+        return createFile(hdfsPath, inputStream);
+    }
+
+    @Override
+    public boolean createFile(String hdfsPath, InputStreamSource source, long length) throws Exception {
+        return createFile(hdfsPath, source.getInputStream(), length);
+    }
+
+    @Override
+    public void concat(String hdfsPath, List<String> sources) throws IOException {
+        Path target = toPath(hdfsPath);
+        Path[] sourcePaths = new Path[sources.size()];
+        for (int i = 0; i < sources.size(); i++) {
+            sourcePaths[i] = toPath(sources.get(i));
+        }
+        try {
+            fileSystem.concat(target, sourcePaths);
+        } catch (UnsupportedOperationException e) {
+            // 本地文件系统不支持 concat，改为追加写入后删除源文件
+            try (FSDataOutputStream out = fileSystem.append(target)) {
+                for (Path sourcePath : sourcePaths) {
+                    try (FSDataInputStream in = fileSystem.open(sourcePath)) {
+                        IOUtils.copyBytes(in, out, BUFFER_SIZE, false);
+                    }
+                }
+            }
+            for (Path sourcePath : sourcePaths) {
+                fileSystem.delete(sourcePath, false);
+            }
+        }
+    }
+
+    @Override
+    public InputStream readFile(String hdfsPath) throws IOException {
+        return fileSystem.open(toPath(hdfsPath), BUFFER_SIZE);
+    }
+
+    @Override
+    public InputStream readFile(String hdfsPath, long offset, long length) throws IOException {
+        FSDataInputStream in = fileSystem.open(toPath(hdfsPath), BUFFER_SIZE);
+        try {
+            boolean positioned = length >= 0 && length <= PREAD_MAX_LENGTH;
+            if (!positioned && offset > 0) {
+                in.seek(offset);
+            }
+            return new RangeInputStream(in, offset, length >= 0 ? length : Long.MAX_VALUE, positioned);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean uploadFile(String localFilePath, String hdfsPath, boolean overwrite,
+                              ProgressCallback progressCallback) throws Exception {
+        File file = new File(localFilePath);
+        if (!file.exists()) {
+            throw new FileNotFoundException("本地文件不存在: " + localFilePath);
+        }
+        log(progressCallback, "开始上传文件...");
+        progress(progressCallback, 0, file.length());
+        fileSystem.copyFromLocalFile(false, overwrite, new Path(file.getAbsoluteFile().toURI()), toPath(hdfsPath));
+        progress(progressCallback, file.length(), file.length());
+        log(progressCallback, "文件上传成功!");
+        return true;
+    }
+
+    @Override
+    public boolean downloadFile(String hdfsPath, String localFilePath,
+                                ProgressCallback progressCallback) throws Exception {
+        HdfsFileInfo fileInfo = getFileInfo(hdfsPath);
+        if (fileInfo == null) {
+            throw new IOException("无法获取文件信息: " + hdfsPath);
+        }
+        long fileSize = fileInfo.getLength();
+        log(progressCallback, "开始下载文件...");
+        progress(progressCallback, 0, fileSize);
+        try (InputStream inputStream = readFile(hdfsPath);
+             FileOutputStream fos = new FileOutputStream(localFilePath)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytesRead;
+            long totalBytesRead = 0;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                fos.write(buffer, 0, bytesRead);
+                totalBytesRead += bytesRead;
+                progress(progressCallback, totalBytesRead, fileSize);
+            }
+        }
+        log(progressCallback, "文件下载成功!");
+        return true;
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 将 HDFS 路径转换为文件系统路径，本地存储时映射到根目录下
+     */
+    private Path toPath(String hdfsPath) {
+        if (rootDir == null) {
+            return new Path(hdfsPath);
+        }
+        String relativePath = hdfsPath.replaceFirst("^/+", "");
+        return relativePath.isEmpty() ? rootDir : new Path(rootDir, relativePath);
+    }
+
+    /**
+     * 转换为与 WebHDFS 一致的八进制权限，例如说 "755"
+     */
+    private static String toPermission(FileStatus status) {
+        return Integer.toOctalString(status.getPermission().toShort());
+    }
+
+    private static void log(ProgressCallback callback, String message) {
+        if (callback != null) {
+            callback.onStatusUpdate(message);
+        }
+    }
+
+    private static void progress(ProgressCallback callback, long current, long total) {
+        if (callback != null) {
+            callback.onProgress(current, total);
+        }
+    }
+
+    /**
+     * 读取文件指定范围的输入流
+     *
+     * positioned 为 true 时使用 pread，每次读取都指定位置；否则由调用方 seek 到起始位置后顺序读
+     */
+    private static class RangeInputStream extends InputStream {
+
+        private final FSDataInputStream in;
+        private final boolean positioned;
+        private long position;
+        private long remaining;
+
+        RangeInputStream(FSDataInputStream in, long position, long remaining, boolean positioned) {
+            this.in = in;
+            this.position = position;
+            this.remaining = remaining;
+            this.positioned = positioned;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (remaining <= 0) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, remaining);
+            int n = positioned ? in.read(position, b, off, toRead) : in.read(b, off, toRead);
+            if (n > 0) {
+                position += n;
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 按 {@link HadoopTransferPermit} 限速的输入流，每次读取后申请对应字节数的带宽
+ *
+ * @author 管理员1
+ */
+public class ThrottledInputStream extends FilterInputStream {
+
+    private final HadoopTransferPermit permit;
+
+    public ThrottledInputStream(InputStream in, HadoopTransferPermit permit) {
+        super(in);
+        this.permit = permit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            permit.acquire(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            permit.acquire(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 跳过的数据同样需要从存储读取，按实际跳过的字节数计算
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            permit.acquire(skipped);
+        }
+        return skipped;
+    }
+
+}
@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 按 {@link HadoopTransferPermit} 限速的输出流，每次写出前申请对应字节数的带宽
+ *
+ * @author 管理员1
+ */
+public class ThrottledOutputStream extends FilterOutputStream {
+
+    private final HadoopTransferPermit permit;
+
+    public ThrottledOutputStream(OutputStream out, HadoopTransferPermit permit) {
+        super(out);
+        this.permit = permit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        permit.acquire(1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        // FilterOutputStream 默认逐字节写出，这里直接写出整段
+        permit.acquire(len);
+        out.write(b, off, len);
+    }
+
+}
@@ -0,0 +1,501 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.*;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.*;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 WebHDFS REST API 的 {@link HadoopStorage} 实现
+ *
+ * 全局单例，所有请求共用一个连接池：NameNode 与 DataNode 分别限制单路由的连接数，
+ * 连接保持 Keep-Alive 并定期回收空闲连接，避免每次文件操作都重新建立 TCP 连接
+ *
+ * @author 管理员1
+ */
+@Slf4j
+public class WebHdfsClient implements HadoopStorage {
+
+    private static final Gson GSON = new Gson();
+
+    private final HadoopProperties properties;
+    private final CloseableHttpClient httpClient;
+    private final DataNodeRouter dataNodeRouter;
+
+    public WebHdfsClient(HadoopProperties properties) {
+        this.properties = properties;
+        this.dataNodeRouter = new DataNodeRouter(properties);
+        HadoopProperties.Pool pool = properties.getPool();
+        // 连接池：DataNode 使用默认的单路由上限，NameNode 单独设置
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(pool.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(pool.getMaxPerRouteDataNode());
+        connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost(properties.getNameNodeHost(), properties.getNameNodePort())),
+                pool.getMaxPerRouteNameNode());
+        connectionManager.setValidateAfterInactivity((int) pool.getValidateAfterInactivity().toMillis());
+        // 超时配置
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) pool.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) pool.getSocketTimeout().toMillis())
+                .setConnectionRequestTimeout((int) pool.getConnectionRequestTimeout().toMillis())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(buildKeepAliveStrategy(pool.getKeepAlive().toMillis()))
+                // WebHDFS 的 307 重定向需要替换 DataNode 地址，由客户端自行处理
+                .disableRedirectHandling()
+                .evictExpiredConnections()
+                .evictIdleConnections(pool.getIdleEvict().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private static ConnectionKeepAliveStrategy buildKeepAliveStrategy(long defaultKeepAlive) {
+        return (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? keepAlive : defaultKeepAlive;
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        dataNodeRouter.close();
+        httpClient.close();
+    }
+
+    // ========== 元数据操作 ==========
+
+    @Override
+    public HdfsFileInfo getFileInfo(String hdfsPath) throws IOException {
+        HttpGet getRequest = new HttpGet(buildUri(hdfsPath, "GETFILESTATUS", ""));
+        try (CloseableHttpResponse response = httpClient.execute(getRequest)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode == HttpStatus.SC_NOT_FOUND) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                return null;  // 文件不存在
+            }
+            if (statusCode != HttpStatus.SC_OK) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                throw new IOException("获取文件信息失败，状态码: " + statusCode);
+            }
+
+            JsonObject jsonObject = GSON.fromJson(EntityUtils.toString(response.getEntity()), JsonObject.class);
+            if (!jsonObject.has("FileStatus") || !jsonObject.get("FileStatus").isJsonObject()) {
+                return null;
+            }
+            JsonObject fileStatus = jsonObject.getAsJsonObject("FileStatus");
+            HdfsFileInfo fileInfo = new HdfsFileInfo(
+                    hdfsPath,
+                    fileStatus.get("length").getAsLong(),
+                    fileStatus.get("type").getAsString().equals("DIRECTORY"),
+                    fileStatus.get("modificationTime").getAsLong(),
+                    fileStatus.get("owner").getAsString(),
+                    fileStatus.get("group").getAsString(),
+                    fileStatus.get("permission").getAsString()
+            );
+            // 添加其他属性
+            for (Map.Entry<String, JsonElement> entry : fileStatus.entrySet()) {
+                if (!entry.getKey().equals("length") &&
+                    !entry.getKey().equals("type") &&
+                    !entry.getKey().equals("modificationTime") &&
+                    !entry.getKey().equals("owner") &&
+                    !entry.getKey().equals("group") &&
+                    !entry.getKey().equals("permission")) {
+                    fileInfo.addAttribute(entry.getKey(), entry.getValue().toString());
+                }
+            }
+            return fileInfo;
+        }
+    }
+
+    @Override
+    public boolean exists(String hdfsPath) throws IOException {
+        return getFileInfo(hdfsPath) != null;
+    }
+
+    @Override
+    public List<Map<String, Object>> listDirectory(String hdfsPath) throws IOException {
+        HttpGet getRequest = new HttpGet(buildUri(hdfsPath, "LISTSTATUS", ""));
+        try (CloseableHttpResponse response = httpClient.execute(getRequest)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != HttpStatus.SC_OK) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                throw new IOException("列出目录失败，状态码: " + statusCode);
+            }
+
+            JsonObject jsonObject = GSON.fromJson(EntityUtils.toString(response.getEntity()), JsonObject.class);
+            List<Map<String, Object>> fileList = new ArrayList<>();
+            if (jsonObject.has("FileStatuses") && jsonObject.get("FileStatuses").isJsonObject()) {
+                JsonObject fileStatuses = jsonObject.getAsJsonObject("FileStatuses");
+                if (fileStatuses.has("FileStatus") && fileStatuses.get("FileStatus").isJsonArray()) {
+                    JsonArray fileStatusArray = fileStatuses.getAsJsonArray("FileStatus");
+                    for (int i = 0; i < fileStatusArray.size(); i++) {
+                        JsonObject fileStatus = fileStatusArray.get(i).getAsJsonObject();
+                        Map<String, Object> fileInfo = new HashMap<>();
+                        fileInfo.put("name", fileStatus.get("pathSuffix").getAsString());
+                        fileInfo.put("type", fileStatus.get("type").getAsString().equals("DIRECTORY") ? "目录" : "文件");
+                        fileInfo.put("size", fileStatus.get("length").getAsLong());
+                        fileInfo.put("modificationTime", fileStatus.get("modificationTime").getAsLong());
+                        fileInfo.put("owner", fileStatus.get("owner").getAsString());
+                        fileInfo.put("group", fileStatus.get("group").getAsString());
+                        fileInfo.put("permission", fileStatus.get("permission").getAsString());
+                        fileList.add(fileInfo);
+                    }
+                }
+            }
+            return fileList;
+        }
+    }
+
+    @Override
+    public boolean mkdir(String hdfsPath, String permission) throws IOException {
+        String params = permission != null && !permission.isEmpty() ? "&permission=" + permission : "";
+        return executeForBoolean(new HttpPut(buildUri(hdfsPath, "MKDIRS", params)), "创建目录失败");
+    }
+
+    @Override
+    public boolean delete(String hdfsPath, boolean recursive) throws IOException {
+        return executeForBoolean(new HttpDelete(buildUri(hdfsPath, "DELETE", "&recursive=" + recursive)),
+                "删除文件/目录失败");
+    }
+
+    @Override
+    public boolean mv(String sourcePath, String destinationPath) throws IOException {
+        HttpPut putRequest = new HttpPut(buildUri(sourcePath, "RENAME", "&destination=" + destinationPath));
+        try (CloseableHttpResponse response = httpClient.execute(putRequest)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != HttpStatus.SC_OK || response.getEntity() == null) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                return false;
+            }
+            return parseBoolean(EntityUtils.toString(response.getEntity()));
+        }
+    }
+
+    // ========== 数据读写 ==========
+
+    @Override
+    public boolean createFile(String hdfsPath, InputStream inputStream) throws IOException {
+        return doCreateFile(hdfsPath, new InputStreamEntity(inputStream, -1, ContentType.APPLICATION_OCTET_STREAM));
+    }
+
+    @Override
+    public boolean createFile(String hdfsPath, InputStream inputStream, long length) throws IOException {
+        return doCreateFile(hdfsPath, new InputStreamEntity(inputStream, length, ContentType.APPLICATION_OCTET_STREAM));
+    }
+
+    @Override
+    public boolean createFile(String hdfsPath, InputStreamSource source, long length) throws Exception {
+        try (InputStream inputStream = source.getInputStream()) {
+            return doCreateFile(hdfsPath, new InputStreamEntity(inputStream, length, ContentType.APPLICATION_OCTET_STREAM));
+        }
+    }
+
+    private boolean doCreateFile(String hdfsPath, HttpEntity entity) throws IOException {
+        // 1. 向 NameNode 获取 DataNode 的写入地址
+        URI location = resolveRedirect(new HttpPut(buildUri(hdfsPath, "CREATE",
+                "&overwrite=true&createparent=true")));
+
+        // 2. 向重定向 URL 发送文件数据
+        HttpPut putRequest = new HttpPut();
+        putRequest.setEntity(entity);
+        try (CloseableHttpResponse response = executeOnDataNode(putRequest, location, "CREATE")) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            return response.getStatusLine().getStatusCode() == HttpStatus.SC_CREATED;  // 创建成功
+        }
+    }
+
+    @Override
+    public void concat(String hdfsPath, List<String> sources) throws IOException {
+        HttpPost postRequest = new HttpPost(buildUri(hdfsPath, "CONCAT", "&sources=" + String.join(",", sources)));
+        try (CloseableHttpResponse response = httpClient.execute(postRequest)) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != HttpStatus.SC_OK) {
+                throw new IOException("拼接文件失败，状态码: " + statusCode);
+            }
+        }
+    }
+
+    @Override
+    public InputStream readFile(String hdfsPath) throws IOException {
+        return readFile(hdfsPath, 0, -1);
+    }
+
+    @Override
+    public InputStream readFile(String hdfsPath, long offset, long length) throws IOException {
+        // 1. 向 NameNode 获取 DataNode 的读取地址
+        String params = "&offset=" + offset + (length >= 0 ? "&length=" + length : "");
+        URI location = resolveRedirect(new HttpGet(buildUri(hdfsPath, "OPEN", params)));
+
+        // 2. 发送 GET 请求读取文件
+        HttpGet getRequest = new HttpGet();
+        CloseableHttpResponse response = executeOnDataNode(getRequest, location, "OPEN");
+        int statusCode = response.getStatusLine().getStatusCode();
+        HttpEntity entity = response.getEntity();
+        if (statusCode != HttpStatus.SC_OK || entity == null) {
+            response.close();
+            throw new IOException("读取文件失败，状态码: " + statusCode);
+        }
+        return new ResponseInputStream(entity.getContent(), response, dataNodeRouter, getRequest.getURI());
+    }
+
+    @Override
+    public boolean uploadFile(String localFilePath, String hdfsPath, boolean overwrite,
+                              ProgressCallback progressCallback) throws Exception {
+        File file = new File(localFilePath);
+        if (!file.exists()) {
+            throw new FileNotFoundException("本地文件不存在: " + localFilePath);
+        }
+
+        // 1. 获取重定向 URL
+        log(progressCallback, "正在初始化上传...");
+        URI location = resolveRedirect(new HttpPut(buildUri(hdfsPath, "CREATE",
+                "&overwrite=" + overwrite + "&createparent=true")));
+        log(progressCallback, "获取到重定向URL");
+
+        // 2. 向重定向 URL 发送文件数据
+        HttpPut putRequest = new HttpPut();
+        putRequest.setEntity(new FileEntity(file, ContentType.APPLICATION_OCTET_STREAM));
+        log(progressCallback, "开始上传文件...");
+        progress(progressCallback, 0, file.length());
+        try (CloseableHttpResponse response = executeOnDataNode(putRequest, location, "CREATE")) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != HttpStatus.SC_CREATED) {  // 创建失败
+                log(progressCallback, "文件上传失败，状态码: " + statusCode);
+                return false;
+            }
+        }
+        progress(progressCallback, file.length(), file.length());
+        log(progressCallback, "文件上传成功!");
+        return true;
+    }
+
+    @Override
+    public boolean downloadFile(String hdfsPath, String localFilePath,
+                                ProgressCallback progressCallback) throws Exception {
+        // 获取文件信息，包括大小
+        HdfsFileInfo fileInfo = getFileInfo(hdfsPath);
+        if (fileInfo == null) {
+            throw new IOException("无法获取文件信息: " + hdfsPath);
+        }
+        long fileSize = fileInfo.getLength();
+
+        log(progressCallback, "开始下载文件...");
+        progress(progressCallback, 0, fileSize);
+        try (InputStream inputStream = readFile(hdfsPath);
+             FileOutputStream fos = new FileOutputStream(localFilePath)) {
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            long totalBytesRead = 0;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                fos.write(buffer, 0, bytesRead);
+                totalBytesRead += bytesRead;
+                progress(progressCallback, totalBytesRead, fileSize);
+            }
+        }
+        log(progressCallback, "文件下载成功!");
+        return true;
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 构建 WebHDFS 请求地址
+     */
+    private URI buildUri(String hdfsPath, String op, String params) {
+        return URI.create(getWebHdfsUrl() + hdfsPath + "?op=" + op
+                + "&user.name=" + properties.getUser() + params);
+    }
+
+    private String getWebHdfsUrl() {
+        return "http://" + properties.getNameNodeHost() + ":" + properties.getNameNodePort() + "/webhdfs/v1";
+    }
+
+    /**
+     * 向 NameNode 发送请求，解析 307 重定向得到实际处理数据的 DataNode 地址
+     *
+     * 返回的是集群内部地址，由 {@link #executeOnDataNode(HttpRequestBase, URI, String)} 转换为可访问的地址
+     */
+    private URI resolveRedirect(HttpUriRequest request) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            int statusCode = response.getStatusLine().getStatusCode();
+            Header location = response.getFirstHeader("Location");
+            if (statusCode != HttpStatus.SC_TEMPORARY_REDIRECT || location == null) {
+                throw new IOException("获取重定向URL失败，响应码: " + statusCode);
+            }
+            return URI.create(location.getValue());
+        }
+    }
+
+    /**
+     * 向 DataNode 发送请求
+     *
+     * 按 {@link DataNodeRouter} 给出的顺序尝试，失败时切换到下一个 DataNode。DataNode 返回 5xx 也视为失败，
+     * 例如说磁盘故障、正在退役；请求体不可重复发送时，只有连接未建立（数据尚未发送）的失败才切换
+     *
+     * @param request 请求，每次尝试时设置地址；返回后 {@link HttpRequestBase#getURI()} 为实际使用的地址
+     * @param location NameNode 返回的重定向地址
+     * @param op 操作，用于监控
+     * @return 响应
+     */
+    private CloseableHttpResponse executeOnDataNode(HttpRequestBase request, URI location, String op) throws IOException {
+        HttpEntity entity = request instanceof HttpEntityEnclosingRequest
+                ? ((HttpEntityEnclosingRequest) request).getEntity() : null;
+        IOException lastException = null;
+        for (URI uri : dataNodeRouter.route(location)) {
+            request.setURI(uri);
+            long startTime = System.nanoTime();
+            try {
+                CloseableHttpResponse response = httpClient.execute(request);
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+                    // 数据已经发送，请求体可重复发送时才能切换，否则直接失败
+                    EntityUtils.consumeQuietly(response.getEntity());
+                    response.close();
+                    IOException e = new IOException("DataNode(" + uri.getAuthority() + ") 响应码: " + statusCode);
+                    dataNodeRouter.markFailure(uri, e);
+                    dataNodeRouter.recordRequest(uri, op, System.nanoTime() - startTime, false);
+                    lastException = e;
+                    if (entity != null && !entity.isRepeatable()) {
+                        break;
+                    }
+                    log.warn("[executeOnDataNode][DataNode({}) 响应码({})，尝试其它 DataNode]", uri.getAuthority(), statusCode);
+                    continue;
+                }
+                dataNodeRouter.markSuccess(uri);
+                dataNodeRouter.recordRequest(uri, op, System.nanoTime() - startTime, statusCode < HttpStatus.SC_BAD_REQUEST);
+                if (entity != null && statusCode < HttpStatus.SC_BAD_REQUEST) {
+                    dataNodeRouter.recordBytes(uri, op, entity.getContentLength());
+                }
+                return response;
+            } catch (IOException e) {
+                dataNodeRouter.markFailure(uri, e);
+                dataNodeRouter.recordRequest(uri, op, System.nanoTime() - startTime, false);
+                lastException = e;
+                if (entity != null && !entity.isRepeatable()
+                        && !(e instanceof ConnectException) && !(e instanceof ConnectTimeoutException)) {
+                    break;
+                }
+                log.warn("[executeOnDataNode][DataNode({}) 请求失败，尝试其它 DataNode]", uri.getAuthority(), e);
+            }
+        }
+        throw lastException;
+    }
+
+    private boolean executeForBoolean(HttpUriRequest request, String errorMessage) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != HttpStatus.SC_OK) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                throw new IOException(errorMessage + "，状态码: " + statusCode);
+            }
+            return parseBoolean(EntityUtils.toString(response.getEntity()));
+        }
+    }
+
+    private static boolean parseBoolean(String responseBody) {
+        JsonObject jsonObject = GSON.fromJson(responseBody, JsonObject.class);
+        return jsonObject != null && jsonObject.has("boolean") && jsonObject.get("boolean").getAsBoolean();
+    }
+
+    /**
+     * 记录状态日志
+     */
+    private static void log(ProgressCallback callback, String message) {
+        if (callback != null) {
+            callback.onStatusUpdate(message);
+        }
+    }
+
+    /**
+     * 更新进度
+     */
+    private static void progress(ProgressCallback callback, long current, long total) {
+        if (callback != null) {
+            callback.onProgress(current, total);
+        }
+    }
+
+    /**
+     * 与 HTTP 响应绑定的输入流
+     *
+     * 关闭时关闭响应：如果数据已读完，连接早已归还连接池；否则中断连接，避免为了复用连接而读完剩余数据
+     */
+    private static class ResponseInputStream extends FilterInputStream {
+
+        private final CloseableHttpResponse response;
+        private final DataNodeRouter dataNodeRouter;
+        private final URI uri;
+        /**
+         * 已读取的字节数，关闭时计入 DataNode 的吞吐量
+         */
+        private long bytesRead;
+
+        ResponseInputStream(InputStream in, CloseableHttpResponse response, DataNodeRouter dataNodeRouter, URI uri) {
+            super(in);
+            this.response = response;
+            this.dataNodeRouter = dataNodeRouter;
+            this.uri = uri;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                bytesRead += n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            dataNodeRouter.recordBytes(uri, "OPEN", bytesRead);
+            bytesRead = 0;
+            response.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * hadoop 网盘的 HDFS 访问组件，基于 WebHDFS REST API 实现
+ */
+package cn.iocoder.yudao.module.system.framework.hadoop;
@@ -0,0 +1,46 @@
+package cn.iocoder.yudao.module.system.job.hadoopfile;
+
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandler;
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJob;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileAggregateService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 重新计算 hadoop 文件夹子树统计值的 Job
+ *
+ * 统计值由文件变更时增量维护，该 Job 用于修复异常中断、并发等导致的偏差，建议在业务低峰期执行
+ *
+ * @author 管理员1
+ */
+@Slf4j
+@Component
+public class HadoopFileAggregateRepairJob implements JobHandler {
+
+    @Resource
+    private HadoopFileMapper hadoopFileMapper;
+
+    @Resource
+    private HadoopFileAggregateService hadoopFileAggregateService;
+
+    @Override
+    @TenantJob
+    public String execute(String param) {
+        List<String> creators = hadoopFileMapper.selectCreatorListWithDirectory();
+        int count = 0;
+        for (String creator : creators) {
+            try {
+                count += hadoopFileAggregateService.repairAggregates(creator);
+            } catch (Exception e) {
+                log.error("[execute][用户({}) 修复文件夹统计值失败]", creator, e);
+            }
+        }
+        log.info("[execute][用户数量 ({}) 个，修复文件夹数量 ({}) 个]", creators.size(), count);
+        return String.format("用户数量 %s 个，修复文件夹数量 %s 个", creators.size(), count);
+    }
+
+}
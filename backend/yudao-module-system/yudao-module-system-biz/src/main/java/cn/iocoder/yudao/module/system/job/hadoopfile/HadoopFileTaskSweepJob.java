@@ -0,0 +1,43 @@
+package cn.iocoder.yudao.module.system.job.hadoopfile;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandler;
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJob;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileTaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 巡检 hadoop 文件任务的 Job
+ *
+ * 执行节点宕机后停留在执行中的任务标记为失败，并调度线程池已满时退回等待中的任务。
+ * 参数可以指定超时分钟数，为空时使用 yudao.hadoop.task.stale-timeout
+ *
+ * @author 管理员1
+ */
+@Slf4j
+@Component
+public class HadoopFileTaskSweepJob implements JobHandler {
+
+    @Resource
+    private HadoopFileTaskService hadoopFileTaskService;
+
+    @Resource
+    private HadoopProperties hadoopProperties;
+
+    @Override
+    @TenantJob
+    public String execute(String param) {
+        Duration timeout = StrUtil.isNotBlank(param) ? Duration.ofMinutes(Long.parseLong(param.trim()))
+                : hadoopProperties.getTask().getStaleTimeout();
+        int count = hadoopFileTaskService.sweepTasks(LocalDateTime.now().minus(timeout));
+        log.info("[execute][超时时间 ({})，标记为失败的任务数量 ({}) 个]", timeout, count);
+        return String.format("超时时间 %s，标记为失败的任务数量 %s 个", timeout, count);
+    }
+
+}
@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.module.system.job.hadoopfile;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandler;
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJob;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileTrashService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+
+/**
+ * 彻底删除 hadoop 回收站中过期文件的 Job
+ *
+ * 放入回收站超过保留天数的文件，分批彻底删除。参数可以指定保留天数，为空时使用 yudao.hadoop.trash.retention-days
+ *
+ * @author 管理员1
+ */
+@Slf4j
+@Component
+public class HadoopFileTrashExpireJob implements JobHandler {
+
+    @Resource
+    private HadoopFileTrashService hadoopFileTrashService;
+
+    @Resource
+    private HadoopProperties hadoopProperties;
+
+    @Override
+    @TenantJob
+    public String execute(String param) {
+        int retentionDays = StrUtil.isNotBlank(param) ? Integer.parseInt(param.trim())
+                : hadoopProperties.getTrash().getRetentionDays();
+        int count = hadoopFileTrashService.expireTrash(LocalDateTime.now().minusDays(retentionDays));
+        log.info("[execute][保留天数 ({}) 天，彻底删除文件数量 ({}) 个]", retentionDays, count);
+        return String.format("保留天数 %s 天，彻底删除文件数量 %s 个", retentionDays, count);
+    }
+
+}
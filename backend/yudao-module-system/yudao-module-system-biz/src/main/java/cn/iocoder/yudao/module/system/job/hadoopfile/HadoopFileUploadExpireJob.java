@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.module.system.job.hadoopfile;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandler;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileUploadService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 清理 hadoop 过期上传任务的 Job
+ *
+ * 客户端放弃的分片上传任务，超过过期时间没有上传分片时，删除分片记录和 HDFS 上的临时分片。
+ * 参数可以指定过期小时数，为空时使用 yudao.hadoop.upload.session-expire
+ *
+ * @author 管理员1
+ */
+@Slf4j
+@Component
+public class HadoopFileUploadExpireJob implements JobHandler {
+
+    @Resource
+    private HadoopFileUploadService hadoopFileUploadService;
+
+    @Resource
+    private HadoopProperties hadoopProperties;
+
+    @Override
+    public String execute(String param) {
+        Duration expire = StrUtil.isNotBlank(param) ? Duration.ofHours(Long.parseLong(param.trim()))
+                : hadoopProperties.getUpload().getSessionExpire();
+        int count = hadoopFileUploadService.expireUploads(LocalDateTime.now().minus(expire));
+        log.info("[execute][过期时间 ({})，清理上传任务数量 ({}) 个]", expire, count);
+        return String.format("过期时间 %s，清理上传任务数量 %s 个", expire, count);
+    }
+
+}
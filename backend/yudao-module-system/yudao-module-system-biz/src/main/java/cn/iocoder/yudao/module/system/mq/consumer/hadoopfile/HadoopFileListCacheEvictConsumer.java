@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.system.mq.consumer.hadoopfile;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.hadoopfile.HadoopFileListCacheEvictMessage;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileListCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link HadoopFileListCacheEvictMessage} 的消费者，清理当前节点的本地缓存
+ *
+ * @author 管理员1
+ */
+@Component
+@Slf4j
+public class HadoopFileListCacheEvictConsumer extends AbstractRedisChannelMessageListener<HadoopFileListCacheEvictMessage> {
+
+    @Resource
+    private HadoopFileListCacheService hadoopFileListCacheService;
+
+    @Override
+    public void onMessage(HadoopFileListCacheEvictMessage message) {
+        log.debug("[onMessage][消息内容({})]", message);
+        hadoopFileListCacheService.evictLocalCache(message.getUserId(), message.getScopes());
+    }
+
+}
@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.system.mq.consumer.hadoopfile;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.hadoopfile.HadoopFileTaskCancelMessage;
+import cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileTaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link HadoopFileTaskCancelMessage} 的消费者，取消当前节点正在执行的任务
+ *
+ * @author 管理员1
+ */
+@Component
+@Slf4j
+public class HadoopFileTaskCancelConsumer extends AbstractRedisChannelMessageListener<HadoopFileTaskCancelMessage> {
+
+    @Resource
+    private HadoopFileTaskService hadoopFileTaskService;
+
+    @Override
+    public void onMessage(HadoopFileTaskCancelMessage message) {
+        log.info("[onMessage][消息内容({})]", message);
+        hadoopFileTaskService.cancelLocalTask(message.getTaskId());
+    }
+
+}
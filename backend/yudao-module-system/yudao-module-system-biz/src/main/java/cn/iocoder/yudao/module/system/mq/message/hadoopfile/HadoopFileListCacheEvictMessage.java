@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.mq.message.hadoopfile;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+import java.util.Collection;
+
+/**
+ * hadoop 文件列表缓存失效的广播消息，通知所有节点清理本地缓存
+ *
+ * @author 管理员1
+ */
+@Data
+public class HadoopFileListCacheEvictMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 用户编号
+     */
+    private Long userId;
+    /**
+     * 失效的范围
+     *
+     * 为空时，失效该用户的全部缓存
+     */
+    private Collection<String> scopes;
+
+}
@@ -0,0 +1,19 @@
+package cn.iocoder.yudao.module.system.mq.message.hadoopfile;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * hadoop 文件任务取消的广播消息，通知正在执行该任务的节点中断执行
+ *
+ * @author 管理员1
+ */
+@Data
+public class HadoopFileTaskCancelMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 任务编号
+     */
+    private Long taskId;
+
+}
@@ -0,0 +1,46 @@
+package cn.iocoder.yudao.module.system.mq.producer.hadoopfile;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.hadoopfile.HadoopFileListCacheEvictMessage;
+import cn.iocoder.yudao.module.system.mq.message.hadoopfile.HadoopFileTaskCancelMessage;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Collection;
+
+/**
+ * hadoop 文件相关消息的 Producer
+ *
+ * @author 管理员1
+ */
+@Component
+public class HadoopFileProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link HadoopFileListCacheEvictMessage} 消息
+     *
+     * @param userId 用户编号
+     * @param scopes 失效的范围，为空时失效该用户的全部缓存
+     */
+    public void sendFileListCacheEvictMessage(Long userId, Collection<String> scopes) {
+        HadoopFileListCacheEvictMessage message = new HadoopFileListCacheEvictMessage();
+        message.setUserId(userId);
+        message.setScopes(scopes);
+        redisMQTemplate.send(message);
+    }
+
+    /**
+     * 发送 {@link HadoopFileTaskCancelMessage} 消息
+     *
+     * @param taskId 任务编号
+     */
+    public void sendFileTaskCancelMessage(Long taskId) {
+        HadoopFileTaskCancelMessage message = new HadoopFileTaskCancelMessage();
+        message.setTaskId(taskId);
+        redisMQTemplate.send(message);
+    }
+
+}
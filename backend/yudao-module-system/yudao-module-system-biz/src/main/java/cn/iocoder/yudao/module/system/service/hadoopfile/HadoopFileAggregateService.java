@@ -0,0 +1,61 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+
+import java.util.Collection;
+
+/**
+ * hadoop 文件夹子树统计 Service 接口
+ *
+ * 文件夹记录上保存整棵子树的总大小、文件数量、文件夹数量。文件变更时，按物化路径一次更新全部祖先目录，
+ * 列表展示文件夹大小时无需再递归统计
+ *
+ * @author 管理员1
+ */
+public interface HadoopFileAggregateService {
+
+    /**
+     * 文件加入目录树后，计入各级祖先目录。用于创建文件、从回收站恢复
+     *
+     * @param file 文件，文件夹时使用其自身的统计值
+     */
+    void addToAncestors(HadoopFileDO file);
+
+    /**
+     * 批量插入文件后，计入各级祖先目录。物化路径相同的文件汇总后只更新一次，用于批量复制
+     *
+     * @param files 文件列表
+     */
+    void addToAncestors(Collection<HadoopFileDO> files);
+
+    /**
+     * 文件离开目录树后，从各级祖先目录中扣除。用于移入回收站、删除
+     *
+     * @param file 文件，文件夹时使用其自身的统计值
+     */
+    void subtractFromAncestors(HadoopFileDO file);
+
+    /**
+     * 批量离开目录树后，从各级祖先目录中扣除。物化路径相同的文件汇总后只更新一次，用于批量移入回收站
+     *
+     * @param files 文件列表，不能包含祖先、子孙关系的文件，否则会重复扣除
+     */
+    void subtractFromAncestors(Collection<HadoopFileDO> files);
+
+    /**
+     * 文件移动后，从原祖先目录中扣除，计入新祖先目录。共同的祖先目录不变
+     *
+     * @param file 文件，物化路径已是移动后的
+     * @param oldTreePath 移动前的物化路径
+     */
+    void moveBetweenAncestors(HadoopFileDO file, String oldTreePath);
+
+    /**
+     * 重新计算用户全部文件夹的统计值，修复增量维护的偏差
+     *
+     * @param creator 用户编号
+     * @return 修复的文件夹数量
+     */
+    int repairAggregates(String creator);
+
+}
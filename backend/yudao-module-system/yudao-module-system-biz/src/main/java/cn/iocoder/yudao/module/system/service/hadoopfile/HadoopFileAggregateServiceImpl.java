@@ -0,0 +1,158 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.util.ObjUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
+
+/**
+ * hadoop 文件夹子树统计 Service 实现类
+ *
+ * @author 管理员1
+ */
+@Service
+@Validated
+public class HadoopFileAggregateServiceImpl implements HadoopFileAggregateService {
+
+    @Resource
+    private HadoopFileMapper hadoopFileMapper;
+
+    @Resource
+    private HadoopFileListCacheService hadoopFileListCacheService;
+
+    @Override
+    public void addToAncestors(HadoopFileDO file) {
+        updateAncestors(parseTreePath(file.getTreePath()), file, 1);
+    }
+
+    @Override
+    public void addToAncestors(Collection<HadoopFileDO> files) {
+        updateAncestors(files, 1);
+    }
+
+    @Override
+    public void subtractFromAncestors(Collection<HadoopFileDO> files) {
+        updateAncestors(files, -1);
+    }
+
+    private void updateAncestors(Collection<HadoopFileDO> files, int sign) {
+        Map<String, List<HadoopFileDO>> filesMap = files.stream()
+                .collect(Collectors.groupingBy(HadoopFileDO::getTreePath));
+        filesMap.forEach((treePath, list) -> {
+            List<Long> ancestors = parseTreePath(treePath);
+            if (ancestors.isEmpty()) {
+                return;
+            }
+            long totalSize = 0, fileCount = 0, dirCount = 0;
+            for (HadoopFileDO file : list) {
+                if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+                    totalSize += ObjUtil.defaultIfNull(file.getTotalSize(), 0L);
+                    fileCount += ObjUtil.defaultIfNull(file.getFileCount(), 0L);
+                    dirCount += ObjUtil.defaultIfNull(file.getDirCount(), 0L) + 1;
+                } else {
+                    totalSize += ObjUtil.defaultIfNull(file.getSize(), 0L);
+                    fileCount++;
+                }
+            }
+            hadoopFileMapper.updateAggregateIncr(ancestors, sign * totalSize, sign * fileCount, sign * dirCount);
+        });
+    }
+
+    @Override
+    public void subtractFromAncestors(HadoopFileDO file) {
+        updateAncestors(parseTreePath(file.getTreePath()), file, -1);
+    }
+
+    @Override
+    public void moveBetweenAncestors(HadoopFileDO file, String oldTreePath) {
+        List<Long> oldAncestors = parseTreePath(oldTreePath);
+        List<Long> newAncestors = parseTreePath(file.getTreePath());
+        List<Long> removed = new ArrayList<>(oldAncestors);
+        removed.removeAll(newAncestors);
+        List<Long> added = new ArrayList<>(newAncestors);
+        added.removeAll(oldAncestors);
+        updateAncestors(removed, file, -1);
+        updateAncestors(added, file, 1);
+    }
+
+    private void updateAncestors(List<Long> ancestors, HadoopFileDO file, int sign) {
+        if (ancestors.isEmpty()) {
+            return;
+        }
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+            hadoopFileMapper.updateAggregateIncr(ancestors, sign * ObjUtil.defaultIfNull(file.getTotalSize(), 0L),
+                    sign * ObjUtil.defaultIfNull(file.getFileCount(), 0L),
+                    sign * (ObjUtil.defaultIfNull(file.getDirCount(), 0L) + 1));
+        } else {
+            hadoopFileMapper.updateAggregateIncr(ancestors, sign * ObjUtil.defaultIfNull(file.getSize(), 0L), sign, 0);
+        }
+    }
+
+    /**
+     * 解析物化路径中的祖先目录编号，例如说 /1/5/ 解析为 [1, 5]
+     */
+    private static List<Long> parseTreePath(String treePath) {
+        List<Long> ids = new ArrayList<>();
+        for (String id : StrUtil.split(treePath, '/', true, true)) {
+            ids.add(Long.valueOf(id));
+        }
+        return ids;
+    }
+
+    @Override
+    public int repairAggregates(String creator) {
+        // 1. 按层级从深到浅计算，保证处理文件夹时其子文件夹已计算完成
+        List<HadoopFileDO> files = hadoopFileMapper.selectListForAggregate(creator);
+        Map<Long, HadoopFileDO> directoryMap = convertMap(files, HadoopFileDO::getId);
+        directoryMap.values().removeIf(file -> !FileTypeEnum.DIRECTORY.getType().equals(file.getType()));
+        Map<Long, long[]> aggregates = new HashMap<>(directoryMap.size());
+        directoryMap.keySet().forEach(id -> aggregates.put(id, new long[3]));
+        files.sort(Comparator.comparing(HadoopFileDO::getDepth, Comparator.nullsFirst(Comparator.reverseOrder())));
+        for (HadoopFileDO file : files) {
+            // 只统计正常状态的文件，回收站中的文件夹不计入上级，但保留自身的统计值，其子孙仍计入该文件夹
+            long[] parent = aggregates.get(file.getParentId());
+            if (parent == null || (!HadoopFileStatusEnum.NORMAL.getStatus().equals(file.getStatus())
+                    && !HadoopFileStatusEnum.TRASHED_WITH_FOLDER.getStatus().equals(file.getStatus()))) {
+                continue;
+            }
+            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+                long[] self = aggregates.get(file.getId());
+                parent[0] += self[0];
+                parent[1] += self[1];
+                parent[2] += self[2] + 1;
+            } else {
+                parent[0] += ObjUtil.defaultIfNull(file.getSize(), 0L);
+                parent[1]++;
+            }
+        }
+
+        // 2. 只更新有偏差的文件夹
+        int count = 0;
+        for (Map.Entry<Long, long[]> entry : aggregates.entrySet()) {
+            HadoopFileDO directory = directoryMap.get(entry.getKey());
+            long[] aggregate = entry.getValue();
+            if (Objects.equals(directory.getTotalSize(), aggregate[0])
+                    && Objects.equals(directory.getFileCount(), aggregate[1])
+                    && Objects.equals(directory.getDirCount(), aggregate[2])) {
+                continue;
+            }
+            hadoopFileMapper.updateAggregate(entry.getKey(), aggregate[0], aggregate[1], aggregate[2]);
+            count++;
+        }
+        if (count > 0) {
+            hadoopFileListCacheService.evictUser(Long.valueOf(creator));
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,91 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileBlobDO;
+import org.springframework.core.io.InputStreamSource;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * hadoop 文件内容 Service 接口
+ *
+ * 文件内容按 SHA-256 去重存储，多个文件引用同一份内容时只保存一份，通过引用计数回收
+ *
+ * @author 管理员1
+ */
+public interface HadoopFileBlobService {
+
+    /**
+     * 写入文件内容，边上传边计算 SHA-256。
+     * 如果已存在相同的内容，则丢弃本次写入的数据，复用已有内容
+     *
+     * 返回的内容已经计入一次引用
+     *
+     * @param source 文件内容，在调用线程中写入，失败时不重试
+     * @param size 文件大小（字节）
+     * @return 文件内容
+     */
+    HadoopFileBlobDO createBlob(InputStreamSource source, long size);
+
+    /**
+     * 将 HDFS 上已写入的文件登记为文件内容，例如说分片上传合并后的文件。需要读取一遍文件计算 SHA-256
+     * 如果已存在相同的内容，则删除该文件，复用已有内容；否则移动到内容路径
+     *
+     * 返回的内容已经计入一次引用
+     *
+     * @param path 已写入的文件路径，登记成功后不再存在
+     * @param size 文件大小（字节）
+     * @return 文件内容
+     */
+    HadoopFileBlobDO createBlob(String path, long size);
+
+    /**
+     * 引用已存在的文件内容，用于秒传
+     *
+     * @param sha256 内容的 SHA-256
+     * @param size 内容大小（字节）
+     * @return 文件内容，已经计入一次引用；不存在时返回 null
+     */
+    HadoopFileBlobDO acquireBlob(String sha256, long size);
+
+    /**
+     * 增加文件内容的引用，用于复制文件
+     *
+     * @param blobId 文件内容编号
+     */
+    void retainBlob(Long blobId);
+
+    /**
+     * 批量增加文件内容的引用，用于复制文件夹时多个文件引用同一份内容
+     *
+     * @param blobId 文件内容编号
+     * @param count 增加的引用数
+     */
+    void retainBlob(Long blobId, int count);
+
+    /**
+     * 释放文件内容的引用，引用归零时删除 HDFS 上的内容。在事务中调用时，事务提交后才删除
+     *
+     * @param blobId 文件内容编号
+     */
+    void releaseBlob(Long blobId);
+
+    /**
+     * 批量释放文件内容的引用，用于批量彻底删除
+     *
+     * 引用归零的内容删除记录，并改名为待删除的路径；待删除的内容由调用方在事务提交后删除，避免大量串行的 HDFS 请求
+     *
+     * @param blobCounts 文件内容编号与释放的引用数
+     * @return 引用归零、需要删除的 HDFS 路径（改名后的）
+     */
+    List<String> releaseBlobs(Map<Long, Integer> blobCounts);
+
+    /**
+     * 获得文件内容在 HDFS 上的路径
+     *
+     * @param sha256 内容的 SHA-256
+     * @return HDFS 路径
+     */
+    String buildBlobPath(String sha256);
+
+}
@@ -0,0 +1,286 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileBlobDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileBlobMapper;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopAsyncStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HdfsFileInfo;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.HADOOP_UPLOAD_FAIL;
+
+/**
+ * hadoop 文件内容 Service 实现类
+ *
+ * @author 管理员1
+ */
+@Service
+@Slf4j
+public class HadoopFileBlobServiceImpl implements HadoopFileBlobService {
+
+    @Resource
+    private HadoopFileBlobMapper hadoopFileBlobMapper;
+
+    @Resource
+    private HadoopStorage hdfsClient;
+    @Resource
+    private HadoopAsyncStorage hadoopAsyncStorage;
+    @Resource
+    private HadoopProperties hadoopProperties;
+
+    @Override
+    public HadoopFileBlobDO createBlob(InputStreamSource source, long size) {
+        // 1. 先写到临时路径，上传过程中同时计算 SHA-256，不需要再读一遍
+        String tempPath = hadoopProperties.getUpload().getBlobDir() + "/.tmp/" + IdUtil.fastSimpleUUID();
+        MessageDigest digest = newSha256Digest();
+        try {
+            hadoopAsyncStorage.createFileInCallerThread(tempPath,
+                    () -> new DigestInputStream(source.getInputStream(), digest), size);
+        } catch (Exception e) {
+            log.error("[createBlob][写入临时文件({})失败]", tempPath, e);
+            deleteQuietly(tempPath);
+            throw exception(HADOOP_UPLOAD_FAIL);
+        }
+        return registerBlob(tempPath, HexUtil.encodeHexStr(digest.digest()), size);
+    }
+
+    @Override
+    public HadoopFileBlobDO createBlob(String path, long size) {
+        // 1. 读取一遍文件，计算 SHA-256
+        MessageDigest digest = newSha256Digest();
+        try (InputStream in = new DigestInputStream(hdfsClient.readFile(path), digest)) {
+            byte[] buffer = new byte[IoUtil.DEFAULT_LARGE_BUFFER_SIZE];
+            while (in.read(buffer) != -1) {
+                // 只需计算 SHA-256，丢弃读到的数据
+            }
+        } catch (IOException e) {
+            log.error("[createBlob][读取文件({})失败]", path, e);
+            throw exception(HADOOP_UPLOAD_FAIL);
+        }
+        return registerBlob(path, HexUtil.encodeHexStr(digest.digest()), size);
+    }
+
+    /**
+     * 登记已写入 HDFS 的文件内容：已存在相同内容时删除该文件，否则移动到内容路径
+     *
+     * @param tempPath 已写入的文件路径
+     * @param sha256 内容的 SHA-256
+     * @param size 内容大小（字节）
+     * @return 文件内容，已经计入一次引用
+     */
+    private HadoopFileBlobDO registerBlob(String tempPath, String sha256, long size) {
+        // 2. 已存在相同内容，丢弃本次写入的数据
+        HadoopFileBlobDO blob = acquireBlob(sha256, size);
+        if (blob != null) {
+            deleteQuietly(tempPath);
+            return blob;
+        }
+
+        // 3. 不存在，则移动到内容路径并登记
+        String blobPath = buildBlobPath(sha256);
+        try {
+            moveToBlobPath(tempPath, blobPath, size);
+        } catch (IOException e) {
+            log.error("[createBlob][移动文件({}) 到 ({})失败]", tempPath, blobPath, e);
+            deleteQuietly(tempPath);
+            throw exception(HADOOP_UPLOAD_FAIL);
+        }
+        blob = HadoopFileBlobDO.builder().sha256(sha256).size(size).path(blobPath).refCount(1).build();
+        try {
+            hadoopFileBlobMapper.insert(blob);
+            return blob;
+        } catch (DuplicateKeyException e) {
+            // 并发上传了相同的内容，对方已经登记，这里改为引用对方的
+            HadoopFileBlobDO existing = acquireBlob(sha256, size);
+            if (existing == null) {
+                throw exception(HADOOP_UPLOAD_FAIL);
+            }
+            return existing;
+        }
+    }
+
+    private void moveToBlobPath(String tempPath, String blobPath, long size) throws IOException {
+        // 内容目录通常已存在，直接移动；失败时再创建目录重试，避免每次都先查询
+        if (hdfsClient.mv(tempPath, blobPath)) {
+            return;
+        }
+        String parentDir = blobPath.substring(0, blobPath.lastIndexOf('/'));
+        if (hdfsClient.mkdir(parentDir, "755") && hdfsClient.mv(tempPath, blobPath)) {
+            return;
+        }
+        // 目标已存在：并发上传了相同内容，或者之前登记失败残留的。内容由 SHA-256 决定，直接复用即可
+        // 引用归零的内容会先改名再删除（见 releaseBlob0），所以这里的路径不会被稍后的删除误删
+        HdfsFileInfo existing = hdfsClient.getFileInfo(blobPath);
+        if (existing == null || existing.getLength() != size) {
+            throw new IOException("移动文件失败: " + blobPath);
+        }
+        deleteQuietly(tempPath);
+    }
+
+    @Override
+    public HadoopFileBlobDO acquireBlob(String sha256, long size) {
+        HadoopFileBlobDO blob = hadoopFileBlobMapper.selectBySha256AndSize(sha256.toLowerCase(), size);
+        if (blob == null) {
+            return null;
+        }
+        // 引用计数已归零的内容正在被删除，视为不存在
+        if (hadoopFileBlobMapper.updateRefCountIncr(blob.getId(), 1) == 0) {
+            return null;
+        }
+        return blob;
+    }
+
+    @Override
+    public void retainBlob(Long blobId) {
+        retainBlob(blobId, 1);
+    }
+
+    @Override
+    public void retainBlob(Long blobId, int count) {
+        if (hadoopFileBlobMapper.updateRefCountIncr(blobId, count) == 0) {
+            throw exception(HADOOP_UPLOAD_FAIL);
+        }
+    }
+
+    @Override
+    public void releaseBlob(Long blobId) {
+        String path = releaseBlob0(blobId, 1);
+        if (path != null) {
+            deleteAfterCommit(path);
+        }
+    }
+
+    @Override
+    public List<String> releaseBlobs(Map<Long, Integer> blobCounts) {
+        List<String> paths = new ArrayList<>();
+        blobCounts.forEach((blobId, count) -> {
+            String path = releaseBlob0(blobId, count);
+            if (path != null) {
+                paths.add(path);
+            }
+        });
+        return paths;
+    }
+
+    /**
+     * 减少引用计数，引用归零时删除记录，并将 HDFS 上的内容改名为待删除的路径
+     *
+     * 内容路径由 SHA-256 决定，删除前先改名，之后再上传相同的内容时会写入新的文件，不会被稍后的删除误删
+     *
+     * @return 引用归零时，需要删除的 HDFS 路径；否则返回 null
+     */
+    private String releaseBlob0(Long blobId, int count) {
+        if (hadoopFileBlobMapper.updateRefCountDecr(blobId, count) == 0) {
+            log.warn("[releaseBlob0][文件内容({}) 不存在或引用计数不足({})]", blobId, count);
+            return null;
+        }
+        HadoopFileBlobDO blob = hadoopFileBlobMapper.selectById(blobId);
+        if (blob == null || blob.getRefCount() > 0) {
+            return null;
+        }
+        // 引用归零，先删除记录，再删除 HDFS 上的内容。删除记录失败说明期间又被引用了
+        if (hadoopFileBlobMapper.deleteByIdAndRefCountZero(blobId) == 0) {
+            return null;
+        }
+        // 在事务提交前改名，并发上传相同内容的请求此时被记录锁阻塞，提交后才会写入内容路径
+        String deletingPath = blob.getPath() + ".deleted." + IdUtil.fastSimpleUUID();
+        try {
+            if (!hdfsClient.mv(blob.getPath(), deletingPath)) {
+                log.warn("[releaseBlob0][文件内容({}) 改名失败，保留 HDFS 上的内容({})]", blobId, blob.getPath());
+                return null;
+            }
+        } catch (IOException e) {
+            // 内容仍在原路径，之后上传相同的内容时可以直接复用，不删除
+            log.warn("[releaseBlob0][文件内容({}) 改名失败，保留 HDFS 上的内容({})]", blobId, blob.getPath(), e);
+            return null;
+        }
+        renameBackOnRollback(deletingPath, blob.getPath());
+        return deletingPath;
+    }
+
+    /**
+     * 事务回滚后记录仍在，将内容改回原路径
+     */
+    private void renameBackOnRollback(String deletingPath, String path) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    if (!hdfsClient.mv(deletingPath, path)) {
+                        log.error("[renameBackOnRollback][文件内容({}) 改回 ({})失败]", deletingPath, path);
+                    }
+                } catch (IOException e) {
+                    log.error("[renameBackOnRollback][文件内容({}) 改回 ({})失败]", deletingPath, path, e);
+                }
+            }
+
+        });
+    }
+
+    @Override
+    public String buildBlobPath(String sha256) {
+        return hadoopProperties.getUpload().getBlobDir() + "/" + sha256.substring(0, 2) + "/" + sha256;
+    }
+
+    /**
+     * 在事务提交后删除 HDFS 上待删除的内容，事务回滚时由 {@link #renameBackOnRollback} 改回原路径；不在事务中时，立即删除
+     */
+    private void deleteAfterCommit(String path) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteQuietly(path);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                deleteQuietly(path);
+            }
+
+        });
+    }
+
+    private void deleteQuietly(String path) {
+        try {
+            hdfsClient.delete(path, false);
+        } catch (IOException e) {
+            log.warn("[deleteQuietly][删除 HDFS 文件({})失败]", path, e);
+        }
+    }
+
+    private static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
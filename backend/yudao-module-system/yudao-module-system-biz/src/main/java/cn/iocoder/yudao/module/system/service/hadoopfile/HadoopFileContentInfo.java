@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 文件内容的校验信息，用于下载时的条件请求
+ *
+ * @author 管理员1
+ */
+@Data
+@AllArgsConstructor
+public class HadoopFileContentInfo {
+
+    /**
+     * 强 ETag，带双引号，例如说 "9f86d08..."
+     */
+    private String etag;
+    /**
+     * 最后修改时间，单位：毫秒
+     */
+    private long lastModified;
+    /**
+     * 文件大小，单位：字节
+     */
+    private long length;
+
+}
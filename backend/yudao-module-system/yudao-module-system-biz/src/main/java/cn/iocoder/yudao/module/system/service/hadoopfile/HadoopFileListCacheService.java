@@ -0,0 +1,68 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFilePageReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * hadoop 文件列表缓存 Service 接口
+ *
+ * 按 (用户, 范围) 缓存文件列表，范围是一个目录，或者回收站、分享、按类型查询等分类。
+ * 文件变更时，只失效受影响的范围。失效在事务提交后执行，避免并发读取到旧数据后重新写入缓存
+ *
+ * @author 管理员1
+ */
+public interface HadoopFileListCacheService {
+
+    /**
+     * 获得文件分页，优先从缓存中读取
+     *
+     * @param userId 用户编号
+     * @param pageReqVO 分页查询
+     * @param loader 缓存未命中时，查询数据库
+     * @return 文件分页
+     */
+    PageResult<HadoopFileDO> getHadoopFilePage(Long userId, HadoopFilePageReqVO pageReqVO,
+                                               Supplier<PageResult<HadoopFileDO>> loader);
+
+    /**
+     * 失效文件所在的目录及其各级上级目录，以及按类型、回收站、分享的列表缓存；文件夹还会失效其自身的列表缓存
+     *
+     * @param file 文件
+     */
+    void evictFile(HadoopFileDO file);
+
+    /**
+     * 失效目录及其各级上级目录的列表缓存
+     *
+     * @param userId 用户编号
+     * @param catalogue 目录
+     */
+    void evictCatalogue(Long userId, String catalogue);
+
+    /**
+     * 失效分享的列表缓存
+     *
+     * @param userId 用户编号
+     */
+    void evictShare(Long userId);
+
+    /**
+     * 失效用户的全部列表缓存，用于重命名、移动文件夹等影响整棵子树的变更
+     *
+     * @param userId 用户编号
+     */
+    void evictUser(Long userId);
+
+    /**
+     * 只清理当前节点的本地缓存，由失效广播消息调用
+     *
+     * @param userId 用户编号
+     * @param scopes 失效的范围，为空时失效该用户的全部缓存
+     */
+    void evictLocalCache(Long userId, Collection<String> scopes);
+
+}
@@ -0,0 +1,242 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFilePageReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.redis.hadoopfile.HadoopFileListRedisDAO;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.mq.producer.hadoopfile.HadoopFileProducer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * hadoop 文件列表缓存 Service 实现类
+ *
+ * 两级缓存：本地缓存命中时无需网络请求；Redis 缓存在节点间共享。
+ * 一个范围的所有分页、排序共用一个缓存项（本地为 Map，Redis 为 Hash），失效时整体删除
+ *
+ * @author 管理员1
+ */
+@Service
+@Slf4j
+public class HadoopFileListCacheServiceImpl implements HadoopFileListCacheService {
+
+    private static final String SCOPE_RECYCLE = "@recycle";
+    private static final String SCOPE_SHARE = "@share";
+    private static final String SCOPE_TYPE_PREFIX = "@type:";
+
+    @Resource
+    private HadoopFileListRedisDAO hadoopFileListRedisDAO;
+    @Resource
+    private HadoopFileProducer hadoopFileProducer;
+
+    @Resource
+    private HadoopProperties hadoopProperties;
+
+    /**
+     * 本地缓存，KEY 为 {userId}:{scope}，VALUE 为查询条件的摘要与分页结果的映射
+     */
+    private Cache<String, ConcurrentMap<String, PageResult<HadoopFileDO>>> localCache;
+
+    private final Counter localHitCounter = buildCounter("local", "hit");
+    private final Counter localMissCounter = buildCounter("local", "miss");
+    private final Counter redisHitCounter = buildCounter("redis", "hit");
+    private final Counter redisMissCounter = buildCounter("redis", "miss");
+
+    @PostConstruct
+    public void init() {
+        HadoopProperties.ListCache config = hadoopProperties.getListCache();
+        localCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(config.getLocalExpireTime())
+                .maximumSize(config.getLocalMaximumSize())
+                .build();
+    }
+
+    @Override
+    public PageResult<HadoopFileDO> getHadoopFilePage(Long userId, HadoopFilePageReqVO pageReqVO,
+                                                      Supplier<PageResult<HadoopFileDO>> loader) {
+        HadoopProperties.ListCache config = hadoopProperties.getListCache();
+        if (!config.getEnable()) {
+            return loader.get();
+        }
+        String scope = buildScope(pageReqVO);
+        String signature = DigestUtil.md5Hex(JsonUtils.toJsonString(pageReqVO));
+
+        // 1. 本地缓存
+        ConcurrentMap<String, PageResult<HadoopFileDO>> pages = getLocalPages(userId, scope);
+        PageResult<HadoopFileDO> pageResult = pages.get(signature);
+        if (pageResult != null) {
+            localHitCounter.increment();
+            return pageResult;
+        }
+        localMissCounter.increment();
+
+        // 2. Redis 缓存
+        pageResult = getFromRedis(userId, scope, signature);
+        if (pageResult != null) {
+            redisHitCounter.increment();
+            pages.put(signature, pageResult);
+            return pageResult;
+        }
+        redisMissCounter.increment();
+
+        // 3. 查询数据库，并写入缓存
+        pageResult = loader.get();
+        pages.put(signature, pageResult);
+        try {
+            hadoopFileListRedisDAO.set(userId, scope, signature, pageResult, config.getRedisExpireTime());
+        } catch (Exception e) {
+            log.error("[getHadoopFilePage][用户({}) 范围({}) 写入 Redis 缓存失败]", userId, scope, e);
+        }
+        return pageResult;
+    }
+
+    @Override
+    public void evictFile(HadoopFileDO file) {
+        Set<String> scopes = buildCatalogueScopes(file.getCatalogue());
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+            scopes.add(("/".equals(file.getCatalogue()) ? "" : file.getCatalogue()) + "/" + file.getName());
+        }
+        scopes.add(SCOPE_TYPE_PREFIX + file.getType());
+        // 上级文件夹的子树统计值也会变化
+        scopes.add(SCOPE_TYPE_PREFIX + FileTypeEnum.DIRECTORY.getType());
+        scopes.add(SCOPE_TYPE_PREFIX);
+        scopes.add(SCOPE_RECYCLE);
+        scopes.add(SCOPE_SHARE);
+        evictAfterCommit(Long.valueOf(file.getCreator()), scopes);
+    }
+
+    @Override
+    public void evictCatalogue(Long userId, String catalogue) {
+        evictAfterCommit(userId, buildCatalogueScopes(catalogue));
+    }
+
+    @Override
+    public void evictShare(Long userId) {
+        evictAfterCommit(userId, Collections.singleton(SCOPE_SHARE));
+    }
+
+    @Override
+    public void evictUser(Long userId) {
+        evictAfterCommit(userId, null);
+    }
+
+    @Override
+    public void evictLocalCache(Long userId, Collection<String> scopes) {
+        if (CollUtil.isEmpty(scopes)) {
+            String prefix = userId + ":";
+            localCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+            return;
+        }
+        scopes.forEach(scope -> localCache.invalidate(buildLocalKey(userId, scope)));
+    }
+
+    /**
+     * 构建目录及其各级上级目录的范围。文件变更会改变各级上级文件夹的子树统计值，它们展示在上级目录的列表中
+     */
+    private static Set<String> buildCatalogueScopes(String catalogue) {
+        Set<String> scopes = new HashSet<>();
+        scopes.add("/");
+        if (StrUtil.isBlank(catalogue)) {
+            return scopes;
+        }
+        for (int index = catalogue.indexOf('/', 1); index > 0; index = catalogue.indexOf('/', index + 1)) {
+            scopes.add(catalogue.substring(0, index));
+        }
+        scopes.add(catalogue);
+        return scopes;
+    }
+
+    /**
+     * 构建查询对应的范围：回收站、分享各为一个范围；指定目录时为该目录；否则为按类型查询
+     */
+    private static String buildScope(HadoopFilePageReqVO pageReqVO) {
+        if (FileTypeEnum.RECYCLE.getType().equals(pageReqVO.getType())) {
+            return SCOPE_RECYCLE;
+        }
+        if (FileTypeEnum.SHARE.getType().equals(pageReqVO.getType())) {
+            return SCOPE_SHARE;
+        }
+        if (StrUtil.isNotBlank(pageReqVO.getCatalogue())) {
+            return pageReqVO.getCatalogue();
+        }
+        return SCOPE_TYPE_PREFIX + (pageReqVO.getType() != null ? pageReqVO.getType() : "");
+    }
+
+    private ConcurrentMap<String, PageResult<HadoopFileDO>> getLocalPages(Long userId, String scope) {
+        return localCache.asMap().computeIfAbsent(buildLocalKey(userId, scope), key -> new ConcurrentHashMap<>());
+    }
+
+    private PageResult<HadoopFileDO> getFromRedis(Long userId, String scope, String signature) {
+        try {
+            return hadoopFileListRedisDAO.get(userId, scope, signature);
+        } catch (Exception e) {
+            log.error("[getFromRedis][用户({}) 范围({}) 读取 Redis 缓存失败]", userId, scope, e);
+            return null;
+        }
+    }
+
+    /**
+     * 在事务提交后失效缓存；不在事务中时，立即失效
+     */
+    private void evictAfterCommit(Long userId, Collection<String> scopes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId, scopes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                evict(userId, scopes);
+            }
+
+        });
+    }
+
+    private void evict(Long userId, Collection<String> scopes) {
+        // 1. 当前节点的本地缓存，立即清理
+        evictLocalCache(userId, scopes);
+        // 2. Redis 缓存，以及其他节点的本地缓存。失败时依赖过期时间兜底
+        try {
+            if (CollUtil.isEmpty(scopes)) {
+                hadoopFileListRedisDAO.deleteByUserId(userId);
+            } else {
+                hadoopFileListRedisDAO.delete(userId, scopes);
+            }
+            hadoopFileProducer.sendFileListCacheEvictMessage(userId, scopes);
+        } catch (Exception e) {
+            log.error("[evict][用户({}) 范围({}) 失效缓存失败]", userId, scopes, e);
+        }
+    }
+
+    private static String buildLocalKey(Long userId, String scope) {
+        return userId + ":" + scope;
+    }
+
+    private static Counter buildCounter(String tier, String result) {
+        return Counter.builder("hadoop.file.list.cache")
+                .description("hadoop 文件列表缓存的命中情况")
+                .tag("tier", tier).tag("result", result)
+                .register(Metrics.globalRegistry);
+    }
+
+}
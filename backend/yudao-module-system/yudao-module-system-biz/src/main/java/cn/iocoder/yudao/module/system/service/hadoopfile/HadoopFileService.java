@@ -4,9 +4,17 @@ import java.io.InputStream;
 import javax.validation.Valid;
 import java.util.List;
 
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileCursorPageReqVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileCursorPageRespVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileInstantUploadReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFilePageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileSaveReqVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileSearchReqVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopShareCreateReqVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.SaveSharedFilesReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopShareDO;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HdfsFileInfo;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 
 /**
@@ -24,9 +32,39 @@ public interface HadoopFileService {
      */
     Long createHadoopFile(@Valid HadoopFileSaveReqVO createReqVO);
 
+    /**
+     * 秒传hadoop文件：已存在相同内容时，只创建文件记录，不传输文件内容
+     *
+     * @param reqVO 秒传信息
+     * @return 编号；不存在相同内容时返回 null，需要正常上传
+     */
+    Long instantUploadHadoopFile(@Valid HadoopFileInstantUploadReqVO reqVO);
+
+    /**
+     * 生成目录下不重名的文件名，存在同名文件时追加最小可用的 (n) 后缀
+     *
+     * 只用于预先展示，并发时可能被其他请求占用，插入时以 {@link #insertHadoopFile(HadoopFileDO)} 的结果为准
+     *
+     * @param userId 用户编号
+     * @param catalogue 目录
+     * @param fileName 期望的文件名
+     * @return 可用的文件名
+     */
+    String generateUniqueFileName(Long userId, String catalogue, String fileName);
+
+    /**
+     * 插入文件记录，并根据所在目录设置父目录编号、层级深度、物化路径等树形字段
+     *
+     * 存在同名文件时，自动追加 (n) 后缀，插入后 name 为最终的文件名
+     *
+     * @param file 文件记录，需设置 catalogue；creator 为空时，使用当前登录用户
+     * @return 编号
+     */
+    Long insertHadoopFile(HadoopFileDO file);
+
 
     /**
-     * 删除hadoop文件
+     * 删除hadoop文件：正常文件放入回收站，回收站中的文件彻底删除
      *
      * @param id 编号
      */
@@ -49,12 +87,70 @@ public interface HadoopFileService {
     PageResult<HadoopFileDO> getHadoopFilePage(HadoopFilePageReqVO pageReqVO);
 
     /**
-     * 获取文件内容
+     * 获得hadoop文件游标分页
+     *
+     * 按 (type, 排序字段, id) 定位到上一页的末尾继续查询，翻页耗时与页码无关；不走文件列表缓存
+     *
+     * @param pageReqVO 游标分页查询
+     * @return hadoop文件游标分页
+     */
+    HadoopFileCursorPageRespVO getHadoopFileCursorPage(HadoopFileCursorPageReqVO pageReqVO);
+
+    /**
+     * 搜索当前用户全盘的文件，按匹配程度排序
+     *
+     * @param searchReqVO 搜索条件
+     * @return 文件列表
+     */
+    List<HadoopFileDO> searchHadoopFile(HadoopFileSearchReqVO searchReqVO);
+
+    /**
+     * 校验当前用户可以读取文件
      *
      * @param id 文件编号
+     * @return 文件
+     */
+    HadoopFileDO validateFileReadable(Long id);
+
+    /**
+     * 获取文件在 HDFS 上的状态，例如说文件大小
+     *
+     * 调用方需要先校验读取权限，见 {@link #validateFileReadable(Long)}、{@link #getShareFile(String, Long, String)}
+     *
+     * @param file 文件
+     * @return 文件状态
+     */
+    HdfsFileInfo getFileStatus(HadoopFileDO file);
+
+    /**
+     * 获得文件在 HDFS 上的路径，包括去重存储的文件内容、回收站中的文件
+     *
+     * @param file 文件
+     * @return 路径
+     */
+    String getHdfsPath(HadoopFileDO file);
+
+    /**
+     * 获取文件内容的校验信息，用于下载时的 ETag、Last-Modified 和条件请求
+     *
+     * 去重的文件由 SHA-256 生成，无需请求 NameNode；未去重的文件第一次调用时读取 HDFS 的修改时间并保存
+     *
+     * @param file 文件，调用方需要先校验读取权限
+     * @return 校验信息
+     */
+    HadoopFileContentInfo getFileContentInfo(HadoopFileDO file);
+
+    /**
+     * 获取文件指定范围的内容
+     *
+     * 调用方需要先校验读取权限，见 {@link #validateFileReadable(Long)}、{@link #getShareFile(String, Long, String)}
+     *
+     * @param file 文件
+     * @param offset 起始位置
+     * @param length 读取长度，小于 0 时读取到文件末尾
      * @return 文件输入流
      */
-    InputStream getFileContent(Long id);
+    InputStream getFileContent(HadoopFileDO file, long offset, long length);
 
     /**
      * 恢复回收站中的文件
@@ -71,14 +167,29 @@ public interface HadoopFileService {
     void shareHadoopFile(Long id);
 
     /**
-     * 批量分享文件，将多个文件合并到一个分享文件夹中
+     * 批量分享文件，将多个文件合并到一个分享中
      *
      * @param ids 文件ID列表
      */
     void batchShareHadoopFiles(List<Long> ids);
 
     /**
-     * 取消分享文件
+     * 创建分享。只记录引用的文件，不复制文件内容
+     *
+     * @param reqVO 分享信息
+     * @return 分享
+     */
+    HadoopShareDO createShare(@Valid HadoopShareCreateReqVO reqVO);
+
+    /**
+     * 删除当前用户的分享
+     *
+     * @param shareKey 分享密钥
+     */
+    void deleteShare(String shareKey);
+
+    /**
+     * 取消分享文件，将文件从当前用户的分享中移除
      *
      * @param id 编号
      */
@@ -88,18 +199,21 @@ public interface HadoopFileService {
      * 获取分享文件列表
      *
      * @param shareKey 分享密钥
+     * @param password 提取码
+     * @param parentId 分享中的文件夹编号，为空时返回分享的顶层文件
      * @return 分享文件列表
      */
-    List<HadoopFileDO> getShareFiles(String shareKey);
+    List<HadoopFileDO> getShareFiles(String shareKey, String password, Long parentId);
 
     /**
-     * 获取单个分享文件
+     * 获取单个分享文件，可以是分享的文件夹下的文件
      *
      * @param shareKey 分享密钥
-     * @param fileName 文件名
+     * @param id 文件编号
+     * @param password 提取码
      * @return 分享文件信息
      */
-    HadoopFileDO getShareFile(String shareKey, String fileName);
+    HadoopFileDO getShareFile(String shareKey, Long id, String password);
 
     /**
      * 重命名文件
@@ -109,14 +223,6 @@ public interface HadoopFileService {
      */
     void renameHadoopFile(Long id, String newName);
 
-    /**
-     * 更新文件夹下所有文件的路径
-     *
-     * @param oldPath 原路径
-     * @param newPath 新路径
-     */
-    void updateSubFilePaths(String oldPath, String newPath);
-
     /**
      * 移动文件或文件夹
      *
@@ -128,9 +234,8 @@ public interface HadoopFileService {
     /**
      * 保存分享文件到个人文件夹
      *
-     * @param files 要保存的文件列表
-     * @param targetPath 目标路径
+     * @param reqVO 分享密钥、选中的文件和目标路径
      */
-    void saveSharedFiles(List<HadoopFileDO> files, String targetPath);
+    void saveSharedFiles(SaveSharedFilesReqVO reqVO);
 
 }
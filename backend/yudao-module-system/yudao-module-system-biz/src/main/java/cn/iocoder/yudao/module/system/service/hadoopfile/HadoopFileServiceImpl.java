@@ -1,35 +1,68 @@
 package cn.iocoder.yudao.module.system.service.hadoopfile;
 
+import cn.hutool.core.codec.Base64;
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.LocalDateTimeUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.ObjUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
 import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import lombok.Data;
 import jodd.util.StringUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 import org.apache.hadoop.conf.Configuration;
 import cn.iocoder.yudao.framework.common.exception.ServiceException;
 
 import java.util.*;
 import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.*;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileBlobDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopShareDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopShareItemDO;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.common.util.object.PageUtils;
 
 import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
-import cn.iocoder.yudao.module.system.util.HdfsUtils;
-
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopShareItemMapper;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopShareMapper;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HdfsFileInfo;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HdfsBlockCache;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopAsyncStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferPermit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.module.infra.enums.ErrorCodeConstants.FILE_NOT_EXISTS;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * hadoop文件 Service 实现类
@@ -44,16 +77,77 @@ public class HadoopFileServiceImpl implements HadoopFileService {
     @Resource
     private HadoopFileMapper hadoopFileMapper;
 
-    // HDFS服务器配置
-    private static final String NAMENODE_HOST = "localhost";
-    private static final int NAMENODE_PORT = 9870;
-    private static final String DATANODE_HOST = "localhost";
-    private static final int DATANODE_PORT = 9864;
-    private static final String USER = "hadoop-namenode";
-    private static final int TIMEOUT = 60000; // 60秒
-    private static final int MAX_RETRIES = 3;
+    @Resource
+    private HadoopShareMapper hadoopShareMapper;
+    @Resource
+    private HadoopShareItemMapper hadoopShareItemMapper;
+
+    @Resource
+    private HadoopFileBlobService hadoopFileBlobService;
+    @Resource
+    private HadoopFileListCacheService hadoopFileListCacheService;
+    @Resource
+    private HadoopUserUsageService hadoopUserUsageService;
+    @Resource
+    private HadoopFileAggregateService hadoopFileAggregateService;
+    @Resource
+    private HadoopFileTrashService hadoopFileTrashService;
+
+    @Resource
+    private HadoopStorage hdfsClient;
+    @Resource
+    private HadoopAsyncStorage hadoopAsyncStorage;
+    @Resource
+    private HdfsBlockCache hdfsBlockCache;
+    @Resource
+    private HadoopFileTransferService hadoopFileTransferService;
+    @Resource
+    private HadoopProperties hadoopProperties;
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 复制文件数据的线程池，所有复制操作共用，并发数见 {@link HadoopProperties.Copy#getConcurrency()}
+     *
+     * 队列满时由提交的线程自己执行，遍历目录的速度不会远超复制的速度
+     */
+    private ThreadPoolExecutor copyExecutor;
+
+    /**
+     * 编程式事务，用于只将数据库操作放在事务中，HDFS 上传等耗时操作在事务之外
+     */
+    private TransactionTemplate transactionTemplate;
+
     private static final String RECYCLE_BIN_PREFIX = "回收站（hadoop）";
     private static final String SHARE_PREFIX = "分享（hadoop）";
+    private static final String CURSOR_SORT_FIELD_DEFAULT = "createTime";
+    /**
+     * 文件名全文索引的 ngram 分词长度，与 MySQL 的 ngram_token_size 保持一致
+     */
+    private static final int SEARCH_NGRAM_TOKEN_SIZE = 2;
+
+    /**
+     * 文件名并发冲突时的最大重试次数
+     */
+    private static final int UNIQUE_NAME_MAX_RETRIES = 3;
+
+    @PostConstruct
+    public void initCopyExecutor() {
+        HadoopProperties.Copy config = hadoopProperties.getCopy();
+        copyExecutor = new ThreadPoolExecutor(config.getConcurrency(), config.getConcurrency(), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(config.getQueueCapacity()),
+                new NamedThreadFactory("hadoop-file-copy-", false), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PostConstruct
+    public void initTransactionTemplate() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void destroyCopyExecutor() {
+        copyExecutor.shutdownNow();
+    }
 
     @Override
     public Long createHadoopFile(HadoopFileSaveReqVO createReqVO) {
@@ -67,342 +161,471 @@ public class HadoopFileServiceImpl implements HadoopFileService {
         createReqVO.setName(fileName);
         createReqVO.setCatalogue(catalogue);
 
-        // 检查同名文件
-        LambdaQueryWrapper<HadoopFileDO> queryWrapper = new LambdaQueryWrapper<HadoopFileDO>()
-                .eq(HadoopFileDO::getName, fileName)
-                .eq(HadoopFileDO::getCatalogue, catalogue)
-                .eq(HadoopFileDO::getCreator, loginUserId);
+        // 校验父目录存在
+        HadoopFileDO parent = validateParentExists(loginUserId.toString(), catalogue);
 
-        // 如果存在同名文件，进行重命名
-        if (hadoopFileMapper.exists(queryWrapper)) {
-            int index = 1;
-            String nameWithoutExt = fileName;
-            String extension = "";
-
-            // 处理文件扩展名
-            int lastDotIndex = fileName.lastIndexOf(".");
-            if (lastDotIndex > 0) {
-                nameWithoutExt = fileName.substring(0, lastDotIndex);
-                extension = fileName.substring(lastDotIndex);
+        // 如果是文件类型，按内容去重存储，相同内容只保存一份。上传耗时较长，在事务之外进行，避免长时间占用数据库连接
+        HadoopFileBlobDO blob = null;
+        boolean directory = FileTypeEnum.DIRECTORY.getType().equals(createReqVO.getType());
+        if (!directory && createReqVO.getFile() != null) {
+            hadoopUserUsageService.validateQuota(loginUserId, createReqVO.getFile().getSize());
+            // 申请传输名额，超出并发限制时返回 429；写入 HDFS 时按带宽限速
+            HadoopTransferPermit permit = hadoopFileTransferService.acquire(loginUserId);
+            try {
+                // 写入失败时直接返回错误，不在请求线程中等待重试，由客户端重新上传
+                blob = hadoopFileBlobService.createBlob(permit.throttle(createReqVO.getFile()),
+                        createReqVO.getFile().getSize());
+            } finally {
+                permit.close();
+            }
+        }
+
+        // 插入数据库记录，如果存在同名文件，进行重命名
+        HadoopFileDO hadoopFile = BeanUtils.toBean(createReqVO, HadoopFileDO.class);
+        hadoopFile.setSize(blob != null ? blob.getSize() : 0L);
+        if (blob != null) {
+            hadoopFile.setSha256(blob.getSha256()).setBlobId(blob.getId());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insertHadoopFile(hadoopFile, parent);
+                // 如果是目录类型，则按重命名后的名称创建目录，失败时回滚数据库记录
+                if (directory) {
+                    mkdirForCreate("/" + loginUserId + catalogue + "/" + hadoopFile.getName());
+                }
+            });
+        } catch (RuntimeException e) {
+            // 插入失败，释放已上传的文件内容
+            if (blob != null) {
+                hadoopFileBlobService.releaseBlob(blob.getId());
             }
+            throw e;
+        }
+        return hadoopFile.getId();
+    }
 
-            // 循环查找可用的文件名
-            String newFileName;
-            do {
-                newFileName = nameWithoutExt + "(" + index + ")" + extension;
-                index++;
-                queryWrapper = new LambdaQueryWrapper<HadoopFileDO>()
-                        .eq(HadoopFileDO::getName, newFileName)
-                        .eq(HadoopFileDO::getCatalogue, catalogue)
-                        .eq(HadoopFileDO::getCreator, loginUserId);
-            } while (hadoopFileMapper.exists(queryWrapper));
+    private void mkdirForCreate(String hdfsPath) {
+        // 父目录不存在时一并创建，不需要先查询
+        boolean success;
+        try {
+            success = hdfsClient.mkdir(hdfsPath, "755");
+        } catch (IOException e) {
+            log.error("[createHadoopFile][创建目录({})失败]", hdfsPath, e);
+            success = false;
+        }
+        if (!success) {
+            throw exception(HADOOP_FILE_NOT_EXISTS);
+        }
+    }
 
-            fileName = newFileName;
-            createReqVO.setName(fileName);
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Long instantUploadHadoopFile(HadoopFileInstantUploadReqVO reqVO) {
+        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
+        String catalogue = reqVO.getCatalogue().replaceAll("\\s+", "");
+        HadoopFileDO parent = validateParentExists(loginUserId.toString(), catalogue);
+
+        // 1. 引用已存在的内容，不存在时需要客户端正常上传
+        hadoopUserUsageService.validateQuota(loginUserId, reqVO.getSize());
+        HadoopFileBlobDO blob = hadoopFileBlobService.acquireBlob(reqVO.getSha256(), reqVO.getSize());
+        if (blob == null) {
+            return null;
         }
 
-        // 创建HDFS配置
-        HdfsUtils.HdfsConfig config = new HdfsUtils.HdfsConfig(
-            NAMENODE_HOST, NAMENODE_PORT,
-            DATANODE_HOST, DATANODE_PORT,
-            USER, TIMEOUT, MAX_RETRIES
-        );
+        // 2. 只插入数据库记录，不传输文件内容
+        HadoopFileDO hadoopFile = HadoopFileDO.builder()
+                .type(reqVO.getType()).name(reqVO.getName().replaceAll("\\s+", "")).catalogue(catalogue)
+                .size(blob.getSize())
+                .sha256(blob.getSha256()).blobId(blob.getId())
+                .build();
+        return insertHadoopFile(hadoopFile, parent);
+    }
 
-        try {
-            // 构建HDFS文件路径，使用用户ID和当前目录
-            String hdfsPath = "/" + loginUserId + catalogue + "/" + fileName;
-
-            // 如果是目录类型，则创建目录
-            if (FileTypeEnum.DIRECTORY.getType().equals(createReqVO.getType())) {
-                // 确保父目录存在
-                String parentDir = "/" + loginUserId + catalogue;
-                if (!HdfsUtils.exists(config, parentDir)) {
-                    HdfsUtils.mkdir(config, parentDir, "755");
-                }
+    @Override
+    public String generateUniqueFileName(Long userId, String catalogue, String fileName) {
+        return generateUniqueFileName(String.valueOf(userId), catalogue, fileName);
+    }
 
-                boolean success = HdfsUtils.mkdir(config, hdfsPath, "755");
-                if (!success) {
-                    throw exception(HADOOP_FILE_NOT_EXISTS);
-                }
-            } else {
-                // 如果是文件类型，上传文件
-                // 确保父目录存在
-                String parentDir = "/" + loginUserId + catalogue;
-                if (!HdfsUtils.exists(config, parentDir)) {
-                    HdfsUtils.mkdir(config, parentDir, "755");
-                }
+    /**
+     * 生成目录下不重名的文件名
+     *
+     * 一次查询出 fileName 本身，以及所有 "文件名(n).扩展名" 形式的文件名，再在内存中找到最小的可用序号
+     */
+    private String generateUniqueFileName(String creator, String catalogue, String fileName) {
+        // 处理文件扩展名
+        String nameWithoutExt = fileName;
+        String extension = "";
+        int lastDotIndex = fileName.lastIndexOf(".");
+        if (lastDotIndex > 0) {
+            nameWithoutExt = fileName.substring(0, lastDotIndex);
+            extension = fileName.substring(lastDotIndex);
+        }
+
+        // 查询已存在的文件名
+        Set<String> names = convertSet(hadoopFileMapper.selectListByNameOrNamePrefix(
+                creator, catalogue, fileName, nameWithoutExt + "("), HadoopFileDO::getName);
+        if (!names.contains(fileName)) {
+            return fileName;
+        }
+
+        // 计算已占用的序号，找到最小的可用序号
+        Pattern pattern = Pattern.compile(Pattern.quote(nameWithoutExt) + "\\((\\d{1,9})\\)" + Pattern.quote(extension));
+        Set<Integer> usedIndexes = new HashSet<>();
+        for (String name : names) {
+            Matcher matcher = pattern.matcher(name);
+            if (matcher.matches()) {
+                usedIndexes.add(Integer.parseInt(matcher.group(1)));
+            }
+        }
+        int index = 1;
+        while (usedIndexes.contains(index)) {
+            index++;
+        }
+        return nameWithoutExt + "(" + index + ")" + extension;
+    }
 
-                // 上传文件
-                if (createReqVO.getFile() != null) {
-                    try (InputStream inputStream = createReqVO.getFile().getInputStream()) {
-                        boolean success = HdfsUtils.createFile(config, hdfsPath, inputStream);
-                        if (!success) {
-                            throw exception(HADOOP_FILE_NOT_EXISTS);
-                        }
-                    } catch (IOException e) {
-                        throw exception(HADOOP_FILE_NOT_EXISTS);
-                    }
+    /**
+     * 以目录下不重名的文件名保存文件记录
+     *
+     * 并发保存同名文件时，由唯一索引 uk_creator_parent_name 兜底，冲突后重新生成文件名再重试
+     *
+     * @param file 文件记录，需设置 creator、catalogue
+     * @param fileName 期望的文件名
+     * @param save 保存文件记录的操作，例如说插入、更新
+     */
+    private void saveWithUniqueName(HadoopFileDO file, String fileName, Runnable save) {
+        for (int i = 0; ; i++) {
+            file.setName(generateUniqueFileName(file.getCreator(), file.getCatalogue(), fileName));
+            try {
+                save.run();
+                return;
+            } catch (DuplicateKeyException e) {
+                if (i >= UNIQUE_NAME_MAX_RETRIES) {
+                    throw exception(FILE_NAME_EXISTS);
                 }
+                log.warn("[saveWithUniqueName][文件名({}) 并发冲突，重新生成]", file.getName());
             }
-        } catch (Exception e) {
-            throw exception(HADOOP_FILE_NOT_EXISTS);
         }
+    }
 
-        // 插入数据库记录
-        HadoopFileDO hadoopFile = BeanUtils.toBean(createReqVO, HadoopFileDO.class);
-        hadoopFileMapper.insert(hadoopFile);
-        return hadoopFile.getId();
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Long insertHadoopFile(HadoopFileDO file) {
+        if (file.getCreator() == null) {
+            file.setCreator(String.valueOf(SecurityFrameworkUtils.getLoginUserId()));
+        }
+        return insertHadoopFile(file, validateParentExists(file.getCreator(), file.getCatalogue()));
     }
 
+    /**
+     * 插入文件记录，并根据父目录设置树形字段。存在同名文件时，自动重命名
+     *
+     * @param file 文件记录
+     * @param parent 父目录，根目录时为 null
+     * @return 编号
+     */
+    private Long insertHadoopFile(HadoopFileDO file, HadoopFileDO parent) {
+        if (file.getCreator() == null) {
+            file.setCreator(String.valueOf(SecurityFrameworkUtils.getLoginUserId()));
+        }
+        if (parent == null) {
+            file.setParentId(HadoopFileDO.PARENT_ID_ROOT).setDepth(0).setTreePath("/");
+        } else {
+            file.setParentId(parent.getId()).setDepth(parent.getDepth() + 1)
+                    .setTreePath(buildChildTreePath(parent));
+        }
+        if (file.getStatus() == null) {
+            file.setStatus(HadoopFileStatusEnum.NORMAL.getStatus());
+        }
+        saveWithUniqueName(file, file.getName(), () -> hadoopFileMapper.insert(file));
+        hadoopUserUsageService.addUsage(file);
+        if (HadoopFileStatusEnum.NORMAL.getStatus().equals(file.getStatus())) {
+            hadoopFileAggregateService.addToAncestors(file);
+        }
+        hadoopFileListCacheService.evictFile(file);
+        return file.getId();
+    }
 
-    @Override
-    public void deleteHadoopFile(Long id) {
-        // 获取文件信息
-        HadoopFileDO file = hadoopFileMapper.selectById(id);
-        if (file == null) {
-            return;
+    /**
+     * 校验目录存在，返回目录对应的文件夹记录
+     *
+     * @param creator 创建者
+     * @param catalogue 目录，例如说 /a/b
+     * @return 文件夹记录；根目录时返回 null
+     */
+    private HadoopFileDO validateParentExists(String creator, String catalogue) {
+        if (isRootCatalogue(catalogue)) {
+            return null;
         }
+        HadoopFileDO parent = getDirectory(creator, catalogue);
+        if (parent == null) {
+            throw exception(HADOOP_FILE_PARENT_NOT_EXISTS);
+        }
+        return parent;
+    }
 
-        // 获取当前登录用户ID
-        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
+    /**
+     * 获得目录对应的文件夹记录，不存在时返回 null
+     *
+     * @param creator 创建者
+     * @param catalogue 目录，例如说 /a/b，对应 catalogue 为 /a、名为 b 的文件夹
+     * @return 文件夹记录
+     */
+    private HadoopFileDO getDirectory(String creator, String catalogue) {
+        int index = catalogue.lastIndexOf('/');
+        if (index < 0) {
+            return null;
+        }
+        String parentCatalogue = index == 0 ? "/" : catalogue.substring(0, index);
+        return hadoopFileMapper.selectDirectory(creator, parentCatalogue, catalogue.substring(index + 1));
+    }
 
-        try {
-            // 创建HDFS配置
-            HdfsUtils.HdfsConfig config = new HdfsUtils.HdfsConfig(
-                NAMENODE_HOST, NAMENODE_PORT,
-                DATANODE_HOST, DATANODE_PORT,
-                USER, TIMEOUT, MAX_RETRIES
-            );
-
-            // 处理目录路径，避免双斜杠
-            String catalogue = file.getCatalogue();
-            if (catalogue == null || catalogue.equals("/")) {
-                catalogue = "";
-            }
+    /**
+     * 获得目录的编号，根目录返回 {@link HadoopFileDO#PARENT_ID_ROOT}，目录不存在时返回 null
+     */
+    private Long getDirectoryId(String creator, String catalogue) {
+        if (isRootCatalogue(catalogue)) {
+            return HadoopFileDO.PARENT_ID_ROOT;
+        }
+        HadoopFileDO directory = getDirectory(creator, catalogue);
+        return directory != null ? directory.getId() : null;
+    }
 
-            // 构建HDFS文件路径
-            String filePath = "/" + loginUserId + catalogue + "/" + file.getName();
+    private static boolean isRootCatalogue(String catalogue) {
+        return StrUtil.isEmpty(catalogue) || "/".equals(catalogue);
+    }
 
-            // 如果文件已经在回收站中，则直接删除
-            if (file.getName().startsWith(RECYCLE_BIN_PREFIX)) {
-                // 在HDFS中删除文件
-                boolean success = HdfsUtils.delete(config, filePath, true);
-                if (!success) {
-                    throw exception(HADOOP_FILE_NOT_EXISTS);
-                }
-                // 删除数据库记录
-                hadoopFileMapper.deleteById(id);
-            } else {
-                // 否则，将文件移动到回收站（重命名）
-                String recyclePath = "/" + loginUserId + catalogue + "/" + RECYCLE_BIN_PREFIX + "/" + file.getName();
+    /**
+     * 构建目录下文件的物化路径，即目录自身的物化路径，再追加目录编号
+     */
+    private static String buildChildTreePath(HadoopFileDO directory) {
+        return directory.getTreePath() + directory.getId() + "/";
+    }
 
-                // 确保回收站目录存在
-                String recycleDir = "/" + loginUserId + catalogue + "/" + RECYCLE_BIN_PREFIX;
-                if (!HdfsUtils.exists(config, recycleDir)) {
-                    HdfsUtils.mkdir(config, recycleDir, "755");
-                }
+    private static boolean isTrashed(HadoopFileDO file) {
+        return HadoopFileStatusEnum.TRASHED.getStatus().equals(file.getStatus());
+    }
 
-                // 在HDFS中移动文件到回收站
-                boolean success = HdfsUtils.mv(config, filePath, recyclePath);
-                if (!success) {
-                    throw exception(HADOOP_FILE_NOT_EXISTS);
-                }
+    /**
+     * 是否是旧版本放入回收站的文件：名称带有回收站前缀，HDFS 上在原目录下的回收站子目录中
+     */
+    private static boolean isLegacyTrashed(HadoopFileDO file) {
+        return isTrashed(file) && file.getName().startsWith(RECYCLE_BIN_PREFIX + "/");
+    }
 
-                // 更新数据库记录
-                file.setName(RECYCLE_BIN_PREFIX + "/" + file.getName());
-                hadoopFileMapper.updateById(file);
-            }
-        } catch (Exception e) {
-            log.error("[deleteHadoopFile][文件({})删除失败]", id, e);
-            throw exception(HADOOP_FILE_NOT_EXISTS);
+    private static boolean isTrashedWithFolder(HadoopFileDO file) {
+        return HadoopFileStatusEnum.TRASHED_WITH_FOLDER.getStatus().equals(file.getStatus());
+    }
+
+    private static boolean isLegacyShared(HadoopFileDO file) {
+        return HadoopFileStatusEnum.SHARED.getStatus().equals(file.getStatus());
+    }
+
+    /**
+     * 校验文件属于当前登录用户，只能修改自己的文件
+     *
+     * @param file 文件
+     * @return 当前登录用户编号
+     */
+    private static Long validateFileOwner(HadoopFileDO file) {
+        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
+        if (!String.valueOf(loginUserId).equals(file.getCreator())) {
+            throw exception(HADOOP_FILE_PERMISSION_DENIED);
         }
+        return loginUserId;
     }
 
     @Override
-    public void renameHadoopFile(Long id, String newName) {
-        // 1. 校验文件是否存在
+    public void deleteHadoopFile(Long id) {
         HadoopFileDO file = hadoopFileMapper.selectById(id);
         if (file == null) {
-            throw exception(FILE_NOT_EXISTS);
+            return;
+        }
+        // 已在回收站中的文件彻底删除，否则放入回收站
+        if (isTrashed(file)) {
+            hadoopFileTrashService.purgeHadoopFiles(Collections.singleton(id));
+        } else {
+            hadoopFileTrashService.trashHadoopFiles(Collections.singleton(id));
         }
+    }
 
-        // 获取当前登录用户ID
-        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void renameHadoopFile(Long id, String newName) {
+        // 1. 校验文件是否存在。回收站中文件夹的子孙，随文件夹恢复前不可操作
+        HadoopFileDO file = hadoopFileMapper.selectById(id);
+        if (file == null || isTrashedWithFolder(file)) {
+            throw exception(FILE_NOT_EXISTS);
+        }
+        // 只能重命名自己的文件
+        Long loginUserId = validateFileOwner(file);
 
-        // 2. 检查新名称在当前目录下是否已存在
+        // 2. 检查新名称在当前目录下是否已存在。与唯一索引 uk_creator_parent_name 一致，只检查正常状态的文件
         LambdaQueryWrapper<HadoopFileDO> queryWrapper = new LambdaQueryWrapper<HadoopFileDO>()
                 .eq(HadoopFileDO::getName, newName)
                 .eq(HadoopFileDO::getCatalogue, file.getCatalogue())
-                .eq(HadoopFileDO::getCreator, loginUserId);
+                .eq(HadoopFileDO::getCreator, loginUserId.toString())
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus());
         if (hadoopFileMapper.exists(queryWrapper)) {
             throw exception(FILE_NAME_EXISTS);
         }
 
-        try {
-            // 3. 创建HDFS配置
-            HdfsUtils.HdfsConfig config = new HdfsUtils.HdfsConfig(
-                NAMENODE_HOST, NAMENODE_PORT,
-                DATANODE_HOST, DATANODE_PORT,
-                USER, TIMEOUT, MAX_RETRIES
-            );
-
-            // 4. 处理目录路径，避免双斜杠
-            String catalogue = file.getCatalogue();
-            if (catalogue == null || catalogue.equals("/")) {
-                catalogue = "";
-            }
+        // 3. 处理目录路径，避免双斜杠
+        String catalogue = file.getCatalogue();
+        if (catalogue == null || catalogue.equals("/")) {
+            catalogue = "";
+        }
 
-            // 5. 构建HDFS文件路径
-            String oldPath = "/" + loginUserId + catalogue + "/" + file.getName();
-            String newPath = "/" + loginUserId + catalogue + "/" + newName;
+        // 4. 先更新数据库记录。如果是目录，一条 SQL 更新整棵子树的目录路径
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+            hadoopFileMapper.updateSubtreeCatalogue(loginUserId.toString(), buildChildTreePath(file),
+                    catalogue + "/" + file.getName(), catalogue + "/" + newName);
+        }
+        String oldName = file.getName();
+        file.setName(newName);
+        updateWithoutNameConflict(file);
 
-            // 6. 如果是目录，使用复制-删除策略
-            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
-                // 6.1 创建新目录
-                if (!HdfsUtils.mkdir(config, newPath, "755")) {
-                    throw exception(HADOOP_FILE_NOT_EXISTS);
-                }
+        // 5. 最后在 HDFS 上重命名，失败时回滚数据库记录
+        String oldPath = "/" + loginUserId + catalogue + "/" + oldName;
+        String newPath = "/" + loginUserId + catalogue + "/" + newName;
+        renameInHdfs(file, oldPath, newPath);
 
-                // 6.2 获取所有子文件和子文件夹（包括嵌套的）
-                // 注意：这里需要使用完整的HDFS路径进行查询
-                String oldFullPath = "/" + loginUserId + catalogue + "/" + file.getName();
-                List<HadoopFileDO> subFiles = hadoopFileMapper.selectList(
-                    new LambdaQueryWrapperX<HadoopFileDO>()
-                        .eq(HadoopFileDO::getCreator, loginUserId)
-                        .eq(HadoopFileDO::getCatalogue, catalogue)
-                        .likeRight(HadoopFileDO::getName, file.getName() + "/")
-                        .orderByAsc(HadoopFileDO::getName) // 按名称排序，确保父文件夹在子文件之前处理
-                );
-
-                // 6.3 复制所有子文件到新目录
-                for (HadoopFileDO subFile : subFiles) {
-                    // 构建源文件和目标文件的路径
-                    String subOldPath = "/" + loginUserId + catalogue + "/" + subFile.getName();
-                    String subNewPath = "/" + loginUserId + catalogue + "/" + newName +
-                                      subFile.getName().substring(file.getName().length());
-
-                    if (FileTypeEnum.DIRECTORY.getType().equals(subFile.getType())) {
-                        // 如果是子文件夹，创建目录
-                        if (!HdfsUtils.mkdir(config, subNewPath, "755")) {
-                            throw exception(HADOOP_FILE_NOT_EXISTS);
-                        }
-                    } else {
-                        // 如果是文件，复制文件内容
-                        try (InputStream inputStream = HdfsUtils.readFile(config, subOldPath)) {
-                            if (inputStream == null) {
-                                log.error("[renameHadoopFile][无法读取文件内容:{}]", subOldPath);
-                                throw exception(HADOOP_FILE_NOT_EXISTS);
-                            }
-                            if (!HdfsUtils.createFile(config, subNewPath, inputStream)) {
-                                throw exception(HADOOP_FILE_NOT_EXISTS);
-                            }
-                        }
-                    }
-
-                    // 更新数据库中的文件路径
-                    String newSubFileName = newName + subFile.getName().substring(file.getName().length());
-                    subFile.setName(newSubFileName);
-                    hadoopFileMapper.updateById(subFile);
-                }
+        // 6. 失效列表缓存
+        evictAfterMoveOrRename(file, file.getCatalogue());
+    }
 
-                // 6.4 更新文件夹本身的记录
-                file.setName(newName);
-                hadoopFileMapper.updateById(file);
+    /**
+     * 重命名、移动后，失效列表缓存。文件夹影响整棵子树的目录路径，失效用户的全部缓存
+     *
+     * @param file 文件
+     * @param oldCatalogue 原目录
+     */
+    private void evictAfterMoveOrRename(HadoopFileDO file, String oldCatalogue) {
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+            hadoopFileListCacheService.evictUser(Long.valueOf(file.getCreator()));
+            return;
+        }
+        hadoopFileListCacheService.evictFile(file);
+        hadoopFileListCacheService.evictCatalogue(Long.valueOf(file.getCreator()), oldCatalogue);
+    }
 
-                // 6.5 删除原目录
-                if (!HdfsUtils.delete(config, oldPath, true)) {
-                    throw exception(HADOOP_FILE_NOT_EXISTS);
-                }
-            } else {
-                // 7. 如果是普通文件，直接重命名
-                if (!HdfsUtils.mv(config, oldPath, newPath)) {
-                    throw exception(HADOOP_FILE_NOT_EXISTS);
-                }
+    /**
+     * 更新文件记录。前面已校验过同名文件，并发时仍可能违反唯一索引，此时提示文件名已存在
+     */
+    private void updateWithoutNameConflict(HadoopFileDO file) {
+        try {
+            hadoopFileMapper.updateById(file);
+        } catch (DuplicateKeyException e) {
+            throw exception(FILE_NAME_EXISTS);
+        }
+    }
 
-                // 更新数据库记录
-                file.setName(newName);
-                hadoopFileMapper.updateById(file);
-            }
-        } catch (Exception e) {
-            log.error("[renameHadoopFile][id: {} newName: {}] 重命名文件失败", id, newName, e);
+    /**
+     * 在 HDFS 上重命名文件或目录
+     *
+     * 目录的重命名也只是 NameNode 上的一次元数据操作，无论目录多大都不会移动数据。
+     * 文件内容去重存储时，不在用户目录下，无需操作
+     *
+     * @param file 文件
+     * @param oldPath 原路径
+     * @param newPath 新路径
+     */
+    private void renameInHdfs(HadoopFileDO file, String oldPath, String newPath) {
+        if (isBlobFile(file)) {
+            return;
+        }
+        boolean success;
+        try {
+            success = hdfsClient.mv(oldPath, newPath);
+        } catch (IOException e) {
+            log.error("[renameInHdfs][重命名({}) 为 ({})失败]", oldPath, newPath, e);
+            success = false;
+        }
+        if (!success) {
             throw exception(HADOOP_FILE_NOT_EXISTS);
         }
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void restoreHadoopFile(Long id) {
         // 获取文件信息
         HadoopFileDO file = hadoopFileMapper.selectById(id);
         if (file == null) {
             return;
         }
+        // 只能恢复自己的文件
+        validateFileOwner(file);
 
         // 检查文件是否在回收站中
-        if (!file.getName().startsWith(RECYCLE_BIN_PREFIX)) {
+        if (!isTrashed(file)) {
             throw exception(HADOOP_FILE_NOT_EXISTS);
         }
+        // 原父目录需要仍然存在、且不在回收站中。父目录已删除后又新建了同名目录时，也视为不存在
+        HadoopFileDO parent = validateParentExists(file.getCreator(), file.getCatalogue());
+        Long parentId = parent != null ? parent.getId() : HadoopFileDO.PARENT_ID_ROOT;
+        if (!parentId.equals(file.getParentId())) {
+            throw exception(HADOOP_FILE_PARENT_NOT_EXISTS);
+        }
 
-        // 获取当前登录用户ID
-        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
-
-        try {
-            // 创建HDFS配置
-            HdfsUtils.HdfsConfig config = new HdfsUtils.HdfsConfig(
-                NAMENODE_HOST, NAMENODE_PORT,
-                DATANODE_HOST, DATANODE_PORT,
-                USER, TIMEOUT, MAX_RETRIES
-            );
-
-            // 处理目录路径，避免双斜杠
-            String catalogue = file.getCatalogue();
-            if (catalogue == null || catalogue.equals("/")) {
-                catalogue = "";
-            }
+        // 当前在回收站中的路径
+        String currentPath = buildFilePath(file);
+
+        // 先更新数据库记录，恢复原始文件名，如果存在同名文件，进行重命名。旧版本放入回收站的文件，名称带有前缀
+        String originalName = isLegacyTrashed(file)
+                ? file.getName().substring(RECYCLE_BIN_PREFIX.length() + 1) // +1 是为了去掉斜杠
+                : file.getName();
+        file.setStatus(HadoopFileStatusEnum.NORMAL.getStatus());
+        saveWithUniqueName(file, originalName, () -> hadoopFileMapper.updateById(file));
+        // 文件夹被重命名时，子树的目录路径一并更新。按物化路径限定在该文件夹的子树内，不影响同名的其他文件夹
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType()) && !originalName.equals(file.getName())) {
+            String catalogue = isRootCatalogue(file.getCatalogue()) ? "" : file.getCatalogue();
+            hadoopFileMapper.updateSubtreeCatalogue(file.getCreator(), buildChildTreePath(file),
+                    catalogue + "/" + originalName, catalogue + "/" + file.getName());
+        }
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+            restoreDescendants(file);
+        }
+        hadoopFileAggregateService.addToAncestors(file);
+        hadoopFileListCacheService.evictFile(file);
 
-            // 构建当前文件路径（在回收站中）
-            String currentPath = "/" + loginUserId + catalogue + "/" + file.getName();
-
-            // 构建目标路径（从回收站中恢复）
-            String originalName = file.getName().substring(RECYCLE_BIN_PREFIX.length() + 1); // +1 是为了去掉斜杠
-            String targetPath = "/" + loginUserId + catalogue + "/" + originalName;
-
-            // 检查目标路径是否已存在同名文件
-            if (HdfsUtils.exists(config, targetPath)) {
-                // 如果存在同名文件，进行重命名
-                int index = 1;
-                String nameWithoutExt = originalName;
-                String extension = "";
-
-                // 处理文件扩展名
-                int lastDotIndex = originalName.lastIndexOf(".");
-                if (lastDotIndex > 0) {
-                    nameWithoutExt = originalName.substring(0, lastDotIndex);
-                    extension = originalName.substring(lastDotIndex);
-                }
+        // 文件内容去重存储时，不在用户目录下，无需操作 HDFS
+        if (isBlobFile(file)) {
+            return;
+        }
 
-                // 循环查找可用的文件名
-                String newFileName;
-                do {
-                    newFileName = nameWithoutExt + "(" + index + ")" + extension;
-                    targetPath = "/" + loginUserId + catalogue + "/" + newFileName;
-                    index++;
-                } while (HdfsUtils.exists(config, targetPath));
+        // 最后移动文件到原始位置，失败时回滚数据库记录
+        String targetPath = buildFilePath(file);
+        boolean success;
+        try {
+            success = hdfsClient.mv(currentPath, targetPath);
+        } catch (IOException e) {
+            log.error("[restoreHadoopFile][文件({})从({})恢复到({})失败]", id, currentPath, targetPath, e);
+            success = false;
+        }
+        if (!success) {
+            throw exception(HADOOP_FILE_NOT_EXISTS);
+        }
+    }
 
-                originalName = newFileName;
+    /**
+     * 恢复随文件夹放入回收站的子孙，按父目录链过滤：之前单独放入回收站的子文件夹，连同其子树仍留在回收站中
+     */
+    private void restoreDescendants(HadoopFileDO directory) {
+        Set<Long> parentIds = new HashSet<>(Collections.singleton(directory.getId()));
+        List<Long> ids = new ArrayList<>();
+        for (HadoopFileDO file : hadoopFileMapper.selectSubtreeList(directory.getCreator(), buildChildTreePath(directory))) {
+            if (!parentIds.contains(file.getParentId()) || !isTrashedWithFolder(file)) {
+                continue;
             }
-
-            // 移动文件到原始位置
-            boolean success = HdfsUtils.mv(config, currentPath, targetPath);
-            if (!success) {
-                throw exception(HADOOP_FILE_NOT_EXISTS);
+            ids.add(file.getId());
+            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+                parentIds.add(file.getId());
             }
-
-            // 更新数据库记录
-            file.setName(originalName);
-            hadoopFileMapper.updateById(file);
-        } catch (Exception e) {
-            log.error("[restoreHadoopFile][文件({})恢复失败]", id, e);
-            throw exception(HADOOP_FILE_NOT_EXISTS);
+        }
+        for (List<Long> batchIds : CollUtil.split(ids, hadoopProperties.getTrash().getBatchSize())) {
+            hadoopFileMapper.updateStatusByIds(batchIds, HadoopFileStatusEnum.TRASHED_WITH_FOLDER.getStatus(),
+                    HadoopFileStatusEnum.NORMAL.getStatus());
         }
     }
 
@@ -421,45 +644,44 @@ public class HadoopFileServiceImpl implements HadoopFileService {
     public PageResult<HadoopFileDO> getHadoopFilePage(HadoopFilePageReqVO pageReqVO) {
         // 获取当前登录用户ID
         Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
+        // 大部分请求是重复浏览未变更的目录，优先从缓存中读取
+        return hadoopFileListCacheService.getHadoopFilePage(loginUserId, pageReqVO,
+                () -> getHadoopFilePage0(pageReqVO, loginUserId));
+    }
+
+    private PageResult<HadoopFileDO> getHadoopFilePage0(HadoopFilePageReqVO pageReqVO, Long loginUserId) {
+        // 分享的文件来自分享清单，单独查询
+        if (FileTypeEnum.SHARE.getType().equals(pageReqVO.getType())) {
+            return getMySharePage(pageReqVO, loginUserId);
+        }
 
         LambdaQueryWrapper<HadoopFileDO> hadoopFileDOLambdaQueryWrapper = new LambdaQueryWrapperX<HadoopFileDO>()
-                .eq(HadoopFileDO::getCreator, loginUserId);
-
-        // 处理回收站和分享类型的查询
-        if (pageReqVO.getType() != null) {
-            if (pageReqVO.getType() == 7) { // 7 是回收站类型
-                // 查询回收站中的文件
-                hadoopFileDOLambdaQueryWrapper.likeRight(HadoopFileDO::getName, RECYCLE_BIN_PREFIX);
-            } else if (pageReqVO.getType() == 8) { // 8 是分享类型
-                // 查询分享的文件
-                hadoopFileDOLambdaQueryWrapper.likeRight(HadoopFileDO::getName, SHARE_PREFIX);
-            } else {
-                // 其他类型的文件查询
-                hadoopFileDOLambdaQueryWrapper
-                    .eq(HadoopFileDO::getType, pageReqVO.getType())
-                    .eq(StringUtil.isNotBlank(pageReqVO.getCatalogue()), HadoopFileDO::getCatalogue, pageReqVO.getCatalogue())
-                    .notLikeRight(HadoopFileDO::getName, RECYCLE_BIN_PREFIX) // 排除回收站文件
-                    .notLikeRight(HadoopFileDO::getName, SHARE_PREFIX); // 排除分享文件
-            }
+                .eq(HadoopFileDO::getCreator, loginUserId.toString());
+
+        // 处理回收站类型的查询，走 (creator, status, type, create_time) 索引
+        if (FileTypeEnum.RECYCLE.getType().equals(pageReqVO.getType())) {
+            hadoopFileDOLambdaQueryWrapper.eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.TRASHED.getStatus());
         } else {
-            // 普通目录浏览，需要排除回收站和分享的文件
+            // 目录浏览按父目录编号查询，走 (creator, parent_id, status, type, create_time) 索引，
+            // 只扫描该目录下的文件，与用户的文件总数无关
+            if (StringUtil.isNotBlank(pageReqVO.getCatalogue())) {
+                Long parentId = getDirectoryId(loginUserId.toString(), pageReqVO.getCatalogue());
+                if (parentId == null) {
+                    return PageResult.empty();
+                }
+                hadoopFileDOLambdaQueryWrapper.eq(HadoopFileDO::getParentId, parentId);
+            }
+            // 排除回收站和分享的文件
             hadoopFileDOLambdaQueryWrapper
-                .eq(StringUtil.isNotBlank(pageReqVO.getCatalogue()), HadoopFileDO::getCatalogue, pageReqVO.getCatalogue())
-                .notLikeRight(HadoopFileDO::getName, RECYCLE_BIN_PREFIX) // 排除回收站文件
-                .notLikeRight(HadoopFileDO::getName, SHARE_PREFIX); // 排除分享文件
+                    .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus())
+                    .eq(pageReqVO.getType() != null, HadoopFileDO::getType, pageReqVO.getType());
         }
 
         // 处理文件名搜索
         if (StringUtil.isNotBlank(pageReqVO.getName())) {
-            Integer type = pageReqVO.getType();
             hadoopFileDOLambdaQueryWrapper.like(HadoopFileDO::getName, pageReqVO.getName());
         }
 
-        // 处理排除已分享文件
-        if (Boolean.TRUE.equals(pageReqVO.getExcludeShared())) {
-            hadoopFileDOLambdaQueryWrapper.notLikeRight(HadoopFileDO::getName, SHARE_PREFIX);
-        }
-
         // 处理排除名称列表
         if (pageReqVO.getExcludeNames() != null && !pageReqVO.getExcludeNames().isEmpty()) {
             for (String excludeName : pageReqVO.getExcludeNames()) {
@@ -500,7 +722,7 @@ public class HadoopFileServiceImpl implements HadoopFileService {
         PageResult<HadoopFileDO> pageResult = hadoopFileMapper.selectPage(pageReqVO, hadoopFileDOLambdaQueryWrapper);
 
         // 如果是回收站查询，处理返回结果，移除回收站前缀
-        if (pageReqVO.getType() != null && pageReqVO.getType() == 7) {
+        if (FileTypeEnum.RECYCLE.getType().equals(pageReqVO.getType())) {
             pageResult.getList().forEach(file -> {
                 if (file.getName().startsWith(RECYCLE_BIN_PREFIX)) {
                     file.setName(file.getName().substring(RECYCLE_BIN_PREFIX.length() + 1)); // +1 是为了去掉斜杠
@@ -512,236 +734,464 @@ public class HadoopFileServiceImpl implements HadoopFileService {
     }
 
     @Override
-    public InputStream getFileContent(Long id) {
-        // 1. 获取文件信息
-        HadoopFileDO file = getHadoopFile(id);
-        if (file == null) {
-            throw exception(HADOOP_FILE_NOT_EXISTS);
-        }
-
-        // 2. 检查是否是目录
-        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
-            throw exception(HADOOP_FILE_IS_DIRECTORY);
-        }
-
-        // 3. 检查文件权限（如果不是分享文件，则检查是否是当前用户的文件）
+    public HadoopFileCursorPageRespVO getHadoopFileCursorPage(HadoopFileCursorPageReqVO pageReqVO) {
         Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
-        if (!file.getName().startsWith(SHARE_PREFIX) && !loginUserId.toString().equals(file.getCreator())) {
-            throw exception(HADOOP_FILE_PERMISSION_DENIED);
+        // 分享的文件来自分享清单，数量有限，一次全部返回
+        if (FileTypeEnum.SHARE.getType().equals(pageReqVO.getType())) {
+            HadoopFilePageReqVO shareReqVO = new HadoopFilePageReqVO().setName(pageReqVO.getName());
+            shareReqVO.setPageSize(PageParam.PAGE_SIZE_NONE);
+            PageResult<HadoopFileDO> pageResult = getMySharePage(shareReqVO, loginUserId);
+            return new HadoopFileCursorPageRespVO(BeanUtils.toBean(pageResult.getList(), HadoopFileRespVO.class),
+                    null, pageResult.getTotal());
         }
 
-        try {
-            // 4. 创建HDFS配置
-            HdfsUtils.HdfsConfig config = new HdfsUtils.HdfsConfig(
-                NAMENODE_HOST, NAMENODE_PORT,
-                DATANODE_HOST, DATANODE_PORT,
-                USER, TIMEOUT, MAX_RETRIES
-            );
-
-            // 5. 构建HDFS文件路径
-            String filePath = "/" + file.getCreator();
-            // 处理目录路径，避免双斜杠
-            if (!"/".equals(file.getCatalogue())) {
-                filePath += file.getCatalogue();
+        // 1.1 解析排序和游标
+        String sortField = StrUtil.blankToDefault(pageReqVO.getSortField(), CURSOR_SORT_FIELD_DEFAULT);
+        boolean asc = "ascend".equals(pageReqVO.getSortOrder());
+        SFunction<HadoopFileDO, ?> sortColumn = getCursorSortColumn(sortField);
+        FileCursor cursor = decodeCursor(pageReqVO.getCursor(), sortField, asc);
+        // 1.2 解析目录
+        Long parentId = null;
+        if (!FileTypeEnum.RECYCLE.getType().equals(pageReqVO.getType())
+                && StringUtil.isNotBlank(pageReqVO.getCatalogue())) {
+            parentId = getDirectoryId(loginUserId.toString(), pageReqVO.getCatalogue());
+            if (parentId == null) {
+                return new HadoopFileCursorPageRespVO(Collections.emptyList(), null,
+                        Boolean.TRUE.equals(pageReqVO.getWithTotal()) ? 0L : null);
             }
-            filePath += "/" + file.getName();
+        }
 
-            // 6. 检查文件是否存在
-            if (!HdfsUtils.exists(config, filePath)) {
-                throw exception(HADOOP_FILE_NOT_EXISTS);
-            }
+        // 2. 总数需要扫描整个目录，只在明确要求时统计
+        Long total = Boolean.TRUE.equals(pageReqVO.getWithTotal())
+                ? hadoopFileMapper.selectCount(buildCursorQueryWrapper(pageReqVO, loginUserId, parentId)) : null;
+
+        // 3. 按 (type, 排序字段, id) 定位到游标之后，多查一条用于判断是否还有下一页
+        LambdaQueryWrapperX<HadoopFileDO> queryWrapper = buildCursorQueryWrapper(pageReqVO, loginUserId, parentId);
+        if (cursor != null) {
+            Object key = parseCursorKey(cursor.getKey(), sortField);
+            queryWrapper.and(w -> w.lt(HadoopFileDO::getType, cursor.getType())
+                    .or(w1 -> w1.eq(HadoopFileDO::getType, cursor.getType())
+                            .and(w2 -> appendCursorKeyCondition(w2, sortColumn, key, cursor.getId(), asc))));
+        }
+        queryWrapper.orderByDesc(HadoopFileDO::getType)
+                .orderBy(true, asc, sortColumn)
+                .orderBy(true, asc, HadoopFileDO::getId)
+                .last("LIMIT " + (pageReqVO.getPageSize() + 1));
+        List<HadoopFileDO> list = hadoopFileMapper.selectList(queryWrapper);
+        String nextCursor = null;
+        if (list.size() > pageReqVO.getPageSize()) {
+            list = new ArrayList<>(list.subList(0, pageReqVO.getPageSize()));
+            nextCursor = encodeCursor(CollUtil.getLast(list), sortField, asc);
+        }
 
-            // 7. 获取文件输入流
-            return HdfsUtils.readFile(config, filePath);
-        } catch (Exception e) {
-            log.error("[getFileContent][文件({})下载失败]", id, e);
-            throw exception(HADOOP_FILE_DOWNLOAD_FAIL);
+        // 4. 回收站的文件移除回收站前缀。需在生成游标之后处理，游标记录的是数据库中的原始文件名
+        if (FileTypeEnum.RECYCLE.getType().equals(pageReqVO.getType())) {
+            list.forEach(file -> {
+                if (file.getName().startsWith(RECYCLE_BIN_PREFIX)) {
+                    file.setName(file.getName().substring(RECYCLE_BIN_PREFIX.length() + 1));
+                }
+            });
         }
+        return new HadoopFileCursorPageRespVO(BeanUtils.toBean(list, HadoopFileRespVO.class), nextCursor, total);
     }
 
     @Override
-    public void shareHadoopFile(Long id) {
-        List<Long> ids = Collections.singletonList(id);
-        batchShareHadoopFiles(ids);
+    public List<HadoopFileDO> searchHadoopFile(HadoopFileSearchReqVO searchReqVO) {
+        String keyword = StrUtil.trimToNull(searchReqVO.getKeyword());
+        String extension = StrUtil.trimToNull(StrUtil.removePrefix(StrUtil.trim(searchReqVO.getExtension()), "."));
+        if (keyword == null && extension == null) {
+            return Collections.emptyList();
+        }
+        boolean prefix = "prefix".equals(searchReqVO.getMode());
+        // 关键字短于 ngram 分词长度时，全文索引查不到，只能退化为 LIKE
+        boolean fullText = keyword != null && keyword.codePointCount(0, keyword.length()) >= SEARCH_NGRAM_TOKEN_SIZE;
+        return hadoopFileMapper.selectListBySearch(SecurityFrameworkUtils.getLoginUserId().toString(), keyword,
+                prefix, fullText, extension != null ? extension.toLowerCase() : null,
+                searchReqVO.getType(), searchReqVO.getLimit());
     }
 
     /**
-     * 递归复制文件夹
-     *
-     * @param config HDFS配置
-     * @param sourcePath 源文件夹路径
-     * @param targetPath 目标文件夹路径
-     * @param loginUserId 当前登录用户ID
-     * @param shareKey 分享密钥
-     * @return 是否复制成功
+     * 构建游标分页的过滤条件，与 {@link #getHadoopFilePage0} 的过滤条件一致
+     */
+    private LambdaQueryWrapperX<HadoopFileDO> buildCursorQueryWrapper(HadoopFileCursorPageReqVO pageReqVO,
+                                                                     Long loginUserId, Long parentId) {
+        LambdaQueryWrapperX<HadoopFileDO> queryWrapper = new LambdaQueryWrapperX<HadoopFileDO>()
+                .eq(HadoopFileDO::getCreator, loginUserId.toString());
+        if (FileTypeEnum.RECYCLE.getType().equals(pageReqVO.getType())) {
+            queryWrapper.eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.TRASHED.getStatus());
+        } else {
+            queryWrapper.eqIfPresent(HadoopFileDO::getParentId, parentId)
+                    .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus())
+                    .eqIfPresent(HadoopFileDO::getType, pageReqVO.getType());
+        }
+        queryWrapper.likeIfPresent(HadoopFileDO::getName, pageReqVO.getName());
+        return queryWrapper;
+    }
+
+    private static SFunction<HadoopFileDO, ?> getCursorSortColumn(String sortField) {
+        switch (sortField) {
+            case "name":
+                return HadoopFileDO::getName;
+            case "size":
+                return HadoopFileDO::getSize;
+            default:
+                return HadoopFileDO::getCreateTime;
+        }
+    }
+
+    /**
+     * 拼接同一文件类型内、排序字段在游标之后的条件。MySQL 中 NULL 升序排在最前、降序排在最后
      */
-    private boolean copyDirectory(HdfsUtils.HdfsConfig config, String sourcePath, String targetPath,
-                                Long loginUserId, String shareKey) throws Exception {
-        // 确保目标文件夹存在
-        if (!HdfsUtils.exists(config, targetPath)) {
-            HdfsUtils.mkdir(config, targetPath, "755");
+    private static void appendCursorKeyCondition(LambdaQueryWrapper<HadoopFileDO> wrapper, SFunction<HadoopFileDO, ?> column,
+                                                 Object key, Long id, boolean asc) {
+        if (asc) {
+            if (key == null) {
+                wrapper.isNull(column).gt(HadoopFileDO::getId, id).or().isNotNull(column);
+            } else {
+                wrapper.gt(column, key).or(w -> w.eq(column, key).gt(HadoopFileDO::getId, id));
+            }
+        } else {
+            if (key == null) {
+                wrapper.isNull(column).lt(HadoopFileDO::getId, id);
+            } else {
+                wrapper.lt(column, key).or().isNull(column).or(w -> w.eq(column, key).lt(HadoopFileDO::getId, id));
+            }
+        }
+    }
+
+    private static String encodeCursor(HadoopFileDO file, String sortField, boolean asc) {
+        Object key;
+        switch (sortField) {
+            case "name":
+                key = file.getName();
+                break;
+            case "size":
+                key = file.getSize();
+                break;
+            default:
+                key = file.getCreateTime();
         }
+        FileCursor cursor = new FileCursor().setSortField(sortField).setAsc(asc)
+                .setType(file.getType()).setKey(key != null ? key.toString() : null).setId(file.getId());
+        return Base64.encodeUrlSafe(JsonUtils.toJsonString(cursor));
+    }
 
+    private static FileCursor decodeCursor(String text, String sortField, boolean asc) {
+        if (StrUtil.isEmpty(text)) {
+            return null;
+        }
+        FileCursor cursor;
         try {
-            // 获取源文件夹下的所有文件和子文件夹
-            List<HadoopFileDO> files = hadoopFileMapper.selectList(
-                new LambdaQueryWrapperX<HadoopFileDO>()
-                    .eq(HadoopFileDO::getCreator, loginUserId)
-                    .likeRight(HadoopFileDO::getCatalogue, sourcePath)
-            );
-
-            for (HadoopFileDO file : files) {
-                String sourceFilePath = file.getCatalogue() + "/" + file.getName();
-                String targetFilePath = targetPath + "/" + file.getName();
-
-                if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
-                    // 递归复制子文件夹
-                    copyDirectory(config, sourceFilePath, targetFilePath, loginUserId, shareKey);
-                } else {
-                    // 复制文件
-                    if (copyFile(config, sourceFilePath, targetFilePath)) {
-                        // 创建分享文件记录
-                        HadoopFileDO shareFile = new HadoopFileDO();
-                        shareFile.setName(SHARE_PREFIX + "/" + shareKey + targetFilePath.substring(sourcePath.length()));
-                        shareFile.setCatalogue("/");
-                        shareFile.setType(file.getType());
-                        shareFile.setSize(file.getSize());
-                        shareFile.setCreator(loginUserId.toString());
-                        shareFile.setCreateTime(LocalDateTime.now());
-                        hadoopFileMapper.insert(shareFile);
-                    }
+            cursor = JsonUtils.parseObject(Base64.decodeStr(text), FileCursor.class);
+            if (cursor != null) {
+                parseCursorKey(cursor.getKey(), sortField);
+            }
+        } catch (Exception e) {
+            throw exception(HADOOP_FILE_CURSOR_INVALID);
+        }
+        // 游标只在生成它的排序方式下有效
+        if (cursor == null || cursor.getType() == null || cursor.getId() == null
+                || ObjUtil.notEqual(cursor.getSortField(), sortField) || ObjUtil.notEqual(cursor.getAsc(), asc)) {
+            throw exception(HADOOP_FILE_CURSOR_INVALID);
+        }
+        return cursor;
+    }
+
+    private static Object parseCursorKey(String key, String sortField) {
+        if (key == null) {
+            return null;
+        }
+        switch (sortField) {
+            case "name":
+                return key;
+            case "size":
+                return Long.valueOf(key);
+            default:
+                return LocalDateTime.parse(key);
+        }
+    }
+
+    /**
+     * 游标分页的游标，记录上一页最后一条的 (type, 排序字段, id)
+     */
+    @Data
+    private static class FileCursor {
+
+        private String sortField;
+        private Boolean asc;
+        private Integer type;
+        private String key;
+        private Long id;
+
+    }
+
+    /**
+     * 获得我分享的文件分页
+     *
+     * 文件名按 "分享（hadoop）/{shareKey}/{文件名}" 的格式返回，与旧的分享保持一致，便于按分享分组展示
+     */
+    private PageResult<HadoopFileDO> getMySharePage(HadoopFilePageReqVO pageReqVO, Long loginUserId) {
+        // 1.1 旧的分享：文件复制在分享目录下
+        List<HadoopFileDO> list = new ArrayList<>(hadoopFileMapper.selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .eq(HadoopFileDO::getCreator, loginUserId.toString())
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.SHARED.getStatus())));
+        // 1.2 分享清单：引用的原文件
+        List<HadoopShareDO> shares = hadoopShareMapper.selectListByCreator(loginUserId.toString());
+        List<HadoopShareItemDO> items = shares.isEmpty() ? Collections.emptyList()
+                : hadoopShareItemMapper.selectListByShareIds(convertSet(shares, HadoopShareDO::getId));
+        if (!items.isEmpty()) {
+            Map<Long, HadoopShareDO> shareMap = convertMap(shares, HadoopShareDO::getId);
+            Map<Long, HadoopFileDO> fileMap = convertMap(hadoopFileMapper.selectBatchIds(
+                    convertSet(items, HadoopShareItemDO::getFileId)), HadoopFileDO::getId);
+            for (HadoopShareItemDO item : items) {
+                HadoopFileDO file = fileMap.get(item.getFileId());
+                // 回收站中的文件，以及随文件夹放入回收站的子孙，暂不展示
+                if (file == null || !HadoopFileStatusEnum.NORMAL.getStatus().equals(file.getStatus())) {
+                    continue;
                 }
+                HadoopFileDO shareFile = BeanUtils.toBean(file, HadoopFileDO.class);
+                shareFile.setName(SHARE_PREFIX + "/" + shareMap.get(item.getShareId()).getShareKey() + "/" + file.getName());
+                list.add(shareFile);
+            }
+        }
+
+        // 2. 过滤、排序、分页。分享的数量有限，在内存中处理即可
+        if (StringUtil.isNotBlank(pageReqVO.getName())) {
+            list.removeIf(file -> !file.getName().contains(pageReqVO.getName()));
+        }
+        list.sort(Comparator.comparing(HadoopFileDO::getCreateTime, Comparator.nullsLast(Comparator.reverseOrder())));
+        if (PageParam.PAGE_SIZE_NONE.equals(pageReqVO.getPageSize())) {
+            return new PageResult<>(list, (long) list.size());
+        }
+        int start = Math.min(PageUtils.getStart(pageReqVO), list.size());
+        int end = Math.min(start + pageReqVO.getPageSize(), list.size());
+        return new PageResult<>(new ArrayList<>(list.subList(start, end)), (long) list.size());
+    }
+
+    @Override
+    public HdfsFileInfo getFileStatus(HadoopFileDO file) {
+        try {
+            HdfsFileInfo fileInfo = hdfsClient.getFileInfo(buildFilePath(file));
+            if (fileInfo == null) {
+                throw exception(HADOOP_FILE_NOT_EXISTS);
             }
-            return true;
+            return fileInfo;
+        } catch (IOException e) {
+            log.error("[getFileStatus][文件({})获取状态失败]", file.getId(), e);
+            throw exception(HADOOP_FILE_DOWNLOAD_FAIL);
+        }
+    }
+
+    @Override
+    public HadoopFileContentInfo getFileContentInfo(HadoopFileDO file) {
+        // 1. 去重的文件：内容由 SHA-256 唯一确定，记录创建后不会再变化
+        if (isBlobFile(file)) {
+            return new HadoopFileContentInfo("\"" + file.getSha256() + "\"",
+                    LocalDateTimeUtil.toEpochMilli(file.getCreateTime()), ObjUtil.defaultIfNull(file.getSize(), 0L));
+        }
+
+        // 2. 未去重的文件：第一次下载时从 HDFS 读取修改时间并保存
+        Long length = file.getSize();
+        if (file.getContentModifiedTime() == null || length == null) {
+            HdfsFileInfo fileInfo = getFileStatus(file);
+            if (file.getContentModifiedTime() == null) {
+                file.setContentModifiedTime(fileInfo.getModificationTime());
+                hadoopFileMapper.updateContentModifiedTime(file.getId(), fileInfo.getModificationTime());
+            }
+            length = ObjUtil.defaultIfNull(length, fileInfo.getLength());
+        }
+        String etag = "\"" + Long.toHexString(file.getContentModifiedTime()) + "-" + Long.toHexString(length) + "\"";
+        return new HadoopFileContentInfo(etag, file.getContentModifiedTime(), length);
+    }
+
+    @Override
+    public InputStream getFileContent(HadoopFileDO file, long offset, long length) {
+        try {
+            // 直接读取指定范围，文件不存在时 NameNode 不会返回重定向。热点文件的块优先从本地缓存读取
+            return hdfsBlockCache.readFile(buildFilePath(file), buildContentVersion(file), offset, length);
         } catch (Exception e) {
-            log.error("[copyDirectory][复制文件夹失败:{}]", sourcePath, e);
-            return false;
+            log.error("[getFileContent][文件({})下载失败]", file.getId(), e);
+            throw exception(HADOOP_FILE_DOWNLOAD_FAIL);
         }
     }
 
+    @Override
+    public HadoopFileDO validateFileReadable(Long id) {
+        // 1. 获取文件信息
+        HadoopFileDO file = getHadoopFile(id);
+        if (file == null || isTrashedWithFolder(file)) {
+            throw exception(HADOOP_FILE_NOT_EXISTS);
+        }
+
+        // 2. 检查是否是目录
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+            throw exception(HADOOP_FILE_IS_DIRECTORY);
+        }
+
+        // 3. 检查文件权限（如果不是分享文件，则检查是否是当前用户的文件）
+        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
+        if (!isLegacyShared(file) && !loginUserId.toString().equals(file.getCreator())) {
+            throw exception(HADOOP_FILE_PERMISSION_DENIED);
+        }
+        return file;
+    }
+
     /**
-     * 批量分享文件，将多个文件合并到一个分享文件夹中
+     * 文件内容的版本，用于文件块缓存。去重的文件按 SHA-256 区分；其他文件以更新时间、大小代替 HDFS 的修改时间，避免额外请求 NameNode
+     */
+    private String buildContentVersion(HadoopFileDO file) {
+        if (isBlobFile(file)) {
+            return file.getSha256();
+        }
+        long updateTime = file.getUpdateTime() != null ? LocalDateTimeUtil.toEpochMilli(file.getUpdateTime()) : 0L;
+        return updateTime + "-" + file.getSize();
+    }
+
+    @Override
+    public String getHdfsPath(HadoopFileDO file) {
+        return buildFilePath(file);
+    }
+
+    /**
+     * 构建文件在 HDFS 上的完整路径
      *
-     * @param ids 文件ID列表
+     * @param file 文件信息
+     * @return HDFS 路径
      */
+    private String buildFilePath(HadoopFileDO file) {
+        if (isBlobFile(file)) {
+            return hadoopFileBlobService.buildBlobPath(file.getSha256());
+        }
+        // 回收站中的文件在用户的回收站目录下，按编号存放
+        if (isTrashed(file) && !isLegacyTrashed(file)) {
+            return hadoopFileTrashService.buildTrashPath(file);
+        }
+        String filePath = "/" + file.getCreator();
+        // 处理目录路径，避免双斜杠
+        if (!"/".equals(file.getCatalogue())) {
+            filePath += file.getCatalogue();
+        }
+        return filePath + "/" + file.getName();
+    }
+
+    /**
+     * 文件内容是否去重存储。去重存储的文件内容不在用户目录下，移动、重命名时无需操作 HDFS
+     */
+    private static boolean isBlobFile(HadoopFileDO file) {
+        return file.getBlobId() != null;
+    }
+
+    @Override
+    public void shareHadoopFile(Long id) {
+        batchShareHadoopFiles(Collections.singletonList(id));
+    }
+
     @Override
     public void batchShareHadoopFiles(List<Long> ids) {
         if (ids == null || ids.isEmpty()) {
             return;
         }
+        HadoopShareCreateReqVO reqVO = new HadoopShareCreateReqVO();
+        reqVO.setFileIds(ids);
+        createShare(reqVO);
+    }
 
-        // 获取当前登录用户ID
-        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public HadoopShareDO createShare(HadoopShareCreateReqVO reqVO) {
+        // 1. 校验文件，只能分享自己的、不在回收站中的文件
+        String loginUserId = String.valueOf(SecurityFrameworkUtils.getLoginUserId());
+        List<HadoopFileDO> files = hadoopFileMapper.selectBatchIds(reqVO.getFileIds());
+        files.removeIf(file -> !loginUserId.equals(file.getCreator()) || isTrashed(file));
+        if (files.isEmpty()) {
+            throw exception(HADOOP_FILE_NOT_EXISTS);
+        }
 
-        try {
-            // 创建HDFS配置
-            HdfsUtils.HdfsConfig config = new HdfsUtils.HdfsConfig(
-                NAMENODE_HOST, NAMENODE_PORT,
-                DATANODE_HOST, DATANODE_PORT,
-                USER, TIMEOUT, MAX_RETRIES
-            );
-
-            // 生成分享密钥
-            String shareKey = UUID.randomUUID().toString().substring(0, 8);
-
-            // 构建分享根目录路径
-            String shareRootDir = "/" + loginUserId + "/" + SHARE_PREFIX;
-            // 构建本次分享的目录路径
-            String shareKeyDir = shareRootDir + "/" + shareKey;
-
-            // 确保分享根目录存在
-            if (!HdfsUtils.exists(config, shareRootDir)) {
-                HdfsUtils.mkdir(config, shareRootDir, "755");
-            }
+        // 2. 只记录分享清单，不复制文件内容，耗时与文件大小无关
+        HadoopShareDO share = HadoopShareDO.builder()
+                .shareKey(UUID.randomUUID().toString().substring(0, 8))
+                .password(reqVO.getPassword())
+                .expireTime(reqVO.getExpireDays() != null ? LocalDateTime.now().plusDays(reqVO.getExpireDays()) : null)
+                .viewCount(0).downloadCount(0).saveCount(0)
+                .build();
+        hadoopShareMapper.insert(share);
+        hadoopShareItemMapper.insertBatch(convertList(files, file -> HadoopShareItemDO.builder()
+                .shareId(share.getId()).fileId(file.getId()).build()));
+        hadoopFileListCacheService.evictShare(Long.valueOf(loginUserId));
+        return share;
+    }
 
-            // 创建本次分享的目录
-            HdfsUtils.mkdir(config, shareKeyDir, "755");
+    @Override
+    public void deleteShare(String shareKey) {
+        HadoopShareDO share = hadoopShareMapper.selectByShareKey(shareKey);
+        if (share == null || !String.valueOf(SecurityFrameworkUtils.getLoginUserId()).equals(share.getCreator())) {
+            throw exception(HADOOP_SHARE_NOT_EXISTS);
+        }
+        hadoopShareItemMapper.deleteByShareId(share.getId());
+        hadoopShareMapper.deleteById(share.getId());
+        hadoopFileListCacheService.evictShare(Long.valueOf(share.getCreator()));
+    }
 
-            // 遍历所有要分享的文件
-            for (Long fileId : ids) {
-                // 获取文件信息
-                HadoopFileDO file = hadoopFileMapper.selectById(fileId);
-                if (file == null) {
-                    continue;
-                }
+    /**
+     * 校验分享可以访问：未过期，且提取码正确
+     */
+    private void validateShareAccessible(HadoopShareDO share, String password) {
+        if (share.getExpireTime() != null && LocalDateTime.now().isAfter(share.getExpireTime())) {
+            throw exception(HADOOP_SHARE_EXPIRED);
+        }
+        if (StrUtil.isNotEmpty(share.getPassword()) && !share.getPassword().equals(password)) {
+            throw exception(HADOOP_SHARE_PASSWORD_ERROR);
+        }
+    }
 
-                // 构建源文件路径
-                String sourcePath = "/" + loginUserId;
-                if (!"/".equals(file.getCatalogue())) {
-                    sourcePath += file.getCatalogue();
-                }
-                sourcePath += "/" + file.getName();
-
-                // 构建目标文件路径
-                String sharePath = shareKeyDir + "/" + file.getName();
-
-                if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
-                    // 如果是文件夹，进行递归复制
-                    boolean success = copyDirectory(config, sourcePath, sharePath, loginUserId, shareKey);
-                    if (!success) {
-                        log.error("[batchShareHadoopFiles][文件夹({})分享失败]", fileId);
-                        continue;
-                    }
-
-                    // 创建分享文件夹记录
-                    HadoopFileDO shareFile = new HadoopFileDO();
-                    shareFile.setName(SHARE_PREFIX + "/" + shareKey + "/" + file.getName());
-                    shareFile.setCatalogue("/");
-                    shareFile.setType(file.getType());
-                    shareFile.setSize(file.getSize());
-                    shareFile.setCreator(file.getCreator());
-                    shareFile.setCreateTime(LocalDateTime.now());
-                    hadoopFileMapper.insert(shareFile);
-                } else {
-                    // 复制普通文件
-                    boolean success = copyFile(config, sourcePath, sharePath);
-                    if (!success) {
-                        log.error("[batchShareHadoopFiles][文件({})分享失败]", fileId);
-                        continue;
-                    }
-
-                    // 创建分享文件记录
-                    HadoopFileDO shareFile = new HadoopFileDO();
-                    shareFile.setName(SHARE_PREFIX + "/" + shareKey + "/" + file.getName());
-                    shareFile.setCatalogue("/");
-                    shareFile.setType(file.getType());
-                    shareFile.setSize(file.getSize());
-                    shareFile.setCreator(file.getCreator());
-                    shareFile.setCreateTime(LocalDateTime.now());
-                    hadoopFileMapper.insert(shareFile);
-                }
-            }
-        } catch (Exception e) {
-            log.error("[batchShareHadoopFiles][批量分享文件失败]", e);
-            throw exception(HADOOP_FILE_NOT_EXISTS);
+    /**
+     * 获得分享清单引用的文件，已删除或在回收站中的文件不再返回
+     */
+    private List<HadoopFileDO> getShareItemFiles(HadoopShareDO share) {
+        List<HadoopShareItemDO> items = hadoopShareItemMapper.selectListByShareId(share.getId());
+        if (items.isEmpty()) {
+            return new ArrayList<>();
         }
+        List<HadoopFileDO> files = hadoopFileMapper.selectBatchIds(convertSet(items, HadoopShareItemDO::getFileId));
+        files.removeIf(file -> !HadoopFileStatusEnum.NORMAL.getStatus().equals(file.getStatus()));
+        return files;
     }
 
     /**
-     * 复制HDFS文件
+     * 获得分享中的指定文件，可以是分享清单中的文件，也可以是分享的文件夹下的子孙文件
      *
-     * @param config HDFS配置
-     * @param sourcePath 源文件路径
-     * @param destinationPath 目标文件路径
-     * @return 操作是否成功
-     * @throws Exception 操作过程中发生的异常
+     * 按编号定位文件，并校验其位于某个分享的顶层文件夹的子树下，避免通过分享访问其他文件
      */
-    private boolean copyFile(HdfsUtils.HdfsConfig config, String sourcePath, String destinationPath) throws Exception {
-        // 读取源文件
-        InputStream inputStream = HdfsUtils.readFile(config, sourcePath);
-        if (inputStream == null) {
-            return false;
+    private List<HadoopFileDO> getShareFilesByIds(HadoopShareDO share, Collection<Long> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return new ArrayList<>();
         }
+        List<HadoopFileDO> roots = getShareItemFiles(share);
+        List<HadoopFileDO> files = hadoopFileMapper.selectBatchIds(ids);
+        files.removeIf(file -> !isInShare(file, roots));
+        return files;
+    }
 
-        // 创建目标文件
-        try {
-            return HdfsUtils.createFile(config, destinationPath, inputStream);
-        } finally {
-            inputStream.close();
+    private static boolean isInShare(HadoopFileDO file, List<HadoopFileDO> roots) {
+        if (!HadoopFileStatusEnum.NORMAL.getStatus().equals(file.getStatus())) {
+            return false;
         }
+        return CollUtil.contains(roots, root -> root.getId().equals(file.getId())
+                || (FileTypeEnum.DIRECTORY.getType().equals(root.getType())
+                    && root.getCreator().equals(file.getCreator())
+                    && StrUtil.startWith(file.getTreePath(), buildChildTreePath(root))));
+    }
+
+    /**
+     * 获得旧的分享文件。旧的分享会将文件复制到分享目录下，文件名以 "分享（hadoop）/{shareKey}/" 开头
+     */
+    private List<HadoopFileDO> getLegacyShareFiles(String shareKey) {
+        return hadoopFileMapper.selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .likeRight(HadoopFileDO::getName, SHARE_PREFIX + "/" + shareKey + "/"));
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void cancelShare(Long id) {
         // 获取文件信息
         HadoopFileDO file = hadoopFileMapper.selectById(id);
@@ -752,331 +1202,436 @@ public class HadoopFileServiceImpl implements HadoopFileService {
         // 获取当前登录用户ID
         Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
 
-        try {
-            // 创建HDFS配置
-            HdfsUtils.HdfsConfig config = new HdfsUtils.HdfsConfig(
-                NAMENODE_HOST, NAMENODE_PORT,
-                DATANODE_HOST, DATANODE_PORT,
-                USER, TIMEOUT, MAX_RETRIES
-            );
-
-            // 构建HDFS文件路径（从根目录的分享目录中删除）
-            String filePath = "/" + loginUserId;
-            // 处理目录路径，避免双斜杠
-            if (!"/".equals(file.getCatalogue())) {
-                filePath += file.getCatalogue();
+        // 分享清单中的文件：从当前用户的分享中移除，分享清空后一并删除
+        if (!isLegacyShared(file)) {
+            List<HadoopShareDO> shares = hadoopShareMapper.selectListByCreator(loginUserId.toString());
+            if (shares.isEmpty()) {
+                return;
             }
-            filePath += "/" + file.getName();
-
-            // 删除HDFS中的分享文件
-            boolean success = HdfsUtils.delete(config, filePath, true);
-            if (!success) {
-                throw exception(HADOOP_FILE_NOT_EXISTS);
+            // 一次查询出引用该文件的分享项，不按分享逐个查询
+            List<HadoopShareItemDO> items = hadoopShareItemMapper.selectListByShareIdsAndFileId(
+                    convertSet(shares, HadoopShareDO::getId), id);
+            if (items.isEmpty()) {
+                return;
             }
+            hadoopShareItemMapper.deleteBatchIds(convertSet(items, HadoopShareItemDO::getId));
+            Set<Long> emptyShareIds = convertSet(items, HadoopShareItemDO::getShareId);
+            emptyShareIds.removeAll(convertSet(hadoopShareItemMapper.selectListByShareIds(emptyShareIds),
+                    HadoopShareItemDO::getShareId));
+            if (!emptyShareIds.isEmpty()) {
+                hadoopShareMapper.deleteBatchIds(emptyShareIds);
+            }
+            hadoopFileListCacheService.evictShare(loginUserId);
+            return;
+        }
 
-            // 删除数据库记录
-            hadoopFileMapper.deleteById(id);
-
-        } catch (Exception e) {
+        // 旧的分享副本：先删除数据库记录，最后删除 HDFS 上的内容，失败时回滚数据库记录
+        validateFileOwner(file);
+        hadoopFileMapper.deleteById(id);
+        hadoopUserUsageService.subtractUsage(file);
+        hadoopFileListCacheService.evictShare(loginUserId);
+        // 文件内容去重存储时，释放引用即可，引用归零的内容在事务提交后删除
+        if (isBlobFile(file)) {
+            hadoopFileBlobService.releaseBlob(file.getBlobId());
+            return;
+        }
+        boolean success;
+        try {
+            success = hdfsClient.delete(buildFilePath(file), true);
+        } catch (IOException e) {
             log.error("[cancelShare][文件({})取消分享失败]", id, e);
+            success = false;
+        }
+        if (!success) {
             throw exception(HADOOP_FILE_NOT_EXISTS);
         }
     }
 
     @Override
-    public List<HadoopFileDO> getShareFiles(String shareKey) {
-        // 构建查询条件：文件名以 "分享/shareKey/" 开头
-        String sharePrefix = SHARE_PREFIX + "/" + shareKey + "/";
-        return hadoopFileMapper.selectList(new LambdaQueryWrapperX<HadoopFileDO>()
-                .likeRight(HadoopFileDO::getName, sharePrefix));
-    }
-
-    @Override
-    public HadoopFileDO getShareFile(String shareKey, String fileName) {
-        // 构建完整的文件路径
-        String fullPath = SHARE_PREFIX + "/" + shareKey + "/" + fileName;
-        // 查询文件
-        return hadoopFileMapper.selectOne(new LambdaQueryWrapperX<HadoopFileDO>()
-                .eq(HadoopFileDO::getName, fullPath));
+    public List<HadoopFileDO> getShareFiles(String shareKey, String password, Long parentId) {
+        HadoopShareDO share = hadoopShareMapper.selectByShareKey(shareKey);
+        if (share == null) {
+            // 兼容旧的分享，只复制了顶层文件，不支持进入文件夹
+            List<HadoopFileDO> files = parentId == null ? getLegacyShareFiles(shareKey) : Collections.emptyList();
+            if (files.isEmpty()) {
+                throw exception(HADOOP_SHARE_NOT_EXISTS);
+            }
+            return files;
+        }
+        validateShareAccessible(share, password);
+        if (parentId == null) {
+            hadoopShareMapper.updateViewCountIncr(share.getId());
+            return getShareItemFiles(share);
+        }
+        // 进入分享的文件夹：文件夹需要位于分享中，再列出其下的文件
+        HadoopFileDO parent = CollUtil.getFirst(getShareFilesByIds(share, Collections.singleton(parentId)));
+        if (parent == null || !FileTypeEnum.DIRECTORY.getType().equals(parent.getType())) {
+            throw exception(HADOOP_SHARE_FILE_NOT_EXISTS);
+        }
+        return hadoopFileMapper.selectListByParentId(parent.getCreator(), parent.getId());
     }
 
     @Override
-    public void updateSubFilePaths(String oldPath, String newPath) {
-        // 获取当前登录用户ID
-        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
-
-        // 1. 查找当前目录下的所有文件和文件夹
-        List<HadoopFileDO> subFiles = hadoopFileMapper.selectList(
-            new LambdaQueryWrapperX<HadoopFileDO>()
-                .eq(HadoopFileDO::getCreator, loginUserId)
-                .eq(HadoopFileDO::getCatalogue, oldPath)  // 查找在这个目录下的所有文件
-        );
-
-        // 2. 更新每个文件的目录路径
-        for (HadoopFileDO file : subFiles) {
-            // 更新文件的目录路径
-            file.setCatalogue(newPath);
-            hadoopFileMapper.updateById(file);
-
-            // 3. 如果是文件夹，递归更新其子文件
-            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
-                String subOldPath = oldPath + "/" + file.getName();
-                String subNewPath = newPath + "/" + file.getName();
-                updateSubFilePaths(subOldPath, subNewPath);
+    public HadoopFileDO getShareFile(String shareKey, Long id, String password) {
+        HadoopShareDO share = hadoopShareMapper.selectByShareKey(shareKey);
+        HadoopFileDO file;
+        if (share == null) {
+            // 兼容旧的分享
+            file = hadoopFileMapper.selectById(id);
+            if (file != null && (!isLegacyShared(file) || !file.getName().startsWith(SHARE_PREFIX + "/" + shareKey + "/"))) {
+                file = null;
             }
+        } else {
+            validateShareAccessible(share, password);
+            file = CollUtil.getFirst(getShareFilesByIds(share, Collections.singleton(id)));
+        }
+        if (file == null) {
+            throw exception(HADOOP_SHARE_FILE_NOT_EXISTS);
+        }
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+            throw exception(HADOOP_FILE_IS_DIRECTORY);
+        }
+        if (share != null) {
+            hadoopShareMapper.updateDownloadCountIncr(share.getId());
         }
+        return file;
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void moveHadoopFile(Long id, String targetPath) {
-        // 1. 校验文件是否存在
+        // 1. 校验文件是否存在。回收站中文件夹的子孙，随文件夹恢复前不可操作
         HadoopFileDO file = hadoopFileMapper.selectById(id);
-        if (file == null) {
+        if (file == null || isTrashedWithFolder(file)) {
             throw exception(FILE_NOT_EXISTS);
         }
+        // 只能移动自己的文件
+        Long loginUserId = validateFileOwner(file);
 
-        // 获取当前登录用户ID
-        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
-
-        // 2. 检查目标路径下是否已存在同名文件
+        // 2. 检查目标路径下是否已存在同名文件。与唯一索引 uk_creator_parent_name 一致，只检查正常状态的文件
         LambdaQueryWrapper<HadoopFileDO> queryWrapper = new LambdaQueryWrapper<HadoopFileDO>()
                 .eq(HadoopFileDO::getName, file.getName())
                 .eq(HadoopFileDO::getCatalogue, targetPath)
-                .eq(HadoopFileDO::getCreator, loginUserId);
+                .eq(HadoopFileDO::getCreator, loginUserId.toString())
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus());
         if (hadoopFileMapper.exists(queryWrapper)) {
             throw exception(FILE_NAME_EXISTS);
         }
 
-        try {
-            // 3. 创建HDFS配置
-            HdfsUtils.HdfsConfig config = new HdfsUtils.HdfsConfig(
-                NAMENODE_HOST, NAMENODE_PORT,
-                DATANODE_HOST, DATANODE_PORT,
-                USER, TIMEOUT, MAX_RETRIES
-            );
-
-            // 4. 处理目录路径，避免双斜杠
-            String sourceCatalogue = file.getCatalogue();
-            if (sourceCatalogue == null || sourceCatalogue.equals("/")) {
-                sourceCatalogue = "";
-            }
+        // 3. 处理目录路径，避免双斜杠
+        String sourceCatalogue = file.getCatalogue();
+        if (sourceCatalogue == null || sourceCatalogue.equals("/")) {
+            sourceCatalogue = "";
+        }
+        String targetCatalogue = targetPath;
+        if (targetCatalogue == null || targetCatalogue.equals("/")) {
+            targetCatalogue = "";
+        }
+
+        HadoopFileDO parent = validateParentExists(loginUserId.toString(), targetCatalogue);
+        String oldTreePath = file.getTreePath();
+        Integer oldDepth = file.getDepth();
+        if (parent == null) {
+            file.setParentId(HadoopFileDO.PARENT_ID_ROOT).setDepth(0).setTreePath("/");
+        } else {
+            file.setParentId(parent.getId()).setDepth(parent.getDepth() + 1).setTreePath(buildChildTreePath(parent));
+        }
 
-            String targetCatalogue = targetPath;
-            if (targetCatalogue == null || targetCatalogue.equals("/")) {
-                targetCatalogue = "";
+        // 4. 先更新数据库记录。如果是目录，一条 SQL 更新整棵子树的目录路径、物化路径和层级深度
+        String oldCatalogue = file.getCatalogue();
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+            String oldDir = sourceCatalogue + "/" + file.getName();
+            String newDir = targetCatalogue + "/" + file.getName();
+            // 不能移动到自身或子目录下
+            if (newDir.equals(oldDir) || newDir.startsWith(oldDir + "/")) {
+                throw exception(HADOOP_FILE_MOVE_INTO_ITSELF);
             }
+            hadoopFileMapper.updateSubtree(loginUserId.toString(), oldDir, newDir,
+                    oldTreePath + file.getId() + "/", buildChildTreePath(file), file.getDepth() - oldDepth);
+        }
+        file.setCatalogue(targetCatalogue.isEmpty() ? "/" : targetCatalogue);
+        updateWithoutNameConflict(file);
+        if (HadoopFileStatusEnum.NORMAL.getStatus().equals(file.getStatus())) {
+            hadoopFileAggregateService.moveBetweenAncestors(file, oldTreePath);
+        }
 
-            // 5. 构建HDFS文件路径
-            String oldPath = "/" + loginUserId + sourceCatalogue + "/" + file.getName();
-            String newPath = "/" + loginUserId + targetCatalogue + "/" + file.getName();
+        // 5. 最后在 HDFS 上移动，失败时回滚数据库记录。目标目录通常已存在，直接移动；失败时再创建目录重试，避免每次都先查询
+        String parentDir = "/" + loginUserId + targetCatalogue;
+        if (!isBlobFile(file)) {
+            String sourcePath = "/" + loginUserId + sourceCatalogue + "/" + file.getName();
+            String destinationPath = parentDir + "/" + file.getName();
+            boolean success;
+            try {
+                success = hdfsClient.mv(sourcePath, destinationPath)
+                        || (hdfsClient.mkdir(parentDir, "755") && hdfsClient.mv(sourcePath, destinationPath));
+            } catch (IOException e) {
+                log.error("[moveHadoopFile][移动({}) 到 ({})失败]", sourcePath, destinationPath, e);
+                success = false;
+            }
+            if (!success) {
+                throw exception(HADOOP_FILE_NOT_EXISTS);
+            }
+        }
 
-            // 6. 如果是目录，使用复制-删除策略
-            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
-                // 6.1 创建新目录
-                if (!HdfsUtils.mkdir(config, newPath, "755")) {
-                    throw exception(HADOOP_FILE_NOT_EXISTS);
-                }
+        // 6. 失效列表缓存
+        evictAfterMoveOrRename(file, oldCatalogue);
+    }
 
-                // 6.2 获取所有子文件和子文件夹（包括嵌套的）
-                List<HadoopFileDO> subFiles = hadoopFileMapper.selectList(
-                    new LambdaQueryWrapperX<HadoopFileDO>()
-                        .eq(HadoopFileDO::getCreator, loginUserId)
-                        .eq(HadoopFileDO::getCatalogue, sourceCatalogue + "/" + file.getName())
-                        .orderByAsc(HadoopFileDO::getName) // 按名称排序，确保父文件夹在子文件之前处理
-                );
-
-                // 6.3 复制所有子文件到新目录
-                for (HadoopFileDO subFile : subFiles) {
-                    // 构建源文件和目标文件的路径
-                    String subOldPath = "/" + loginUserId + sourceCatalogue + "/" + subFile.getName();
-                    String subNewPath = "/" + loginUserId + targetCatalogue + "/" + file.getName() +
-                                      subFile.getName().substring(file.getName().length());
-
-                    if (FileTypeEnum.DIRECTORY.getType().equals(subFile.getType())) {
-                        // 如果是子文件夹，创建目录
-                        if (!HdfsUtils.mkdir(config, subNewPath, "755")) {
-                            throw exception(HADOOP_FILE_NOT_EXISTS);
-                        }
-                    } else {
-                        // 如果是文件，复制文件内容
-                        try (InputStream inputStream = HdfsUtils.readFile(config, subOldPath)) {
-                            if (inputStream == null) {
-                                log.error("[moveHadoopFile][无法读取文件内容:{}]", subOldPath);
-                                throw exception(HADOOP_FILE_NOT_EXISTS);
-                            }
-                            if (!HdfsUtils.createFile(config, subNewPath, inputStream)) {
-                                throw exception(HADOOP_FILE_NOT_EXISTS);
-                            }
-                        }
-                    }
-
-                    // 更新数据库中的文件路径
-                    subFile.setCatalogue(targetCatalogue + "/" + file.getName());
-                    hadoopFileMapper.updateById(subFile);
-                }
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void saveSharedFiles(SaveSharedFilesReqVO reqVO) {
+        // 1. 获取选中的分享文件
+        HadoopShareDO share = hadoopShareMapper.selectByShareKey(reqVO.getShareKey());
+        List<HadoopFileDO> files;
+        if (share == null) {
+            // 兼容旧的分享
+            files = getLegacyShareFiles(reqVO.getShareKey());
+        } else {
+            validateShareAccessible(share, reqVO.getPassword());
+            // 可以只保存分享的文件夹下的部分文件
+            files = getShareFilesByIds(share, convertSet(reqVO.getFileIds(), Long::valueOf));
+        }
+        files.removeIf(file -> !reqVO.getFileIds().contains(file.getId().toString()));
+        if (files.isEmpty()) {
+            return;
+        }
 
-                // 6.4 更新文件夹本身的记录
-                file.setCatalogue(targetCatalogue);
-                hadoopFileMapper.updateById(file);
+        // 2. 复制到目标目录，文件夹按整棵子树计算所需空间
+        Long userId = SecurityFrameworkUtils.getLoginUserId();
+        HadoopFileDO parent = validateParentExists(userId.toString(), reqVO.getTargetPath());
+        long totalSize = 0;
+        long totalItems = files.size();
+        for (HadoopFileDO file : files) {
+            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+                totalSize += hadoopFileMapper.selectSumSizeByTreePath(file.getCreator(), buildChildTreePath(file));
+                totalItems += ObjUtil.defaultIfNull(file.getFileCount(), 0L) + ObjUtil.defaultIfNull(file.getDirCount(), 0L);
+            } else {
+                totalSize += ObjUtil.defaultIfNull(file.getSize(), 0L);
+            }
+        }
+        hadoopUserUsageService.validateQuota(userId, totalSize);
+        // 在文件任务中执行时，上报总量，见 HadoopFileTaskService
+        HadoopFileTaskContextHolder.start(totalItems, totalSize);
+        try {
+            copyToCatalogue(files, reqVO.getTargetPath(), parent, userId);
+        } catch (ServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("[saveSharedFiles] 保存分享文件失败", e);
+            throw new RuntimeException("保存文件失败: " + e.getMessage());
+        }
+        if (share != null) {
+            hadoopShareMapper.updateSaveCountIncr(share.getId());
+        }
+    }
 
-                // 6.5 删除原目录
-                if (!HdfsUtils.delete(config, oldPath, true)) {
-                    throw exception(HADOOP_FILE_NOT_EXISTS);
+    /**
+     * 将文件复制到用户的指定目录下，文件夹会复制整棵子树
+     *
+     * 1. 按层遍历源文件夹，每个文件夹的子文件一次构建好，分批 insertBatch；只有顶层文件需要逐个插入以处理重名
+     * 2. 文件数据提交到 {@link #copyExecutor} 并行复制，与目录遍历同时进行；HDFS 到 HDFS 边读边写，不在内存中缓存整个文件。
+     *    文件夹通过 {@link HadoopAsyncStorage} 异步创建，不占用复制线程
+     * 3. 失败时取消未完成的复制，并删除已复制到 HDFS 的顶层文件；数据库记录随事务回滚
+     *
+     * @param sources 源文件
+     * @param catalogue 目标目录
+     * @param parent 目标目录对应的文件夹，根目录时为 null
+     * @param userId 目标用户编号
+     */
+    private void copyToCatalogue(List<HadoopFileDO> sources, String catalogue, HadoopFileDO parent,
+                                 Long userId) throws Exception {
+        CopyFutures copies = new CopyFutures();
+        List<String> createdPaths = new ArrayList<>();
+        Queue<HadoopFileDO[]> directories = new ArrayDeque<>(); // 待复制内容的文件夹：{ 源文件夹, 复制后的文件夹 }
+        boolean hasDirectory = false;
+        int completed = 0;
+        try {
+            // 1. 顶层文件逐个插入，存在同名文件时自动重命名
+            for (HadoopFileDO source : sources) {
+                // 旧的分享文件名带有 "分享（hadoop）/{shareKey}/" 前缀，只保留最后一段
+                String fileName = source.getName().substring(source.getName().lastIndexOf("/") + 1);
+                HadoopFileDO newFile = buildCopiedFile(source, fileName, catalogue, userId);
+                if (isBlobFile(source)) {
+                    hadoopFileBlobService.retainBlob(source.getBlobId());
                 }
-            } else {
-                // 7. 如果是普通文件，直接移动
-                if (!HdfsUtils.mv(config, oldPath, newPath)) {
-                    throw exception(HADOOP_FILE_NOT_EXISTS);
+                insertHadoopFile(newFile, parent);
+                if (!isBlobFile(newFile)) {
+                    createdPaths.add(buildFilePath(newFile));
                 }
+                submitCopy(source, newFile, copies, directories);
+            }
 
-                // 更新数据库记录
-                file.setCatalogue(targetCatalogue);
-                hadoopFileMapper.updateById(file);
+            // 2. 按层复制文件夹的内容，每处理完一个文件夹，收集已完成的复制并上报进度
+            while (!directories.isEmpty()) {
+                HadoopFileDO[] directory = directories.poll();
+                copyChildren(directory[0], directory[1], userId, copies, directories);
+                completed += collectCompleted(copies, false);
+                hasDirectory = true;
+            }
+
+            // 3. 等待全部复制完成
+            while (completed < copies.size()) {
+                completed += collectCompleted(copies, true);
             }
         } catch (Exception e) {
-            log.error("[moveHadoopFile][id: {} targetPath: {}] 移动文件失败", id, targetPath, e);
-            throw exception(HADOOP_FILE_NOT_EXISTS);
+            copies.cancelAll();
+            deleteQuietly(createdPaths);
+            throw e;
+        }
+        // 文件夹内的文件是批量插入的，没有逐个失效缓存，这里失效该用户的全部缓存
+        if (hasDirectory) {
+            hadoopFileListCacheService.evictUser(userId);
         }
     }
 
-    @Override
-    public void saveSharedFiles(List<HadoopFileDO> files, String targetPath) {
-        if (files.isEmpty()) {
+    /**
+     * 批量插入文件夹的子文件，并提交数据的复制
+     *
+     * 目标文件夹是新建的，子文件不会重名，可以直接批量插入；用量、祖先目录的统计值也按批汇总更新
+     */
+    private void copyChildren(HadoopFileDO source, HadoopFileDO target, Long userId,
+                              CopyFutures copies, Queue<HadoopFileDO[]> directories) {
+        List<HadoopFileDO> children = hadoopFileMapper.selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .eq(HadoopFileDO::getCreator, source.getCreator())
+                .eq(HadoopFileDO::getParentId, source.getId())
+                .eq(HadoopFileDO::getStatus, HadoopFileStatusEnum.NORMAL.getStatus()));
+        if (children.isEmpty()) {
             return;
         }
+        String catalogue = ("/".equals(target.getCatalogue()) ? "" : target.getCatalogue()) + "/" + target.getName();
+        List<HadoopFileDO> newFiles = convertList(children, child -> buildCopiedFile(child, child.getName(), catalogue, userId)
+                .setParentId(target.getId()).setDepth(target.getDepth() + 1).setTreePath(buildChildTreePath(target))
+                .setStatus(HadoopFileStatusEnum.NORMAL.getStatus()));
+
+        // 去重存储的文件按内容汇总增加引用
+        children.stream().filter(HadoopFileServiceImpl::isBlobFile)
+                .collect(Collectors.groupingBy(HadoopFileDO::getBlobId, Collectors.counting()))
+                .forEach((blobId, count) -> hadoopFileBlobService.retainBlob(blobId, count.intValue()));
+        hadoopFileMapper.insertBatch(newFiles, hadoopProperties.getCopy().getInsertBatchSize());
+        hadoopUserUsageService.addUsage(newFiles);
+        hadoopFileAggregateService.addToAncestors(newFiles);
+
+        for (int i = 0; i < children.size(); i++) {
+            submitCopy(children.get(i), newFiles.get(i), copies, directories);
+        }
+    }
 
-        // 获取当前用户ID
-        Long userId = SecurityFrameworkUtils.getLoginUserId();
-
-        // 处理目标路径
-        String catalogue = targetPath;
-        String hdfsTargetPath = "/" + userId + targetPath;
-
-        // 创建 HDFS 配置
-        HdfsUtils.HdfsConfig conf = new HdfsUtils.HdfsConfig(
-            NAMENODE_HOST, NAMENODE_PORT,
-            DATANODE_HOST, DATANODE_PORT,
-            USER, TIMEOUT, MAX_RETRIES
-        );
+    /**
+     * 提交文件数据的复制。文件夹加入待复制内容的队列，去重存储的文件只需增加引用，不复制数据
+     */
+    private void submitCopy(HadoopFileDO source, HadoopFileDO newFile, CopyFutures copies,
+                            Queue<HadoopFileDO[]> directories) {
+        if (FileTypeEnum.DIRECTORY.getType().equals(source.getType())) {
+            directories.add(new HadoopFileDO[]{source, newFile});
+            // 空文件夹、只包含去重存储文件的文件夹，也需要在 HDFS 上创建
+            copies.add(hadoopAsyncStorage.mkdir(buildFilePath(newFile), "755").thenApply(success -> 0L));
+            return;
+        }
+        long size = ObjUtil.defaultIfNull(source.getSize(), 0L);
+        if (isBlobFile(source)) {
+            HadoopFileTaskContextHolder.advance(1, size);
+            return;
+        }
+        String sourcePath = buildFilePath(source);
+        String targetPath = buildFilePath(newFile);
+        copies.add(CompletableFuture.supplyAsync(() -> {
+            try {
+                copyFile(sourcePath, targetPath, size);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+            return size;
+        }, copyExecutor));
+    }
 
-        try {
-            for (HadoopFileDO file : files) {
-                // 1. 构建源文件和目标文件路径
-                String fileName = file.getName().substring(file.getName().lastIndexOf("/") + 1);
-                String oldPath = "/" + file.getCreator() + "/" + file.getName(); // 直接使用完整路径
-                String newPath = hdfsTargetPath + "/" + fileName;
-
-                // 2. 复制文件
-                if (file.getType() == 6) { // 如果是文件夹
-                    // 创建目标文件夹
-                    HadoopFileDO newFolder = new HadoopFileDO();
-                    newFolder.setName(fileName);
-                    newFolder.setType(6);
-                    newFolder.setCatalogue(catalogue);
-                    newFolder.setCreator(userId.toString());
-                    hadoopFileMapper.insert(newFolder);
-
-                    // 递归复制文件夹内容
-                    copyFolderContents(oldPath, newPath, userId, catalogue);
-                } else {
-                    // 确保目标目录存在
-                    if (!HdfsUtils.exists(conf, hdfsTargetPath)) {
-                        HdfsUtils.mkdir(conf, hdfsTargetPath, "755");
-                    }
-
-                    // 复制文件到 HDFS
-                    try (InputStream inputStream = HdfsUtils.readFile(conf, oldPath)) {
-                        if (inputStream != null) {
-                            if (!HdfsUtils.createFile(conf, newPath, inputStream)) {
-                                throw new RuntimeException("创建文件失败");
-                            }
-                        } else {
-                            throw new RuntimeException("无法读取源文件");
-                        }
-                    }
-
-                    // 创建新的文件记录
-                    HadoopFileDO newFile = new HadoopFileDO();
-                    newFile.setName(fileName);
-                    newFile.setType(file.getType());
-                    newFile.setSize(file.getSize());
-                    newFile.setCatalogue(catalogue);
-                    newFile.setCreator(userId.toString());
-                    hadoopFileMapper.insert(newFile);
-                }
+    /**
+     * 收集已完成的复制，并上报进度。复制失败时抛出其异常
+     *
+     * @param copies 复制任务
+     * @param wait 没有已完成的复制时，是否等待
+     * @return 收集到的数量
+     */
+    private static int collectCompleted(CopyFutures copies, boolean wait) throws Exception {
+        int count = 0;
+        CompletableFuture<Long> future = copies.poll(wait);
+        while (future != null) {
+            long bytes;
+            try {
+                bytes = future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
             }
-        } catch (Exception e) {
-            log.error("[saveSharedFiles] 保存分享文件失败", e);
-            throw new RuntimeException("保存文件失败: " + e.getMessage());
+            HadoopFileTaskContextHolder.advance(1, bytes);
+            count++;
+            future = copies.poll(false);
         }
+        return count;
     }
 
     /**
-     * 递归复制文件夹内容
+     * 复制任务，结果为复制的字节数
+     *
+     * 保存全部任务，用于失败时取消；完成的任务放入队列，用于按完成顺序收集进度
      */
-    private void copyFolderContents(String sourcePath, String targetPath, Long userId, String parentCatalogue) {
-        // 查询源文件夹下的所有文件和文件夹
-        LambdaQueryWrapper<HadoopFileDO> queryWrapper = new LambdaQueryWrapper<HadoopFileDO>()
-                .likeRight(HadoopFileDO::getName, sourcePath);
-        List<HadoopFileDO> contents = hadoopFileMapper.selectList(queryWrapper);
+    private static class CopyFutures {
 
-        HdfsUtils.HdfsConfig conf = new HdfsUtils.HdfsConfig(
-            NAMENODE_HOST, NAMENODE_PORT,
-            DATANODE_HOST, DATANODE_PORT,
-            USER, TIMEOUT, MAX_RETRIES
-        );
+        private final List<CompletableFuture<Long>> futures = new ArrayList<>();
+        private final BlockingQueue<CompletableFuture<Long>> completedQueue = new LinkedBlockingQueue<>();
 
-        for (HadoopFileDO content : contents) {
-            String sourceFilePath = "/" + content.getCreator() + "/" + content.getName();
-            String fileName = content.getName().substring(content.getName().lastIndexOf("/") + 1);
-            String targetFilePath = targetPath + "/" + fileName;
+        void add(CompletableFuture<Long> future) {
+            futures.add(future);
+            future.whenComplete((bytes, e) -> completedQueue.add(future));
+        }
 
-            // 构建新的目录路径
-            String newCatalogue = parentCatalogue.equals("/") ?
-                "/" + fileName : parentCatalogue + "/" + fileName;
+        int size() {
+            return futures.size();
+        }
+
+        CompletableFuture<Long> poll(boolean wait) throws InterruptedException {
+            return wait ? completedQueue.take() : completedQueue.poll();
+        }
 
+        void cancelAll() {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+    }
+
+    private static HadoopFileDO buildCopiedFile(HadoopFileDO source, String fileName, String catalogue, Long userId) {
+        HadoopFileDO newFile = new HadoopFileDO().setName(fileName).setType(source.getType()).setSize(source.getSize())
+                .setCatalogue(catalogue).setCreator(userId.toString());
+        if (isBlobFile(source)) {
+            newFile.setSha256(source.getSha256()).setBlobId(source.getBlobId());
+        }
+        return newFile;
+    }
+
+    /**
+     * 复制 HDFS 文件，边读边写
+     *
+     * @param sourcePath 源文件路径
+     * @param targetPath 目标文件路径，父目录不存在时自动创建
+     * @param length 文件长度
+     */
+    private void copyFile(String sourcePath, String targetPath, long length) throws IOException {
+        InputStream inputStream = hdfsClient.readFile(sourcePath);
+        if (inputStream == null) {
+            throw new IOException(StrUtil.format("源文件({}) 不存在", sourcePath));
+        }
+        int bufferSize = (int) hadoopProperties.getCopy().getBufferSize().toBytes();
+        try (InputStream bufferedStream = new BufferedInputStream(inputStream, bufferSize)) {
+            if (!hdfsClient.createFile(targetPath, bufferedStream, length)) {
+                throw new IOException(StrUtil.format("复制文件({}) 到 ({}) 失败", sourcePath, targetPath));
+            }
+        }
+    }
+
+    private void deleteQuietly(List<String> paths) {
+        for (String path : paths) {
             try {
-                if (content.getType() == 6) { // 如果是文件夹
-                    // 创建新文件夹
-                    HadoopFileDO newFolder = new HadoopFileDO();
-                    newFolder.setName(fileName);
-                    newFolder.setType(6);
-                    newFolder.setCatalogue(parentCatalogue);
-                    newFolder.setCreator(userId.toString());
-                    hadoopFileMapper.insert(newFolder);
-
-                    // 递归复制子文件夹内容
-                    copyFolderContents(sourceFilePath, targetFilePath, userId, newCatalogue);
-                } else {
-                    // 确保目标目录存在
-                    String parentDir = targetPath.substring(0, targetPath.lastIndexOf("/"));
-                    if (!HdfsUtils.exists(conf, parentDir)) {
-                        HdfsUtils.mkdir(conf, parentDir, "755");
-                    }
-
-                    // 复制文件到 HDFS
-                    try (InputStream inputStream = HdfsUtils.readFile(conf, sourceFilePath)) {
-                        if (inputStream != null) {
-                            if (!HdfsUtils.createFile(conf, targetFilePath, inputStream)) {
-                                throw new RuntimeException("创建文件失败");
-                            }
-                        } else {
-                            throw new RuntimeException("无法读取源文件");
-                        }
-                    }
-
-                    // 创建新的文件记录
-                    HadoopFileDO newFile = new HadoopFileDO();
-                    newFile.setName(fileName);
-                    newFile.setType(content.getType());
-                    newFile.setSize(content.getSize());
-                    newFile.setCatalogue(parentCatalogue);
-                    newFile.setCreator(userId.toString());
-                    hadoopFileMapper.insert(newFile);
-                }
+                hdfsClient.delete(path, true);
             } catch (Exception e) {
-                log.error("[copyFolderContents] 复制文件失败: {}", sourceFilePath, e);
-                throw new RuntimeException("复制文件夹内容失败: " + e.getMessage());
+                log.warn("[deleteQuietly][删除 HDFS 文件({}) 失败]", path, e);
             }
         }
     }
@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+/**
+ * 当前线程正在执行的 hadoop 文件任务
+ *
+ * 文件操作本身（例如 {@link HadoopFileService#saveSharedFiles}）不感知任务，通过这里上报进度；
+ * 不在任务中执行时，所有方法均为空操作
+ *
+ * @author 管理员1
+ */
+public class HadoopFileTaskContextHolder {
+
+    private static final ThreadLocal<HadoopFileTaskProgress> PROGRESS = new ThreadLocal<>();
+
+    public static void set(HadoopFileTaskProgress progress) {
+        PROGRESS.set(progress);
+    }
+
+    public static HadoopFileTaskProgress get() {
+        return PROGRESS.get();
+    }
+
+    public static void clear() {
+        PROGRESS.remove();
+    }
+
+    public static void start(long totalItems, long totalBytes) {
+        HadoopFileTaskProgress progress = PROGRESS.get();
+        if (progress != null) {
+            progress.start(totalItems, totalBytes);
+        }
+    }
+
+    public static void advance(long items, long bytes) {
+        HadoopFileTaskProgress progress = PROGRESS.get();
+        if (progress != null) {
+            progress.advance(items, bytes);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.HADOOP_FILE_TASK_CANCELED;
+
+/**
+ * hadoop 文件任务的执行进度
+ *
+ * 进度在内存中累加，按 reportIntervalMillis 节流后回调 reporter，避免每处理一个文件就写一次数据库、推送一次消息
+ *
+ * @author 管理员1
+ */
+public class HadoopFileTaskProgress {
+
+    @Getter
+    private final Long taskId;
+    @Getter
+    private final Long userId;
+
+    @Getter
+    private volatile long totalItems;
+    @Getter
+    private volatile long totalBytes;
+    private final AtomicLong processedItems = new AtomicLong();
+    private final AtomicLong processedBytes = new AtomicLong();
+
+    /**
+     * 是否已取消。执行线程在处理下一个文件前检查，已经开始的文件会处理完
+     */
+    private volatile boolean canceled;
+
+    private final long reportIntervalMillis;
+    private final Consumer<HadoopFileTaskProgress> reporter;
+    private volatile long lastReportTime;
+
+    public HadoopFileTaskProgress(Long taskId, Long userId, long reportIntervalMillis,
+                                  Consumer<HadoopFileTaskProgress> reporter) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.reportIntervalMillis = reportIntervalMillis;
+        this.reporter = reporter;
+    }
+
+    /**
+     * 设置任务的总量，开始执行后才能确定
+     */
+    public void start(long totalItems, long totalBytes) {
+        this.totalItems = totalItems;
+        this.totalBytes = totalBytes;
+        report(true);
+    }
+
+    /**
+     * 累加已处理的数量
+     *
+     * 任务已取消时，抛出 {@link cn.iocoder.yudao.module.system.enums.ErrorCodeConstants#HADOOP_FILE_TASK_CANCELED} 异常中断执行
+     */
+    public void advance(long items, long bytes) {
+        checkCanceled();
+        processedItems.addAndGet(items);
+        processedBytes.addAndGet(bytes);
+        report(false);
+    }
+
+    public void checkCanceled() {
+        if (canceled) {
+            throw exception(HADOOP_FILE_TASK_CANCELED);
+        }
+    }
+
+    public void cancel() {
+        this.canceled = true;
+    }
+
+    public long getProcessedItems() {
+        return processedItems.get();
+    }
+
+    public long getProcessedBytes() {
+        return processedBytes.get();
+    }
+
+    private void report(boolean force) {
+        long now = System.currentTimeMillis();
+        if (!force && now - lastReportTime < reportIntervalMillis) {
+            return;
+        }
+        lastReportTime = now;
+        reporter.accept(this);
+    }
+
+}
@@ -0,0 +1,95 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileTaskDeleteReqVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileTaskMoveReqVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileTaskPageReqVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.SaveSharedFilesReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileTaskDO;
+
+import javax.validation.Valid;
+import java.time.LocalDateTime;
+
+/**
+ * hadoop 文件任务 Service 接口
+ *
+ * 耗时的文件操作提交后立即返回任务编号，由后台线程池执行；
+ * 执行进度写入任务记录，并通过 WebSocket 推送给用户，消息类型为 {@link #WEBSOCKET_MESSAGE_TYPE}
+ *
+ * @author 管理员1
+ */
+public interface HadoopFileTaskService {
+
+    /**
+     * 任务进度推送的 WebSocket 消息类型
+     */
+    String WEBSOCKET_MESSAGE_TYPE = "hadoop-file-task";
+
+    /**
+     * 提交转存分享文件的任务
+     *
+     * @param reqVO 转存信息
+     * @return 任务编号
+     */
+    Long createSaveSharedTask(@Valid SaveSharedFilesReqVO reqVO);
+
+    /**
+     * 提交批量移动文件的任务
+     *
+     * @param reqVO 移动信息
+     * @return 任务编号
+     */
+    Long createMoveTask(@Valid HadoopFileTaskMoveReqVO reqVO);
+
+    /**
+     * 提交批量删除文件的任务
+     *
+     * @param reqVO 删除信息
+     * @return 任务编号
+     */
+    Long createDeleteTask(@Valid HadoopFileTaskDeleteReqVO reqVO);
+
+    /**
+     * 获得当前用户的任务
+     *
+     * @param id 任务编号
+     * @return 任务
+     */
+    HadoopFileTaskDO getTask(Long id);
+
+    /**
+     * 获得当前用户的任务分页
+     *
+     * @param pageReqVO 分页查询
+     * @return 任务分页
+     */
+    PageResult<HadoopFileTaskDO> getTaskPage(HadoopFileTaskPageReqVO pageReqVO);
+
+    /**
+     * 取消当前用户的任务
+     *
+     * 等待中的任务直接取消；执行中的任务广播到所有节点，由执行节点在处理下一个文件前中断
+     *
+     * @param id 任务编号
+     */
+    void cancelTask(Long id);
+
+    /**
+     * 取消当前节点正在执行的任务，不在当前节点执行时忽略
+     *
+     * @param id 任务编号
+     */
+    void cancelLocalTask(Long id);
+
+    /**
+     * 巡检任务，由定时任务在各租户下执行
+     *
+     * 1. 执行节点宕机、重启时，任务会一直停留在执行中。超过时间没有上报进度的，标记为失败
+     * 2. 线程池已满、节点关闭时退回等待中的任务，需要重新调度
+     *
+     * @param staleBefore 最后一次上报进度早于该时间的执行中任务，视为已中断
+     * @return 标记为失败的任务数
+     */
+    int sweepTasks(LocalDateTime staleBefore);
+
+}
@@ -0,0 +1,430 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.ObjUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.infra.api.websocket.WebSocketSenderApi;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.*;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileTaskDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileTaskMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileTaskStatusEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileTaskTypeEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.mq.producer.hadoopfile.HadoopFileProducer;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import com.alibaba.ttl.TtlRunnable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+
+/**
+ * hadoop 文件任务 Service 实现类
+ *
+ * 任务先以等待中的状态落库，再由 {@link #dispatch(Long)} 按用户并发数抢占执行：
+ * 提交任务、该用户的任务结束、以及定时巡检时都会触发调度，抢占通过状态的 CAS 更新保证同一任务只执行一次
+ *
+ * @author 管理员1
+ */
+@Service
+@Validated
+@Slf4j
+public class HadoopFileTaskServiceImpl implements HadoopFileTaskService {
+
+    /**
+     * 批量删除时，每批的文件数。每批上报一次进度，也是取消的检查点
+     */
+    private static final int DELETE_BATCH_SIZE = 100;
+    /**
+     * 执行节点中断时的失败原因。任务可能已经执行了一部分，重新执行会重复转存、移动，因此不自动重试
+     */
+    private static final String STALE_ERROR_MSG = "执行节点异常中断，请检查已处理的文件后重新提交";
+
+    @Resource
+    private HadoopFileTaskMapper hadoopFileTaskMapper;
+    @Resource
+    private HadoopFileMapper hadoopFileMapper;
+
+    @Resource
+    private HadoopFileService hadoopFileService;
+    @Resource
+    private HadoopFileTrashService hadoopFileTrashService;
+
+    @Resource
+    private HadoopFileProducer hadoopFileProducer;
+    @Resource
+    private WebSocketSenderApi webSocketSenderApi;
+
+    @Resource
+    private HadoopProperties hadoopProperties;
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 执行任务的线程池
+     *
+     * 不注册为 Spring Bean，避免替换掉 @Async 使用的默认线程池
+     */
+    private ThreadPoolExecutor executor;
+    /**
+     * 进度写入使用独立的事务：任务本身可能在一个大事务中执行，进度需要在提交前对其他请求可见
+     */
+    private TransactionTemplate progressTransactionTemplate;
+
+    /**
+     * 当前节点各用户执行中的任务数
+     */
+    private final ConcurrentMap<Long, AtomicInteger> runningCounts = new ConcurrentHashMap<>();
+    /**
+     * 当前节点执行中的任务进度，用于取消
+     */
+    private final ConcurrentMap<Long, HadoopFileTaskProgress> runningTasks = new ConcurrentHashMap<>();
+    /**
+     * 当前节点已提交到线程池、还没有开始执行的任务，节点关闭时退回等待中
+     */
+    private final Set<Long> queuedTaskIds = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        HadoopProperties.Task config = hadoopProperties.getTask();
+        executor = new ThreadPoolExecutor(config.getPoolSize(), config.getPoolSize(), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(config.getQueueCapacity()),
+                new NamedThreadFactory("hadoop-file-task-", false));
+        progressTransactionTemplate = new TransactionTemplate(transactionManager);
+        progressTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+        // 还没有开始执行的任务退回等待中，由其他节点调度。执行中的任务被中断后记录为失败
+        for (Long id : queuedTaskIds) {
+            try {
+                TenantUtils.executeIgnore(() -> hadoopFileTaskMapper.updateByIdAndStatus(id,
+                        HadoopFileTaskStatusEnum.RUNNING.getStatus(),
+                        new HadoopFileTaskDO().setStatus(HadoopFileTaskStatusEnum.WAITING.getStatus())));
+            } catch (Exception e) {
+                log.warn("[destroy][任务({}) 退回等待中失败，由定时巡检处理]", id, e);
+            }
+        }
+    }
+
+    @Override
+    public Long createSaveSharedTask(SaveSharedFilesReqVO reqVO) {
+        return createTask(HadoopFileTaskTypeEnum.SAVE_SHARED, reqVO);
+    }
+
+    @Override
+    public Long createMoveTask(HadoopFileTaskMoveReqVO reqVO) {
+        return createTask(HadoopFileTaskTypeEnum.MOVE, reqVO);
+    }
+
+    @Override
+    public Long createDeleteTask(HadoopFileTaskDeleteReqVO reqVO) {
+        return createTask(HadoopFileTaskTypeEnum.DELETE, reqVO);
+    }
+
+    private Long createTask(HadoopFileTaskTypeEnum type, Object param) {
+        // 1. 校验等待中的任务数
+        Long userId = SecurityFrameworkUtils.getLoginUserId();
+        Integer maxWaiting = hadoopProperties.getTask().getMaxWaitingPerUser();
+        if (hadoopFileTaskMapper.selectCountByCreatorAndStatus(userId.toString(),
+                HadoopFileTaskStatusEnum.WAITING.getStatus()) >= maxWaiting) {
+            throw exception(HADOOP_FILE_TASK_TOO_MANY, maxWaiting);
+        }
+
+        // 2. 插入任务，并尝试调度执行
+        HadoopFileTaskDO task = HadoopFileTaskDO.builder().type(type.getType()).param(JsonUtils.toJsonString(param))
+                .status(HadoopFileTaskStatusEnum.WAITING.getStatus())
+                .totalItems(0L).processedItems(0L).totalBytes(0L).processedBytes(0L).build();
+        hadoopFileTaskMapper.insert(task);
+        dispatch(userId);
+        return task.getId();
+    }
+
+    @Override
+    public HadoopFileTaskDO getTask(Long id) {
+        return validateTaskExists(id);
+    }
+
+    @Override
+    public PageResult<HadoopFileTaskDO> getTaskPage(HadoopFileTaskPageReqVO pageReqVO) {
+        return hadoopFileTaskMapper.selectPage(SecurityFrameworkUtils.getLoginUserId().toString(), pageReqVO);
+    }
+
+    @Override
+    public void cancelTask(Long id) {
+        HadoopFileTaskDO task = validateTaskExists(id);
+        // 情况一：等待中，直接取消
+        if (HadoopFileTaskStatusEnum.WAITING.getStatus().equals(task.getStatus())) {
+            HadoopFileTaskDO updateObj = new HadoopFileTaskDO().setStatus(HadoopFileTaskStatusEnum.CANCELED.getStatus())
+                    .setFinishTime(LocalDateTime.now());
+            if (hadoopFileTaskMapper.updateByIdAndStatus(id, task.getStatus(), updateObj) > 0) {
+                sendProgress(task.getCreator(), hadoopFileTaskMapper.selectById(id));
+                return;
+            }
+            // 更新失败，说明刚被调度执行，按执行中处理
+            task = hadoopFileTaskMapper.selectById(id);
+        }
+        // 情况二：执行中，通知执行节点中断
+        if (HadoopFileTaskStatusEnum.RUNNING.getStatus().equals(task.getStatus())) {
+            hadoopFileProducer.sendFileTaskCancelMessage(id);
+            return;
+        }
+        throw exception(HADOOP_FILE_TASK_STATUS_INVALID);
+    }
+
+    @Override
+    public void cancelLocalTask(Long id) {
+        HadoopFileTaskProgress progress = runningTasks.get(id);
+        if (progress != null) {
+            progress.cancel();
+        }
+    }
+
+    @Override
+    public int sweepTasks(LocalDateTime staleBefore) {
+        // 1. 超时的执行中任务标记为失败。当前节点正在执行的任务跳过
+        int count = 0;
+        for (HadoopFileTaskDO task : hadoopFileTaskMapper.selectListByStatusAndUpdateTimeBefore(
+                HadoopFileTaskStatusEnum.RUNNING.getStatus(), staleBefore)) {
+            if (runningTasks.containsKey(task.getId())) {
+                continue;
+            }
+            HadoopFileTaskDO updateObj = new HadoopFileTaskDO().setStatus(HadoopFileTaskStatusEnum.FAILURE.getStatus())
+                    .setErrorMsg(STALE_ERROR_MSG).setFinishTime(LocalDateTime.now());
+            if (hadoopFileTaskMapper.updateByIdAndStatus(task.getId(), task.getStatus(), updateObj) > 0) {
+                log.warn("[sweepTasks][任务({}) 超时未上报进度，标记为失败]", task.getId());
+                sendProgress(task.getCreator(), hadoopFileTaskMapper.selectById(task.getId()));
+                count++;
+            }
+        }
+
+        // 2. 调度等待中的任务
+        for (String creator : hadoopFileTaskMapper.selectCreatorListByStatus(HadoopFileTaskStatusEnum.WAITING.getStatus())) {
+            dispatch(Long.valueOf(creator));
+        }
+        return count;
+    }
+
+    private HadoopFileTaskDO validateTaskExists(Long id) {
+        HadoopFileTaskDO task = hadoopFileTaskMapper.selectById(id);
+        if (task == null || !ObjUtil.equal(task.getCreator(), SecurityFrameworkUtils.getLoginUserId().toString())) {
+            throw exception(HADOOP_FILE_TASK_NOT_EXISTS);
+        }
+        return task;
+    }
+
+    // ========== 调度与执行 ==========
+
+    /**
+     * 在用户的并发数以内，按提交顺序抢占等待中的任务提交到线程池
+     *
+     * @param userId 用户编号
+     */
+    private void dispatch(Long userId) {
+        AtomicInteger running = runningCounts.computeIfAbsent(userId, key -> new AtomicInteger());
+        while (true) {
+            // 1. 占用并发名额
+            if (running.incrementAndGet() > hadoopProperties.getTask().getPerUserConcurrency()) {
+                running.decrementAndGet();
+                return;
+            }
+
+            // 2. 抢占最早的等待中任务。抢占失败说明被其他节点执行或被取消，继续下一个
+            HadoopFileTaskDO task = hadoopFileTaskMapper.selectFirstWaiting(userId.toString());
+            if (task == null) {
+                running.decrementAndGet();
+                return;
+            }
+            LocalDateTime startTime = LocalDateTime.now();
+            if (hadoopFileTaskMapper.updateByIdAndStatus(task.getId(), HadoopFileTaskStatusEnum.WAITING.getStatus(),
+                    new HadoopFileTaskDO().setStatus(HadoopFileTaskStatusEnum.RUNNING.getStatus())
+                            .setStartTime(startTime)) == 0) {
+                running.decrementAndGet();
+                continue;
+            }
+            task.setStatus(HadoopFileTaskStatusEnum.RUNNING.getStatus()).setStartTime(startTime);
+
+            // 3. 提交到线程池。线程池已满时退回等待中，由该用户的下一次调度或定时巡检重新抢占
+            HadoopFileTaskProgress progress = new HadoopFileTaskProgress(task.getId(), userId,
+                    hadoopProperties.getTask().getProgressInterval().toMillis(), this::reportProgress);
+            runningTasks.put(task.getId(), progress);
+            queuedTaskIds.add(task.getId());
+            try {
+                executor.execute(TtlRunnable.get(() -> run(task, progress)));
+            } catch (RejectedExecutionException e) {
+                log.warn("[dispatch][任务({}) 线程池已满，退回等待中]", task.getId());
+                runningTasks.remove(task.getId());
+                queuedTaskIds.remove(task.getId());
+                hadoopFileTaskMapper.updateByIdAndStatus(task.getId(), HadoopFileTaskStatusEnum.RUNNING.getStatus(),
+                        new HadoopFileTaskDO().setStatus(HadoopFileTaskStatusEnum.WAITING.getStatus()));
+                running.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void run(HadoopFileTaskDO task, HadoopFileTaskProgress progress) {
+        queuedTaskIds.remove(task.getId());
+        setLoginUser(progress.getUserId());
+        HadoopFileTaskContextHolder.set(progress);
+        HadoopFileTaskStatusEnum status = HadoopFileTaskStatusEnum.SUCCESS;
+        String errorMsg = null;
+        try {
+            execute(task, progress);
+        } catch (ServiceException e) {
+            if (HADOOP_FILE_TASK_CANCELED.getCode().equals(e.getCode())) {
+                status = HadoopFileTaskStatusEnum.CANCELED;
+            } else {
+                status = HadoopFileTaskStatusEnum.FAILURE;
+                errorMsg = e.getMessage();
+            }
+        } catch (Throwable e) {
+            log.error("[run][任务({}) 执行失败]", task.getId(), e);
+            status = HadoopFileTaskStatusEnum.FAILURE;
+            errorMsg = StrUtil.maxLength(StrUtil.blankToDefault(e.getMessage(), e.getClass().getSimpleName()), 500);
+        } finally {
+            HadoopFileTaskContextHolder.clear();
+        }
+
+        // 记录结果，并调度该用户的下一个任务
+        try {
+            HadoopFileTaskDO updateObj = new HadoopFileTaskDO().setStatus(status.getStatus())
+                    .setProcessedItems(progress.getProcessedItems()).setProcessedBytes(progress.getProcessedBytes())
+                    .setErrorMsg(errorMsg).setFinishTime(LocalDateTime.now());
+            hadoopFileTaskMapper.updateByIdAndStatus(task.getId(), HadoopFileTaskStatusEnum.RUNNING.getStatus(), updateObj);
+            sendProgress(task.getCreator(), hadoopFileTaskMapper.selectById(task.getId()));
+        } catch (Throwable e) {
+            log.error("[run][任务({}) 记录结果({}) 失败]", task.getId(), status, e);
+        } finally {
+            runningTasks.remove(task.getId());
+            runningCounts.get(progress.getUserId()).decrementAndGet();
+        }
+        dispatch(progress.getUserId());
+    }
+
+    /**
+     * 定时巡检调度的任务没有登录用户，以任务创建者的身份执行。
+     * 使用新的上下文，执行结束后由 {@link TtlRunnable} 恢复，不影响提交任务的线程
+     */
+    private static void setLoginUser(Long userId) {
+        if (userId.equals(SecurityFrameworkUtils.getLoginUserId())) {
+            return;
+        }
+        LoginUser loginUser = new LoginUser();
+        loginUser.setId(userId);
+        loginUser.setUserType(UserTypeEnum.ADMIN.getValue());
+        loginUser.setTenantId(TenantContextHolder.getTenantId());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(loginUser, null, Collections.emptyList()));
+        SecurityContextHolder.setContext(context);
+    }
+
+    private void execute(HadoopFileTaskDO task, HadoopFileTaskProgress progress) {
+        HadoopFileTaskTypeEnum type = HadoopFileTaskTypeEnum.valueOf(task.getType());
+        switch (type) {
+            case SAVE_SHARED:
+                // 总量由 saveSharedFiles 计算后上报，逐个文件的进度在复制时上报
+                hadoopFileService.saveSharedFiles(JsonUtils.parseObject(task.getParam(), SaveSharedFilesReqVO.class));
+                break;
+            case MOVE:
+                HadoopFileTaskMoveReqVO moveReqVO = JsonUtils.parseObject(task.getParam(), HadoopFileTaskMoveReqVO.class);
+                for (HadoopFileDO file : startBatch(task, moveReqVO.getIds(), progress)) {
+                    progress.checkCanceled();
+                    hadoopFileService.moveHadoopFile(file.getId(), moveReqVO.getTargetPath());
+                    progress.advance(1, getBatchSize(file));
+                }
+                break;
+            case DELETE:
+                // 分批处理：正常文件批量放入回收站，回收站中的文件批量彻底删除
+                HadoopFileTaskDeleteReqVO deleteReqVO = JsonUtils.parseObject(task.getParam(), HadoopFileTaskDeleteReqVO.class);
+                for (List<HadoopFileDO> batch : CollUtil.split(startBatch(task, deleteReqVO.getIds(), progress), DELETE_BATCH_SIZE)) {
+                    progress.checkCanceled();
+                    hadoopFileTrashService.purgeHadoopFiles(convertList(batch, HadoopFileDO::getId,
+                            file -> HadoopFileStatusEnum.TRASHED.getStatus().equals(file.getStatus())));
+                    hadoopFileTrashService.trashHadoopFiles(convertList(batch, HadoopFileDO::getId,
+                            file -> !HadoopFileStatusEnum.TRASHED.getStatus().equals(file.getStatus())));
+                    progress.advance(batch.size(), batch.stream().mapToLong(this::getBatchSize).sum());
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(StrUtil.format("未知任务类型({})", task.getType()));
+        }
+    }
+
+    /**
+     * 查询批量操作的文件，只保留任务创建者的文件，并上报总量
+     */
+    private List<HadoopFileDO> startBatch(HadoopFileTaskDO task, List<Long> ids, HadoopFileTaskProgress progress) {
+        List<HadoopFileDO> files = hadoopFileMapper.selectList(new LambdaQueryWrapperX<HadoopFileDO>()
+                .in(HadoopFileDO::getId, ids)
+                .eq(HadoopFileDO::getCreator, task.getCreator()));
+        progress.start(files.size(), files.stream().mapToLong(this::getBatchSize).sum());
+        return files;
+    }
+
+    private long getBatchSize(HadoopFileDO file) {
+        return FileTypeEnum.DIRECTORY.getType().equals(file.getType())
+                ? ObjUtil.defaultIfNull(file.getTotalSize(), 0L) : ObjUtil.defaultIfNull(file.getSize(), 0L);
+    }
+
+    private void reportProgress(HadoopFileTaskProgress progress) {
+        try {
+            HadoopFileTaskDO updateObj = new HadoopFileTaskDO()
+                    .setTotalItems(progress.getTotalItems()).setTotalBytes(progress.getTotalBytes())
+                    .setProcessedItems(progress.getProcessedItems()).setProcessedBytes(progress.getProcessedBytes());
+            progressTransactionTemplate.executeWithoutResult(status -> hadoopFileTaskMapper.updateByIdAndStatus(
+                    progress.getTaskId(), HadoopFileTaskStatusEnum.RUNNING.getStatus(), updateObj));
+            HadoopFileTaskRespVO respVO = BeanUtils.toBean(updateObj, HadoopFileTaskRespVO.class)
+                    .setId(progress.getTaskId()).setStatus(HadoopFileTaskStatusEnum.RUNNING.getStatus());
+            webSocketSenderApi.sendObject(UserTypeEnum.ADMIN.getValue(), progress.getUserId(),
+                    WEBSOCKET_MESSAGE_TYPE, respVO);
+        } catch (Exception e) {
+            // 进度只用于展示，失败不影响任务执行
+            log.warn("[reportProgress][任务({}) 上报进度失败]", progress.getTaskId(), e);
+        }
+    }
+
+    private void sendProgress(String creator, HadoopFileTaskDO task) {
+        if (task == null) {
+            return;
+        }
+        webSocketSenderApi.sendObject(UserTypeEnum.ADMIN.getValue(), Long.valueOf(creator),
+                WEBSOCKET_MESSAGE_TYPE, BeanUtils.toBean(task, HadoopFileTaskRespVO.class));
+    }
+
+}
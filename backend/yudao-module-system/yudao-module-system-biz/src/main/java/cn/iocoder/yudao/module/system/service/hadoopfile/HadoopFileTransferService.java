@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferPermit;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferRejectedException;
+
+/**
+ * hadoop 文件传输限制 Service 接口
+ *
+ * 接口级的 @RateLimiter 只限制请求次数，一个请求就可以传输几个 GB。这里按字节限制上传、下载：
+ * 1. 准入：全局和单个用户同时进行的传输数都有上限，超出时直接拒绝，由客户端按 Retry-After 重试
+ * 2. 限速：单个用户、单个租户分别使用令牌桶限制带宽，在读写数据的循环中申请
+ *
+ * @author 管理员1
+ */
+public interface HadoopFileTransferService {
+
+    /**
+     * 申请一次传输，租户取自当前上下文
+     *
+     * 超出全局或用户的并发上限时，抛出 {@link HadoopTransferRejectedException}
+     *
+     * @param userId 用户编号；匿名下载分享文件时为空，只受全局和租户的限制
+     * @return 传输许可，传输结束后需要关闭
+     */
+    HadoopTransferPermit acquire(Long userId);
+
+}
@@ -0,0 +1,225 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferPermit;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferRejectedException;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.HADOOP_TRANSFER_TOO_MANY;
+
+/**
+ * hadoop 文件传输限制 Service 实现类
+ *
+ * 限制值默认取 {@link HadoopProperties.Transfer}，【参数配置】中存在 hadoop.transfer.* 时以参数配置为准，
+ * 每隔 {@link HadoopProperties.Transfer#getRefreshInterval()} 重新读取，修改后无需重启
+ *
+ * @author 管理员1
+ */
+@Service
+@Slf4j
+public class HadoopFileTransferServiceImpl implements HadoopFileTransferService {
+
+    static final String MAX_IN_FLIGHT_KEY = "hadoop.transfer.max-in-flight";
+    static final String PER_USER_MAX_IN_FLIGHT_KEY = "hadoop.transfer.per-user-max-in-flight";
+    static final String USER_BANDWIDTH_KEY = "hadoop.transfer.user-bandwidth";
+    static final String TENANT_BANDWIDTH_KEY = "hadoop.transfer.tenant-bandwidth";
+
+    /**
+     * 令牌桶的过期时间，用户、租户一段时间没有传输后释放
+     */
+    private static final long BUCKET_EXPIRE_MINUTES = 10;
+
+    @Resource
+    private HadoopProperties hadoopProperties;
+    @Resource
+    private ConfigApi configApi;
+
+    private Supplier<Limits> limits;
+
+    /**
+     * 进行中的传输数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * 每个用户进行中的传输数，为 0 时移除。相当于每个用户一个信号量，但上限修改后立即生效
+     */
+    private final Map<Long, Integer> userInFlight = new ConcurrentHashMap<>();
+
+    private final LoadingCache<Long, TokenBucket> userBuckets = buildBuckets();
+    private final LoadingCache<Long, TokenBucket> tenantBuckets = buildBuckets();
+
+    @PostConstruct
+    public void init() {
+        this.limits = Suppliers.memoizeWithExpiration(this::loadLimits,
+                hadoopProperties.getTransfer().getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("hadoop.file.transfer.active", inFlight, AtomicInteger::get).register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public HadoopTransferPermit acquire(Long userId) {
+        Limits current = limits.get();
+        // 1. 全局并发
+        if (inFlight.incrementAndGet() > current.maxInFlight) {
+            inFlight.decrementAndGet();
+            throw reject("global");
+        }
+        // 2. 用户并发
+        if (userId != null && userInFlight.merge(userId, 1, Integer::sum) > current.perUserMaxInFlight) {
+            releaseUser(userId);
+            inFlight.decrementAndGet();
+            throw reject("user");
+        }
+        return new Permit(userId, TenantContextHolder.getTenantId());
+    }
+
+    private HadoopTransferRejectedException reject(String reason) {
+        Counter.builder("hadoop.file.transfer.rejected").tag("reason", reason)
+                .register(Metrics.globalRegistry).increment();
+        long retryAfter = Math.max(1, hadoopProperties.getTransfer().getRetryAfter().getSeconds());
+        return new HadoopTransferRejectedException(HADOOP_TRANSFER_TOO_MANY.getCode(),
+                StrUtil.format(HADOOP_TRANSFER_TOO_MANY.getMsg(), retryAfter), retryAfter);
+    }
+
+    private void releaseUser(Long userId) {
+        userInFlight.computeIfPresent(userId, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // ========== 运行时配置 ==========
+
+    private Limits loadLimits() {
+        HadoopProperties.Transfer config = hadoopProperties.getTransfer();
+        return new Limits(
+                getConfigValue(MAX_IN_FLIGHT_KEY, Integer::valueOf, config.getMaxInFlight()),
+                getConfigValue(PER_USER_MAX_IN_FLIGHT_KEY, Integer::valueOf, config.getPerUserMaxInFlight()),
+                getConfigValue(USER_BANDWIDTH_KEY, DataSize::parse, config.getUserBandwidth()).toBytes(),
+                getConfigValue(TENANT_BANDWIDTH_KEY, DataSize::parse, config.getTenantBandwidth()).toBytes());
+    }
+
+    /**
+     * 读取参数配置，不存在或不合法时使用默认值
+     */
+    private <T> T getConfigValue(String key, Function<String, T> parser, T defaultValue) {
+        try {
+            String value = configApi.getConfigValueByKey(key);
+            return StrUtil.isBlank(value) ? defaultValue : parser.apply(value.trim());
+        } catch (Exception e) {
+            log.warn("[getConfigValue][参数({}) 读取失败，使用默认值({})]", key, defaultValue, e);
+            return defaultValue;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Limits {
+
+        private final int maxInFlight;
+        private final int perUserMaxInFlight;
+        /**
+         * 单个用户每秒的字节数，0 表示不限制
+         */
+        private final long userBandwidth;
+        /**
+         * 单个租户每秒的字节数，0 表示不限制
+         */
+        private final long tenantBandwidth;
+
+    }
+
+    // ========== 带宽限制 ==========
+
+    private static LoadingCache<Long, TokenBucket> buildBuckets() {
+        return CacheBuilder.newBuilder()
+                .expireAfterAccess(BUCKET_EXPIRE_MINUTES, TimeUnit.MINUTES)
+                .build(CacheLoader.from(key -> new TokenBucket()));
+    }
+
+    /**
+     * 令牌桶，令牌数即可以传输的字节数
+     *
+     * 允许透支：数据总是立即放行，令牌数变为负数，由调用方等待对应的时间偿还。
+     * 这样不需要在桶内排队，同一用户的多个传输共用一个桶，合计速率不超过限制
+     */
+    private static class TokenBucket {
+
+        /**
+         * 当前令牌数。初始为最大值，第一次申请时截断为 1 秒的量
+         */
+        private double tokens = Double.MAX_VALUE;
+        private long lastTime = System.nanoTime();
+
+        /**
+         * @param bytes 字节数
+         * @param rate 每秒的字节数
+         * @return 需要等待的纳秒数
+         */
+        synchronized long reserve(long bytes, long rate) {
+            long now = System.nanoTime();
+            // 按经过的时间补充令牌，最多积累 1 秒的量，允许短时突发
+            tokens = Math.min(rate, tokens + (now - lastTime) * (double) rate / TimeUnit.SECONDS.toNanos(1));
+            lastTime = now;
+            tokens -= bytes;
+            return tokens >= 0 ? 0 : (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / rate);
+        }
+
+    }
+
+    private class Permit implements HadoopTransferPermit {
+
+        private final Long userId;
+        private final Long tenantId;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Permit(Long userId, Long tenantId) {
+            this.userId = userId;
+            this.tenantId = tenantId;
+        }
+
+        @Override
+        public long reserve(long bytes) {
+            Limits current = limits.get();
+            long delay = 0;
+            if (userId != null && current.userBandwidth > 0) {
+                delay = userBuckets.getUnchecked(userId).reserve(bytes, current.userBandwidth);
+            }
+            if (tenantId != null && current.tenantBandwidth > 0) {
+                delay = Math.max(delay, tenantBuckets.getUnchecked(tenantId).reserve(bytes, current.tenantBandwidth));
+            }
+            return delay;
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            if (userId != null) {
+                releaseUser(userId);
+            }
+            inFlight.decrementAndGet();
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * hadoop 文件回收站 Service 接口
+ *
+ * 每个用户只有一个回收站目录，放入回收站的文件按编号存放，不会重名；数据库中只修改状态和放入时间，文件名保持不变
+ *
+ * @author 管理员1
+ */
+public interface HadoopFileTrashService {
+
+    /**
+     * 批量放入回收站，只处理当前用户的正常文件
+     *
+     * @param ids 文件编号列表
+     */
+    void trashHadoopFiles(Collection<Long> ids);
+
+    /**
+     * 批量从回收站恢复，只处理当前用户回收站中的文件。原目录下存在同名文件时，自动重命名
+     *
+     * @param ids 文件编号列表
+     */
+    void restoreHadoopFiles(Collection<Long> ids);
+
+    /**
+     * 批量彻底删除，只处理当前用户回收站中的文件
+     *
+     * @param ids 文件编号列表
+     */
+    void purgeHadoopFiles(Collection<Long> ids);
+
+    /**
+     * 清空当前用户的回收站
+     *
+     * @return 彻底删除的文件数
+     */
+    int clearTrash();
+
+    /**
+     * 彻底删除放入回收站早于指定时间的文件，用于定时清理
+     *
+     * @param before 放入回收站的时间
+     * @return 彻底删除的文件数
+     */
+    int expireTrash(LocalDateTime before);
+
+    /**
+     * 获得回收站中的文件在 HDFS 上的路径
+     *
+     * @param file 文件，未去重存储
+     * @return 路径
+     */
+    String buildTrashPath(HadoopFileDO file);
+
+}
@@ -0,0 +1,316 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopShareItemMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopAsyncStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.HADOOP_FILE_NOT_EXISTS;
+
+/**
+ * hadoop 文件回收站 Service 实现类
+ *
+ * @author 管理员1
+ */
+@Service
+@Validated
+@Slf4j
+public class HadoopFileTrashServiceImpl implements HadoopFileTrashService {
+
+    /**
+     * 旧版本放入回收站的文件，名称带有该前缀，HDFS 上仍在原目录下的回收站子目录中
+     */
+    private static final String LEGACY_RECYCLE_BIN_PREFIX = "回收站（hadoop）/";
+
+    @Resource
+    private HadoopFileMapper hadoopFileMapper;
+    @Resource
+    private HadoopShareItemMapper hadoopShareItemMapper;
+
+    @Resource
+    private HadoopFileService hadoopFileService;
+    @Resource
+    private HadoopFileBlobService hadoopFileBlobService;
+    @Resource
+    private HadoopUserUsageService hadoopUserUsageService;
+    @Resource
+    private HadoopFileAggregateService hadoopFileAggregateService;
+    @Resource
+    private HadoopFileListCacheService hadoopFileListCacheService;
+
+    @Resource
+    private HadoopStorage hdfsClient;
+    @Resource
+    private HadoopAsyncStorage hadoopAsyncStorage;
+    @Resource
+    private HadoopProperties hadoopProperties;
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void trashHadoopFiles(Collection<Long> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return;
+        }
+        // 1. 只处理自己的正常文件。同时选中文件夹和其子孙时，只处理文件夹
+        String userId = SecurityFrameworkUtils.getLoginUserId().toString();
+        List<HadoopFileDO> files = filterList(hadoopFileMapper.selectBatchIds(ids), file -> userId.equals(file.getCreator())
+                && HadoopFileStatusEnum.NORMAL.getStatus().equals(file.getStatus()));
+        files = removeDescendants(files);
+        if (files.isEmpty()) {
+            return;
+        }
+        // 移动前的路径，需在修改状态前计算
+        Map<String, String> moves = new LinkedHashMap<>();
+        for (HadoopFileDO file : files) {
+            if (file.getBlobId() == null) {
+                moves.put(hadoopFileService.getHdfsPath(file), buildTrashPath(file));
+            }
+        }
+
+        // 2. 批量更新数据库，并从祖先目录的统计值中扣除。文件夹的子孙一并隐藏，不再出现在搜索、分享、下载中
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> batchIds : CollUtil.split(convertList(files, HadoopFileDO::getId), hadoopProperties.getTrash().getBatchSize())) {
+            hadoopFileMapper.updateTrashed(batchIds, now);
+        }
+        for (HadoopFileDO file : files) {
+            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+                hadoopFileMapper.updateSubtreeStatus(userId, file.getTreePath() + file.getId() + "/",
+                        HadoopFileStatusEnum.NORMAL.getStatus(), HadoopFileStatusEnum.TRASHED_WITH_FOLDER.getStatus());
+            }
+        }
+        hadoopFileAggregateService.subtractFromAncestors(files);
+        files.forEach(file -> file.setStatus(HadoopFileStatusEnum.TRASHED.getStatus()).setTrashTime(now));
+
+        // 3. 未去重存储的文件，在 HDFS 上并行移动到回收站目录。部分失败时移回已移动的文件，并回滚数据库
+        if (!moves.isEmpty()) {
+            try {
+                hdfsClient.mkdir(hadoopProperties.getTrash().getDir() + "/" + userId, "755");
+            } catch (IOException e) {
+                log.error("[trashHadoopFiles][用户({}) 创建回收站目录失败]", userId, e);
+                throw exception(HADOOP_FILE_NOT_EXISTS);
+            }
+            List<Map.Entry<String, String>> moved = executeInParallel(moves.entrySet(),
+                    move -> mv(move.getKey(), move.getValue()));
+            if (moved.size() < moves.size()) {
+                executeInParallel(moved, move -> mv(move.getValue(), move.getKey()));
+                throw exception(HADOOP_FILE_NOT_EXISTS);
+            }
+        }
+        hadoopFileListCacheService.evictUser(Long.valueOf(userId));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void restoreHadoopFiles(Collection<Long> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return;
+        }
+        // 恢复时需逐个处理同名文件，无法合并为批量更新
+        String userId = SecurityFrameworkUtils.getLoginUserId().toString();
+        for (HadoopFileDO file : hadoopFileMapper.selectBatchIds(ids)) {
+            if (userId.equals(file.getCreator()) && isTrashed(file)) {
+                hadoopFileService.restoreHadoopFile(file.getId());
+            }
+        }
+    }
+
+    @Override
+    public void purgeHadoopFiles(Collection<Long> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return;
+        }
+        String userId = SecurityFrameworkUtils.getLoginUserId().toString();
+        List<HadoopFileDO> files = filterList(hadoopFileMapper.selectBatchIds(ids),
+                file -> userId.equals(file.getCreator()) && isTrashed(file));
+        for (List<HadoopFileDO> batch : CollUtil.split(files, hadoopProperties.getTrash().getBatchSize())) {
+            purge(batch);
+        }
+    }
+
+    @Override
+    public int clearTrash() {
+        // 按编号分批遍历，每批一个事务，已删除的批次不会因为后续失败而回滚
+        String userId = SecurityFrameworkUtils.getLoginUserId().toString();
+        int batchSize = hadoopProperties.getTrash().getBatchSize();
+        int count = 0;
+        Long minId = 0L;
+        while (true) {
+            List<HadoopFileDO> files = hadoopFileMapper.selectTrashedList(userId, minId, batchSize);
+            if (files.isEmpty()) {
+                return count;
+            }
+            count += purge(files);
+            minId = files.get(files.size() - 1).getId();
+        }
+    }
+
+    @Override
+    public int expireTrash(LocalDateTime before) {
+        int batchSize = hadoopProperties.getTrash().getBatchSize();
+        int count = 0;
+        while (true) {
+            List<HadoopFileDO> files = hadoopFileMapper.selectTrashedListByTrashTimeBefore(before, batchSize);
+            if (files.isEmpty()) {
+                return count;
+            }
+            count += purge(files);
+            if (files.size() < batchSize) {
+                return count;
+            }
+        }
+    }
+
+    @Override
+    public String buildTrashPath(HadoopFileDO file) {
+        return hadoopProperties.getTrash().getDir() + "/" + file.getCreator() + "/" + file.getId();
+    }
+
+    /**
+     * 彻底删除一批回收站中的文件
+     *
+     * 数据库记录在一个事务中批量删除，包括文件夹的整棵子树；HDFS 上的内容在事务提交后并行删除，
+     * 删除失败只会残留无记录引用的内容，不影响数据一致性
+     *
+     * @param files 回收站中的文件
+     * @return 彻底删除的文件数，不包括文件夹的子孙
+     */
+    private int purge(List<HadoopFileDO> files) {
+        List<String> paths = transactionTemplate.execute(status -> purge0(files));
+        executeInParallel(paths, this::delete);
+        files.stream().map(HadoopFileDO::getCreator).distinct()
+                .forEach(creator -> hadoopFileListCacheService.evictUser(Long.valueOf(creator)));
+        return files.size();
+    }
+
+    private List<String> purge0(List<HadoopFileDO> files) {
+        // 1. 展开文件夹的子树。旧版本的回收站文件可能在其他回收站文件夹的子树中，此时随文件夹一起删除
+        List<HadoopFileDO> descendants = new ArrayList<>();
+        for (HadoopFileDO file : files) {
+            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+                descendants.addAll(selectPurgeDescendants(file));
+            }
+        }
+        Set<Long> descendantIds = convertSet(descendants, HadoopFileDO::getId);
+        List<HadoopFileDO> roots = filterList(files, file -> !descendantIds.contains(file.getId()));
+        List<HadoopFileDO> deletedFiles = new ArrayList<>(roots);
+        deletedFiles.addAll(descendants);
+
+        // 2. 批量删除记录，并从分享中移除
+        for (List<Long> batchIds : CollUtil.split(convertList(deletedFiles, HadoopFileDO::getId), hadoopProperties.getTrash().getBatchSize())) {
+            hadoopShareItemMapper.deleteByFileIds(batchIds);
+            hadoopFileMapper.deleteByIds(batchIds);
+        }
+        hadoopUserUsageService.subtractUsage(deletedFiles);
+
+        // 3. 需要删除的 HDFS 路径：未去重存储的文件、文件夹，子孙随文件夹一起删除；引用归零的文件内容
+        List<String> paths = convertList(roots, hadoopFileService::getHdfsPath, file -> file.getBlobId() == null);
+        Map<Long, Integer> blobCounts = deletedFiles.stream().filter(file -> file.getBlobId() != null)
+                .collect(Collectors.groupingBy(HadoopFileDO::getBlobId, Collectors.summingInt(file -> 1)));
+        paths.addAll(hadoopFileBlobService.releaseBlobs(blobCounts));
+        return paths;
+    }
+
+    /**
+     * 获得回收站中文件夹的子孙，按父目录链过滤
+     *
+     * 之后单独放入回收站的子孙，是回收站中的独立条目，连同其子树保留；
+     * 但旧版本放入回收站的未去重文件，HDFS 上在该文件夹下，随文件夹一起删除
+     */
+    private List<HadoopFileDO> selectPurgeDescendants(HadoopFileDO directory) {
+        Set<Long> parentIds = new HashSet<>(Collections.singleton(directory.getId()));
+        List<HadoopFileDO> descendants = new ArrayList<>();
+        for (HadoopFileDO file : hadoopFileMapper.selectSubtreeList(directory.getCreator(),
+                directory.getTreePath() + directory.getId() + "/")) {
+            if (!parentIds.contains(file.getParentId())) {
+                continue;
+            }
+            if (isTrashed(file) && (file.getBlobId() != null || !file.getName().startsWith(LEGACY_RECYCLE_BIN_PREFIX))) {
+                continue;
+            }
+            descendants.add(file);
+            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+                parentIds.add(file.getId());
+            }
+        }
+        return descendants;
+    }
+
+    /**
+     * 移除祖先目录也在列表中的文件
+     */
+    private static List<HadoopFileDO> removeDescendants(List<HadoopFileDO> files) {
+        Set<String> directoryPaths = convertSet(files, file -> file.getTreePath() + file.getId() + "/",
+                file -> FileTypeEnum.DIRECTORY.getType().equals(file.getType()));
+        return filterList(files, file -> directoryPaths.stream().noneMatch(file.getTreePath()::startsWith));
+    }
+
+    private static boolean isTrashed(HadoopFileDO file) {
+        return HadoopFileStatusEnum.TRASHED.getStatus().equals(file.getStatus());
+    }
+
+    /**
+     * 同时发起全部 HDFS 操作，再等待全部完成。并发数由 {@link HadoopAsyncStorage} 统一限制
+     *
+     * @return 执行成功的元素
+     */
+    private <T> List<T> executeInParallel(Collection<T> items, Function<T, CompletableFuture<Boolean>> operation) {
+        Map<T, CompletableFuture<Boolean>> futures = new LinkedHashMap<>();
+        for (T item : items) {
+            futures.put(item, operation.apply(item));
+        }
+        List<T> succeeded = new ArrayList<>();
+        futures.forEach((item, future) -> {
+            if (future.join()) {
+                succeeded.add(item);
+            }
+        });
+        return succeeded;
+    }
+
+    private CompletableFuture<Boolean> mv(String sourcePath, String targetPath) {
+        return hadoopAsyncStorage.mv(sourcePath, targetPath).exceptionally(e -> {
+            log.error("[mv][移动 HDFS 文件({}) 到 ({})失败]", sourcePath, targetPath, e);
+            return false;
+        });
+    }
+
+    private CompletableFuture<Boolean> delete(String path) {
+        return hadoopAsyncStorage.delete(path, true).exceptionally(e -> {
+            log.warn("[delete][删除 HDFS 文件({})失败]", path, e);
+            return false;
+        });
+    }
+
+}
@@ -0,0 +1,80 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopUploadInitReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUploadSessionDO;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * hadoop 分片上传 Service 接口
+ *
+ * 大文件拆成多个分片并行上传到 HDFS 临时目录，支持断点续传；
+ * 全部分片上传完成后，通过 WebHDFS CONCAT 在服务端合并，无需再经过应用传输一次
+ *
+ * @author 管理员1
+ */
+public interface HadoopFileUploadService {
+
+    /**
+     * 初始化分片上传任务
+     *
+     * @param reqVO 初始化信息
+     * @return 上传任务
+     */
+    HadoopUploadSessionDO initUpload(@Valid HadoopUploadInitReqVO reqVO);
+
+    /**
+     * 上传分片。同一分片重复上传时，覆盖之前的内容
+     *
+     * @param uploadId   上传任务编号
+     * @param chunkIndex 分片序号，从 0 开始
+     * @param file       分片内容
+     */
+    void uploadChunk(Long uploadId, Integer chunkIndex, MultipartFile file);
+
+    /**
+     * 获得当前用户的上传任务
+     *
+     * @param uploadId 上传任务编号
+     * @return 上传任务
+     */
+    HadoopUploadSessionDO getUploadSession(Long uploadId);
+
+    /**
+     * 获得上传任务已上传的分片序号，用于断点续传
+     *
+     * @param uploadId 上传任务编号
+     * @return 已上传的分片序号，升序
+     */
+    List<Integer> getUploadedChunkIndexes(Long uploadId);
+
+    /**
+     * 完成上传：合并分片，生成 hadoop 文件
+     *
+     * 合并后的文件计算 SHA-256 后按内容去重存储，与普通上传一致。失败时任务回退为上传中；
+     * 如果合并后的文件已不存在，还会清空已上传的分片，需要客户端重新上传
+     *
+     * @param uploadId 上传任务编号
+     * @return 生成的 hadoop 文件编号
+     */
+    Long completeUpload(Long uploadId);
+
+    /**
+     * 取消上传，清理已上传的分片
+     *
+     * @param uploadId 上传任务编号
+     */
+    void abortUpload(Long uploadId);
+
+    /**
+     * 清理最后活跃时间早于指定时间的未完成上传任务，包括分片记录和 HDFS 上的临时分片，用于定时清理
+     *
+     * @param before 最后活跃时间
+     * @return 清理的上传任务数
+     */
+    int expireUploads(LocalDateTime before);
+
+}
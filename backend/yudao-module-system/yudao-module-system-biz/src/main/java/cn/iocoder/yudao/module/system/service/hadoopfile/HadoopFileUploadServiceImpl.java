@@ -0,0 +1,315 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopUploadInitReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileBlobDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUploadChunkDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUploadSessionDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopUploadChunkMapper;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopUploadSessionMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopUploadStatusEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopAsyncStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HdfsFileInfo;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferPermit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+
+/**
+ * hadoop 分片上传 Service 实现类
+ *
+ * @author 管理员1
+ */
+@Service
+@Validated
+@Slf4j
+public class HadoopFileUploadServiceImpl implements HadoopFileUploadService {
+
+    /**
+     * 定时清理时，每批处理的上传任务数
+     */
+    private static final int EXPIRE_BATCH_SIZE = 100;
+
+    @Resource
+    private HadoopUploadSessionMapper uploadSessionMapper;
+    @Resource
+    private HadoopUploadChunkMapper uploadChunkMapper;
+
+    @Resource
+    private HadoopFileService hadoopFileService;
+    @Resource
+    private HadoopUserUsageService hadoopUserUsageService;
+    @Resource
+    private HadoopFileBlobService hadoopFileBlobService;
+
+    @Resource
+    private HadoopStorage hdfsClient;
+    @Resource
+    private HadoopAsyncStorage hadoopAsyncStorage;
+    @Resource
+    private HadoopFileTransferService hadoopFileTransferService;
+    @Resource
+    private HadoopProperties hadoopProperties;
+
+    @Override
+    public HadoopUploadSessionDO initUpload(HadoopUploadInitReqVO reqVO) {
+        HadoopProperties.Upload config = hadoopProperties.getUpload();
+        long chunkSize = reqVO.getChunkSize() != null ? reqVO.getChunkSize() : config.getChunkSize().toBytes();
+        if (chunkSize > config.getMaxChunkSize().toBytes()) {
+            throw exception(HADOOP_UPLOAD_CHUNK_SIZE_INVALID, chunkSize, "超过最大分片大小 " + config.getMaxChunkSize());
+        }
+        // 分片过小会产生大量的分片记录和 HDFS 小文件；只有一个分片时不限制
+        if (chunkSize < config.getMinChunkSize().toBytes() && chunkSize < reqVO.getFileSize()) {
+            throw exception(HADOOP_UPLOAD_CHUNK_SIZE_INVALID, chunkSize, "小于最小分片大小 " + config.getMinChunkSize());
+        }
+        // 空文件也按一个分片处理，保证合并流程一致
+        long chunkCount = Math.max(1, (reqVO.getFileSize() + chunkSize - 1) / chunkSize);
+        if (chunkCount > config.getMaxChunkCount()) {
+            throw exception(HADOOP_UPLOAD_CHUNK_SIZE_INVALID, chunkSize,
+                    "分片数 " + chunkCount + " 超过上限 " + config.getMaxChunkCount() + "，请增大分片大小");
+        }
+        // 上传开始前校验剩余空间，避免传完才发现超出配额
+        hadoopUserUsageService.validateQuota(SecurityFrameworkUtils.getLoginUserId(), reqVO.getFileSize());
+
+        HadoopUploadSessionDO session = HadoopUploadSessionDO.builder()
+                .name(reqVO.getName().replaceAll("\\s+", ""))
+                .catalogue(reqVO.getCatalogue().replaceAll("\\s+", ""))
+                .type(reqVO.getType() != null ? reqVO.getType() : FileTypeEnum.OTHER.getType())
+                .fileSize(reqVO.getFileSize()).chunkSize(chunkSize).chunkCount((int) chunkCount)
+                .status(HadoopUploadStatusEnum.UPLOADING.getStatus())
+                .build();
+        uploadSessionMapper.insert(session);
+        return session;
+    }
+
+    @Override
+    public void uploadChunk(Long uploadId, Integer chunkIndex, MultipartFile file) {
+        // 1. 校验任务与分片
+        HadoopUploadSessionDO session = validateUploadSessionUploading(uploadId);
+        if (chunkIndex == null || chunkIndex < 0 || chunkIndex >= session.getChunkCount()) {
+            throw exception(HADOOP_UPLOAD_CHUNK_INVALID, chunkIndex, "序号超出范围 [0, " + session.getChunkCount() + ")");
+        }
+        long expectedSize = getChunkSize(session, chunkIndex);
+        if (file.getSize() != expectedSize) {
+            throw exception(HADOOP_UPLOAD_CHUNK_INVALID, chunkIndex,
+                    "大小应为 " + expectedSize + " 字节，实际为 " + file.getSize() + " 字节");
+        }
+
+        // 2. 写入 HDFS 临时目录。分片之间互不依赖，客户端可以并行上传，但受用户并发数和带宽限制
+        HadoopTransferPermit permit = hadoopFileTransferService.acquire(SecurityFrameworkUtils.getLoginUserId());
+        try {
+            hadoopAsyncStorage.createFileInCallerThread(buildChunkPath(uploadId, chunkIndex), permit.throttle(file),
+                    file.getSize());
+        } catch (Exception e) {
+            log.error("[uploadChunk][任务({}) 分片({}) 上传失败]", uploadId, chunkIndex, e);
+            throw exception(HADOOP_UPLOAD_FAIL);
+        } finally {
+            permit.close();
+        }
+
+        // 3. 记录分片。重复上传同一分片时，HDFS 上已覆盖，这里只需更新大小
+        HadoopUploadChunkDO chunk = uploadChunkMapper.selectBySessionIdAndChunkIndex(uploadId, chunkIndex);
+        if (chunk == null) {
+            uploadChunkMapper.insert(HadoopUploadChunkDO.builder()
+                    .sessionId(uploadId).chunkIndex(chunkIndex).size(file.getSize()).build());
+        } else {
+            uploadChunkMapper.updateById(new HadoopUploadChunkDO().setId(chunk.getId()).setSize(file.getSize()));
+        }
+        // 4. 刷新任务的更新时间，作为最后活跃时间，避免上传中的任务被定时清理
+        HadoopUploadSessionDO updateObj = new HadoopUploadSessionDO().setId(uploadId);
+        updateObj.setUpdateTime(LocalDateTime.now());
+        uploadSessionMapper.updateById(updateObj);
+    }
+
+    @Override
+    public HadoopUploadSessionDO getUploadSession(Long uploadId) {
+        return validateUploadSessionExists(uploadId);
+    }
+
+    @Override
+    public List<Integer> getUploadedChunkIndexes(Long uploadId) {
+        validateUploadSessionExists(uploadId);
+        return uploadChunkMapper.selectListBySessionId(uploadId).stream()
+                .map(HadoopUploadChunkDO::getChunkIndex).sorted().collect(Collectors.toList());
+    }
+
+    @Override
+    public Long completeUpload(Long uploadId) {
+        // 1.1 校验分片已全部上传
+        HadoopUploadSessionDO session = validateUploadSessionUploading(uploadId);
+        int uploadedCount = getUploadedChunkIndexes(uploadId).size();
+        if (uploadedCount < session.getChunkCount()) {
+            throw exception(HADOOP_UPLOAD_CHUNK_MISSING, session.getChunkCount() - uploadedCount);
+        }
+        // 1.2 切换为合并中，避免并发重复合并
+        if (uploadSessionMapper.updateByIdAndStatus(uploadId, HadoopUploadStatusEnum.UPLOADING.getStatus(),
+                new HadoopUploadSessionDO().setStatus(HadoopUploadStatusEnum.COMPLETING.getStatus())) == 0) {
+            throw exception(HADOOP_UPLOAD_STATUS_INVALID);
+        }
+
+        // 2. 合并分片，登记为去重存储的文件内容，与普通上传一致，再插入文件记录
+        HadoopFileDO hadoopFile = HadoopFileDO.builder()
+                .type(session.getType()).name(session.getName()).catalogue(session.getCatalogue())
+                .size(session.getFileSize())
+                .build();
+        String mergedPath = null;
+        HadoopFileBlobDO blob = null;
+        try {
+            mergedPath = mergeChunks(session);
+            blob = hadoopFileBlobService.createBlob(mergedPath, session.getFileSize());
+            hadoopFile.setSha256(blob.getSha256()).setBlobId(blob.getId());
+            hadoopFileService.insertHadoopFile(hadoopFile);
+        } catch (Exception e) {
+            log.error("[completeUpload][任务({}) 合并失败]", uploadId, e);
+            if (blob != null) {
+                hadoopFileBlobService.releaseBlob(blob.getId());
+            }
+            // 合并后的文件已被登记或删除时，分片不再可用，需要客户端重新上传全部分片
+            if (mergedPath != null && !existsQuietly(mergedPath)) {
+                uploadChunkMapper.deleteBySessionId(uploadId);
+            }
+            // 回退为上传中，允许客户端重试
+            uploadSessionMapper.updateByIdAndStatus(uploadId, HadoopUploadStatusEnum.COMPLETING.getStatus(),
+                    new HadoopUploadSessionDO().setStatus(HadoopUploadStatusEnum.UPLOADING.getStatus()));
+            throw e instanceof ServiceException ? (ServiceException) e : exception(HADOOP_UPLOAD_FAIL);
+        }
+        deleteChunkDirQuietly(uploadId);
+
+        // 3. 标记任务完成
+        uploadSessionMapper.updateById(new HadoopUploadSessionDO().setId(uploadId)
+                .setStatus(HadoopUploadStatusEnum.COMPLETED.getStatus()).setFileId(hadoopFile.getId()));
+        uploadChunkMapper.deleteBySessionId(uploadId);
+        return hadoopFile.getId();
+    }
+
+    /**
+     * 将其余分片 CONCAT 到第 0 个分片上，返回合并后的文件路径
+     *
+     * CONCAT 是 NameNode 上的元数据操作，只移动块的归属，不复制数据
+     */
+    private String mergeChunks(HadoopUploadSessionDO session) throws IOException {
+        String targetPath = buildChunkPath(session.getId(), 0);
+        HdfsFileInfo target = hdfsClient.getFileInfo(targetPath);
+        if (target == null) {
+            throw new IOException("分片 0 不存在: " + targetPath);
+        }
+        // 上次合并成功、但后续步骤失败时，分片 0 已是完整文件，无需再次合并
+        if (session.getChunkCount() > 1 && target.getLength() != session.getFileSize()) {
+            List<String> sources = new ArrayList<>(session.getChunkCount() - 1);
+            for (int i = 1; i < session.getChunkCount(); i++) {
+                sources.add(buildChunkPath(session.getId(), i));
+            }
+            hdfsClient.concat(targetPath, sources);
+            target = hdfsClient.getFileInfo(targetPath);
+        }
+        if (target == null || target.getLength() != session.getFileSize()) {
+            throw new IOException("合并后的文件大小不一致: " + (target != null ? target.getLength() : null)
+                    + " != " + session.getFileSize());
+        }
+        return targetPath;
+    }
+
+    @Override
+    public void abortUpload(Long uploadId) {
+        HadoopUploadSessionDO session = validateUploadSessionExists(uploadId);
+        if (Objects.equals(session.getStatus(), HadoopUploadStatusEnum.COMPLETING.getStatus())) {
+            throw exception(HADOOP_UPLOAD_STATUS_INVALID);
+        }
+        deleteChunkDirQuietly(uploadId);
+        uploadChunkMapper.deleteBySessionId(uploadId);
+        uploadSessionMapper.deleteById(uploadId);
+    }
+
+    @Override
+    public int expireUploads(LocalDateTime before) {
+        List<Integer> statuses = Arrays.asList(HadoopUploadStatusEnum.UPLOADING.getStatus(),
+                HadoopUploadStatusEnum.COMPLETING.getStatus());
+        int count = 0;
+        while (true) {
+            List<HadoopUploadSessionDO> sessions = uploadSessionMapper.selectListByStatusAndUpdateTimeBefore(
+                    statuses, before, EXPIRE_BATCH_SIZE);
+            for (HadoopUploadSessionDO session : sessions) {
+                // 先删除 HDFS 上的临时分片，失败时仅残留无记录引用的临时文件
+                deleteChunkDirQuietly(session.getId());
+                uploadChunkMapper.deleteBySessionId(session.getId());
+                uploadSessionMapper.deleteById(session.getId());
+            }
+            count += sessions.size();
+            if (sessions.size() < EXPIRE_BATCH_SIZE) {
+                return count;
+            }
+        }
+    }
+
+    private HadoopUploadSessionDO validateUploadSessionExists(Long uploadId) {
+        HadoopUploadSessionDO session = uploadSessionMapper.selectById(uploadId);
+        // 只能操作自己的上传任务
+        if (session == null || !Objects.equals(String.valueOf(SecurityFrameworkUtils.getLoginUserId()),
+                session.getCreator())) {
+            throw exception(HADOOP_UPLOAD_NOT_EXISTS);
+        }
+        return session;
+    }
+
+    private HadoopUploadSessionDO validateUploadSessionUploading(Long uploadId) {
+        HadoopUploadSessionDO session = validateUploadSessionExists(uploadId);
+        if (!Objects.equals(session.getStatus(), HadoopUploadStatusEnum.UPLOADING.getStatus())) {
+            throw exception(HADOOP_UPLOAD_STATUS_INVALID);
+        }
+        return session;
+    }
+
+    /**
+     * 计算分片应有的大小：最后一个分片为剩余的大小，其余均为 chunkSize
+     */
+    static long getChunkSize(HadoopUploadSessionDO session, int chunkIndex) {
+        if (chunkIndex < session.getChunkCount() - 1) {
+            return session.getChunkSize();
+        }
+        return session.getFileSize() - session.getChunkSize() * (session.getChunkCount() - 1);
+    }
+
+    private String buildChunkDir(Long uploadId) {
+        return hadoopProperties.getUpload().getTempDir() + "/" + uploadId;
+    }
+
+    private String buildChunkPath(Long uploadId, int chunkIndex) {
+        return buildChunkDir(uploadId) + "/" + chunkIndex;
+    }
+
+    private boolean existsQuietly(String path) {
+        try {
+            return hdfsClient.exists(path);
+        } catch (IOException e) {
+            log.warn("[existsQuietly][查询文件({})失败]", path, e);
+            return true;
+        }
+    }
+
+    private void deleteChunkDirQuietly(Long uploadId) {
+        try {
+            hdfsClient.delete(buildChunkDir(uploadId), true);
+        } catch (IOException e) {
+            log.warn("[deleteChunkDirQuietly][任务({}) 清理临时分片失败]", uploadId, e);
+        }
+    }
+
+}
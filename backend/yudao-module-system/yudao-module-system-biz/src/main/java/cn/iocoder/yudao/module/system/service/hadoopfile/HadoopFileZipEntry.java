@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 压缩包中的一个条目
+ *
+ * @author 管理员1
+ */
+@Data
+@AllArgsConstructor
+public class HadoopFileZipEntry {
+
+    /**
+     * 条目在压缩包中的路径，例如说 a/b/c.txt；文件夹以 / 结尾
+     */
+    private String path;
+    /**
+     * 对应的文件
+     */
+    private HadoopFileDO file;
+
+    public boolean isDirectory() {
+        return path.endsWith("/");
+    }
+
+}
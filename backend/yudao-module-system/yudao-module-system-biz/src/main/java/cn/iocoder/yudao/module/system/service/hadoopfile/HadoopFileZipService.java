@@ -0,0 +1,38 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * hadoop 文件打包下载 Service 接口
+ *
+ * 压缩包边从 HDFS 读取边压缩，直接写入输出流，不产生临时文件，内存占用与文件大小无关
+ *
+ * @author 管理员1
+ */
+public interface HadoopFileZipService {
+
+    /**
+     * 获得打包下载的条目，文件夹展开为其下全部正常文件
+     *
+     * 在写入响应前调用，校验失败时仍可以返回错误信息
+     *
+     * @param ids 文件编号，可以包含文件夹
+     * @return 条目列表，父文件夹在子文件之前
+     */
+    List<HadoopFileZipEntry> getZipEntries(Collection<Long> ids);
+
+    /**
+     * 将条目写入 ZIP 压缩包
+     *
+     * 已经压缩过的文件类型（图片、音视频、压缩包等）不再压缩，其余文件使用 DEFLATE 压缩；
+     * 压缩当前文件时，预读下一个文件，隐藏 HDFS 的打开延迟
+     *
+     * @param entries 条目列表，见 {@link #getZipEntries(Collection)}
+     * @param outputStream 输出流，写入完成后不会关闭
+     */
+    void writeZip(List<HadoopFileZipEntry> entries, OutputStream outputStream) throws IOException;
+
+}
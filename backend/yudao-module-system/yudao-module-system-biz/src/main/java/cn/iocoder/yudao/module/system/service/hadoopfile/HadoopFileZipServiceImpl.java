@@ -0,0 +1,260 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.date.LocalDateTimeUtil;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.ObjUtil;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.common.util.collection.SetUtils;
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+
+/**
+ * hadoop 文件打包下载 Service 实现类
+ *
+ * @author 管理员1
+ */
+@Service
+@Validated
+@Slf4j
+public class HadoopFileZipServiceImpl implements HadoopFileZipService {
+
+    /**
+     * 已经压缩过的文件扩展名，再次压缩几乎不能减小体积，只会消耗 CPU
+     */
+    private static final Set<String> COMPRESSED_EXTENSIONS = SetUtils.asSet(
+            "zip", "rar", "7z", "gz", "tgz", "bz2", "xz", "zst", "jar", "apk",
+            "jpg", "jpeg", "png", "gif", "webp", "heic",
+            "mp3", "aac", "m4a", "ogg", "flac",
+            "mp4", "m4v", "mkv", "mov", "avi", "webm",
+            "docx", "xlsx", "pptx", "pdf");
+
+    /**
+     * 写入压缩包时的缓冲区大小
+     */
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    @Resource
+    private HadoopFileMapper hadoopFileMapper;
+
+    @Resource
+    private HadoopFileService hadoopFileService;
+
+    @Resource
+    private HadoopProperties hadoopProperties;
+
+    /**
+     * 预读下一个文件的线程池，所有打包下载共用。线程都在使用时，由下载线程自己读取
+     */
+    private ThreadPoolExecutor prefetchExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = hadoopProperties.getZip().getPrefetchThreads();
+        prefetchExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new NamedThreadFactory("hadoop-file-zip-", false));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    @Override
+    public List<HadoopFileZipEntry> getZipEntries(Collection<Long> ids) {
+        // 1. 校验文件存在
+        List<HadoopFileDO> files = hadoopFileMapper.selectBatchIds(ids);
+        if (files.isEmpty() || files.size() != new HashSet<>(ids).size()) {
+            throw exception(HADOOP_FILE_NOT_EXISTS);
+        }
+
+        // 2. 逐个加入，文件夹展开为整棵子树
+        String userId = SecurityFrameworkUtils.getLoginUserId().toString();
+        List<HadoopFileZipEntry> entries = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (HadoopFileDO file : files) {
+            // 旧的分享、回收站中的文件名带有前缀，只保留最后一段；不同目录下的同名文件，追加 (n) 后缀
+            String name = generateUniqueName(names, file.getName().substring(file.getName().lastIndexOf("/") + 1));
+            if (!FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+                // 与单个文件下载一致：自己的文件，或者旧的分享文件
+                if (!userId.equals(file.getCreator())
+                        && !HadoopFileStatusEnum.SHARED.getStatus().equals(file.getStatus())) {
+                    throw exception(HADOOP_FILE_PERMISSION_DENIED);
+                }
+                entries.add(new HadoopFileZipEntry(name, file));
+            } else {
+                if (!userId.equals(file.getCreator())) {
+                    throw exception(HADOOP_FILE_PERMISSION_DENIED);
+                }
+                entries.add(new HadoopFileZipEntry(name + "/", file));
+                addDirectoryEntries(file, name, entries);
+            }
+            validateEntryCount(entries);
+        }
+        return entries;
+    }
+
+    /**
+     * 加入文件夹下的全部正常文件。查询结果按层级排序，父文件夹总是先于子文件加入
+     */
+    private void addDirectoryEntries(HadoopFileDO directory, String path, List<HadoopFileZipEntry> entries) {
+        Map<Long, String> directoryPaths = new HashMap<>();
+        directoryPaths.put(directory.getId(), path);
+        List<HadoopFileDO> files = hadoopFileMapper.selectListByTreePath(directory.getCreator(),
+                directory.getTreePath() + directory.getId() + "/");
+        for (HadoopFileDO file : files) {
+            String filePath = directoryPaths.get(file.getParentId()) + "/" + file.getName();
+            if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+                directoryPaths.put(file.getId(), filePath);
+                entries.add(new HadoopFileZipEntry(filePath + "/", file));
+            } else {
+                entries.add(new HadoopFileZipEntry(filePath, file));
+            }
+            validateEntryCount(entries);
+        }
+    }
+
+    private void validateEntryCount(List<HadoopFileZipEntry> entries) {
+        Integer maxEntries = hadoopProperties.getZip().getMaxEntries();
+        if (entries.size() > maxEntries) {
+            throw exception(HADOOP_FILE_ZIP_TOO_MANY, maxEntries);
+        }
+    }
+
+    private static String generateUniqueName(Set<String> names, String name) {
+        String uniqueName = name;
+        for (int i = 1; !names.add(uniqueName); i++) {
+            String extension = FileUtil.extName(name);
+            uniqueName = extension.isEmpty() ? name + " (" + i + ")"
+                    : FileUtil.mainName(name) + " (" + i + ")." + extension;
+        }
+        return uniqueName;
+    }
+
+    @Override
+    public void writeZip(List<HadoopFileZipEntry> entries, OutputStream outputStream) throws IOException {
+        // ZipOutputStream 在文件超过 4GB、条目超过 65535 个时，自动使用 ZIP64 格式
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+        int next = findNextFile(entries, 0);
+        CompletableFuture<InputStream> pending = next >= 0 ? prefetch(entries.get(next).getFile()) : null;
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                HadoopFileZipEntry entry = entries.get(i);
+                ZipEntry zipEntry = new ZipEntry(entry.getPath());
+                if (entry.getFile().getUpdateTime() != null) {
+                    zipEntry.setTime(LocalDateTimeUtil.toEpochMilli(entry.getFile().getUpdateTime()));
+                }
+                if (entry.isDirectory()) {
+                    zipOutputStream.putNextEntry(zipEntry);
+                    zipOutputStream.closeEntry();
+                    continue;
+                }
+
+                // 取出已预读的当前文件，并开始预读下一个文件
+                InputStream inputStream = join(pending);
+                next = findNextFile(entries, i + 1);
+                pending = next >= 0 ? prefetch(entries.get(next).getFile()) : null;
+
+                // 流式写入时 STORED 需要提前知道 CRC，因此已压缩的文件使用不压缩级别的 DEFLATE，效果等同于 STORED
+                zipOutputStream.setLevel(isCompressed(entry.getPath()) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+                zipOutputStream.putNextEntry(zipEntry);
+                try (InputStream input = inputStream) {
+                    IOUtils.copyLarge(input, zipOutputStream, buffer);
+                }
+                zipOutputStream.closeEntry();
+            }
+            zipOutputStream.finish();
+            outputStream.flush();
+        } finally {
+            // 写入失败时，关闭已预读的文件
+            if (pending != null) {
+                pending.thenAccept(IoUtil::close);
+            }
+        }
+    }
+
+    private static int findNextFile(List<HadoopFileZipEntry> entries, int fromIndex) {
+        for (int i = fromIndex; i < entries.size(); i++) {
+            if (!entries.get(i).isDirectory()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isCompressed(String path) {
+        return COMPRESSED_EXTENSIONS.contains(FileUtil.extName(path).toLowerCase());
+    }
+
+    private CompletableFuture<InputStream> prefetch(HadoopFileDO file) {
+        Supplier<InputStream> reader = () -> readAhead(file);
+        try {
+            return CompletableFuture.supplyAsync(reader, prefetchExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(reader.get());
+        }
+    }
+
+    /**
+     * 打开文件并预读开头的一段。不超过预读大小的文件整个读入并关闭连接，否则剩余部分继续从 HDFS 读取
+     */
+    private InputStream readAhead(HadoopFileDO file) {
+        long size = ObjUtil.defaultIfNull(file.getSize(), 0L);
+        if (size == 0) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        InputStream inputStream = hadoopFileService.getFileContent(file, 0, size);
+        try {
+            byte[] buffer = new byte[(int) Math.min(size, hadoopProperties.getZip().getReadAheadSize().toBytes())];
+            int length = IOUtils.read(inputStream, buffer);
+            if (length < buffer.length || length >= size) {
+                inputStream.close();
+                return new ByteArrayInputStream(buffer, 0, length);
+            }
+            return new SequenceInputStream(new ByteArrayInputStream(buffer, 0, length), inputStream);
+        } catch (IOException e) {
+            IoUtil.close(inputStream);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream join(CompletableFuture<InputStream> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ServiceException) {
+                throw (ServiceException) e.getCause();
+            }
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+}
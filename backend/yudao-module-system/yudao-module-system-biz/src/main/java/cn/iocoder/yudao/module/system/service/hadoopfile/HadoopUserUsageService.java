@@ -0,0 +1,69 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUserUsageDO;
+
+import java.util.Collection;
+
+/**
+ * hadoop 用户空间用量 Service 接口
+ *
+ * 用量随文件记录的插入、删除增量维护，读取和配额校验都是单行查询
+ *
+ * @author 管理员1
+ */
+public interface HadoopUserUsageService {
+
+    /**
+     * 获得用户的空间用量，不存在时返回用量为 0 的记录
+     *
+     * @param userId 用户编号
+     * @return 空间用量
+     */
+    HadoopUserUsageDO getUsage(Long userId);
+
+    /**
+     * 获得用户的空间配额（字节）
+     *
+     * @param usage 空间用量
+     * @return 空间配额
+     */
+    long getQuotaBytes(HadoopUserUsageDO usage);
+
+    /**
+     * 校验用户的剩余空间足够写入 bytes 字节
+     *
+     * @param userId 用户编号
+     * @param bytes 待写入的字节数
+     */
+    void validateQuota(Long userId, long bytes);
+
+    /**
+     * 文件记录插入后，计入文件创建者的用量
+     *
+     * @param file 文件
+     */
+    void addUsage(HadoopFileDO file);
+
+    /**
+     * 批量插入文件记录后，按创建者汇总计入用量，用于批量复制
+     *
+     * @param files 文件列表
+     */
+    void addUsage(Collection<HadoopFileDO> files);
+
+    /**
+     * 文件记录删除后，从文件创建者的用量中扣除
+     *
+     * @param file 文件
+     */
+    void subtractUsage(HadoopFileDO file);
+
+    /**
+     * 批量删除文件记录后，按创建者汇总扣除用量，用于批量彻底删除
+     *
+     * @param files 文件列表
+     */
+    void subtractUsage(Collection<HadoopFileDO> files);
+
+}
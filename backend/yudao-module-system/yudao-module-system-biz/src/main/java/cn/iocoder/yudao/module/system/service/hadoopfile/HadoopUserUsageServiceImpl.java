@@ -0,0 +1,103 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.io.unit.DataSizeUtil;
+import cn.hutool.core.util.ObjUtil;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUserUsageDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopUserUsageMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import javax.annotation.Resource;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.getSumValue;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.HADOOP_QUOTA_EXCEEDED;
+
+/**
+ * hadoop 用户空间用量 Service 实现类
+ *
+ * @author 管理员1
+ */
+@Service
+@Validated
+public class HadoopUserUsageServiceImpl implements HadoopUserUsageService {
+
+    @Resource
+    private HadoopUserUsageMapper hadoopUserUsageMapper;
+
+    @Resource
+    private HadoopProperties hadoopProperties;
+
+    @Override
+    public HadoopUserUsageDO getUsage(Long userId) {
+        HadoopUserUsageDO usage = hadoopUserUsageMapper.selectByUserId(userId);
+        if (usage == null) {
+            usage = HadoopUserUsageDO.builder().userId(userId).usedBytes(0L).fileCount(0L).build();
+        }
+        return usage;
+    }
+
+    @Override
+    public long getQuotaBytes(HadoopUserUsageDO usage) {
+        return usage.getQuotaBytes() != null ? usage.getQuotaBytes()
+                : hadoopProperties.getQuota().getDefaultQuota().toBytes();
+    }
+
+    @Override
+    public void validateQuota(Long userId, long bytes) {
+        if (!Boolean.TRUE.equals(hadoopProperties.getQuota().getEnable())) {
+            return;
+        }
+        // 只在写入前校验，并发写入可能少量超出配额，可以接受
+        HadoopUserUsageDO usage = getUsage(userId);
+        long remaining = Math.max(0, getQuotaBytes(usage) - usage.getUsedBytes());
+        if (bytes > remaining) {
+            throw exception(HADOOP_QUOTA_EXCEEDED, DataSizeUtil.format(remaining), DataSizeUtil.format(bytes));
+        }
+    }
+
+    @Override
+    public void addUsage(HadoopFileDO file) {
+        updateUsage(file, 1);
+    }
+
+    @Override
+    public void addUsage(Collection<HadoopFileDO> files) {
+        updateUsage(files, 1);
+    }
+
+    @Override
+    public void subtractUsage(Collection<HadoopFileDO> files) {
+        updateUsage(files, -1);
+    }
+
+    private void updateUsage(Collection<HadoopFileDO> files, int sign) {
+        Map<String, List<HadoopFileDO>> filesMap = files.stream()
+                .filter(file -> !FileTypeEnum.DIRECTORY.getType().equals(file.getType()))
+                .collect(Collectors.groupingBy(HadoopFileDO::getCreator));
+        filesMap.forEach((creator, list) -> hadoopUserUsageMapper.upsertUsageIncr(Long.valueOf(creator),
+                sign * getSumValue(list, file -> ObjUtil.defaultIfNull(file.getSize(), 0L), Long::sum, 0L),
+                sign * list.size()));
+    }
+
+    @Override
+    public void subtractUsage(HadoopFileDO file) {
+        updateUsage(file, -1);
+    }
+
+    private void updateUsage(HadoopFileDO file, int sign) {
+        if (FileTypeEnum.DIRECTORY.getType().equals(file.getType())) {
+            return;
+        }
+        long size = file.getSize() != null ? file.getSize() : 0L;
+        hadoopUserUsageMapper.upsertUsageIncr(Long.valueOf(file.getCreator()), sign * size, sign);
+    }
+
+}
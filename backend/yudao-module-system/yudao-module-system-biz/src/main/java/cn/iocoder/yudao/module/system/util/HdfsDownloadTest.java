@@ -1,37 +1,26 @@
 package cn.iocoder.yudao.module.system.util;
 
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.WebHdfsClient;
+
 import java.io.*;
 
 public class HdfsDownloadTest {
-    // HDFS服务器配置
-    private static final String NAMENODE_HOST = "localhost";
-    private static final int NAMENODE_PORT = 9870;
-    private static final String DATANODE_HOST = "localhost";
-    private static final int DATANODE_PORT = 9864;
-    private static final String USER = "hadoop-namenode";
-    private static final int TIMEOUT = 60000; // 60秒
-    private static final int MAX_RETRIES = 3;
 
     public static void main(String[] args) {
-        try {
-            // 1. 创建HDFS配置
-            HdfsUtils.HdfsConfig config = new HdfsUtils.HdfsConfig(
-                NAMENODE_HOST, NAMENODE_PORT,
-                DATANODE_HOST, DATANODE_PORT,
-                USER, TIMEOUT, MAX_RETRIES
-            );
-
+        // 1. 创建HDFS客户端，使用 HadoopProperties 的默认配置
+        try (WebHdfsClient hdfsClient = new WebHdfsClient(new HadoopProperties())) {
             // 2. 指定要下载的文件路径
             String hdfsPath = "/142/ww/性能测试(1).mp4";
             
             // 3. 检查文件是否存在
-            if (!HdfsUtils.exists(config, hdfsPath)) {
+            if (!hdfsClient.exists(hdfsPath)) {
                 System.out.println("文件不存在：" + hdfsPath);
                 return;
             }
 
             // 4. 获取文件输入流
-            try (InputStream inputStream = HdfsUtils.readFile(config, hdfsPath)) {
+            try (InputStream inputStream = hdfsClient.readFile(hdfsPath)) {
                 // 5. 创建本地文件
                 String localFilePath = "D:/test_download/性能测试(1).mp4";
                 File localFile = new File(localFilePath);
@@ -0,0 +1,277 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link AsyncDownloadWriter} 的单元测试，使用可控制是否可写的 {@link ServletOutputStream} 模拟客户端
+ *
+ * @author 管理员1
+ */
+public class AsyncDownloadWriterTest extends BaseMockitoUnitTest {
+
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private AsyncContext asyncContext;
+    @Mock
+    private HadoopTransferPermit permit;
+
+    private final HadoopProperties.Download config = new HadoopProperties.Download();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private FakeOutputStream out;
+
+    private AsyncDownloadWriter writer;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        config.setIoThreads(2);
+        config.setChunkSize(DataSize.ofKilobytes(1));
+        config.setBufferSize(DataSize.ofKilobytes(4));
+        // mock 方法
+        when(request.startAsync(same(request), same(response))).thenReturn(asyncContext);
+        doAnswer(invocation -> {
+            completed.countDown();
+            return null;
+        }).when(asyncContext).complete();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void testWrite_multipleParts() throws Exception {
+        // 准备参数：multipart/byteranges 的分隔符和区间
+        byte[] body = randomBytes(10 * 1024 + 7);
+        InputStreamSource head = () -> new ByteArrayInputStream("--boundary\r\n".getBytes());
+        InputStreamSource tail = () -> new ByteArrayInputStream("\r\n--boundary--".getBytes());
+        mockOutputStream(false);
+        writer = new AsyncDownloadWriter(config);
+
+        // 调用
+        writer.write(request, response, Arrays.asList(head, () -> new ByteArrayInputStream(body), tail), permit);
+        // 断言：按顺序写出各个部分，结束后释放传输许可
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertArrayEquals(concat("--boundary\r\n".getBytes(), body, "\r\n--boundary--".getBytes()), out.toByteArray());
+        verify(asyncContext).setTimeout(eq(0L));
+        verify(permit).close();
+    }
+
+    @Test
+    public void testWrite_slowClient() throws Exception {
+        // 准备参数：客户端每写出一块后变为不可写，需要等容器回调
+        byte[] body = randomBytes(64 * 1024);
+        CountingInputStream source = new CountingInputStream(new ByteArrayInputStream(body));
+        mockOutputStream(true);
+        writer = new AsyncDownloadWriter(config);
+
+        // 调用
+        writer.write(request, response, Collections.singletonList(() -> source), permit);
+        // 断言：客户端不可写时暂停读取，已读取未写出的数据不超过缓冲区大小
+        Thread.sleep(200);
+        assertTrue(source.count.get() - out.size() <= config.getBufferSize().toBytes());
+        // 调用：客户端持续变为可写
+        while (!completed.await(1, TimeUnit.MILLISECONDS)) {
+            out.resume();
+        }
+        // 断言
+        assertArrayEquals(body, out.toByteArray());
+        verify(permit).close();
+    }
+
+    @Test
+    public void testWrite_throttled() throws Exception {
+        // 准备参数
+        byte[] body = randomBytes(3 * 1024);
+        mockOutputStream(false);
+        writer = new AsyncDownloadWriter(config);
+        // mock 方法：超出带宽，每块之后需要等待 20 毫秒
+        when(permit.reserve(anyLong())).thenReturn(TimeUnit.MILLISECONDS.toNanos(20));
+
+        // 调用
+        writer.write(request, response, Collections.singletonList(() -> new ByteArrayInputStream(body)), permit);
+        // 断言：延迟后继续读取，最终完整写出
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertArrayEquals(body, out.toByteArray());
+        verify(permit, times(3)).reserve(eq(1024L));
+    }
+
+    @Test
+    public void testWrite_readFail() throws Exception {
+        // 准备参数：读取 HDFS 失败
+        mockOutputStream(false);
+        writer = new AsyncDownloadWriter(config);
+
+        // 调用
+        writer.write(request, response, Collections.singletonList(() -> {
+            throw new IOException("DataNode 不可用");
+        }), permit);
+        // 断言：还未写出任何数据，返回错误状态码
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, out.size());
+        verify(response).reset();
+        verify(response).setStatus(eq(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+        verify(permit).close();
+    }
+
+    @Test
+    public void testWrite_stalled() throws Exception {
+        // 准备参数：客户端一直不可写
+        config.setStallTimeout(Duration.ofMillis(100));
+        mockOutputStream(true);
+        out.ready = false;
+        writer = new AsyncDownloadWriter(config);
+
+        // 调用
+        writer.write(request, response, Collections.singletonList(() -> new ByteArrayInputStream(new byte[1024])), permit);
+        // 断言：停滞超时后断开连接
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, out.size());
+        verify(permit).close();
+    }
+
+    private void mockOutputStream(boolean blockAfterWrite) throws IOException {
+        out = new FakeOutputStream(blockAfterWrite);
+        when(response.getOutputStream()).thenReturn(out);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(1).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            result.write(part, 0, part.length);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * 模拟客户端的输出流。设置 {@link WriteListener} 时，与容器一样立即回调一次
+     */
+    private static class FakeOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        /**
+         * 每次写出后是否变为不可写，模拟较慢的客户端
+         */
+        private final boolean blockAfterWrite;
+        private volatile boolean ready = true;
+        private volatile WriteListener listener;
+
+        private FakeOutputStream(boolean blockAfterWrite) {
+            this.blockAfterWrite = blockAfterWrite;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.listener = writeListener;
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            bytes.write(b, off, len);
+            if (blockAfterWrite) {
+                ready = false;
+            }
+        }
+
+        private void resume() throws IOException {
+            ready = true;
+            listener.onWritePossible();
+        }
+
+        private synchronized int size() {
+            return bytes.size();
+        }
+
+        private synchronized byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+    }
+
+    /**
+     * 统计已读取字节数的输入流
+     */
+    private static class CountingInputStream extends InputStream {
+
+        private final InputStream in;
+        private final AtomicLong count = new AtomicLong();
+
+        private CountingInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+
+    }
+
+}
@@ -0,0 +1,141 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link DataNodeRouter} 的单元测试
+ *
+ * @author 管理员1
+ */
+public class DataNodeRouterTest {
+
+    private static final URI LOCATION = URI.create("http://dn1:9864/webhdfs/v1/1/a.txt?op=OPEN&namenoderpcaddress=nn:8020&offset=0");
+
+    private HadoopProperties properties;
+
+    private DataNodeRouter router;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new HadoopProperties();
+        // 测试期间不执行健康检查
+        properties.getDataNode().setHealthCheckInterval(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (router != null) {
+            router.close();
+        }
+    }
+
+    @Test
+    public void testRoute_mapped() {
+        // 准备参数：按主机名映射，以及按 主机名:端口 映射、未指定端口
+        properties.getDataNode().getMappings().put("dn1", "10.0.0.1:9864");
+        properties.getDataNode().getMappings().put("dn2:9864", "10.0.0.2");
+        router = new DataNodeRouter(properties);
+
+        // 调用
+        List<URI> candidates = router.route(LOCATION);
+        // 断言：首选 NameNode 选择的 DataNode，保留路径和参数；其次是其它 DataNode
+        assertEquals(Arrays.asList(
+                URI.create("http://10.0.0.1:9864/webhdfs/v1/1/a.txt?op=OPEN&namenoderpcaddress=nn:8020&offset=0"),
+                URI.create("http://10.0.0.2:9864/webhdfs/v1/1/a.txt?op=OPEN&namenoderpcaddress=nn:8020&offset=0")),
+                candidates);
+    }
+
+    @Test
+    public void testRoute_dataNodeHost() {
+        // 准备参数：未配置映射时，使用默认主机地址替换主机名
+        properties.setDataNodeHost("192.168.1.10");
+        router = new DataNodeRouter(properties);
+
+        // 调用，并断言
+        assertEquals(Arrays.asList(
+                URI.create("http://192.168.1.10:9864/webhdfs/v1/1/a.txt?op=OPEN&namenoderpcaddress=nn:8020&offset=0")),
+                router.route(LOCATION));
+    }
+
+    @Test
+    public void testRoute_unmapped() {
+        // 准备参数：都没有配置时，直接使用 NameNode 返回的地址
+        router = new DataNodeRouter(properties);
+
+        // 调用，并断言
+        assertEquals(Arrays.asList(LOCATION), router.route(LOCATION));
+    }
+
+    @Test
+    public void testMarkFailure_failover() {
+        // 准备参数
+        properties.getDataNode().getMappings().put("dn1", "10.0.0.1:9864");
+        properties.getDataNode().getMappings().put("dn2", "10.0.0.2:9864");
+        properties.getDataNode().setFailureThreshold(2);
+        router = new DataNodeRouter(properties);
+        URI preferred = router.route(LOCATION).get(0);
+
+        // 调用，并断言：失败一次，未达到阈值，仍然首选
+        router.markFailure(preferred, new IOException("Connection refused"));
+        assertEquals("10.0.0.1", router.route(LOCATION).get(0).getHost());
+        // 调用，并断言：连续失败达到阈值，切换到其它 DataNode，不可用的排在最后
+        router.markFailure(preferred, new IOException("Connection refused"));
+        List<URI> candidates = router.route(LOCATION);
+        assertEquals(Arrays.asList("10.0.0.2", "10.0.0.1"), Arrays.asList(candidates.get(0).getHost(),
+                candidates.get(1).getHost()));
+        // 调用，并断言：请求成功后恢复
+        router.markSuccess(preferred);
+        assertEquals("10.0.0.1", router.route(LOCATION).get(0).getHost());
+    }
+
+    @Test
+    public void testMarkSuccess_resetFailures() {
+        // 准备参数
+        properties.getDataNode().getMappings().put("dn1", "10.0.0.1:9864");
+        properties.getDataNode().getMappings().put("dn2", "10.0.0.2:9864");
+        properties.getDataNode().setFailureThreshold(2);
+        router = new DataNodeRouter(properties);
+        URI preferred = router.route(LOCATION).get(0);
+
+        // 调用：失败之间有成功的请求，不算连续失败
+        router.markFailure(preferred, new IOException("Read timed out"));
+        router.markSuccess(preferred);
+        router.markFailure(preferred, new IOException("Read timed out"));
+        // 断言
+        assertEquals("10.0.0.1", router.route(LOCATION).get(0).getHost());
+    }
+
+    @Test
+    public void testRoute_roundRobin() {
+        // 准备参数：首选 DataNode 不可用，其余两个轮流作为第一候选
+        properties.getDataNode().getMappings().put("dn1", "10.0.0.1:9864");
+        properties.getDataNode().getMappings().put("dn2", "10.0.0.2:9864");
+        properties.getDataNode().getMappings().put("dn3", "10.0.0.3:9864");
+        properties.getDataNode().setFailureThreshold(1);
+        router = new DataNodeRouter(properties);
+        router.markFailure(router.route(LOCATION).get(0), new IOException("Connection refused"));
+
+        // 调用
+        List<URI> first = router.route(LOCATION);
+        List<URI> second = router.route(LOCATION);
+        // 断言：分散到不同的 DataNode，不可用的首选 DataNode 仍作为最后的候选
+        assertNotEquals(first.get(0), second.get(0));
+        assertEquals(new HashSet<>(Arrays.asList("10.0.0.2", "10.0.0.3")),
+                new HashSet<>(Arrays.asList(first.get(0).getHost(), second.get(0).getHost())));
+        assertEquals("10.0.0.1", first.get(2).getHost());
+        assertEquals("10.0.0.1", second.get(2).getHost());
+    }
+
+}
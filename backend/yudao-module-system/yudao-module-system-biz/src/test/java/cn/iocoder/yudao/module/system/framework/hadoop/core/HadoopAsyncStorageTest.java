@@ -0,0 +1,90 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link HadoopAsyncStorage} 的单元测试
+ *
+ * @author 管理员1
+ */
+public class HadoopAsyncStorageTest extends BaseMockitoUnitTest {
+
+    @Mock
+    private HadoopStorage storage;
+
+    private HadoopAsyncStorage asyncStorage;
+
+    @BeforeEach
+    public void setUp() {
+        HadoopProperties properties = new HadoopProperties();
+        properties.setMaxRetries(2);
+        properties.getAsync().setRetryInterval(Duration.ofMillis(10));
+        asyncStorage = new HadoopAsyncStorage(storage, properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        asyncStorage.close();
+    }
+
+    @Test
+    public void testCreateFileInCallerThread_success() throws Exception {
+        // mock 方法
+        InputStreamSource source = () -> new ByteArrayInputStream(new byte[3]);
+        when(storage.createFile(eq("/1/a.txt"), same(source), eq(3L))).thenReturn(true);
+
+        // 调用
+        asyncStorage.createFileInCallerThread("/1/a.txt", source, 3);
+        // 断言
+        verify(storage).createFile(eq("/1/a.txt"), same(source), eq(3L));
+    }
+
+    @Test
+    public void testCreateFileInCallerThread_failFast() throws Exception {
+        // mock 方法：写入失败
+        InputStreamSource source = () -> new ByteArrayInputStream(new byte[3]);
+        when(storage.createFile(eq("/1/a.txt"), same(source), eq(3L))).thenThrow(new IOException("DataNode 不可用"));
+
+        // 调用，并断言：直接抛出，不在调用线程中等待重试
+        assertThrows(IOException.class, () -> asyncStorage.createFileInCallerThread("/1/a.txt", source, 3));
+        verify(storage, times(1)).createFile(anyString(), any(InputStreamSource.class), anyLong());
+    }
+
+    @Test
+    public void testCreateFileInCallerThread_returnFalse() throws Exception {
+        // mock 方法
+        InputStreamSource source = () -> new ByteArrayInputStream(new byte[3]);
+        when(storage.createFile(eq("/1/a.txt"), same(source), eq(3L))).thenReturn(false);
+
+        // 调用，并断言
+        assertThrows(IOException.class, () -> asyncStorage.createFileInCallerThread("/1/a.txt", source, 3));
+        verify(storage, times(1)).createFile(anyString(), any(InputStreamSource.class), anyLong());
+    }
+
+    @Test
+    public void testExecute_retryable() throws Exception {
+        // mock 方法：前两次失败，第三次成功
+        when(storage.exists(eq("/1/a.txt"))).thenThrow(new IOException("超时"), new IOException("超时"))
+                .thenReturn(true);
+
+        // 调用，并断言：元数据操作在线程池中由定时器重试，不阻塞调用线程
+        assertTrue(asyncStorage.exists("/1/a.txt").get(5, TimeUnit.SECONDS));
+        verify(storage, times(3)).exists(eq("/1/a.txt"));
+    }
+
+}
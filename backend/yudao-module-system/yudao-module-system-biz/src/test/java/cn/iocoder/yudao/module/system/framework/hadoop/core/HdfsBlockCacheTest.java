@@ -0,0 +1,159 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.hutool.core.io.IoUtil;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link HdfsBlockCache} 的单元测试，块大小 16 字节，文件 155 字节，最后一个块不满
+ *
+ * @author 管理员1
+ */
+public class HdfsBlockCacheTest extends BaseMockitoUnitTest {
+
+    private static final String PATH = "/.blob/ab/abcd";
+
+    @TempDir
+    public Path tempDir;
+
+    @Mock
+    private HadoopStorage hdfsClient;
+
+    private final byte[] content = new byte[155];
+
+    private HdfsBlockCache blockCache;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        new Random(1).nextBytes(content);
+        // mock 方法：按范围读取文件内容，超出文件末尾时只返回剩余部分
+        doAnswer(invocation -> {
+            int offset = (int) Math.min(invocation.<Long>getArgument(1), content.length);
+            long length = invocation.getArgument(2);
+            int end = length < 0 ? content.length : (int) Math.min(content.length, offset + length);
+            return new ByteArrayInputStream(content, offset, end - offset);
+        }).when(hdfsClient).readFile(eq(PATH), anyLong(), anyLong());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (blockCache != null) {
+            blockCache.close();
+        }
+    }
+
+    @Test
+    public void testReadFile_admitOnSecondMiss() throws IOException {
+        // 准备参数：缓存 8 个块
+        blockCache = createBlockCache(true, 8);
+
+        // 调用，并断言：第一次未命中，直接从 HDFS 读取，不写入缓存
+        assertArrayEquals(expected(10, 30), read("v1", 10, 30));
+        verify(hdfsClient, times(1)).readFile(eq(PATH), eq(0L), eq(48L));
+        // 调用，并断言：第二次未命中，写入缓存。连续未命中的块共用一个读取流
+        assertArrayEquals(expected(10, 30), read("v1", 10, 30));
+        verify(hdfsClient, times(2)).readFile(eq(PATH), eq(0L), eq(48L));
+        // 调用，并断言：命中缓存，不再读取 HDFS。块内的其它范围同样命中
+        assertArrayEquals(expected(10, 30), read("v1", 10, 30));
+        assertArrayEquals(expected(17, 20), read("v1", 17, 20));
+        verify(hdfsClient, times(2)).readFile(eq(PATH), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testReadFile_versionChanged() throws IOException {
+        // 准备参数：旧版本已写入缓存
+        blockCache = createBlockCache(true, 8);
+        read("v1", 0, 16);
+        read("v1", 0, 16);
+
+        // 调用，并断言：新版本不命中旧版本的块
+        assertArrayEquals(expected(0, 16), read("v2", 0, 16));
+        verify(hdfsClient, times(3)).readFile(eq(PATH), eq(0L), eq(16L));
+    }
+
+    @Test
+    public void testReadFile_lastBlock() throws IOException {
+        // 准备参数
+        blockCache = createBlockCache(true, 8);
+
+        // 调用，并断言：超出文件末尾时只返回剩余部分，最后一个不满的块同样可以缓存
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(expected(150, 5), read("v1", 150, 100));
+        }
+        verify(hdfsClient, times(2)).readFile(eq(PATH), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testReadFile_evict() throws IOException {
+        // 准备参数：只有 4 个槽位，少于文件前 9 个完整的块
+        blockCache = createBlockCache(true, 4);
+
+        // 调用，并断言：逐块读取多轮，淘汰后回收的槽位被复用，读到的内容仍然正确
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 9; i++) {
+                assertArrayEquals(expected(i * 16, 16), read("v1", i * 16, 16));
+            }
+        }
+    }
+
+    @Test
+    public void testReadFile_toEnd() throws IOException {
+        // 准备参数
+        blockCache = createBlockCache(true, 8);
+
+        // 调用，并断言：读取到文件末尾时，不经过缓存
+        assertArrayEquals(expected(5, 150), read("v1", 5, -1));
+        assertArrayEquals(expected(5, 150), read("v1", 5, -1));
+        verify(hdfsClient, times(2)).readFile(eq(PATH), eq(5L), eq(-1L));
+    }
+
+    @Test
+    public void testReadFile_disabled() throws IOException {
+        // 准备参数
+        blockCache = createBlockCache(false, 8);
+
+        // 调用，并断言：未开启时，每次都直接读取 HDFS
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(expected(10, 30), read("v1", 10, 30));
+        }
+        verify(hdfsClient, times(3)).readFile(eq(PATH), eq(10L), eq(30L));
+    }
+
+    private HdfsBlockCache createBlockCache(boolean enable, int slotCount) throws IOException {
+        HadoopProperties.BlockCache config = new HadoopProperties.BlockCache();
+        config.setEnable(enable);
+        config.setDir(tempDir.toString());
+        config.setBlockSize(DataSize.ofBytes(16));
+        config.setSize(DataSize.ofBytes(16L * slotCount));
+        return new HdfsBlockCache(hdfsClient, config);
+    }
+
+    private byte[] read(String version, long offset, long length) throws IOException {
+        try (InputStream in = blockCache.readFile(PATH, version, offset, length)) {
+            return IoUtil.readBytes(in);
+        }
+    }
+
+    private byte[] expected(int offset, int length) {
+        return Arrays.copyOfRange(content, offset, offset + length);
+    }
+
+}
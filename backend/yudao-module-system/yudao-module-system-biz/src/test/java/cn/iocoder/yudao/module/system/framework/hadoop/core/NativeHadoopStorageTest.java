@@ -0,0 +1,112 @@
+package cn.iocoder.yudao.module.system.framework.hadoop.core;
+
+import cn.hutool.core.io.IoUtil;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link NativeHadoopStorage} 的单元测试，使用 LOCAL 存储类型
+ *
+ * @author 管理员1
+ */
+public class NativeHadoopStorageTest {
+
+    @TempDir
+    public Path tempDir;
+
+    private NativeHadoopStorage storage;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        HadoopProperties properties = new HadoopProperties();
+        properties.getStorage().setType(HadoopProperties.StorageType.LOCAL);
+        properties.getStorage().setLocalDir(tempDir.toString());
+        storage = new NativeHadoopStorage(properties);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        storage.close();
+    }
+
+    @Test
+    public void testCreateFile_mappedToLocalDir() throws IOException {
+        // 调用
+        storage.createFile("/1/a.txt", toStream("hello"));
+        // 断言
+        assertTrue(storage.exists("/1/a.txt"));
+        assertTrue(tempDir.resolve("1").resolve("a.txt").toFile().isFile());
+        assertEquals(5, storage.getFileInfo("/1/a.txt").getLength());
+        assertNull(storage.getFileInfo("/1/b.txt"));
+    }
+
+    @Test
+    public void testConcat_appendFallback() throws IOException {
+        // 准备参数
+        storage.createFile("/.upload/1/0", toStream("chunk0-"));
+        storage.createFile("/.upload/1/1", toStream("chunk1-"));
+        storage.createFile("/.upload/1/2", toStream("chunk2"));
+
+        // 调用：本地文件系统不支持 concat，改为追加写入
+        storage.concat("/.upload/1/0", Arrays.asList("/.upload/1/1", "/.upload/1/2"));
+        // 断言：按顺序合并，源文件被删除
+        assertEquals("chunk0-chunk1-chunk2", readString(storage.readFile("/.upload/1/0")));
+        assertFalse(storage.exists("/.upload/1/1"));
+        assertFalse(storage.exists("/.upload/1/2"));
+    }
+
+    @Test
+    public void testReadFile_range() throws IOException {
+        // 准备参数
+        storage.createFile("/1/a.txt", toStream("0123456789"));
+
+        // 调用，并断言：pread 读取中间一段
+        assertEquals("2345", readString(storage.readFile("/1/a.txt", 2, 4)));
+        // 调用，并断言：长度为负数时读到文件末尾
+        assertEquals("789", readString(storage.readFile("/1/a.txt", 7, -1)));
+        // 调用，并断言：超出文件末尾时只返回剩余部分
+        assertEquals("89", readString(storage.readFile("/1/a.txt", 8, 100)));
+    }
+
+    @Test
+    public void testReadFile_rangeLargerThanPread() throws IOException {
+        // 准备参数：超过 pread 最大长度，走 seek 后顺序读
+        byte[] content = new byte[3 * 1024 * 1024];
+        new Random(1).nextBytes(content);
+        storage.createFile("/1/large.bin", new ByteArrayInputStream(content));
+        int offset = 1024 * 1024 + 7;
+        int length = 1024 * 1024 + 13;
+
+        // 调用
+        byte[] result;
+        try (InputStream in = storage.readFile("/1/large.bin", offset, length)) {
+            result = IoUtil.readBytes(in);
+        }
+        // 断言
+        assertArrayEquals(Arrays.copyOfRange(content, offset, offset + length), result);
+    }
+
+    private static InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            return IoUtil.read(stream, StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,252 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.map.MapUtil;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileBlobDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileBlobMapper;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopAsyncStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.InputStreamSource;
+
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomLongId;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.HADOOP_UPLOAD_FAIL;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link HadoopFileBlobServiceImpl} 的单元测试
+ *
+ * @author 管理员1
+ */
+@Import({HadoopFileBlobServiceImpl.class, HadoopProperties.class})
+public class HadoopFileBlobServiceImplTest extends BaseDbUnitTest {
+
+    /**
+     * "hello" 的 SHA-256
+     */
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Resource
+    private HadoopFileBlobServiceImpl hadoopFileBlobService;
+
+    @Resource
+    private HadoopFileBlobMapper hadoopFileBlobMapper;
+
+    @MockBean
+    private HadoopStorage hdfsClient;
+    @MockBean
+    private HadoopAsyncStorage hadoopAsyncStorage;
+
+    @Test
+    public void testCreateBlob_new() throws Exception {
+        // mock 方法：写入时读完数据，计算 SHA-256
+        mockCreateFile();
+        when(hdfsClient.mv(startsWith("/.blob/.tmp/"), eq("/.blob/2c/" + HELLO_SHA256))).thenReturn(true);
+
+        // 调用
+        HadoopFileBlobDO blob = hadoopFileBlobService.createBlob(toSource("hello"), 5);
+        // 断言
+        HadoopFileBlobDO dbBlob = hadoopFileBlobMapper.selectById(blob.getId());
+        assertEquals(HELLO_SHA256, dbBlob.getSha256());
+        assertEquals(5L, dbBlob.getSize());
+        assertEquals("/.blob/2c/" + HELLO_SHA256, dbBlob.getPath());
+        assertEquals(1, dbBlob.getRefCount());
+    }
+
+    @Test
+    public void testCreateBlob_exists() throws Exception {
+        // mock 数据
+        HadoopFileBlobDO dbBlob = insertBlob(HELLO_SHA256, 5L, 1);
+        // mock 方法
+        mockCreateFile();
+
+        // 调用
+        HadoopFileBlobDO blob = hadoopFileBlobService.createBlob(toSource("hello"), 5);
+        // 断言：复用已有内容，删除本次写入的临时文件
+        assertEquals(dbBlob.getId(), blob.getId());
+        assertEquals(2, hadoopFileBlobMapper.selectById(dbBlob.getId()).getRefCount());
+        verify(hdfsClient).delete(startsWith("/.blob/.tmp/"), eq(false));
+        verify(hdfsClient, never()).mv(anyString(), anyString());
+    }
+
+    @Test
+    public void testCreateBlob_writeFail() throws Exception {
+        // mock 方法
+        doThrow(new IllegalStateException("写入失败")).when(hadoopAsyncStorage)
+                .createFileInCallerThread(anyString(), any(), anyLong());
+
+        // 调用，并断言
+        assertServiceException(() -> hadoopFileBlobService.createBlob(toSource("hello"), 5), HADOOP_UPLOAD_FAIL);
+        verify(hdfsClient).delete(startsWith("/.blob/.tmp/"), eq(false));
+        assertEquals(0, hadoopFileBlobMapper.selectCount());
+    }
+
+    @Test
+    public void testCreateBlob_fromPath() throws Exception {
+        // mock 方法：读取合并后的文件，计算 SHA-256
+        when(hdfsClient.readFile(eq("/.upload/1/0"))).thenReturn(IoUtil.toStream("hello", StandardCharsets.UTF_8));
+        when(hdfsClient.mv(eq("/.upload/1/0"), eq("/.blob/2c/" + HELLO_SHA256))).thenReturn(true);
+
+        // 调用
+        HadoopFileBlobDO blob = hadoopFileBlobService.createBlob("/.upload/1/0", 5);
+        // 断言
+        HadoopFileBlobDO dbBlob = hadoopFileBlobMapper.selectById(blob.getId());
+        assertEquals(HELLO_SHA256, dbBlob.getSha256());
+        assertEquals("/.blob/2c/" + HELLO_SHA256, dbBlob.getPath());
+        assertEquals(1, dbBlob.getRefCount());
+    }
+
+    @Test
+    public void testCreateBlob_fromPathExists() throws Exception {
+        // mock 数据
+        HadoopFileBlobDO dbBlob = insertBlob(HELLO_SHA256, 5L, 1);
+        // mock 方法
+        when(hdfsClient.readFile(eq("/.upload/1/0"))).thenReturn(IoUtil.toStream("hello", StandardCharsets.UTF_8));
+
+        // 调用
+        HadoopFileBlobDO blob = hadoopFileBlobService.createBlob("/.upload/1/0", 5);
+        // 断言：复用已有内容，删除合并后的文件
+        assertEquals(dbBlob.getId(), blob.getId());
+        assertEquals(2, hadoopFileBlobMapper.selectById(dbBlob.getId()).getRefCount());
+        verify(hdfsClient).delete(eq("/.upload/1/0"), eq(false));
+        verify(hdfsClient, never()).mv(anyString(), anyString());
+    }
+
+    @Test
+    public void testAcquireBlob_success() {
+        // mock 数据
+        HadoopFileBlobDO dbBlob = insertBlob(HELLO_SHA256, 5L, 1);
+
+        // 调用：SHA-256 不区分大小写
+        HadoopFileBlobDO blob = hadoopFileBlobService.acquireBlob(HELLO_SHA256.toUpperCase(), 5);
+        // 断言
+        assertEquals(dbBlob.getId(), blob.getId());
+        assertEquals(2, hadoopFileBlobMapper.selectById(dbBlob.getId()).getRefCount());
+        // 调用，并断言：大小不一致视为不同的内容
+        assertNull(hadoopFileBlobService.acquireBlob(HELLO_SHA256, 6));
+    }
+
+    @Test
+    public void testAcquireBlob_refCountZero() {
+        // mock 数据：引用计数已归零，正在被删除
+        HadoopFileBlobDO dbBlob = insertBlob(HELLO_SHA256, 5L, 0);
+
+        // 调用，并断言
+        assertNull(hadoopFileBlobService.acquireBlob(HELLO_SHA256, 5));
+        assertEquals(0, hadoopFileBlobMapper.selectById(dbBlob.getId()).getRefCount());
+    }
+
+    @Test
+    public void testRetainBlob() {
+        // mock 数据
+        HadoopFileBlobDO dbBlob = insertBlob(HELLO_SHA256, 5L, 1);
+
+        // 调用
+        hadoopFileBlobService.retainBlob(dbBlob.getId(), 3);
+        // 断言
+        assertEquals(4, hadoopFileBlobMapper.selectById(dbBlob.getId()).getRefCount());
+    }
+
+    @Test
+    public void testRetainBlob_notExists() {
+        assertServiceException(() -> hadoopFileBlobService.retainBlob(randomLongId()), HADOOP_UPLOAD_FAIL);
+    }
+
+    @Test
+    public void testReleaseBlob() throws Exception {
+        // mock 数据
+        HadoopFileBlobDO dbBlob = insertBlob(HELLO_SHA256, 5L, 2);
+
+        // 调用：还有其它引用，不删除
+        hadoopFileBlobService.releaseBlob(dbBlob.getId());
+        // 断言
+        assertEquals(1, hadoopFileBlobMapper.selectById(dbBlob.getId()).getRefCount());
+        verify(hdfsClient, never()).delete(anyString(), anyBoolean());
+
+        // mock 方法
+        when(hdfsClient.mv(eq(dbBlob.getPath()), startsWith(dbBlob.getPath() + ".deleted."))).thenReturn(true);
+        // 调用：引用归零，删除记录，改名后删除 HDFS 上的内容
+        hadoopFileBlobService.releaseBlob(dbBlob.getId());
+        // 断言：删除的是改名后的路径，原路径可以被再次上传的相同内容使用
+        assertNull(hadoopFileBlobMapper.selectById(dbBlob.getId()));
+        verify(hdfsClient).delete(startsWith(dbBlob.getPath() + ".deleted."), eq(false));
+        verify(hdfsClient, never()).delete(eq(dbBlob.getPath()), anyBoolean());
+    }
+
+    @Test
+    public void testReleaseBlob_renameFail() throws Exception {
+        // mock 数据
+        HadoopFileBlobDO dbBlob = insertBlob(HELLO_SHA256, 5L, 1);
+        // mock 方法
+        when(hdfsClient.mv(anyString(), anyString())).thenReturn(false);
+
+        // 调用
+        hadoopFileBlobService.releaseBlob(dbBlob.getId());
+        // 断言：记录已删除，内容保留在原路径，之后上传相同的内容时复用
+        assertNull(hadoopFileBlobMapper.selectById(dbBlob.getId()));
+        verify(hdfsClient, never()).delete(anyString(), anyBoolean());
+    }
+
+    @Test
+    public void testReleaseBlobs() throws Exception {
+        // mock 数据
+        HadoopFileBlobDO dbBlob01 = insertBlob(HELLO_SHA256, 5L, 2);
+        HadoopFileBlobDO dbBlob02 = insertBlob(HELLO_SHA256, 6L, 3);
+        // mock 方法
+        when(hdfsClient.mv(eq(dbBlob01.getPath()), startsWith(dbBlob01.getPath() + ".deleted."))).thenReturn(true);
+
+        // 调用
+        List<String> paths = hadoopFileBlobService.releaseBlobs(MapUtil.<Long, Integer>builder()
+                .put(dbBlob01.getId(), 2).put(dbBlob02.getId(), 2).put(randomLongId(), 1).build());
+        // 断言：只返回引用归零、改名后的路径，由调用方删除
+        assertEquals(1, paths.size());
+        assertTrue(paths.get(0).startsWith(dbBlob01.getPath() + ".deleted."));
+        assertNull(hadoopFileBlobMapper.selectById(dbBlob01.getId()));
+        assertEquals(1, hadoopFileBlobMapper.selectById(dbBlob02.getId()).getRefCount());
+        verify(hdfsClient, never()).delete(anyString(), anyBoolean());
+    }
+
+    @Test
+    public void testReleaseBlobs_notEnough() {
+        // mock 数据
+        HadoopFileBlobDO dbBlob = insertBlob(HELLO_SHA256, 5L, 1);
+
+        // 调用：引用计数不足时不更新，避免减为负数
+        List<String> paths = hadoopFileBlobService.releaseBlobs(Collections.singletonMap(dbBlob.getId(), 2));
+        // 断言
+        assertTrue(paths.isEmpty());
+        assertEquals(1, hadoopFileBlobMapper.selectById(dbBlob.getId()).getRefCount());
+    }
+
+    private void mockCreateFile() throws Exception {
+        doAnswer(invocation -> {
+            InputStreamSource source = invocation.getArgument(1);
+            IoUtil.readBytes(source.getInputStream());
+            return null;
+        }).when(hadoopAsyncStorage).createFileInCallerThread(startsWith("/.blob/.tmp/"), any(), eq(5L));
+    }
+
+    private HadoopFileBlobDO insertBlob(String sha256, Long size, Integer refCount) {
+        HadoopFileBlobDO blob = HadoopFileBlobDO.builder().sha256(sha256).size(size)
+                .path(hadoopFileBlobService.buildBlobPath(sha256) + "-" + size).refCount(refCount).build();
+        hadoopFileBlobMapper.insert(blob);
+        return blob;
+    }
+
+    private static InputStreamSource toSource(String content) {
+        return () -> IoUtil.toStream(content, StandardCharsets.UTF_8);
+    }
+
+}
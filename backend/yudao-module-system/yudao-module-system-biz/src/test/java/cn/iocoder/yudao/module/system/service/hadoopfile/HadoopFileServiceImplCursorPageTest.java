@@ -0,0 +1,196 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.codec.Base64;
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileCursorPageReqVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileCursorPageRespVO;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileRespVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopAsyncStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HdfsBlockCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.HADOOP_FILE_CURSOR_INVALID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * {@link HadoopFileServiceImpl} 的游标分页单元测试，在 H2 上执行 (type, 排序字段, id) 的定位条件
+ *
+ * @author 管理员1
+ */
+@Import({HadoopFileServiceImpl.class, HadoopProperties.class})
+public class HadoopFileServiceImplCursorPageTest extends BaseDbUnitTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Resource
+    private HadoopFileServiceImpl hadoopFileService;
+
+    @Resource
+    private HadoopFileMapper hadoopFileMapper;
+
+    @MockBean
+    private HadoopFileBlobService hadoopFileBlobService;
+    @MockBean
+    private HadoopFileListCacheService hadoopFileListCacheService;
+    @MockBean
+    private HadoopUserUsageService hadoopUserUsageService;
+    @MockBean
+    private HadoopFileAggregateService hadoopFileAggregateService;
+    @MockBean
+    private HadoopFileTrashService hadoopFileTrashService;
+    @MockBean
+    private HadoopFileTransferService hadoopFileTransferService;
+    @MockBean
+    private HadoopStorage hdfsClient;
+    @MockBean
+    private HadoopAsyncStorage hadoopAsyncStorage;
+    @MockBean
+    private HdfsBlockCache hdfsBlockCache;
+
+    private MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock;
+
+    @BeforeEach
+    public void setUp() {
+        securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class);
+        securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        securityFrameworkUtilsMock.close();
+    }
+
+    @Test
+    public void testGetHadoopFileCursorPage_defaultSort() {
+        // mock 数据：根目录下的 1 个文件夹、5 个文件，其中 2 个文件的创建时间相同
+        HadoopFileDO directory = insertFile("1", FileTypeEnum.DIRECTORY, "docs", 0L, 0, HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file01 = insertFile("1", FileTypeEnum.DOCUMENT, "a.txt", 30L, 1, HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file02 = insertFile("1", FileTypeEnum.DOCUMENT, "b.txt", 10L, 2, HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file03 = insertFile("1", FileTypeEnum.DOCUMENT, "c.txt", 20L, 2, HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file04 = insertFile("1", FileTypeEnum.IMAGE, "d.png", 40L, 3, HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file05 = insertFile("1", FileTypeEnum.DOCUMENT, "e.txt", 50L, 4, HadoopFileStatusEnum.NORMAL);
+        // mock 数据：不在结果中的文件
+        insertFile("2", FileTypeEnum.DOCUMENT, "other.txt", 1L, 5, HadoopFileStatusEnum.NORMAL); // 其他用户
+        insertFile("1", FileTypeEnum.DOCUMENT, "trashed.txt", 1L, 5, HadoopFileStatusEnum.TRASHED); // 回收站
+
+        // 调用：每页 2 条，翻到最后一页
+        List<Long> ids = fetchAllPages(buildReqVO(null, null));
+        // 断言：类型降序，同类型按创建时间降序，相同时按编号降序
+        assertEquals(Arrays.asList(directory.getId(), file05.getId(), file03.getId(), file02.getId(),
+                file01.getId(), file04.getId()), ids);
+    }
+
+    @Test
+    public void testGetHadoopFileCursorPage_sizeAscend() {
+        // mock 数据
+        HadoopFileDO directory = insertFile("1", FileTypeEnum.DIRECTORY, "docs", 0L, 0, HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file01 = insertFile("1", FileTypeEnum.DOCUMENT, "a.txt", 30L, 1, HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file02 = insertFile("1", FileTypeEnum.DOCUMENT, "b.txt", 10L, 2, HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file03 = insertFile("1", FileTypeEnum.DOCUMENT, "c.txt", 10L, 3, HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file04 = insertFile("1", FileTypeEnum.DOCUMENT, "d.txt", 20L, 4, HadoopFileStatusEnum.NORMAL);
+
+        // 调用
+        List<Long> ids = fetchAllPages(buildReqVO("size", "ascend"));
+        // 断言：目录优先，同类型按大小升序，相同时按编号升序
+        assertEquals(Arrays.asList(directory.getId(), file02.getId(), file03.getId(), file04.getId(), file01.getId()), ids);
+    }
+
+    @Test
+    public void testGetHadoopFileCursorPage_withTotal() {
+        // mock 数据
+        insertFile("1", FileTypeEnum.DOCUMENT, "a.txt", 1L, 1, HadoopFileStatusEnum.NORMAL);
+        insertFile("1", FileTypeEnum.DOCUMENT, "b.txt", 1L, 2, HadoopFileStatusEnum.NORMAL);
+        insertFile("1", FileTypeEnum.DOCUMENT, "c.txt", 1L, 3, HadoopFileStatusEnum.NORMAL);
+        // 准备参数
+        HadoopFileCursorPageReqVO reqVO = buildReqVO("name", "ascend");
+        reqVO.setWithTotal(true);
+
+        // 调用
+        HadoopFileCursorPageRespVO respVO = hadoopFileService.getHadoopFileCursorPage(reqVO);
+        // 断言
+        assertEquals(3L, respVO.getTotal());
+        assertEquals(Arrays.asList("a.txt", "b.txt"), convertList(respVO.getList(), HadoopFileRespVO::getName));
+        assertNotNull(respVO.getNextCursor());
+    }
+
+    @Test
+    public void testGetHadoopFileCursorPage_cursorSortMismatch() {
+        // mock 数据
+        insertFile("1", FileTypeEnum.DOCUMENT, "a.txt", 1L, 1, HadoopFileStatusEnum.NORMAL);
+        insertFile("1", FileTypeEnum.DOCUMENT, "b.txt", 1L, 2, HadoopFileStatusEnum.NORMAL);
+        insertFile("1", FileTypeEnum.DOCUMENT, "c.txt", 1L, 3, HadoopFileStatusEnum.NORMAL);
+        String cursor = hadoopFileService.getHadoopFileCursorPage(buildReqVO("name", "ascend")).getNextCursor();
+        // 准备参数：切换排序方式后，沿用之前的游标
+        HadoopFileCursorPageReqVO reqVO = buildReqVO("size", "ascend");
+        reqVO.setCursor(cursor);
+
+        // 调用，并断言
+        assertServiceException(() -> hadoopFileService.getHadoopFileCursorPage(reqVO), HADOOP_FILE_CURSOR_INVALID);
+    }
+
+    @Test
+    public void testGetHadoopFileCursorPage_cursorMalformed() {
+        // 准备参数
+        HadoopFileCursorPageReqVO reqVO = buildReqVO(null, null);
+        reqVO.setCursor(Base64.encodeUrlSafe("not json"));
+
+        // 调用，并断言
+        assertServiceException(() -> hadoopFileService.getHadoopFileCursorPage(reqVO), HADOOP_FILE_CURSOR_INVALID);
+    }
+
+    /**
+     * 按 nextCursor 依次翻页，直到最后一页，返回全部文件编号
+     */
+    private List<Long> fetchAllPages(HadoopFileCursorPageReqVO reqVO) {
+        List<Long> ids = new ArrayList<>();
+        do {
+            HadoopFileCursorPageRespVO respVO = hadoopFileService.getHadoopFileCursorPage(reqVO);
+            assertTrue(respVO.getList().size() <= reqVO.getPageSize());
+            ids.addAll(convertList(respVO.getList(), HadoopFileRespVO::getId));
+            reqVO.setCursor(respVO.getNextCursor());
+        } while (reqVO.getCursor() != null);
+        return ids;
+    }
+
+    private static HadoopFileCursorPageReqVO buildReqVO(String sortField, String sortOrder) {
+        HadoopFileCursorPageReqVO reqVO = new HadoopFileCursorPageReqVO();
+        reqVO.setCatalogue("/");
+        reqVO.setSortField(sortField);
+        reqVO.setSortOrder(sortOrder);
+        reqVO.setPageSize(2);
+        return reqVO;
+    }
+
+    private HadoopFileDO insertFile(String creator, FileTypeEnum type, String name, Long size, int minutes,
+                                    HadoopFileStatusEnum status) {
+        HadoopFileDO file = HadoopFileDO.builder().type(type.getType()).name(name).catalogue("/")
+                .parentId(HadoopFileDO.PARENT_ID_ROOT).depth(0).treePath("/").status(status.getStatus())
+                .size(size).build();
+        file.setCreator(creator);
+        file.setCreateTime(BASE_TIME.plusMinutes(minutes));
+        hadoopFileMapper.insert(file);
+        return file;
+    }
+
+}
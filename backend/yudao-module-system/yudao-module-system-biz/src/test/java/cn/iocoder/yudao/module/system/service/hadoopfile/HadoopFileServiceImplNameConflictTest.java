@@ -0,0 +1,159 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopAsyncStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HdfsBlockCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import javax.annotation.Resource;
+
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.FILE_NAME_EXISTS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link HadoopFileServiceImpl} 的重命名、移动单元测试，在 H2 上执行同名文件的检查
+ *
+ * 与唯一索引 uk_creator_parent_name 一致，只有正常状态的文件才算重名
+ *
+ * @author 管理员1
+ */
+@Import({HadoopFileServiceImpl.class, HadoopProperties.class})
+public class HadoopFileServiceImplNameConflictTest extends BaseDbUnitTest {
+
+    @Resource
+    private HadoopFileServiceImpl hadoopFileService;
+
+    @Resource
+    private HadoopFileMapper hadoopFileMapper;
+
+    @MockBean
+    private HadoopFileBlobService hadoopFileBlobService;
+    @MockBean
+    private HadoopFileListCacheService hadoopFileListCacheService;
+    @MockBean
+    private HadoopUserUsageService hadoopUserUsageService;
+    @MockBean
+    private HadoopFileAggregateService hadoopFileAggregateService;
+    @MockBean
+    private HadoopFileTrashService hadoopFileTrashService;
+    @MockBean
+    private HadoopFileTransferService hadoopFileTransferService;
+    @MockBean
+    private HadoopStorage hdfsClient;
+    @MockBean
+    private HadoopAsyncStorage hadoopAsyncStorage;
+    @MockBean
+    private HdfsBlockCache hdfsBlockCache;
+
+    private MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock;
+
+    @BeforeEach
+    public void setUp() {
+        securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class);
+        securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        securityFrameworkUtilsMock.close();
+    }
+
+    @Test
+    public void testRenameHadoopFile_trashedSameName() throws Exception {
+        // mock 数据：回收站中有同名文件
+        HadoopFileDO file = insertFile("1", FileTypeEnum.DOCUMENT, "/", "a.txt", HadoopFileStatusEnum.NORMAL);
+        insertFile("1", FileTypeEnum.DOCUMENT, "/", "b.txt", HadoopFileStatusEnum.TRASHED);
+        // mock 方法
+        when(hdfsClient.mv(eq("/1/a.txt"), eq("/1/b.txt"))).thenReturn(true);
+
+        // 调用
+        hadoopFileService.renameHadoopFile(file.getId(), "b.txt");
+        // 断言
+        assertEquals("b.txt", hadoopFileMapper.selectById(file.getId()).getName());
+        verify(hdfsClient).mv(eq("/1/a.txt"), eq("/1/b.txt"));
+    }
+
+    @Test
+    public void testRenameHadoopFile_nameExists() throws Exception {
+        // mock 数据：当前目录下有同名的正常文件
+        HadoopFileDO file = insertFile("1", FileTypeEnum.DOCUMENT, "/", "a.txt", HadoopFileStatusEnum.NORMAL);
+        insertFile("1", FileTypeEnum.DOCUMENT, "/", "b.txt", HadoopFileStatusEnum.NORMAL);
+
+        // 调用，并断言
+        assertServiceException(() -> hadoopFileService.renameHadoopFile(file.getId(), "b.txt"), FILE_NAME_EXISTS);
+        assertEquals("a.txt", hadoopFileMapper.selectById(file.getId()).getName());
+        verify(hdfsClient, never()).mv(anyString(), anyString());
+    }
+
+    @Test
+    public void testRenameHadoopFile_otherUserSameName() throws Exception {
+        // mock 数据：其他用户的同名文件
+        HadoopFileDO file = insertFile("1", FileTypeEnum.DOCUMENT, "/", "a.txt", HadoopFileStatusEnum.NORMAL);
+        insertFile("2", FileTypeEnum.DOCUMENT, "/", "b.txt", HadoopFileStatusEnum.NORMAL);
+        // mock 方法
+        when(hdfsClient.mv(eq("/1/a.txt"), eq("/1/b.txt"))).thenReturn(true);
+
+        // 调用
+        hadoopFileService.renameHadoopFile(file.getId(), "b.txt");
+        // 断言
+        assertEquals("b.txt", hadoopFileMapper.selectById(file.getId()).getName());
+    }
+
+    @Test
+    public void testMoveHadoopFile_trashedSameName() throws Exception {
+        // mock 数据：目标目录的回收站中有同名文件
+        HadoopFileDO directory = insertFile("1", FileTypeEnum.DIRECTORY, "/", "docs", HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file = insertFile("1", FileTypeEnum.DOCUMENT, "/", "a.txt", HadoopFileStatusEnum.NORMAL);
+        insertFile("1", FileTypeEnum.DOCUMENT, "/docs", "a.txt", HadoopFileStatusEnum.TRASHED);
+        // mock 方法
+        when(hdfsClient.mv(eq("/1/a.txt"), eq("/1/docs/a.txt"))).thenReturn(true);
+
+        // 调用
+        hadoopFileService.moveHadoopFile(file.getId(), "/docs");
+        // 断言
+        HadoopFileDO dbFile = hadoopFileMapper.selectById(file.getId());
+        assertEquals("/docs", dbFile.getCatalogue());
+        assertEquals(directory.getId(), dbFile.getParentId());
+        verify(hdfsClient).mv(eq("/1/a.txt"), eq("/1/docs/a.txt"));
+    }
+
+    @Test
+    public void testMoveHadoopFile_nameExists() throws Exception {
+        // mock 数据：目标目录下有同名的正常文件
+        insertFile("1", FileTypeEnum.DIRECTORY, "/", "docs", HadoopFileStatusEnum.NORMAL);
+        HadoopFileDO file = insertFile("1", FileTypeEnum.DOCUMENT, "/", "a.txt", HadoopFileStatusEnum.NORMAL);
+        insertFile("1", FileTypeEnum.DOCUMENT, "/docs", "a.txt", HadoopFileStatusEnum.NORMAL);
+
+        // 调用，并断言
+        assertServiceException(() -> hadoopFileService.moveHadoopFile(file.getId(), "/docs"), FILE_NAME_EXISTS);
+        assertEquals("/", hadoopFileMapper.selectById(file.getId()).getCatalogue());
+        verify(hdfsClient, never()).mv(anyString(), anyString());
+    }
+
+    private HadoopFileDO insertFile(String creator, FileTypeEnum type, String catalogue, String name,
+                                    HadoopFileStatusEnum status) {
+        HadoopFileDO file = HadoopFileDO.builder().type(type.getType()).name(name).catalogue(catalogue)
+                .parentId(HadoopFileDO.PARENT_ID_ROOT).depth(0).treePath("/").status(status.getStatus())
+                .size(0L).build();
+        file.setCreator(creator);
+        hadoopFileMapper.insert(file);
+        return file;
+    }
+
+}
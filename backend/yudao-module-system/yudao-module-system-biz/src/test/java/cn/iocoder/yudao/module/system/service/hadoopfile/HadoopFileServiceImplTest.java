@@ -0,0 +1,325 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopFileSaveReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileBlobDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferPermit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Spy;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link HadoopFileServiceImpl} 的单元测试，覆盖文件创建、文件名去重、从回收站恢复
+ *
+ * @author 管理员1
+ */
+public class HadoopFileServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private HadoopFileServiceImpl hadoopFileService;
+
+    @Mock
+    private HadoopFileMapper hadoopFileMapper;
+    @Mock
+    private HadoopFileListCacheService hadoopFileListCacheService;
+    @Mock
+    private HadoopUserUsageService hadoopUserUsageService;
+    @Mock
+    private HadoopFileAggregateService hadoopFileAggregateService;
+    @Mock
+    private HadoopFileTrashService hadoopFileTrashService;
+    @Mock
+    private HadoopFileBlobService hadoopFileBlobService;
+    @Mock
+    private HadoopFileTransferService hadoopFileTransferService;
+    @Mock
+    private HadoopStorage hdfsClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private HadoopProperties hadoopProperties = new HadoopProperties();
+
+    @BeforeEach
+    public void setUp() {
+        hadoopFileService.initTransactionTemplate();
+    }
+
+    // ========== 文件创建 ==========
+
+    @Test
+    public void testCreateHadoopFile_uploadOutsideTransaction() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // 准备参数
+            MockMultipartFile file = new MockMultipartFile("file", "a.txt", null, "hello".getBytes());
+            HadoopFileSaveReqVO reqVO = buildSaveReqVO(file);
+            // mock 方法
+            mockTransferPermit(file);
+            when(hadoopFileBlobService.createBlob(same(file), eq(5L))).thenReturn(buildBlob());
+            when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/"), eq("a.txt"), eq("a(")))
+                    .thenReturn(Collections.emptyList());
+            when(hadoopFileMapper.insert(any(HadoopFileDO.class))).thenReturn(1);
+
+            // 调用
+            hadoopFileService.createHadoopFile(reqVO);
+            // 断言：先上传文件内容，再开启事务插入记录
+            InOrder inOrder = inOrder(hadoopFileBlobService, transactionManager, hadoopFileMapper);
+            inOrder.verify(hadoopFileBlobService).createBlob(same(file), eq(5L));
+            inOrder.verify(transactionManager).getTransaction(any());
+            inOrder.verify(hadoopFileMapper).insert(argThat((HadoopFileDO dbFile) -> dbFile.getBlobId() == 300L
+                    && 5L == dbFile.getSize() && "a.txt".equals(dbFile.getName())));
+            inOrder.verify(transactionManager).commit(any());
+            verify(hadoopFileBlobService, never()).releaseBlob(anyLong());
+        }
+    }
+
+    @Test
+    public void testCreateHadoopFile_insertFail() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // 准备参数
+            MockMultipartFile file = new MockMultipartFile("file", "a.txt", null, "hello".getBytes());
+            HadoopFileSaveReqVO reqVO = buildSaveReqVO(file);
+            // mock 方法：文件名一直冲突
+            mockTransferPermit(file);
+            when(hadoopFileBlobService.createBlob(same(file), eq(5L))).thenReturn(buildBlob());
+            when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/"), eq("a.txt"), eq("a(")))
+                    .thenReturn(Collections.emptyList());
+            when(hadoopFileMapper.insert(any(HadoopFileDO.class)))
+                    .thenThrow(new DuplicateKeyException("uk_creator_parent_name"));
+
+            // 调用，并断言
+            assertServiceException(() -> hadoopFileService.createHadoopFile(reqVO), FILE_NAME_EXISTS);
+            // 断言：回滚事务，释放已上传的文件内容
+            verify(transactionManager).rollback(any());
+            verify(hadoopFileBlobService).releaseBlob(eq(300L));
+        }
+    }
+
+    // ========== 文件名去重 ==========
+
+    @Test
+    public void testGenerateUniqueFileName_notExists() {
+        // mock 方法
+        when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/a"), eq("b.txt"), eq("b(")))
+                .thenReturn(Collections.emptyList());
+
+        // 调用，并断言
+        assertEquals("b.txt", hadoopFileService.generateUniqueFileName(1L, "/a", "b.txt"));
+    }
+
+    @Test
+    public void testGenerateUniqueFileName_smallestIndex() {
+        // mock 方法：序号 2 未被占用；不符合 "文件名(n).扩展名" 格式的忽略
+        when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/"), eq("b.txt"), eq("b(")))
+                .thenReturn(buildNames("b.txt", "b(1).txt", "b(3).txt", "b(x).txt", "b(2).txt.bak"));
+
+        // 调用，并断言
+        assertEquals("b(2).txt", hadoopFileService.generateUniqueFileName(1L, "/", "b.txt"));
+    }
+
+    @Test
+    public void testGenerateUniqueFileName_noExtension() {
+        // mock 方法：文件夹没有扩展名；以点开头的名称整体视为文件名
+        when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/"), eq("docs"), eq("docs(")))
+                .thenReturn(buildNames("docs", "docs(1)"));
+        when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/"), eq(".gitignore"), eq(".gitignore(")))
+                .thenReturn(buildNames(".gitignore"));
+
+        // 调用，并断言
+        assertEquals("docs(2)", hadoopFileService.generateUniqueFileName(1L, "/", "docs"));
+        assertEquals(".gitignore(1)", hadoopFileService.generateUniqueFileName(1L, "/", ".gitignore"));
+    }
+
+    @Test
+    public void testGenerateUniqueFileName_specialChars() {
+        // mock 方法：文件名中的正则特殊字符按原样匹配
+        when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/"), eq("a+b.tar.gz"), eq("a+b.tar(")))
+                .thenReturn(buildNames("a+b.tar.gz", "a+b.tar(1).gz", "aab.tar(2).gz"));
+
+        // 调用，并断言
+        assertEquals("a+b.tar(2).gz", hadoopFileService.generateUniqueFileName(1L, "/", "a+b.tar.gz"));
+    }
+
+    @Test
+    public void testInsertHadoopFile_duplicateKeyRetry() {
+        // mock 方法：第一次生成文件名后，并发插入了同名文件
+        when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/"), eq("b.txt"), eq("b(")))
+                .thenReturn(Collections.emptyList(), buildNames("b.txt"));
+        when(hadoopFileMapper.insert(any(HadoopFileDO.class)))
+                .thenThrow(new DuplicateKeyException("uk_creator_parent_name")).thenReturn(1);
+        // 准备参数
+        HadoopFileDO file = buildFile(null, FileTypeEnum.DOCUMENT.getType(), "/", "b.txt", null, null, null);
+
+        // 调用
+        hadoopFileService.insertHadoopFile(file);
+        // 断言：重新生成文件名后插入成功
+        assertEquals("b(1).txt", file.getName());
+        assertEquals(HadoopFileDO.PARENT_ID_ROOT, file.getParentId());
+        assertEquals("/", file.getTreePath());
+        assertEquals(HadoopFileStatusEnum.NORMAL.getStatus(), file.getStatus());
+        verify(hadoopFileMapper, times(2)).insert(same(file));
+        verify(hadoopUserUsageService).addUsage(same(file));
+        verify(hadoopFileAggregateService).addToAncestors(same(file));
+        verify(hadoopFileListCacheService).evictFile(same(file));
+    }
+
+    @Test
+    public void testInsertHadoopFile_duplicateKeyExhausted() {
+        // mock 方法：一直冲突
+        when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/"), eq("b.txt"), eq("b(")))
+                .thenReturn(Collections.emptyList());
+        when(hadoopFileMapper.insert(any(HadoopFileDO.class)))
+                .thenThrow(new DuplicateKeyException("uk_creator_parent_name"));
+        // 准备参数
+        HadoopFileDO file = buildFile(null, FileTypeEnum.DOCUMENT.getType(), "/", "b.txt", null, null, null);
+
+        // 调用，并断言
+        assertServiceException(() -> hadoopFileService.insertHadoopFile(file), FILE_NAME_EXISTS);
+        verify(hadoopFileMapper, times(4)).insert(same(file));
+        verify(hadoopUserUsageService, never()).addUsage(any(HadoopFileDO.class));
+    }
+
+    // ========== 从回收站恢复 ==========
+
+    @Test
+    public void testRestoreHadoopFile_directory() throws Exception {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // mock 数据：回收站中的文件夹，原位置已有同名文件夹
+            HadoopFileDO directory = buildFile(10L, FileTypeEnum.DIRECTORY.getType(), "/", "docs",
+                    HadoopFileDO.PARENT_ID_ROOT, "/", HadoopFileStatusEnum.TRASHED.getStatus());
+            when(hadoopFileMapper.selectById(eq(10L))).thenReturn(directory);
+            when(hadoopFileTrashService.buildTrashPath(same(directory))).thenReturn("/.trash/1/10");
+            when(hadoopFileMapper.selectListByNameOrNamePrefix(eq("1"), eq("/"), eq("docs"), eq("docs(")))
+                    .thenReturn(buildNames("docs"));
+            // mock 数据：子孙。13 是之前单独放入回收站的子文件夹，它和它的子树不随之恢复
+            int withFolder = HadoopFileStatusEnum.TRASHED_WITH_FOLDER.getStatus();
+            when(hadoopFileMapper.selectSubtreeList(eq("1"), eq("/10/"))).thenReturn(Arrays.asList(
+                    buildFile(11L, FileTypeEnum.DOCUMENT.getType(), "/docs", "a.txt", 10L, "/10/", withFolder),
+                    buildFile(12L, FileTypeEnum.DIRECTORY.getType(), "/docs", "b", 10L, "/10/", withFolder),
+                    buildFile(13L, FileTypeEnum.DIRECTORY.getType(), "/docs", "c", 10L, "/10/",
+                            HadoopFileStatusEnum.TRASHED.getStatus()),
+                    buildFile(14L, FileTypeEnum.DOCUMENT.getType(), "/docs/b", "d.txt", 12L, "/10/12/", withFolder),
+                    buildFile(15L, FileTypeEnum.DOCUMENT.getType(), "/docs/c", "e.txt", 13L, "/10/13/", withFolder)));
+            when(hdfsClient.mv(eq("/.trash/1/10"), eq("/1/docs(1)"))).thenReturn(true);
+
+            // 调用
+            hadoopFileService.restoreHadoopFile(10L);
+            // 断言：重命名后恢复，子树的目录路径一并更新
+            assertEquals("docs(1)", directory.getName());
+            assertEquals(HadoopFileStatusEnum.NORMAL.getStatus(), directory.getStatus());
+            verify(hadoopFileMapper).updateById(same(directory));
+            verify(hadoopFileMapper).updateSubtreeCatalogue(eq("1"), eq("/10/"), eq("/docs"), eq("/docs(1)"));
+            // 断言：只恢复随文件夹放入回收站的子孙
+            verify(hadoopFileMapper).updateStatusByIds(eq(Arrays.asList(11L, 12L, 14L)),
+                    eq(withFolder), eq(HadoopFileStatusEnum.NORMAL.getStatus()));
+            verify(hadoopFileAggregateService).addToAncestors(same(directory));
+            verify(hdfsClient).mv(eq("/.trash/1/10"), eq("/1/docs(1)"));
+        }
+    }
+
+    @Test
+    public void testRestoreHadoopFile_parentNotExists() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // mock 数据：原父目录已被删除
+            HadoopFileDO file = buildFile(11L, FileTypeEnum.DOCUMENT.getType(), "/docs", "a.txt",
+                    10L, "/10/", HadoopFileStatusEnum.TRASHED.getStatus());
+            when(hadoopFileMapper.selectById(eq(11L))).thenReturn(file);
+            when(hadoopFileMapper.selectDirectory(eq("1"), eq("/"), eq("docs"))).thenReturn(null);
+
+            // 调用，并断言
+            assertServiceException(() -> hadoopFileService.restoreHadoopFile(11L), HADOOP_FILE_PARENT_NOT_EXISTS);
+            verify(hadoopFileMapper, never()).updateById(any(HadoopFileDO.class));
+        }
+    }
+
+    @Test
+    public void testRestoreHadoopFile_notTrashed() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // mock 数据：随文件夹放入回收站的子孙，不能单独恢复
+            HadoopFileDO file = buildFile(11L, FileTypeEnum.DOCUMENT.getType(), "/docs", "a.txt",
+                    10L, "/10/", HadoopFileStatusEnum.TRASHED_WITH_FOLDER.getStatus());
+            when(hadoopFileMapper.selectById(eq(11L))).thenReturn(file);
+
+            // 调用，并断言
+            assertServiceException(() -> hadoopFileService.restoreHadoopFile(11L), HADOOP_FILE_NOT_EXISTS);
+        }
+    }
+
+    @Test
+    public void testRestoreHadoopFile_permissionDenied() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(2L);
+            // mock 数据
+            HadoopFileDO file = buildFile(11L, FileTypeEnum.DOCUMENT.getType(), "/", "a.txt",
+                    HadoopFileDO.PARENT_ID_ROOT, "/", HadoopFileStatusEnum.TRASHED.getStatus());
+            when(hadoopFileMapper.selectById(eq(11L))).thenReturn(file);
+
+            // 调用，并断言
+            assertServiceException(() -> hadoopFileService.restoreHadoopFile(11L), HADOOP_FILE_PERMISSION_DENIED);
+        }
+    }
+
+    private void mockTransferPermit(MultipartFile file) {
+        HadoopTransferPermit permit = mock(HadoopTransferPermit.class);
+        when(permit.throttle(same((InputStreamSource) file))).thenReturn(file);
+        when(hadoopFileTransferService.acquire(eq(1L))).thenReturn(permit);
+    }
+
+    private static HadoopFileSaveReqVO buildSaveReqVO(MultipartFile file) {
+        HadoopFileSaveReqVO reqVO = new HadoopFileSaveReqVO();
+        reqVO.setType(FileTypeEnum.DOCUMENT.getType());
+        reqVO.setName("a.txt");
+        reqVO.setCatalogue("/");
+        reqVO.setFile(file);
+        return reqVO;
+    }
+
+    private static HadoopFileBlobDO buildBlob() {
+        return HadoopFileBlobDO.builder().id(300L).sha256("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824")
+                .size(5L).refCount(1).build();
+    }
+
+    private static HadoopFileDO buildFile(Long id, Integer type, String catalogue, String name,
+                                          Long parentId, String treePath, Integer status) {
+        HadoopFileDO file = HadoopFileDO.builder().id(id).type(type).catalogue(catalogue).name(name)
+                .parentId(parentId).treePath(treePath).status(status).size(0L).build();
+        file.setCreator("1");
+        return file;
+    }
+
+    private static List<HadoopFileDO> buildNames(String... names) {
+        return convertList(Arrays.asList(names), name -> HadoopFileDO.builder().name(name).build());
+    }
+
+}
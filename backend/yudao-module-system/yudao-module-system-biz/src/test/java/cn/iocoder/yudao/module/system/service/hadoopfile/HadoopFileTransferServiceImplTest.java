@@ -0,0 +1,154 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferPermit;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopTransferRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.TimeUnit;
+
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.HADOOP_TRANSFER_TOO_MANY;
+import static cn.iocoder.yudao.module.system.service.hadoopfile.HadoopFileTransferServiceImpl.PER_USER_MAX_IN_FLIGHT_KEY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link HadoopFileTransferServiceImpl} 的单元测试
+ *
+ * @author 管理员1
+ */
+public class HadoopFileTransferServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private HadoopFileTransferServiceImpl transferService;
+
+    @Mock
+    private ConfigApi configApi;
+    @Spy
+    private HadoopProperties hadoopProperties = new HadoopProperties();
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testAcquire_perUserLimit() {
+        // 准备参数
+        hadoopProperties.getTransfer().setPerUserMaxInFlight(2);
+        transferService.init();
+        HadoopTransferPermit first = transferService.acquire(1L);
+        transferService.acquire(1L);
+
+        // 调用，并断言：超出用户上限
+        HadoopTransferRejectedException ex = assertThrows(HadoopTransferRejectedException.class,
+                () -> transferService.acquire(1L));
+        assertEquals(HADOOP_TRANSFER_TOO_MANY.getCode(), ex.getCode());
+        assertEquals(5, ex.getRetryAfterSeconds());
+        // 调用，并断言：不影响其它用户
+        assertNotNull(transferService.acquire(2L));
+        // 调用，并断言：释放后可以再次申请
+        first.close();
+        assertNotNull(transferService.acquire(1L));
+    }
+
+    @Test
+    public void testAcquire_globalLimit() {
+        // 准备参数
+        hadoopProperties.getTransfer().setMaxInFlight(2);
+        transferService.init();
+        transferService.acquire(1L);
+        HadoopTransferPermit anonymous = transferService.acquire(null);
+
+        // 调用，并断言：超出全局上限，匿名下载同样占用名额
+        assertThrows(HadoopTransferRejectedException.class, () -> transferService.acquire(2L));
+        // 调用，并断言：释放后可以再次申请
+        anonymous.close();
+        assertNotNull(transferService.acquire(2L));
+    }
+
+    @Test
+    public void testClose_idempotent() {
+        // 准备参数
+        hadoopProperties.getTransfer().setMaxInFlight(1);
+        transferService.init();
+        HadoopTransferPermit permit = transferService.acquire(1L);
+
+        // 调用：重复关闭
+        permit.close();
+        permit.close();
+        // 断言：只释放一次名额
+        assertNotNull(transferService.acquire(1L));
+        assertThrows(HadoopTransferRejectedException.class, () -> transferService.acquire(2L));
+    }
+
+    @Test
+    public void testAcquire_configOverride() {
+        // mock 方法：参数配置覆盖默认的用户上限，其它参数不存在
+        when(configApi.getConfigValueByKey(anyString())).thenAnswer(invocation ->
+                PER_USER_MAX_IN_FLIGHT_KEY.equals(invocation.getArgument(0)) ? "1" : null);
+        transferService.init();
+        transferService.acquire(1L);
+
+        // 调用，并断言
+        assertThrows(HadoopTransferRejectedException.class, () -> transferService.acquire(1L));
+    }
+
+    @Test
+    public void testAcquire_invalidConfig() {
+        // mock 方法：参数配置不合法，使用默认值
+        when(configApi.getConfigValueByKey(anyString())).thenReturn("abc");
+        hadoopProperties.getTransfer().setPerUserMaxInFlight(2);
+        transferService.init();
+        transferService.acquire(1L);
+
+        // 调用，并断言
+        assertNotNull(transferService.acquire(1L));
+        assertThrows(HadoopTransferRejectedException.class, () -> transferService.acquire(1L));
+    }
+
+    @Test
+    public void testReserve_userBandwidth() {
+        // 准备参数
+        hadoopProperties.getTransfer().setUserBandwidth(DataSize.ofKilobytes(1));
+        hadoopProperties.getTransfer().setTenantBandwidth(DataSize.ofBytes(0));
+        transferService.init();
+        HadoopTransferPermit permit = transferService.acquire(1L);
+
+        // 调用，并断言：1 秒内的突发无需等待
+        assertEquals(0, permit.reserve(512));
+        // 调用，并断言：透支 1KB，需要等待约 1 秒
+        long delay = permit.reserve(1536);
+        assertTrue(delay > TimeUnit.MILLISECONDS.toNanos(900), String.valueOf(delay));
+        assertTrue(delay <= TimeUnit.SECONDS.toNanos(1), String.valueOf(delay));
+        // 调用，并断言：同一用户的其它传输共用一个桶
+        assertTrue(transferService.acquire(1L).reserve(1) > 0);
+        // 调用，并断言：其它用户不受影响
+        assertEquals(0, transferService.acquire(2L).reserve(512));
+    }
+
+    @Test
+    public void testReserve_tenantBandwidth() {
+        // 准备参数
+        hadoopProperties.getTransfer().setUserBandwidth(DataSize.ofBytes(0));
+        hadoopProperties.getTransfer().setTenantBandwidth(DataSize.ofKilobytes(1));
+        TenantContextHolder.setTenantId(1L);
+        transferService.init();
+        HadoopTransferPermit permit = transferService.acquire(1L);
+        HadoopTransferPermit anonymous = transferService.acquire(null);
+
+        // 调用，并断言：同一租户的用户、匿名下载合计限速
+        assertEquals(0, permit.reserve(1024));
+        assertTrue(anonymous.reserve(1024) > TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+}
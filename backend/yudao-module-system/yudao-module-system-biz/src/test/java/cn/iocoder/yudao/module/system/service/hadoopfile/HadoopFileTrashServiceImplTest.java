@@ -0,0 +1,181 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopAsyncStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Spy;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.HADOOP_FILE_NOT_EXISTS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link HadoopFileTrashServiceImpl} 的单元测试
+ *
+ * @author 管理员1
+ */
+public class HadoopFileTrashServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private HadoopFileTrashServiceImpl hadoopFileTrashService;
+
+    @Mock
+    private HadoopFileMapper hadoopFileMapper;
+    @Mock
+    private HadoopFileService hadoopFileService;
+    @Mock
+    private HadoopFileAggregateService hadoopFileAggregateService;
+    @Mock
+    private HadoopFileListCacheService hadoopFileListCacheService;
+    @Mock
+    private HadoopStorage hdfsClient;
+    @Mock
+    private HadoopAsyncStorage hadoopAsyncStorage;
+    @Spy
+    private HadoopProperties hadoopProperties = new HadoopProperties();
+
+    @Test
+    public void testTrashHadoopFiles_success() throws Exception {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // mock 数据
+            HadoopFileDO directory = buildFile(10L, FileTypeEnum.DIRECTORY.getType(), "1", "/",
+                    HadoopFileStatusEnum.NORMAL.getStatus(), null);
+            HadoopFileDO child = buildFile(11L, FileTypeEnum.DOCUMENT.getType(), "1", "/10/",
+                    HadoopFileStatusEnum.NORMAL.getStatus(), null); // 文件夹也被选中，只处理文件夹
+            HadoopFileDO otherUserFile = buildFile(20L, FileTypeEnum.DOCUMENT.getType(), "2", "/",
+                    HadoopFileStatusEnum.NORMAL.getStatus(), null);
+            HadoopFileDO trashedFile = buildFile(21L, FileTypeEnum.DOCUMENT.getType(), "1", "/",
+                    HadoopFileStatusEnum.TRASHED.getStatus(), null);
+            HadoopFileDO blobFile = buildFile(22L, FileTypeEnum.DOCUMENT.getType(), "1", "/",
+                    HadoopFileStatusEnum.NORMAL.getStatus(), 5L); // 去重存储，无需移动
+            List<Long> ids = Arrays.asList(10L, 11L, 20L, 21L, 22L);
+            when(hadoopFileMapper.selectBatchIds(eq(ids))).thenReturn(
+                    Arrays.asList(directory, child, otherUserFile, trashedFile, blobFile));
+            // mock 方法
+            when(hadoopFileService.getHdfsPath(same(directory))).thenReturn("/1/docs");
+            when(hadoopAsyncStorage.mv(eq("/1/docs"), eq("/.trash/1/10")))
+                    .thenReturn(CompletableFuture.completedFuture(true));
+
+            // 调用
+            hadoopFileTrashService.trashHadoopFiles(ids);
+            // 断言：数据库
+            verify(hadoopFileMapper).updateTrashed(eq(Arrays.asList(10L, 22L)), any());
+            verify(hadoopFileMapper).updateSubtreeStatus(eq("1"), eq("/10/"),
+                    eq(HadoopFileStatusEnum.NORMAL.getStatus()), eq(HadoopFileStatusEnum.TRASHED_WITH_FOLDER.getStatus()));
+            verify(hadoopFileAggregateService).subtractFromAncestors(eq(Arrays.asList(directory, blobFile)));
+            assertEquals(HadoopFileStatusEnum.TRASHED.getStatus(), directory.getStatus());
+            assertNotNull(directory.getTrashTime());
+            assertEquals(HadoopFileStatusEnum.NORMAL.getStatus(), child.getStatus());
+            // 断言：HDFS
+            verify(hdfsClient).mkdir(eq("/.trash/1"), eq("755"));
+            verify(hadoopAsyncStorage, times(1)).mv(anyString(), anyString());
+            verify(hadoopFileListCacheService).evictUser(eq(1L));
+        }
+    }
+
+    @Test
+    public void testTrashHadoopFiles_mvFail() throws Exception {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // mock 数据
+            HadoopFileDO directory = buildFile(10L, FileTypeEnum.DIRECTORY.getType(), "1", "/",
+                    HadoopFileStatusEnum.NORMAL.getStatus(), null);
+            HadoopFileDO file = buildFile(30L, FileTypeEnum.DOCUMENT.getType(), "1", "/",
+                    HadoopFileStatusEnum.NORMAL.getStatus(), null);
+            List<Long> ids = Arrays.asList(10L, 30L);
+            when(hadoopFileMapper.selectBatchIds(eq(ids))).thenReturn(Arrays.asList(directory, file));
+            // mock 方法：第二个文件移动失败
+            when(hadoopFileService.getHdfsPath(same(directory))).thenReturn("/1/docs");
+            when(hadoopFileService.getHdfsPath(same(file))).thenReturn("/1/a.txt");
+            when(hadoopAsyncStorage.mv(eq("/1/docs"), eq("/.trash/1/10")))
+                    .thenReturn(CompletableFuture.completedFuture(true));
+            CompletableFuture<Boolean> failure = new CompletableFuture<>();
+            failure.completeExceptionally(new IllegalStateException("移动失败"));
+            when(hadoopAsyncStorage.mv(eq("/1/a.txt"), eq("/.trash/1/30"))).thenReturn(failure);
+            when(hadoopAsyncStorage.mv(eq("/.trash/1/10"), eq("/1/docs")))
+                    .thenReturn(CompletableFuture.completedFuture(true));
+
+            // 调用，并断言：抛出异常回滚数据库
+            assertServiceException(() -> hadoopFileTrashService.trashHadoopFiles(ids), HADOOP_FILE_NOT_EXISTS);
+            // 断言：已移动的文件移回原位置
+            verify(hadoopAsyncStorage).mv(eq("/.trash/1/10"), eq("/1/docs"));
+            verify(hadoopAsyncStorage, never()).mv(eq("/.trash/1/30"), anyString());
+            verify(hadoopFileListCacheService, never()).evictUser(anyLong());
+        }
+    }
+
+    @Test
+    public void testTrashHadoopFiles_noneMatched() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // mock 数据：都是其它用户的文件
+            List<Long> ids = Arrays.asList(20L, 21L);
+            when(hadoopFileMapper.selectBatchIds(eq(ids))).thenReturn(Arrays.asList(
+                    buildFile(20L, FileTypeEnum.DOCUMENT.getType(), "2", "/", HadoopFileStatusEnum.NORMAL.getStatus(), null),
+                    buildFile(21L, FileTypeEnum.DIRECTORY.getType(), "2", "/", HadoopFileStatusEnum.NORMAL.getStatus(), null)));
+
+            // 调用
+            hadoopFileTrashService.trashHadoopFiles(ids);
+            // 断言
+            verify(hadoopFileMapper, never()).updateTrashed(anyCollection(), any());
+            verifyNoInteractions(hadoopAsyncStorage, hadoopFileAggregateService);
+        }
+    }
+
+    @Test
+    public void testRestoreHadoopFiles() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // mock 数据：只恢复自己回收站中的文件
+            Collection<Long> ids = Arrays.asList(10L, 11L, 12L, 13L);
+            when(hadoopFileMapper.selectBatchIds(eq(ids))).thenReturn(Arrays.asList(
+                    buildFile(10L, FileTypeEnum.DOCUMENT.getType(), "1", "/", HadoopFileStatusEnum.TRASHED.getStatus(), null),
+                    buildFile(11L, FileTypeEnum.DOCUMENT.getType(), "1", "/", HadoopFileStatusEnum.NORMAL.getStatus(), null),
+                    buildFile(12L, FileTypeEnum.DOCUMENT.getType(), "1", "/10/", HadoopFileStatusEnum.TRASHED_WITH_FOLDER.getStatus(), null),
+                    buildFile(13L, FileTypeEnum.DOCUMENT.getType(), "2", "/", HadoopFileStatusEnum.TRASHED.getStatus(), null)));
+
+            // 调用
+            hadoopFileTrashService.restoreHadoopFiles(ids);
+            // 断言
+            verify(hadoopFileService).restoreHadoopFile(eq(10L));
+            verifyNoMoreInteractions(hadoopFileService);
+        }
+    }
+
+    @Test
+    public void testBuildTrashPath() {
+        // 准备参数
+        HadoopFileDO file = buildFile(10L, FileTypeEnum.DOCUMENT.getType(), "1", "/",
+                HadoopFileStatusEnum.TRASHED.getStatus(), null);
+
+        // 调用，并断言：按编号存放，与原文件名无关
+        assertEquals("/.trash/1/10", hadoopFileTrashService.buildTrashPath(file));
+    }
+
+    private static HadoopFileDO buildFile(Long id, Integer type, String creator, String treePath,
+                                          Integer status, Long blobId) {
+        HadoopFileDO file = HadoopFileDO.builder().id(id).type(type).catalogue("/").name("file" + id)
+                .treePath(treePath).status(status).blobId(blobId).size(0L).build();
+        file.setCreator(creator);
+        return file;
+    }
+
+}
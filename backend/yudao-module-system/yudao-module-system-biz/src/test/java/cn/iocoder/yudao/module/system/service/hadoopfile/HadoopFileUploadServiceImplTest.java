@@ -0,0 +1,306 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.system.controller.admin.hadoopfile.vo.HadoopUploadInitReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileBlobDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUploadChunkDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopUploadSessionDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopUploadChunkMapper;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopUploadSessionMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopUploadStatusEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HadoopStorage;
+import cn.iocoder.yudao.module.system.framework.hadoop.core.HdfsFileInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Spy;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link HadoopFileUploadServiceImpl} 的单元测试，覆盖分片上传的初始化、完成
+ *
+ * @author 管理员1
+ */
+public class HadoopFileUploadServiceImplTest extends BaseMockitoUnitTest {
+
+    private static final String SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @InjectMocks
+    private HadoopFileUploadServiceImpl uploadService;
+
+    @Mock
+    private HadoopUploadSessionMapper uploadSessionMapper;
+    @Mock
+    private HadoopUploadChunkMapper uploadChunkMapper;
+    @Mock
+    private HadoopFileService hadoopFileService;
+    @Mock
+    private HadoopUserUsageService hadoopUserUsageService;
+    @Mock
+    private HadoopFileBlobService hadoopFileBlobService;
+    @Mock
+    private HadoopStorage hdfsClient;
+    @Spy
+    private HadoopProperties hadoopProperties = new HadoopProperties();
+
+    private MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock;
+
+    @BeforeEach
+    public void setUp() {
+        securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class);
+        securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        securityFrameworkUtilsMock.close();
+    }
+
+    @Test
+    public void testInitUpload_defaultChunkSize() {
+        // 准备参数：10MB，不传分片大小
+        HadoopUploadInitReqVO reqVO = buildInitReqVO(DataSize.ofMegabytes(10).toBytes(), null);
+
+        // 调用
+        HadoopUploadSessionDO session = uploadService.initUpload(reqVO);
+        // 断言：按默认的 8MB 分片，共 2 个分片
+        assertEquals(DataSize.ofMegabytes(8).toBytes(), session.getChunkSize());
+        assertEquals(2, session.getChunkCount());
+        verify(hadoopUserUsageService).validateQuota(eq(1L), eq(reqVO.getFileSize()));
+        verify(uploadSessionMapper).insert(same(session));
+    }
+
+    @Test
+    public void testInitUpload_singleSmallChunk() {
+        // 准备参数：文件小于最小分片大小，只有一个分片时不限制
+        HadoopUploadInitReqVO reqVO = buildInitReqVO(0L, 1024L);
+
+        // 调用
+        HadoopUploadSessionDO session = uploadService.initUpload(reqVO);
+        // 断言：空文件也按一个分片处理
+        assertEquals(1, session.getChunkCount());
+    }
+
+    @Test
+    public void testInitUpload_chunkSizeTooLarge() {
+        // 准备参数
+        long chunkSize = DataSize.ofMegabytes(65).toBytes();
+        HadoopUploadInitReqVO reqVO = buildInitReqVO(DataSize.ofMegabytes(100).toBytes(), chunkSize);
+
+        // 调用，并断言
+        assertServiceException(() -> uploadService.initUpload(reqVO), HADOOP_UPLOAD_CHUNK_SIZE_INVALID,
+                chunkSize, "超过最大分片大小 " + DataSize.ofMegabytes(64));
+        verifyNoInteractions(uploadSessionMapper);
+    }
+
+    @Test
+    public void testInitUpload_chunkSizeTooSmall() {
+        // 准备参数：分片过小，会产生大量的分片记录
+        HadoopUploadInitReqVO reqVO = buildInitReqVO(DataSize.ofMegabytes(100).toBytes(), 1L);
+
+        // 调用，并断言
+        assertServiceException(() -> uploadService.initUpload(reqVO), HADOOP_UPLOAD_CHUNK_SIZE_INVALID,
+                1L, "小于最小分片大小 " + DataSize.ofMegabytes(1));
+        verifyNoInteractions(uploadSessionMapper);
+    }
+
+    @Test
+    public void testInitUpload_chunkCountTooMany() {
+        // 准备参数：按最大分片大小，也超过最大分片数
+        long chunkSize = DataSize.ofMegabytes(64).toBytes();
+        HadoopUploadInitReqVO reqVO = buildInitReqVO(chunkSize * 10000 + 1, chunkSize);
+
+        // 调用，并断言
+        assertServiceException(() -> uploadService.initUpload(reqVO), HADOOP_UPLOAD_CHUNK_SIZE_INVALID,
+                chunkSize, "分片数 10001 超过上限 10000，请增大分片大小");
+        verifyNoInteractions(hadoopUserUsageService, uploadSessionMapper);
+    }
+
+    @Test
+    public void testCompleteUpload_success() throws Exception {
+        // mock 数据：10 字节，3 个分片
+        mockSession(3);
+        when(uploadSessionMapper.updateByIdAndStatus(eq(100L), anyInt(), any(HadoopUploadSessionDO.class))).thenReturn(1);
+        when(hdfsClient.getFileInfo(eq("/.upload/100/0"))).thenReturn(buildFileInfo(4), buildFileInfo(10));
+        // mock 方法：合并后的文件登记为文件内容
+        when(hadoopFileBlobService.createBlob(eq("/.upload/100/0"), eq(10L))).thenReturn(buildBlob());
+        // mock 方法：插入时存在同名文件，自动重命名
+        when(hadoopFileService.insertHadoopFile(any(HadoopFileDO.class))).thenAnswer(invocation -> {
+            HadoopFileDO file = invocation.getArgument(0);
+            file.setId(200L).setName("a(1).txt");
+            return 200L;
+        });
+
+        // 调用
+        Long fileId = uploadService.completeUpload(100L);
+        // 断言：合并分片
+        assertEquals(200L, fileId);
+        verify(uploadSessionMapper).updateByIdAndStatus(eq(100L), eq(HadoopUploadStatusEnum.UPLOADING.getStatus()),
+                argThat(session -> HadoopUploadStatusEnum.COMPLETING.getStatus().equals(session.getStatus())));
+        verify(hdfsClient).concat(eq("/.upload/100/0"), eq(Arrays.asList("/.upload/100/1", "/.upload/100/2")));
+        // 断言：按内容去重存储，不再移动到用户目录下
+        verify(hadoopFileService).insertHadoopFile(argThat(file -> "/docs".equals(file.getCatalogue()) && 10L == file.getSize()
+                && FileTypeEnum.DOCUMENT.getType().equals(file.getType())
+                && file.getBlobId() == 300L && SHA256.equals(file.getSha256())));
+        verify(hdfsClient, never()).mv(anyString(), anyString());
+        // 断言：清理分片，标记完成
+        verify(hdfsClient).delete(eq("/.upload/100"), eq(true));
+        verify(uploadSessionMapper).updateById(argThat((HadoopUploadSessionDO session) -> session.getId() == 100L
+                && HadoopUploadStatusEnum.COMPLETED.getStatus().equals(session.getStatus())
+                && session.getFileId() == 200L));
+        verify(uploadChunkMapper).deleteBySessionId(eq(100L));
+    }
+
+    @Test
+    public void testCompleteUpload_alreadyMerged() throws Exception {
+        // mock 数据：上次合并成功、但后续步骤失败，分片 0 已是完整文件
+        mockSession(3);
+        when(uploadSessionMapper.updateByIdAndStatus(eq(100L), anyInt(), any(HadoopUploadSessionDO.class))).thenReturn(1);
+        when(hdfsClient.getFileInfo(eq("/.upload/100/0"))).thenReturn(buildFileInfo(10));
+        when(hadoopFileBlobService.createBlob(eq("/.upload/100/0"), eq(10L))).thenReturn(buildBlob());
+        when(hadoopFileService.insertHadoopFile(any(HadoopFileDO.class))).thenAnswer(invocation -> {
+            HadoopFileDO file = invocation.getArgument(0);
+            file.setId(200L);
+            return 200L;
+        });
+
+        // 调用
+        assertEquals(200L, uploadService.completeUpload(100L));
+        // 断言：不再重复合并
+        verify(hdfsClient, never()).concat(anyString(), anyList());
+    }
+
+    @Test
+    public void testCompleteUpload_chunkMissing() {
+        // mock 数据：还有 1 个分片未上传
+        mockSession(2);
+
+        // 调用，并断言
+        assertServiceException(() -> uploadService.completeUpload(100L), HADOOP_UPLOAD_CHUNK_MISSING, 1);
+        verify(uploadSessionMapper, never()).updateByIdAndStatus(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    public void testCompleteUpload_concurrent() {
+        // mock 数据：其它请求已切换为合并中
+        mockSession(3);
+        when(uploadSessionMapper.updateByIdAndStatus(eq(100L), eq(HadoopUploadStatusEnum.UPLOADING.getStatus()),
+                any(HadoopUploadSessionDO.class))).thenReturn(0);
+
+        // 调用，并断言
+        assertServiceException(() -> uploadService.completeUpload(100L), HADOOP_UPLOAD_STATUS_INVALID);
+        verifyNoInteractions(hdfsClient, hadoopFileService, hadoopFileBlobService);
+    }
+
+    @Test
+    public void testCompleteUpload_sizeMismatch() throws Exception {
+        // mock 数据：合并后大小不一致
+        mockSession(3);
+        when(uploadSessionMapper.updateByIdAndStatus(eq(100L), anyInt(), any(HadoopUploadSessionDO.class))).thenReturn(1);
+        when(hdfsClient.getFileInfo(eq("/.upload/100/0"))).thenReturn(buildFileInfo(4), buildFileInfo(9));
+
+        // 调用，并断言
+        assertServiceException(() -> uploadService.completeUpload(100L), HADOOP_UPLOAD_FAIL);
+        // 断言：未登记内容、未插入文件记录，回退为上传中，允许客户端重试
+        verifyNoInteractions(hadoopFileService, hadoopFileBlobService);
+        verify(uploadSessionMapper).updateByIdAndStatus(eq(100L), eq(HadoopUploadStatusEnum.COMPLETING.getStatus()),
+                argThat(session -> HadoopUploadStatusEnum.UPLOADING.getStatus().equals(session.getStatus())));
+        verify(hdfsClient, never()).delete(anyString(), anyBoolean());
+    }
+
+    @Test
+    public void testCompleteUpload_createBlobFail() throws Exception {
+        // mock 数据
+        mockSession(3);
+        when(uploadSessionMapper.updateByIdAndStatus(eq(100L), anyInt(), any(HadoopUploadSessionDO.class))).thenReturn(1);
+        when(hdfsClient.getFileInfo(eq("/.upload/100/0"))).thenReturn(buildFileInfo(10));
+        // mock 方法：读取合并后的文件失败，文件仍在
+        when(hadoopFileBlobService.createBlob(eq("/.upload/100/0"), eq(10L))).thenThrow(exception(HADOOP_UPLOAD_FAIL));
+        when(hdfsClient.exists(eq("/.upload/100/0"))).thenReturn(true);
+
+        // 调用，并断言
+        assertServiceException(() -> uploadService.completeUpload(100L), HADOOP_UPLOAD_FAIL);
+        // 断言：回退为上传中，保留分片，客户端可以直接重试
+        verifyNoInteractions(hadoopFileService);
+        verify(uploadSessionMapper).updateByIdAndStatus(eq(100L), eq(HadoopUploadStatusEnum.COMPLETING.getStatus()),
+                argThat(session -> HadoopUploadStatusEnum.UPLOADING.getStatus().equals(session.getStatus())));
+        verify(hdfsClient, never()).delete(anyString(), anyBoolean());
+        verify(uploadChunkMapper, never()).deleteBySessionId(anyLong());
+    }
+
+    @Test
+    public void testCompleteUpload_insertFail() throws Exception {
+        // mock 数据
+        mockSession(3);
+        when(uploadSessionMapper.updateByIdAndStatus(eq(100L), anyInt(), any(HadoopUploadSessionDO.class))).thenReturn(1);
+        when(hdfsClient.getFileInfo(eq("/.upload/100/0"))).thenReturn(buildFileInfo(10));
+        when(hadoopFileBlobService.createBlob(eq("/.upload/100/0"), eq(10L))).thenReturn(buildBlob());
+        // mock 方法：上传期间父目录被删除，合并后的文件已登记为文件内容
+        when(hadoopFileService.insertHadoopFile(any(HadoopFileDO.class))).thenThrow(exception(HADOOP_FILE_PARENT_NOT_EXISTS));
+        when(hdfsClient.exists(eq("/.upload/100/0"))).thenReturn(false);
+
+        // 调用，并断言
+        assertServiceException(() -> uploadService.completeUpload(100L), HADOOP_FILE_PARENT_NOT_EXISTS);
+        // 断言：释放文件内容的引用
+        verify(hadoopFileBlobService).releaseBlob(eq(300L));
+        // 断言：回退为上传中，分片已不可用，清空分片记录
+        verify(uploadSessionMapper).updateByIdAndStatus(eq(100L), eq(HadoopUploadStatusEnum.COMPLETING.getStatus()),
+                argThat(session -> HadoopUploadStatusEnum.UPLOADING.getStatus().equals(session.getStatus())));
+        verify(uploadChunkMapper).deleteBySessionId(eq(100L));
+    }
+
+    private static HadoopUploadInitReqVO buildInitReqVO(Long fileSize, Long chunkSize) {
+        HadoopUploadInitReqVO reqVO = new HadoopUploadInitReqVO();
+        reqVO.setName("a.mp4");
+        reqVO.setCatalogue("/docs");
+        reqVO.setFileSize(fileSize);
+        reqVO.setChunkSize(chunkSize);
+        return reqVO;
+    }
+
+    /**
+     * mock 上传任务：10 字节，每个分片 4 字节，共 3 个分片
+     *
+     * @param uploadedCount 已上传的分片数
+     */
+    private void mockSession(int uploadedCount) {
+        HadoopUploadSessionDO session = HadoopUploadSessionDO.builder().id(100L).name("a.txt").catalogue("/docs")
+                .type(FileTypeEnum.DOCUMENT.getType()).fileSize(10L).chunkSize(4L).chunkCount(3)
+                .status(HadoopUploadStatusEnum.UPLOADING.getStatus()).build();
+        session.setCreator("1");
+        when(uploadSessionMapper.selectById(eq(100L))).thenReturn(session);
+        List<HadoopUploadChunkDO> chunks = new ArrayList<>();
+        for (int i = 0; i < uploadedCount; i++) {
+            chunks.add(HadoopUploadChunkDO.builder().sessionId(100L).chunkIndex(i)
+                    .size(HadoopFileUploadServiceImpl.getChunkSize(session, i)).build());
+        }
+        when(uploadChunkMapper.selectListBySessionId(eq(100L))).thenReturn(chunks);
+    }
+
+    private static HadoopFileBlobDO buildBlob() {
+        return HadoopFileBlobDO.builder().id(300L).sha256(SHA256).size(10L).path("/.blob/2c/" + SHA256).refCount(1).build();
+    }
+
+    private static HdfsFileInfo buildFileInfo(long length) {
+        return new HdfsFileInfo("/.upload/100/0", length, false, 0, "hadoop", "supergroup", "644");
+    }
+
+}
@@ -0,0 +1,216 @@
+package cn.iocoder.yudao.module.system.service.hadoopfile;
+
+import cn.hutool.core.io.IoUtil;
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.system.dal.dataobject.hadoopfile.HadoopFileDO;
+import cn.iocoder.yudao.module.system.dal.mysql.hadoopfile.HadoopFileMapper;
+import cn.iocoder.yudao.module.system.enums.FileTypeEnum;
+import cn.iocoder.yudao.module.system.enums.HadoopFileStatusEnum;
+import cn.iocoder.yudao.module.system.framework.hadoop.config.HadoopProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Spy;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link HadoopFileZipServiceImpl} 的单元测试，覆盖条目展开和压缩包写入
+ *
+ * @author 管理员1
+ */
+public class HadoopFileZipServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private HadoopFileZipServiceImpl hadoopFileZipService;
+
+    @Mock
+    private HadoopFileMapper hadoopFileMapper;
+    @Mock
+    private HadoopFileService hadoopFileService;
+    @Spy
+    private HadoopProperties hadoopProperties = new HadoopProperties();
+
+    @TempDir
+    public Path tempDir;
+
+    @BeforeEach
+    public void setUp() {
+        hadoopProperties.getZip().setPrefetchThreads(2);
+        hadoopFileZipService.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hadoopFileZipService.destroy();
+    }
+
+    // ========== 条目展开 ==========
+
+    @Test
+    public void testGetZipEntries_directory() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // mock 数据：文件夹 docs，以及另一个目录下与其子文件同名的 a.txt
+            HadoopFileDO directory = buildFile(10L, FileTypeEnum.DIRECTORY, "docs", 0L, "/", HadoopFileDO.PARENT_ID_ROOT);
+            HadoopFileDO file = buildFile(20L, FileTypeEnum.DOCUMENT, "a.txt", 1L, "/", HadoopFileDO.PARENT_ID_ROOT);
+            HadoopFileDO sameName = buildFile(21L, FileTypeEnum.DOCUMENT, "a.txt", 1L, "/30/", 30L);
+            when(hadoopFileMapper.selectBatchIds(eq(Arrays.asList(10L, 20L, 21L))))
+                    .thenReturn(Arrays.asList(directory, file, sameName));
+            // mock 数据：子树按层级排序
+            when(hadoopFileMapper.selectListByTreePath(eq("1"), eq("/10/"))).thenReturn(Arrays.asList(
+                    buildFile(11L, FileTypeEnum.DIRECTORY, "sub", 0L, "/10/", 10L),
+                    buildFile(12L, FileTypeEnum.DOCUMENT, "b.txt", 1L, "/10/", 10L),
+                    buildFile(13L, FileTypeEnum.DOCUMENT, "c.txt", 1L, "/10/11/", 11L)));
+
+            // 调用
+            List<HadoopFileZipEntry> entries = hadoopFileZipService.getZipEntries(Arrays.asList(10L, 20L, 21L));
+            // 断言：文件夹展开为整棵子树，同名文件追加 (n) 后缀
+            assertEquals(Arrays.asList("docs/", "docs/sub/", "docs/b.txt", "docs/sub/c.txt", "a.txt", "a (1).txt"),
+                    convertList(entries, HadoopFileZipEntry::getPath));
+        }
+    }
+
+    @Test
+    public void testGetZipEntries_tooMany() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(1L);
+            // mock 数据
+            hadoopProperties.getZip().setMaxEntries(2);
+            HadoopFileDO directory = buildFile(10L, FileTypeEnum.DIRECTORY, "docs", 0L, "/", HadoopFileDO.PARENT_ID_ROOT);
+            when(hadoopFileMapper.selectBatchIds(eq(Collections.singletonList(10L))))
+                    .thenReturn(Collections.singletonList(directory));
+            when(hadoopFileMapper.selectListByTreePath(eq("1"), eq("/10/"))).thenReturn(Arrays.asList(
+                    buildFile(11L, FileTypeEnum.DOCUMENT, "a.txt", 1L, "/10/", 10L),
+                    buildFile(12L, FileTypeEnum.DOCUMENT, "b.txt", 1L, "/10/", 10L)));
+
+            // 调用，并断言
+            assertServiceException(() -> hadoopFileZipService.getZipEntries(Collections.singletonList(10L)),
+                    HADOOP_FILE_ZIP_TOO_MANY, 2);
+        }
+    }
+
+    @Test
+    public void testGetZipEntries_permissionDenied() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock = mockStatic(SecurityFrameworkUtils.class)) {
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(2L);
+            // mock 数据：其他用户的正常文件
+            HadoopFileDO file = buildFile(20L, FileTypeEnum.DOCUMENT, "a.txt", 1L, "/", HadoopFileDO.PARENT_ID_ROOT);
+            when(hadoopFileMapper.selectBatchIds(eq(Collections.singletonList(20L))))
+                    .thenReturn(Collections.singletonList(file));
+
+            // 调用，并断言
+            assertServiceException(() -> hadoopFileZipService.getZipEntries(Collections.singletonList(20L)),
+                    HADOOP_FILE_PERMISSION_DENIED);
+        }
+    }
+
+    // ========== 压缩包写入 ==========
+
+    @Test
+    public void testWriteZip() throws Exception {
+        // 准备参数：可压缩的文本、已压缩的图片、超过预读大小的文件、空文件
+        hadoopProperties.getZip().setReadAheadSize(DataSize.ofKilobytes(1));
+        byte[] text = repeat("hello hadoop\n", 8 * 1024);
+        byte[] image = randomBytes(64 * 1024);
+        HadoopFileDO directory = buildFile(10L, FileTypeEnum.DIRECTORY, "docs", 0L, "/", HadoopFileDO.PARENT_ID_ROOT);
+        HadoopFileDO textFile = buildFile(11L, FileTypeEnum.DOCUMENT, "a.txt", (long) text.length, "/10/", 10L);
+        HadoopFileDO imageFile = buildFile(12L, FileTypeEnum.IMAGE, "b.JPG", (long) image.length, "/10/", 10L);
+        HadoopFileDO emptyFile = buildFile(13L, FileTypeEnum.DOCUMENT, "c.txt", 0L, "/10/", 10L);
+        List<HadoopFileZipEntry> entries = Arrays.asList(new HadoopFileZipEntry("docs/", directory),
+                new HadoopFileZipEntry("docs/a.txt", textFile), new HadoopFileZipEntry("docs/b.JPG", imageFile),
+                new HadoopFileZipEntry("docs/c.txt", emptyFile));
+        // mock 方法
+        when(hadoopFileService.getFileContent(same(textFile), eq(0L), eq((long) text.length)))
+                .thenReturn(new ByteArrayInputStream(text));
+        when(hadoopFileService.getFileContent(same(imageFile), eq(0L), eq((long) image.length)))
+                .thenReturn(new ByteArrayInputStream(image));
+
+        // 调用
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        hadoopFileZipService.writeZip(entries, out);
+        // 断言：条目按顺序写入，内容一致
+        Path zip = Files.write(tempDir.resolve("a.zip"), out.toByteArray());
+        try (ZipFile zipFile = new ZipFile(zip.toFile(), StandardCharsets.UTF_8)) {
+            assertEquals(Arrays.asList("docs/", "docs/a.txt", "docs/b.JPG", "docs/c.txt"),
+                    convertList(Collections.list(zipFile.entries()), ZipEntry::getName));
+            assertArrayEquals(text, readEntry(zipFile, "docs/a.txt"));
+            assertArrayEquals(image, readEntry(zipFile, "docs/b.JPG"));
+            assertArrayEquals(new byte[0], readEntry(zipFile, "docs/c.txt"));
+            // 断言：文本压缩，已压缩的图片不再压缩
+            assertTrue(zipFile.getEntry("docs/a.txt").getCompressedSize() < text.length / 10);
+            assertTrue(zipFile.getEntry("docs/b.JPG").getCompressedSize() >= image.length);
+        }
+        // 断言：空文件不读取 HDFS
+        verify(hadoopFileService, never()).getFileContent(same(emptyFile), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testWriteZip_readFail() {
+        // 准备参数
+        HadoopFileDO file01 = buildFile(11L, FileTypeEnum.DOCUMENT, "a.txt", 5L, "/", HadoopFileDO.PARENT_ID_ROOT);
+        HadoopFileDO file02 = buildFile(12L, FileTypeEnum.DOCUMENT, "b.txt", 5L, "/", HadoopFileDO.PARENT_ID_ROOT);
+        List<HadoopFileZipEntry> entries = Arrays.asList(new HadoopFileZipEntry("a.txt", file01),
+                new HadoopFileZipEntry("b.txt", file02));
+        // mock 方法：第二个文件读取失败
+        when(hadoopFileService.getFileContent(same(file01), eq(0L), eq(5L)))
+                .thenReturn(new ByteArrayInputStream("hello".getBytes()));
+        when(hadoopFileService.getFileContent(same(file02), eq(0L), eq(5L)))
+                .thenThrow(exception(HADOOP_FILE_NOT_EXISTS));
+
+        // 调用，并断言：预读线程中的业务异常，原样抛出
+        assertServiceException(() -> hadoopFileZipService.writeZip(entries, new ByteArrayOutputStream()),
+                HADOOP_FILE_NOT_EXISTS);
+    }
+
+    private static HadoopFileDO buildFile(Long id, FileTypeEnum type, String name, Long size,
+                                          String treePath, Long parentId) {
+        HadoopFileDO file = HadoopFileDO.builder().id(id).type(type.getType()).name(name).size(size)
+                .treePath(treePath).parentId(parentId).status(HadoopFileStatusEnum.NORMAL.getStatus()).build();
+        file.setCreator("1");
+        return file;
+    }
+
+    private static byte[] readEntry(ZipFile zipFile, String name) throws Exception {
+        try (InputStream in = zipFile.getInputStream(zipFile.getEntry(name))) {
+            return IoUtil.readBytes(in);
+        }
+    }
+
+    private static byte[] repeat(String line, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(line);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(1).nextBytes(bytes);
+        return bytes;
+    }
+
+}
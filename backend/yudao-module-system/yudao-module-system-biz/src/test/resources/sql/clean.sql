@@ -31,3 +31,5 @@ DELETE FROM "system_mail_template";
 DELETE FROM "system_mail_log";
 DELETE FROM "system_notify_template";
 DELETE FROM "system_notify_message";
+DELETE FROM "system_hadoop_file_blob";
+DELETE FROM "system_hadoop_file";
@@ -613,3 +613,42 @@ CREATE TABLE IF NOT EXISTS "system_notify_message" (
     "tenant_id" bigint not null default  '0',
     PRIMARY KEY ("id")
 ) COMMENT '站内信消息表';
+
+CREATE TABLE IF NOT EXISTS "system_hadoop_file_blob" (
+    "id" bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    "sha256" varchar(64) NOT NULL,
+    "size" bigint NOT NULL,
+    "path" varchar(255) NOT NULL,
+    "ref_count" int NOT NULL DEFAULT 0,
+    "creator" varchar DEFAULT '',
+    "create_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater" varchar DEFAULT '',
+    "update_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    "deleted" bit NOT NULL DEFAULT FALSE,
+    PRIMARY KEY ("id")
+) COMMENT 'hadoop 文件内容表';
+
+CREATE TABLE IF NOT EXISTS "system_hadoop_file" (
+    "id" bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    "type" tinyint DEFAULT NULL,
+    "name" varchar(500) NOT NULL,
+    "catalogue" varchar(2000) NOT NULL,
+    "parent_id" bigint NOT NULL DEFAULT 0,
+    "depth" int NOT NULL DEFAULT 0,
+    "tree_path" varchar(1024) NOT NULL DEFAULT '/',
+    "status" tinyint NOT NULL DEFAULT 0,
+    "trash_time" datetime DEFAULT NULL,
+    "size" bigint NOT NULL DEFAULT 0,
+    "total_size" bigint NOT NULL DEFAULT 0,
+    "file_count" bigint NOT NULL DEFAULT 0,
+    "dir_count" bigint NOT NULL DEFAULT 0,
+    "sha256" varchar(64) DEFAULT NULL,
+    "blob_id" bigint DEFAULT NULL,
+    "content_modified_time" bigint DEFAULT NULL,
+    "creator" varchar DEFAULT '',
+    "create_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater" varchar DEFAULT '',
+    "update_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    "deleted" bit NOT NULL DEFAULT FALSE,
+    PRIMARY KEY ("id")
+) COMMENT 'hadoop 文件表';
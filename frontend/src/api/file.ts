@@ -13,7 +13,7 @@ export interface FileInfo {
   id: string;
   name: string;
   type: number;
-  size: string;
+  size: number;
   createTime: string;
 }
 
@@ -21,7 +21,6 @@ interface CreateFileParams {
   name: string;
   type: FileType;
   catalogue?: string;
-  size?: string;
   file?: File;
 }
 
@@ -125,6 +124,19 @@ export const downloadFile = (params: {
   );
 };
 
+// 打包下载文件和文件夹，服务端边读取边压缩
+export const downloadZip = (params: {
+  fileIds: string[];
+  name?: string;
+  onDownloadProgress?: (progressEvent: any) => void;
+}) => {
+  return request.get("/admin-api/system/hadoop-file/download-zip", {
+    params: { ids: params.fileIds.join(","), name: params.name },
+    responseType: "blob",
+    onDownloadProgress: params.onDownloadProgress,
+  });
+};
+
 // 分享文件
 export function shareFile(fileId: string) {
   return request.post(`/admin-api/system/hadoop-file/share?id=${fileId}`);
@@ -142,16 +154,28 @@ export function cancelShare(fileId: string) {
   );
 }
 
-// 从回收站恢复文件
-export function restoreFile(fileId: string) {
-  return request.post(
-    `/admin-api/system/hadoop-file/restore?id=${fileId}`
-  );
+// 批量放入回收站
+export function batchDeleteFiles(fileIds: string[]) {
+  return request.post("/admin-api/system/hadoop-file/trash/add", {
+    ids: fileIds,
+  });
 }
 
-// 从回收站永久删除文件
-export function permanentDeleteFile(fileId: string) {
-  return request.delete(
-    `/admin-api/system/hadoop-file/delete?id=${fileId}`
-  );
+// 批量从回收站恢复文件
+export function batchRestoreFiles(fileIds: string[]) {
+  return request.post("/admin-api/system/hadoop-file/trash/restore", {
+    ids: fileIds,
+  });
+}
+
+// 批量从回收站永久删除文件
+export function batchPermanentDeleteFiles(fileIds: string[]) {
+  return request.post("/admin-api/system/hadoop-file/trash/purge", {
+    ids: fileIds,
+  });
+}
+
+// 清空回收站，返回永久删除的文件数
+export function clearRecycleBin() {
+  return request.delete("/admin-api/system/hadoop-file/trash/clear");
 }
@@ -1,5 +1,13 @@
 import React, { useState, useEffect } from "react";
-import { Modal, Table, message, Button, Checkbox, Tree } from "antd";
+import {
+  Modal,
+  Table,
+  message,
+  Button,
+  Checkbox,
+  Tree,
+  Breadcrumb,
+} from "antd";
 import {
   CloudDownloadOutlined,
   FolderOutlined,
@@ -10,6 +18,7 @@ import { FileType, FileTypeMap } from "@/enums/FileTypeEnum";
 import type { FileInfo } from "@/types/file";
 
 import { getFileList } from "@/api/file";
+import { formatFileSize } from "@/utils/format";
 
 interface ShareDownloadModalProps {
   shareKey: string;
@@ -30,6 +39,8 @@ const ShareDownloadModal: React.FC<ShareDownloadModalProps> = ({
   const [folderTree, setFolderTree] = useState<any[]>([]);
   const [targetPath, setTargetPath] = useState<string>("/");
   const [saveLoading, setSaveLoading] = useState(false);
+  // 当前所在的分享文件夹，从外到内；为空时显示分享的顶层文件
+  const [folderPath, setFolderPath] = useState<FileInfo[]>([]);
 
   // 获取文件图标
   const getFileIcon = (type: FileType) => {
@@ -52,11 +63,13 @@ const ShareDownloadModal: React.FC<ShareDownloadModalProps> = ({
   };
 
   // 加载分享文件列表
-  const loadShareFiles = async () => {
+  const loadShareFiles = async (path: FileInfo[] = folderPath) => {
     try {
       setLoading(true);
+      const parent = path[path.length - 1];
       const res = await request.get(
-        `/admin-api/system/hadoop-file/share-link/${shareKey}`
+        `/admin-api/system/hadoop-file/share-link/${shareKey}`,
+        { params: parent ? { parentId: parent.id } : undefined }
       );
       if (res.code === 0 && res.data) {
         setFileList(res.data);
@@ -73,14 +86,20 @@ const ShareDownloadModal: React.FC<ShareDownloadModalProps> = ({
     }
   };
 
-  // 下载单个文件
-  const handleDownload = async (fileName: string) => {
+  // 进入分享的文件夹，或通过面包屑返回上层；path 为空时返回分享的顶层
+  const changeFolder = (path: FileInfo[]) => {
+    setFolderPath(path);
+    setSelectedRowKeys([]);
+    loadShareFiles(path);
+  };
+
+  // 下载单个文件，按编号定位，可以是分享的文件夹下的文件
+  const handleDownload = async (file: FileInfo) => {
+    const fileName = file.name.split("/").pop() || file.name;
     try {
       setDownloadLoading(true);
       const response = await request.get(
-        `/admin-api/system/hadoop-file/download-shared/${shareKey}/${encodeURIComponent(
-          fileName
-        )}`,
+        `/admin-api/system/hadoop-file/download-shared/${shareKey}/${file.id}`,
         {
           responseType: "blob",
           headers: {
@@ -134,13 +153,19 @@ const ShareDownloadModal: React.FC<ShareDownloadModalProps> = ({
 
     try {
       setDownloadLoading(true);
-      const selectedFiles = fileList.filter((file) =>
-        selectedRowKeys.includes(file.id.toString())
+      // 文件夹需要进入后下载其中的文件
+      const selectedFiles = fileList.filter(
+        (file) =>
+          selectedRowKeys.includes(file.id.toString()) &&
+          file.type !== FileType.DIRECTORY
       );
+      if (selectedFiles.length === 0) {
+        message.warning("文件夹请打开后下载其中的文件");
+        return;
+      }
 
       for (const file of selectedFiles) {
-        const fileName = file.name.split("/").pop() || file.name;
-        await handleDownload(fileName);
+        await handleDownload(file);
         // 添加延迟以避免浏览器限制
         await new Promise((resolve) => setTimeout(resolve, 1000));
       }
@@ -208,7 +233,18 @@ const ShareDownloadModal: React.FC<ShareDownloadModalProps> = ({
               onClick={(e) => e.stopPropagation()}
               disabled={downloadLoading}
             />
-            <div className="file-name-content">
+            <div
+              className="file-name-content"
+              style={
+                record.type === FileType.DIRECTORY
+                  ? { cursor: "pointer" }
+                  : undefined
+              }
+              onClick={() =>
+                record.type === FileType.DIRECTORY &&
+                changeFolder([...folderPath, record])
+              }
+            >
               {getFileIcon(record.type)}
               <span className="file-name-text">{fileName}</span>
             </div>
@@ -228,25 +264,33 @@ const ShareDownloadModal: React.FC<ShareDownloadModalProps> = ({
       dataIndex: "size",
       key: "size",
       width: 120,
-      render: (size: string | null) => (size ? `${size} MB` : "-"),
+      render: (size: number | null) => (size ? formatFileSize(size) : "-"),
     },
     {
       title: <span className="column-title">操作</span>,
       key: "action",
       width: 100,
-      render: (_: any, record: FileInfo) => (
-        <Button
-          type="link"
-          className="download-btn"
-          icon={<CloudDownloadOutlined />}
-          onClick={() =>
-            handleDownload(record.name.split("/").pop() || record.name)
-          }
-          disabled={downloadLoading}
-        >
-          下载
-        </Button>
-      ),
+      render: (_: any, record: FileInfo) =>
+        record.type === FileType.DIRECTORY ? (
+          <Button
+            type="link"
+            icon={<FolderOutlined />}
+            onClick={() => changeFolder([...folderPath, record])}
+            disabled={downloadLoading}
+          >
+            打开
+          </Button>
+        ) : (
+          <Button
+            type="link"
+            className="download-btn"
+            icon={<CloudDownloadOutlined />}
+            onClick={() => handleDownload(record)}
+            disabled={downloadLoading}
+          >
+            下载
+          </Button>
+        ),
     },
   ];
 
@@ -424,7 +468,8 @@ const ShareDownloadModal: React.FC<ShareDownloadModalProps> = ({
 
   useEffect(() => {
     if (visible && shareKey) {
-      loadShareFiles();
+      setFolderPath([]);
+      loadShareFiles([]);
       setSelectedRowKeys([]); // 重置选择状态
     }
   }, [visible, shareKey]);
@@ -440,6 +485,19 @@ const ShareDownloadModal: React.FC<ShareDownloadModalProps> = ({
         destroyOnClose
         className="share-download-modal"
       >
+        <Breadcrumb style={{ marginBottom: 12 }}>
+          <Breadcrumb.Item onClick={() => changeFolder([])}>
+            <span style={{ cursor: "pointer" }}>全部文件</span>
+          </Breadcrumb.Item>
+          {folderPath.map((folder, index) => (
+            <Breadcrumb.Item
+              key={folder.id}
+              onClick={() => changeFolder(folderPath.slice(0, index + 1))}
+            >
+              <span style={{ cursor: "pointer" }}>{folder.name}</span>
+            </Breadcrumb.Item>
+          ))}
+        </Breadcrumb>
         <Table
           columns={columns}
           dataSource={fileList}
@@ -61,8 +61,11 @@ export const SHARE_CONSTANTS = {
     INVALID_LINK: "请确认分享链接是否完整，或者该分享可能已经被取消。",
   },
   API_ENDPOINTS: {
-    GET_SHARE_FILES: (shareKey: string) => `/admin-api/system/hadoop-file/share-link/${shareKey}`,
-    DOWNLOAD_SHARED: (shareKey: string, fileName: string) => 
-      `/admin-api/system/hadoop-file/download-shared/${shareKey}/${fileName}`,
+    // parentId 为分享中的文件夹编号，为空时获取分享的顶层文件
+    GET_SHARE_FILES: (shareKey: string, parentId?: number) =>
+      `/admin-api/system/hadoop-file/share-link/${shareKey}` +
+      (parentId ? `?parentId=${parentId}` : ""),
+    DOWNLOAD_SHARED: (shareKey: string, fileId: number) =>
+      `/admin-api/system/hadoop-file/download-shared/${shareKey}/${fileId}`,
   },
 } as const;
\ No newline at end of file
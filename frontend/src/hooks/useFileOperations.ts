@@ -13,15 +13,19 @@ import {
   moveFile,
   createFile,
   getFileList,
-  restoreFile,
-  permanentDeleteFile,
+  batchDeleteFiles,
+  batchRestoreFiles,
+  batchPermanentDeleteFiles,
+  clearRecycleBin,
 } from "@/api/file";
 import request from "@/utils/request";
 import { useUploadStore } from "@/store/uploadStore";
 import { useDownloadStore } from "@/store/downloadStore";
 import { getFileTypeByExt, FileType } from "@/enums/FileTypeEnum";
 import { generateStatsMessage, calculateTaskStats } from "@/utils/fileUtils";
+import { formatFileSize } from "@/utils/format";
 import { FileInfo } from "@/types/file";
+import type { DownloadTask } from "@/types/download";
 import type { RcFile } from "antd/lib/upload";
 
 interface UseFileOperationsProps {
@@ -112,7 +116,6 @@ export const useFileOperations = ({
         formData.append("name", file.name);
         formData.append("type", fileTypeEnum.toString());
         formData.append("catalogue", currentPath);
-        formData.append("size", (file.size / (1024 * 1024)).toFixed(2));
 
         // 上传文件
         const res = await createFile(formData, {
@@ -169,54 +172,13 @@ export const useFileOperations = ({
       setActionLoading(true);
       let newTaskIds: string[] = [];
 
-      // 检查是否为文件夹
+      // 检查是否为文件夹，文件夹打包为一个 zip 下载
       if (Number(record.type) === FileType.DIRECTORY) {
-        console.log(`📁 开始下载文件夹: ${record.name}`);
-        
-        // 获取文件夹路径
-        const directoryPath = currentPath === "/" 
-          ? `/${record.name}` 
-          : `${currentPath}/${record.name}`;
-        
-        // 递归获取文件夹中的所有文件
-        const allFiles = await getAllFilesInDirectory(directoryPath, record.name);
-        
-        if (allFiles.length === 0) {
-          message.warning(`文件夹 ${record.name} 中没有可下载的文件`);
-          setActionLoading(false);
-          return;
-        }
-
-        console.log(`📊 文件夹 ${record.name} 包含 ${allFiles.length} 个文件`);
-        message.info(`开始下载文件夹 ${record.name}，共 ${allFiles.length} 个文件...`);
-
-        // 为所有文件创建下载任务
-        const tasks = allFiles.map((file) => {
-          const taskId = `${file.name}-${Date.now()}-${Math.random()}`;
-          return {
-            id: taskId,
-            fileId: file.id.toString(),
-            file: {
-              name: file.name,
-              size: parseFloat(file.size || "0"),
-              type: file.type,
-            },
-            status: "pending" as const,
-            progress: 0,
-            error: undefined,
-            elapsedSeconds: 0,
-            sizeInBytes: parseFloat(file.size || "0"),
-            createTime: Date.now(),
-            originalSize: (file.size && file.size.trim() !== "" && file.size !== "0") 
-              ? file.size 
-              : `${(parseFloat(file.size || "0") / (1024 * 1024)).toFixed(2)} MB`,
-            deleteTask: () => downloadStore.removeTask(taskId),
-          };
-        });
-
-        // 添加任务到下载队列
-        downloadStore.addTasks(tasks);
-        newTaskIds = tasks.map(task => task.id);
+        console.log(`📁 开始打包下载文件夹: ${record.name}`);
+        const task = createZipTask([record.id.toString()], `${record.name}.zip`,
+          record.totalSize || 0);
+        downloadStore.addTasks([task]);
+        newTaskIds = [task.id];
 
       } else {
         console.log(`📄 开始下载单个文件: ${record.name}`);
@@ -228,18 +190,16 @@ export const useFileOperations = ({
           fileId: record.id.toString(),
           file: {
             name: record.name,
-            size: parseFloat(record.size || "0"),
+            size: record.size || 0,
             type: record.type,
           },
           status: "pending" as const,
           progress: 0,
           error: undefined,
           elapsedSeconds: 0,
-          sizeInBytes: parseFloat(record.size || "0"),
+          sizeInBytes: record.size || 0,
           createTime: Date.now(),
-          originalSize: (record.size && record.size.trim() !== "" && record.size !== "0") 
-            ? record.size 
-            : `${(parseFloat(record.size || "0") / (1024 * 1024)).toFixed(2)} MB`,
+          originalSize: formatFileSize(record.size || 0),
           deleteTask: () => downloadStore.removeTask(taskId),
         };
 
@@ -268,89 +228,51 @@ export const useFileOperations = ({
       message.error(`下载失败: ${error instanceof Error ? error.message : "未知错误"}`);
       setActionLoading(false);
     }
-  }, [downloadStore, currentPath, onTabChange, navigate]);
-
-  // 递归获取文件夹中的所有文件
-  const getAllFilesInDirectory = async (
-    directoryPath: string,
-    directoryName: string = ""
-  ): Promise<FileInfo[]> => {
-    const allFiles: FileInfo[] = [];
-    
-    try {
-      console.log(`🔍 正在获取文件夹内容: ${directoryPath}`);
-      
-      let currentPage = 1;
-      let hasMoreData = true;
-      const pageSize = 100; // 服务器限制最大值为100
-      
-      // 分页获取所有文件
-      while (hasMoreData) {
-        console.log(`📄 获取第 ${currentPage} 页，每页 ${pageSize} 条`);
-        
-        const res = await getFileList({
-          catalogue: directoryPath,
-          pageSize: pageSize,
-          pageNo: currentPage,
-        });
+  }, [downloadStore, onTabChange, navigate]);
+
+  // 创建打包下载任务
+  const createZipTask = (fileIds: string[], name: string, size: number) => {
+    const taskId = `${name}-${Date.now()}-${Math.random()}`;
+    return {
+      id: taskId,
+      fileId: fileIds[0],
+      zipFileIds: fileIds,
+      file: {
+        name,
+        size,
+        type: FileType.DIRECTORY,
+      },
+      status: "pending" as const,
+      progress: 0,
+      error: undefined,
+      elapsedSeconds: 0,
+      sizeInBytes: size,
+      createTime: Date.now(),
+      originalSize: formatFileSize(size),
+      deleteTask: () => downloadStore.removeTask(taskId),
+    };
+  };
 
-        console.log(`📡 第${currentPage}页 API响应:`, {
-          code: res.code,
-          hasData: !!res.data,
-          total: res.data ? (res.data as any).total : 0,
-          listLength: res.data ? ((res.data as any).list || []).length : 0
-        });
+  // 添加任务到下载队列，跳转到正在下载页面后开始下载
+  const startDownloadTasks = (tasks: DownloadTask[]) => {
+    downloadStore.addTasks(tasks);
 
-        if (res.code === 0 && res.data) {
-          const files = (res.data as any).list || [];
-          const total = (res.data as any).total || 0;
-          
-          console.log(`📁 文件夹 ${directoryPath} 第${currentPage}页包含 ${files.length} 个项目，总计 ${total} 个`);
-          
-          for (const file of files) {
-            console.log(`🔍 处理项目: ${file.name}, 类型: ${file.type}`);
-            
-            if (Number(file.type) === FileType.DIRECTORY) {
-              // 如果是文件夹，递归获取子文件
-              const subPath = directoryPath === "/" 
-                ? `/${file.name}` 
-                : `${directoryPath}/${file.name}`;
-              console.log(`🔄 递归处理子文件夹: ${subPath}`);
-              const subFiles = await getAllFilesInDirectory(subPath, file.name);
-              allFiles.push(...subFiles);
-            } else {
-              // 如果是文件，直接添加到列表
-              const fileToAdd = {
-                ...file,
-                // 为子文件夹中的文件添加路径前缀，便于识别
-                name: directoryName ? `${directoryName}/${file.name}` : file.name,
-              };
-              console.log(`✅ 添加文件到下载列表:`, fileToAdd);
-              allFiles.push(fileToAdd);
-            }
-          }
-          
-          // 检查是否还有更多数据
-          const currentTotal = currentPage * pageSize;
-          hasMoreData = files.length === pageSize && currentTotal < total;
-          currentPage++;
-          
-          console.log(`📊 当前已处理 ${currentTotal} 个，总计 ${total} 个，还有更多数据: ${hasMoreData}`);
-        } else {
-          console.log(`❌ API调用失败或无数据: code=${res.code}, msg=${res.msg}`);
-          hasMoreData = false;
-        }
-      }
-    } catch (error) {
-      console.error(`❌ 获取文件夹 ${directoryPath} 内容失败:`, error);
-      throw error;
+    // 自动跳转到正在下载页面
+    if (onTabChange) {
+      onTabChange(4);
     }
+    navigate("/download/downloading");
+    setActionLoading(false);
 
-    console.log(`📊 文件夹 ${directoryPath} 最终返回 ${allFiles.length} 个文件`);
-    return allFiles;
-  };
-
+    // 立即将新任务设为暂停状态
+    const newTaskIds = tasks.map(task => task.id);
+    downloadStore.pauseTasksByIds(newTaskIds);
 
+    // 1秒后开始下载这些新任务
+    setTimeout(() => {
+      downloadStore.resumeTasksByIds(newTaskIds);
+    }, 1000);
+  };
 
   // 批量下载 - 重写为简单直接的逻辑
   const handleBatchDownload = useCallback(async (selectedRowKeys: string[], onComplete?: () => void) => {
@@ -411,75 +333,48 @@ export const useFileOperations = ({
 
       console.log('📄 普通文件数量:', regularFiles.length);
       console.log('📂 文件夹数量:', directories.length);
-      
-      // 获取文件夹中的所有文件
-      const allFiles: FileInfo[] = [...regularFiles];
-      
-      for (const directory of directories) {
-        try {
-          const directoryPath = currentPath === "/" 
-            ? `/${directory.name}` 
-            : `${currentPath}/${directory.name}`;
-          
-          const filesInDirectory = await getAllFilesInDirectory(directoryPath, directory.name);
-          console.log(`📄 文件夹 ${directory.name} 中找到 ${filesInDirectory.length} 个文件`);
-          allFiles.push(...filesInDirectory);
-        } catch (error) {
-          console.error(`❌ 获取文件夹 ${directory.name} 内容失败:`, error);
-          message.error(`获取文件夹 ${directory.name} 内容失败`);
-        }
-      }
 
-      if (allFiles.length === 0) {
-        message.error("选中的文件夹中没有可下载的文件");
+      // 选中了文件夹时，全部选中的文件打包为一个 zip 下载
+      if (directories.length > 0) {
+        const name = allSelectedFiles.length === 1
+          ? `${directories[0].name}.zip`
+          : `${directories[0].name}等${allSelectedFiles.length}个文件.zip`;
+        const size = allSelectedFiles.reduce((sum, file) =>
+          sum + ((Number(file.type) === FileType.DIRECTORY ? file.totalSize : file.size) || 0), 0);
+        const task = createZipTask(allSelectedFiles.map(file => file.id.toString()), name, size);
+        message.info(`开始打包下载 ${allSelectedFiles.length} 个文件...`);
+        startDownloadTasks([task]);
+        onComplete?.();
         return;
       }
 
-      console.log(`📊 开始下载 ${allFiles.length} 个文件`);
-      message.info(`开始下载 ${allFiles.length} 个文件...`);
+      console.log(`📊 开始下载 ${regularFiles.length} 个文件`);
+      message.info(`开始下载 ${regularFiles.length} 个文件...`);
 
       // 创建下载任务（仅用于UI显示）
-      const tasks = allFiles.map((file) => {
+      const tasks = regularFiles.map((file) => {
         const taskId = `${file.name}-${Date.now()}-${Math.random()}`;
         return {
           id: taskId,
           fileId: file.id.toString(), // 添加真实的文件ID
           file: {
             name: file.name,
-            size: parseFloat(file.size || "0"),
+            size: file.size || 0,
             type: file.type,
           },
           status: "pending" as const,
           progress: 0,
           error: undefined,
           elapsedSeconds: 0,
-          sizeInBytes: parseFloat(file.size || "0"),
+          sizeInBytes: file.size || 0,
           createTime: Date.now(),
-          originalSize: (file.size && file.size.trim() !== "" && file.size !== "0") 
-            ? file.size 
-            : `${(parseFloat(file.size || "0") / (1024 * 1024)).toFixed(2)} MB`,
+          originalSize: formatFileSize(file.size || 0),
           deleteTask: () => downloadStore.removeTask(taskId),
         };
       });
 
       // 添加任务到下载队列（用于UI显示）
-      downloadStore.addTasks(tasks);
-
-      // 自动跳转到正在下载页面
-      if (onTabChange) {
-        onTabChange(4);
-      }
-      navigate("/download/downloading");
-      setActionLoading(false);
-
-      // 立即将新任务设为暂停状态
-      const newTaskIds = tasks.map(task => task.id);
-      downloadStore.pauseTasksByIds(newTaskIds);
-
-      // 1秒后开始下载这些新任务
-      setTimeout(() => {
-        downloadStore.resumeTasksByIds(newTaskIds);
-      }, 1000);
+      startDownloadTasks(tasks);
       
       // 下载完成后清除选择状态
       onComplete?.();
@@ -593,16 +488,14 @@ export const useFileOperations = ({
 
     try {
       setActionLoading(true);
-      for (const id of selectedRowKeys) {
-        const res = await deleteFile(id);
-        if (res.code !== 0) {
-          message.error(`移动文件(ID: ${id})到回收站失败: ${res.msg}`);
-        }
+      const res = await batchDeleteFiles(selectedRowKeys);
+      if (res.code === 0) {
+        message.success("已批量移动到回收站");
+        onRefresh();
+        onComplete?.(); // 清除选择状态
+      } else {
+        message.error(res.msg || "批量移动到回收站失败");
       }
-
-      message.success("已批量移动到回收站");
-      onRefresh();
-      onComplete?.(); // 清除选择状态
     } catch (error) {
       message.error("批量移动到回收站失败");
       console.error("Batch delete error:", error);
@@ -620,15 +513,14 @@ export const useFileOperations = ({
 
     try {
       setActionLoading(true);
-      for (const id of selectedRowKeys) {
-        const res = await restoreFile(id);
-        if (res.code !== 0) {
-          message.error(`恢复文件(ID: ${id})失败: ${res.msg || ''}`);
-        }
+      const res = await batchRestoreFiles(selectedRowKeys);
+      if (res.code === 0) {
+        message.success("恢复完成");
+        onRefresh();
+        onComplete?.(); // 清除选择状态
+      } else {
+        message.error(res.msg || "批量恢复失败");
       }
-      message.success("恢复完成");
-      onRefresh();
-      onComplete?.(); // 清除选择状态
     } catch (error) {
       message.error("批量恢复失败");
       console.error("Batch restore error:", error);
@@ -653,15 +545,14 @@ export const useFileOperations = ({
       onOk: async () => {
         try {
           setActionLoading(true);
-          for (const id of selectedRowKeys) {
-            const res = await permanentDeleteFile(id);
-            if (res.code !== 0) {
-              message.error(`永久删除文件(ID: ${id})失败: ${res.msg || ''}`);
-            }
+          const res = await batchPermanentDeleteFiles(selectedRowKeys);
+          if (res.code === 0) {
+            message.success("永久删除完成");
+            onRefresh();
+            onComplete?.(); // 清除选择状态
+          } else {
+            message.error(res.msg || "批量永久删除失败");
           }
-          message.success("永久删除完成");
-          onRefresh();
-          onComplete?.(); // 清除选择状态
         } catch (error) {
           message.error("批量永久删除失败");
           console.error("Batch permanent delete error:", error);
@@ -672,6 +563,35 @@ export const useFileOperations = ({
     });
   }, [onRefresh]);
 
+  // 清空回收站
+  const handleClearRecycleBin = useCallback((onComplete?: () => void) => {
+    Modal.confirm({
+      title: "确认清空回收站",
+      content: "回收站中的全部文件将被永久删除，该操作不可恢复，确定要清空吗？",
+      okText: "清空",
+      okType: "danger",
+      cancelText: "取消",
+      onOk: async () => {
+        try {
+          setActionLoading(true);
+          const res = await clearRecycleBin();
+          if (res.code === 0) {
+            message.success(`已永久删除 ${res.data} 个文件`);
+            onRefresh();
+            onComplete?.(); // 清除选择状态
+          } else {
+            message.error(res.msg || "清空回收站失败");
+          }
+        } catch (error) {
+          message.error("清空回收站失败");
+          console.error("Clear recycle bin error:", error);
+        } finally {
+          setActionLoading(false);
+        }
+      },
+    });
+  }, [onRefresh]);
+
   // 文件重命名
   const handleRename = useCallback(async (fileId: string, newName: string) => {
     try {
@@ -753,6 +673,7 @@ export const useFileOperations = ({
     handleBatchDelete,
     handleBatchRestore,
     handleBatchPermanentDelete,
+    handleClearRecycleBin,
     handleRename,
     handleMove,
     handleCreateFolder,
@@ -8,23 +8,31 @@ interface UseShareFilesResult {
   loading: boolean;
   fileList: FileInfo[];
   error: string | null;
-  handleDownload: (fileName: string) => Promise<void>;
+  // 当前所在的分享文件夹，从外到内
+  folderPath: FileInfo[];
+  handleDownload: (file: FileInfo) => Promise<void>;
   loadShareFiles: () => Promise<void>;
+  openFolder: (folder: FileInfo) => void;
+  backToFolder: (index: number) => void;
 }
 
 export const useShareFiles = (shareKey?: string): UseShareFilesResult => {
   const [loading, setLoading] = useState(false);
   const [fileList, setFileList] = useState<FileInfo[]>([]);
   const [error, setError] = useState<string | null>(null);
+  const [folderPath, setFolderPath] = useState<FileInfo[]>([]);
 
-  // 加载分享文件列表
-  const loadShareFiles = async () => {
+  // 加载分享文件列表，path 为空时加载分享的顶层文件
+  const loadShareFiles = async (path: FileInfo[] = folderPath) => {
     if (!shareKey) return;
 
     try {
       setLoading(true);
       setError(null);
-      const res = await request.get(SHARE_CONSTANTS.API_ENDPOINTS.GET_SHARE_FILES(shareKey));
+      const parent = path[path.length - 1];
+      const res = await request.get(
+        SHARE_CONSTANTS.API_ENDPOINTS.GET_SHARE_FILES(shareKey, parent?.id)
+      );
       
       if (res.code === 0 && res.data) {
         setFileList(res.data);
@@ -43,13 +51,28 @@ export const useShareFiles = (shareKey?: string): UseShareFilesResult => {
     }
   };
 
+  // 进入分享的文件夹
+  const openFolder = (folder: FileInfo) => {
+    const path = [...folderPath, folder];
+    setFolderPath(path);
+    loadShareFiles(path);
+  };
+
+  // 返回上层文件夹，index 为 -1 时返回分享的顶层
+  const backToFolder = (index: number) => {
+    const path = folderPath.slice(0, index + 1);
+    setFolderPath(path);
+    loadShareFiles(path);
+  };
+
   // 下载文件
-  const handleDownload = async (fileName: string) => {
+  const handleDownload = async (file: FileInfo) => {
     if (!shareKey) return;
 
+    const fileName = file.name.split("/").pop() || file.name;
     try {
       const response = await request.get(
-        SHARE_CONSTANTS.API_ENDPOINTS.DOWNLOAD_SHARED(shareKey, fileName),
+        SHARE_CONSTANTS.API_ENDPOINTS.DOWNLOAD_SHARED(shareKey, file.id),
         { responseType: "blob" }
       );
 
@@ -70,7 +93,8 @@ export const useShareFiles = (shareKey?: string): UseShareFilesResult => {
 
   useEffect(() => {
     if (shareKey) {
-      loadShareFiles();
+      setFolderPath([]);
+      loadShareFiles([]);
     }
   }, [shareKey]);
 
@@ -78,7 +102,10 @@ export const useShareFiles = (shareKey?: string): UseShareFilesResult => {
     loading,
     fileList,
     error,
+    folderPath,
     handleDownload,
-    loadShareFiles,
+    loadShareFiles: () => loadShareFiles(),
+    openFolder,
+    backToFolder,
   };
 };
@@ -1,7 +1,7 @@
 import { create } from "zustand";
 import { persist } from "zustand/middleware";
 import { DownloadTask, DownloadStatus } from "../types/download";
-import { downloadFile } from "../api/file";
+import { downloadFile, downloadZip } from "../api/file";
 
 interface DownloadStore {
   tasks: DownloadTask[];
@@ -374,18 +374,25 @@ export const useDownloadStore = create<DownloadStore>()(
         try {
           console.log(`📥 开始下载: ${task.file.name}`);
           
-          // 调用下载接口
-          const response = await downloadFile({
-            fileId: task.fileId, // 使用真实的文件ID
-            onDownloadProgress: (progressEvent) => {
-              if (progressEvent.total) {
-                const progress = Math.round(
-                  (progressEvent.loaded / progressEvent.total) * 100
-                );
-                store.updateTaskProgress(taskId, progress);
-              }
+          const onDownloadProgress = (progressEvent: any) => {
+            if (progressEvent.total) {
+              const progress = Math.round(
+                (progressEvent.loaded / progressEvent.total) * 100
+              );
+              store.updateTaskProgress(taskId, progress);
             }
-          });
+          };
+          // 调用下载接口。打包下载边压缩边返回，没有总大小，只在完成时更新进度
+          const response = task.zipFileIds
+            ? await downloadZip({
+                fileIds: task.zipFileIds,
+                name: task.file.name.replace(/\.zip$/, ""),
+                onDownloadProgress,
+              })
+            : await downloadFile({
+                fileId: task.fileId, // 使用真实的文件ID
+                onDownloadProgress,
+              });
 
           // 检查响应
           if (!response || !response.data) {
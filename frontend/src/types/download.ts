@@ -16,6 +16,7 @@ export type DownloadStatus =
 export interface DownloadTask {
   id: string;
   fileId: string; // 真实的文件ID，用于调用下载接口
+  zipFileIds?: string[]; // 打包下载的文件ID，存在时通过打包下载接口下载，文件夹包含其下全部文件
   file: {
     name: string;
     size: number;
@@ -5,7 +5,11 @@ export interface FileInfo {
   id: number;
   name: string;
   type: FileType;
-  size?: string;
+  size?: number;
+  // 文件夹下整棵子树的大小、文件数、文件夹数
+  totalSize?: number;
+  fileCount?: number;
+  dirCount?: number;
   createTime: string;
   catalogue?: string;
 }
@@ -15,7 +19,7 @@ export interface CreateFileParams {
   name: string;
   type: FileType;
   catalogue?: string;
-  size?: string;
+  size?: number;
 }
 
 // 文件列表请求参数
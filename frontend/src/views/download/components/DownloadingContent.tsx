@@ -304,7 +304,7 @@ const DownloadingContent: React.FC<DownloadingContentProps> = ({ onTabChange })
                   <div className="task-info">
                     <Text>{task.file.name}</Text>
                     <Text className="task-size">
-                      {task.originalSize+"MB" || "-"}
+                      {task.originalSize || "-"}
                     </Text>
                     {getStatusTag(task.status)}
                     {/* 任务控制按钮 */}
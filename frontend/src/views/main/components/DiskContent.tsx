@@ -83,6 +83,7 @@ const DiskContent: React.FC<DiskContentProps> = ({ fileType, onTabChange }) => {
     handleBatchDelete,
     handleBatchRestore,
     handleBatchPermanentDelete,
+    handleClearRecycleBin,
     handleRename,
     handleMove: handleMoveFile,
     handleCreateFolder,
@@ -380,6 +381,7 @@ const DiskContent: React.FC<DiskContentProps> = ({ fileType, onTabChange }) => {
         onBatchDelete={() => handleBatchDelete(selectedRowKeys, clearSelection)}
         onBatchRestore={() => handleBatchRestore(selectedRowKeys, clearSelection)}
         onBatchPermanentDelete={() => handleBatchPermanentDelete(selectedRowKeys, clearSelection)}
+        onClearRecycleBin={() => handleClearRecycleBin(clearSelection)}
         onSearchChange={handleSearchChange}
         onSearch={handleSearch}
         onViewTypeChange={setViewType}
@@ -13,6 +13,7 @@ import {
 import { FileInfo } from "@/types/file";
 import { getFileIcon, formatDateTime } from "@/utils/fileUtils";
 import { FILE_TYPE_CHECKS } from "@/constants/fileConstants";
+import { formatFileSize } from "@/utils/format";
 
 interface FileGridProps {
   fileList: FileInfo[];
@@ -199,7 +200,7 @@ const FileGrid: React.FC<FileGridProps> = ({
             </div>
           )}
           <div className="grid-item-info">
-            <span>{file.size ? `${file.size} MB` : "-"}</span>
+            <span>{file.size ? formatFileSize(file.size) : "-"}</span>
             <span>{formatDateTime(Number(file.createTime))}</span>
           </div>
           {renderFileActions(file)}
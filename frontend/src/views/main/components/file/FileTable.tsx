@@ -15,6 +15,7 @@ import { FileInfo } from "@/types/file";
 import { FileType, FileTypeMap } from "@/enums/FileTypeEnum";
 import { getFileIcon, formatDateTime } from "@/utils/fileUtils";
 import { FILE_TYPE_CHECKS } from "@/constants/fileConstants";
+import { formatFileSize } from "@/utils/format";
 
 interface FileTableProps {
   fileList: FileInfo[];
@@ -264,7 +265,12 @@ const FileTable: React.FC<FileTableProps> = ({
       dataIndex: "size",
       key: "size",
       sorter: true,
-      render: (size: string | null) => (size ? `${size} MB` : "-"),
+      render: (size: number | null, record: FileInfo) =>
+        record.type === FileType.DIRECTORY
+          ? `${formatFileSize(record.totalSize || 0)}（${(record.fileCount || 0) + (record.dirCount || 0)} 项）`
+          : size
+            ? formatFileSize(size)
+            : "-",
     },
     {
       title: "修改日期",
@@ -15,6 +15,7 @@ import {
   AppstoreOutlined,
   BarsOutlined,
   CloseOutlined,
+  ClearOutlined,
 } from "@ant-design/icons";
 import type { RcFile } from "antd/lib/upload";
 import { FileType, FileTypeMap } from "@/enums/FileTypeEnum";
@@ -34,6 +35,7 @@ interface OperationBarProps {
   onBatchRestore?: () => void;
   onBatchCancelShare?: () => void;
   onBatchPermanentDelete?: () => void;
+  onClearRecycleBin?: () => void;
   onSearchChange: (keyword: string) => void;
   onSearch: () => void;
   onViewTypeChange: (type: "list" | "grid") => void;
@@ -53,6 +55,7 @@ const OperationBar: React.FC<OperationBarProps> = ({
   onBatchRestore,
   onBatchCancelShare,
   onBatchPermanentDelete,
+  onClearRecycleBin,
   onSearchChange,
   onSearch,
   onViewTypeChange,
@@ -71,29 +74,39 @@ const OperationBar: React.FC<OperationBarProps> = ({
   const renderLeftButtons = () => {
     if (isRecycleBin) {
       return (
-        hasSelection && (
-          <>
-            <Button
-              type="primary"
-              icon={<UndoOutlined />}
-              onClick={onBatchRestore}
-              disabled={actionLoading}
-              loading={actionLoading}
-            >
-              恢复 {hasSelection && `(${selectedRowKeys.length})`}
-            </Button>
-            <Button
-              type="primary"
-              danger
-              icon={<DeleteOutlined />}
-              onClick={onBatchPermanentDelete}
-              disabled={actionLoading}
-              loading={actionLoading}
-            >
-              永久删除 {hasSelection && `(${selectedRowKeys.length})`}
-            </Button>
-          </>
-        )
+        <>
+          {hasSelection && (
+            <>
+              <Button
+                type="primary"
+                icon={<UndoOutlined />}
+                onClick={onBatchRestore}
+                disabled={actionLoading}
+                loading={actionLoading}
+              >
+                恢复 {hasSelection && `(${selectedRowKeys.length})`}
+              </Button>
+              <Button
+                type="primary"
+                danger
+                icon={<DeleteOutlined />}
+                onClick={onBatchPermanentDelete}
+                disabled={actionLoading}
+                loading={actionLoading}
+              >
+                永久删除 {hasSelection && `(${selectedRowKeys.length})`}
+              </Button>
+            </>
+          )}
+          <Button
+            danger
+            icon={<ClearOutlined />}
+            onClick={onClearRecycleBin}
+            disabled={actionLoading}
+          >
+            清空回收站
+          </Button>
+        </>
       );
     }
 
@@ -1,6 +1,6 @@
 import React from "react";
 import { useParams } from "react-router-dom";
-import { Layout } from "antd";
+import { Breadcrumb, Layout } from "antd";
 import { useShareFiles } from "@/hooks/useShareFiles";
 import ShareErrorContent from "./components/ShareErrorContent";
 import ShareFileTable from "./components/ShareFileTable";
@@ -9,7 +9,15 @@ const { Content } = Layout;
 
 const ShareView: React.FC = () => {
   const { shareKey } = useParams<{ shareKey: string }>();
-  const { loading, fileList, error, handleDownload } = useShareFiles(shareKey);
+  const {
+    loading,
+    fileList,
+    error,
+    folderPath,
+    handleDownload,
+    openFolder,
+    backToFolder,
+  } = useShareFiles(shareKey);
 
   if (error) {
     return <ShareErrorContent error={error} />;
@@ -22,10 +30,21 @@ const ShareView: React.FC = () => {
           <h2>分享文件</h2>
           <p>分享密钥：{shareKey}</p>
         </div>
+        <Breadcrumb className="share-breadcrumb">
+          <Breadcrumb.Item onClick={() => backToFolder(-1)}>
+            <span style={{ cursor: "pointer" }}>全部文件</span>
+          </Breadcrumb.Item>
+          {folderPath.map((folder, index) => (
+            <Breadcrumb.Item key={folder.id} onClick={() => backToFolder(index)}>
+              <span style={{ cursor: "pointer" }}>{folder.name}</span>
+            </Breadcrumb.Item>
+          ))}
+        </Breadcrumb>
         <ShareFileTable
           fileList={fileList}
           loading={loading}
           onDownload={handleDownload}
+          onOpenFolder={openFolder}
         />
       </Content>
     </Layout>
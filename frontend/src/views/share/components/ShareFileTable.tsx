@@ -4,17 +4,21 @@ import { CloudDownloadOutlined } from "@ant-design/icons";
 import { FileType, FileTypeMap } from "@/enums/FileTypeEnum";
 import FileIcon from "@/components/FileIcon";
 import type { FileInfo } from "@/types/file";
+import { formatFileSize } from "@/utils/format";
 
 interface ShareFileTableProps {
   fileList: FileInfo[];
   loading: boolean;
-  onDownload: (fileName: string) => void;
+  onDownload: (file: FileInfo) => void;
+  // 点击文件夹时进入
+  onOpenFolder: (folder: FileInfo) => void;
 }
 
 const ShareFileTable: React.FC<ShareFileTableProps> = ({
   fileList,
   loading,
   onDownload,
+  onOpenFolder,
 }) => {
   const columns = [
     {
@@ -23,9 +27,14 @@ const ShareFileTable: React.FC<ShareFileTableProps> = ({
       key: "name",
       render: (text: string, record: FileInfo) => {
         const fileName = text.split("/").pop() || text;
+        const isDirectory = record.type === FileType.DIRECTORY;
         return (
           <div className="file-name-cell">
-            <div className="file-name-content">
+            <div
+              className="file-name-content"
+              style={isDirectory ? { cursor: "pointer" } : undefined}
+              onClick={() => isDirectory && onOpenFolder(record)}
+            >
               <FileIcon type={record.type} />
               <span className="file-name-text">{fileName}</span>
             </div>
@@ -43,22 +52,25 @@ const ShareFileTable: React.FC<ShareFileTableProps> = ({
       title: "大小",
       dataIndex: "size",
       key: "size",
-      render: (size: string | null) => (size ? `${size} MB` : "-"),
+      render: (size: number | null) => (size ? formatFileSize(size) : "-"),
     },
     {
       title: "操作",
       key: "action",
-      render: (_: any, record: FileInfo) => (
-        <Button
-          type="link"
-          icon={<CloudDownloadOutlined />}
-          onClick={() =>
-            onDownload(record.name.split("/").pop() || record.name)
-          }
-        >
-          下载
-        </Button>
-      ),
+      render: (_: any, record: FileInfo) =>
+        record.type === FileType.DIRECTORY ? (
+          <Button type="link" onClick={() => onOpenFolder(record)}>
+            打开
+          </Button>
+        ) : (
+          <Button
+            type="link"
+            icon={<CloudDownloadOutlined />}
+            onClick={() => onDownload(record)}
+          >
+            下载
+          </Button>
+        ),
     },
   ];
 